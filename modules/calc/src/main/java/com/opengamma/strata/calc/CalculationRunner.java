@@ -7,10 +7,12 @@ package com.opengamma.strata.calc;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationTaskCostModel;
 import com.opengamma.strata.calc.runner.CalculationTaskRunner;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -66,6 +68,33 @@ public interface CalculationRunner extends AutoCloseable {
     return DefaultCalculationRunner.of(executor);
   }
 
+  /**
+   * Creates a multi-threaded calculation runner that executes tasks in batches.
+   * <p>
+   * This is more efficient than {@link #ofMultiThreaded()} when there are a large number of small tasks.
+   * See {@link CalculationTaskRunner#ofBatched()} for more details.
+   * It is recommended to use try-with-resources to manage the runner.
+   *
+   * @return the calculation runner
+   */
+  public static CalculationRunner ofBatched() {
+    return DefaultCalculationRunner.of(CalculationTaskRunner.ofBatched());
+  }
+
+  /**
+   * Creates a calculation runner that executes tasks in batches, specifying the pool and cost model.
+   * <p>
+   * See {@link CalculationTaskRunner#ofBatched(ForkJoinPool, CalculationTaskCostModel)} for more details.
+   * It is the callers responsibility to manage the life-cycle of the pool.
+   *
+   * @param pool  the work-stealing pool to use
+   * @param costModel  the model used to estimate the cost of each task
+   * @return the calculation runner
+   */
+  public static CalculationRunner ofBatched(ForkJoinPool pool, CalculationTaskCostModel costModel) {
+    return DefaultCalculationRunner.of(CalculationTaskRunner.ofBatched(pool, costModel));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
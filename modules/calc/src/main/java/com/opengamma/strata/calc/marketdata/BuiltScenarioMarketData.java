@@ -49,10 +49,12 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * This implementation differs from {@link ImmutableScenarioMarketData} because it
  * stores the failures that occurred during the build process.
  * These errors are exposed to users when data is queried.
+ * <p>
+ * If the market data was built with a {@link MarketDataMemoryBudget}, it should be closed when no longer used.
  */
 @BeanDefinition(builderScope = "private", constructorScope = "package")
 public final class BuiltScenarioMarketData
-    implements ScenarioMarketData, ImmutableBean {
+    implements ScenarioMarketData, ImmutableBean, AutoCloseable {
 
   /** An instance containing no market data. */
   private static final BuiltScenarioMarketData EMPTY = new BuiltScenarioMarketData(
@@ -171,6 +173,27 @@ public final class BuiltScenarioMarketData
     return underlying.getTimeSeries(id);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Closes the market data, deleting any file holding the values moved out of the heap by a memory budget.
+   * <p>
+   * When the market data is built using a {@link MarketDataMemoryBudget}, the values accepted by the
+   * spill policy are held by a store that may write them to a temporary file.
+   * This closes the store, and the values it holds cannot be obtained once closed.
+   * Market data created by {@link MarketDataFactory#updateMultiScenario} shares the store of the
+   * previous market data for the values it reuses, thus closing either closes the store.
+   * <p>
+   * If the market data was not built using a memory budget, this has no effect.
+   */
+  @Override
+  public void close() {
+    underlying.getValues().values().stream()
+        .filter(SpilledMarketDataBox.class::isInstance)
+        .map(box -> ((SpilledMarketDataBox<?>) box).getStore())
+        .distinct()
+        .forEach(MarketDataSpillStore::close);
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code BuiltScenarioMarketData}.
@@ -8,6 +8,7 @@ package com.opengamma.strata.calc.marketdata;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
@@ -128,6 +129,20 @@ final class BuiltScenarioMarketDataBuilder {
     return this;
   }
 
+  /**
+   * Replaces each market data box with the result of a function.
+   * <p>
+   * The function must return a box containing the same data, such as a box whose data is held elsewhere.
+   *
+   * @param fn  the function returning the replacement box for an ID and box
+   * @return this builder
+   */
+  BuiltScenarioMarketDataBuilder replaceBoxes(BiFunction<MarketDataId<?>, MarketDataBox<?>, MarketDataBox<?>> fn) {
+    ArgChecker.notNull(fn, "fn");
+    values.replaceAll(fn);
+    return this;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Adds a result for a single item of market data, replacing any existing value with the same ID.
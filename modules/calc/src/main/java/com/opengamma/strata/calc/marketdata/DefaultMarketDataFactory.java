@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import static com.opengamma.strata.collect.Guavate.join;
 import static com.opengamma.strata.collect.Guavate.not;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
@@ -14,11 +15,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.MapStream;
 import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
@@ -30,6 +36,15 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * The default market data factory.
  * <p>
  * This uses two providers, one for observable data and one for time-series.
+ * <p>
+ * The providers are invoked using an executor, which by default runs them in the calling thread.
+ * If the providers block, for example on a remote cache, a separate executor can be specified
+ * allowing the time-series and observable data to be requested concurrently.
+ * <p>
+ * Market data is built one level of the dependency tree at a time.
+ * The items at each level do not depend on one another, thus they are built using a second executor.
+ * By default this also runs in the calling thread, but a multi-threaded executor can be specified
+ * allowing independent curve groups, surfaces and other data to be built concurrently.
  */
 final class DefaultMarketDataFactory implements MarketDataFactory {
 
@@ -39,6 +54,12 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   /** Provides time-series of observable market data values. */
   private final TimeSeriesProvider timeSeriesProvider;
 
+  /** Invokes the observable data and time-series providers. */
+  private final Executor providerExecutor;
+
+  /** Builds the non-observable market data at each level of the dependency tree. */
+  private final Executor buildExecutor;
+
   /** Market data functions, keyed by the type of the market data ID they can handle. */
   private final Map<Class<? extends MarketDataId<?>>, MarketDataFunction<?, ?>> functions;
 
@@ -52,14 +73,58 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * @param timeSeriesProvider  the provider time-series
    * @param functions  the functions that create the market data
    */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, MoreExecutors.directExecutor(), functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series,
+   * specifying the executor used to invoke the providers.
+   * <p>
+   * The market data functions are used to build the market data.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param providerExecutor  the executor used to invoke the providers
+   * @param functions  the functions that create the market data
+   */
+  DefaultMarketDataFactory(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Executor providerExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    this(observableDataProvider, timeSeriesProvider, providerExecutor, MoreExecutors.directExecutor(), functions);
+  }
+
+  /**
+   * Creates an instance of the factory based on providers of market data and time-series,
+   * specifying the executors used to invoke the providers and to build the market data.
+   * <p>
+   * The market data functions are used to build the market data.
+   *
+   * @param observableDataProvider  the provider observable market data
+   * @param timeSeriesProvider  the provider time-series
+   * @param providerExecutor  the executor used to invoke the providers
+   * @param buildExecutor  the executor used to build the non-observable market data
+   * @param functions  the functions that create the market data
+   */
   @SuppressWarnings("unchecked")
   DefaultMarketDataFactory(
       ObservableDataProvider observableDataProvider,
       TimeSeriesProvider timeSeriesProvider,
+      Executor providerExecutor,
+      Executor buildExecutor,
       List<MarketDataFunction<?, ?>> functions) {
 
     this.observableDataProvider = observableDataProvider;
     this.timeSeriesProvider = timeSeriesProvider;
+    this.providerExecutor = ArgChecker.notNull(providerExecutor, "providerExecutor");
+    this.buildExecutor = ArgChecker.notNull(buildExecutor, "buildExecutor");
 
     // Use a HashMap instead of an ImmutableMap.Builder so values can be overwritten.
     // If the functions argument includes a missing mapping builder it can overwrite the one inserted below
@@ -103,12 +168,75 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       ScenarioDefinition scenarioDefinition) {
 
     BuiltScenarioMarketDataBuilder dataBuilder = BuiltScenarioMarketData.builder(suppliedData.getValuationDate());
-    BuiltScenarioMarketData builtData = dataBuilder.build();
 
     // Build a tree of the market data dependencies. The root of the tree represents the calculations.
     // The children of the root represent the market data directly used in the calculations. The children
     // of those nodes represent the market data required to build that data, and so on
     MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+    return build(root, dataBuilder, marketDataConfig, suppliedData, refData, scenarioDefinition);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public BuiltMarketData update(
+      BuiltMarketData previous,
+      Set<? extends MarketDataId<?>> changedIds,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData) {
+
+    ScenarioMarketData md = ScenarioMarketData.of(1, suppliedData);
+    BuiltScenarioMarketData smd = updateMultiScenario(
+        previous.getUnderlying(), changedIds, requirements, marketDataConfig, md, refData, ScenarioDefinition.empty());
+    return new BuiltMarketData(smd);
+  }
+
+  @Override
+  public BuiltScenarioMarketData updateMultiScenario(
+      BuiltScenarioMarketData previous,
+      Set<? extends MarketDataId<?>> changedIds,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    ArgChecker.notNull(previous, "previous");
+    ArgChecker.notNull(changedIds, "changedIds");
+    if (!previous.getValuationDate().equals(suppliedData.getValuationDate())) {
+      // the valuation date affects everything, so nothing can be reused
+      return createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    }
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+
+    // The market data that depends on the changed IDs is rebuilt, everything else built previously is reused
+    // Market data that failed to build previously is not copied, so it is built again
+    Set<MarketDataId<?>> rebuildIds = root.dependants(changedIds);
+    BuiltScenarioMarketDataBuilder dataBuilder = BuiltScenarioMarketData.builder(suppliedData.getValuationDate());
+    previous.getIds().stream()
+        .filter(id -> !rebuildIds.contains(id) && !changedIds.contains(id))
+        .forEach(id -> dataBuilder.addBox(id, previous.getValue(id)));
+    previous.getTimeSeriesIds().forEach(id -> dataBuilder.addTimeSeries(id, previous.getTimeSeries(id)));
+
+    return build(root, dataBuilder, marketDataConfig, suppliedData, refData, scenarioDefinition);
+  }
+
+  //-------------------------------------------------------------------------
+  // builds the market data in the dependency tree that is not already in the builder
+  private BuiltScenarioMarketData build(
+      MarketDataNode dependencyTree,
+      BuiltScenarioMarketDataBuilder dataBuilder,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    MarketDataNode root = dependencyTree;
+    // If a memory budget is configured, large values are moved out of the heap as they are built
+    Optional<MarketDataMemoryBudget> memoryBudget = marketDataConfig.find(MarketDataMemoryBudget.class);
+    MarketDataSpillStore spillStore = memoryBudget.map(MarketDataSpillStore::of).orElse(null);
+    BuiltScenarioMarketData builtData = dataBuilder.build();
 
     // The leaf nodes of the dependency tree represent market data with no missing requirements for market data.
     // This includes:
@@ -138,13 +266,34 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       // The requirements contained in the leaf nodes
       MarketDataRequirements leafRequirements = pair.getSecond();
 
+      // Requests to providers ----------------------------------------------------------------------
+
+      // The providers may block, so all requests are started before any result is used
+      // With the default direct executor the requests are made in sequence by this thread
+
+      // Time series that are required but not available are requested one at a time
+      Map<ObservableId, CompletableFuture<Result<LocalDateDoubleTimeSeries>>> timeSeriesRequests =
+          leafRequirements.getTimeSeries().stream()
+              .filter(id -> marketData.getTimeSeries(id).isEmpty())
+              .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
+              .collect(toImmutableMap(id -> id, id -> requestTimeSeries(id)));
+
+      // Filter out IDs for the observable data that is already available
+      Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
+          .filter(not(marketData::containsValue))
+          .filter(not(suppliedData::containsValue))
+          .collect(toImmutableSet());
+
+      // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
+      CompletableFuture<Map<ObservableId, Result<Double>>> observableRequest = observableIds.isEmpty() ?
+          CompletableFuture.completedFuture(ImmutableMap.of()) :
+          CompletableFuture.supplyAsync(() -> observableDataProvider.provideObservableData(observableIds), providerExecutor);
+
       // Time series of observable data ------------------------------------------------------------
 
-      // Build any time series that are required but not available
-      leafRequirements.getTimeSeries().stream()
-          .filter(id -> marketData.getTimeSeries(id).isEmpty())
-          .filter(id -> suppliedData.getTimeSeries(id).isEmpty())
-          .forEach(id -> dataBuilder.addTimeSeriesResult(id, timeSeriesProvider.provideTimeSeries(id)));
+      // Add the requested time series
+      MapStream.of(timeSeriesRequests)
+          .forEach((id, request) -> dataBuilder.addTimeSeriesResult(id, join(request)));
 
       // Copy supplied time series to the scenario data
       leafRequirements.getTimeSeries().stream()
@@ -153,18 +302,9 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
 
       // Single values of observable data -----------------------------------------------------------
 
-      // Filter out IDs for the data that is already available
-      Set<ObservableId> observableIds = leafRequirements.getObservables().stream()
-          .filter(not(marketData::containsValue))
-          .filter(not(suppliedData::containsValue))
-          .collect(toImmutableSet());
-
-      // Observable data is built in bulk so it can be efficiently requested from data provider in one operation
-      if (!observableIds.isEmpty()) {
-        Map<ObservableId, Result<Double>> observableResults = observableDataProvider.provideObservableData(observableIds);
-        MapStream.of(observableResults)
-            .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
-      }
+      // Add the requested observable data
+      MapStream.of(join(observableRequest))
+          .forEach((id, res) -> addObservableResult(id, res, refData, scenarioDefinition, dataBuilder));
 
       // Copy observable data from the supplied data to the builder, applying any matching perturbations
       leafRequirements.getObservables().stream()
@@ -192,6 +332,11 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
 
       // --------------------------------------------------------------------------------------------
 
+      // Move the values accepted by the spill policy into the store, which holds them within the budget
+      if (spillStore != null) {
+        spill(dataBuilder, memoryBudget.get().getPolicy(), spillStore);
+      }
+
       // Put the data built so far into an object that will be used in the next phase of building data
       builtData = dataBuilder.build();
 
@@ -202,6 +347,23 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
   }
 
   //-------------------------------------------------------------------------
+  // replaces the boxes accepted by the policy with boxes held by the store
+  private static void spill(
+      BuiltScenarioMarketDataBuilder dataBuilder,
+      MarketDataSpillPolicy policy,
+      MarketDataSpillStore spillStore) {
+
+    dataBuilder.replaceBoxes((id, box) ->
+        box instanceof SpilledMarketDataBox || !box.isScenarioValue() || !policy.isSpillable(id, box) ?
+            box :
+            spillStore.spill(box));
+  }
+
+  // requests a time-series from the provider using the provider executor
+  private CompletableFuture<Result<LocalDateDoubleTimeSeries>> requestTimeSeries(ObservableId id) {
+    return CompletableFuture.supplyAsync(() -> timeSeriesProvider.provideTimeSeries(id), providerExecutor);
+  }
+
   /**
    * Builds items of non-observable market data using a market data function.
    *
@@ -234,15 +396,26 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return Result.of(() -> marketDataFunction.build(id, marketDataConfig, suppliedData, refData));
   }
 
-  @SuppressWarnings("unchecked")
+  // builds all the items at one level of the dependency tree, which are independent of one another
+  // every build is started before any result is used, so a multi-threaded executor builds them concurrently
   private Map<MarketDataId<?>, Result<MarketDataBox<?>>> buildNonObservableData(
       Set<? extends MarketDataId<?>> ids,
       MarketDataConfig marketDataConfig,
       BuiltScenarioMarketData marketData,
       ReferenceData refData) {
 
-    return ids.stream()
-        .collect(toImmutableMap(id -> id, id -> buildNonObservableData(id, marketDataConfig, marketData, refData)));
+    if (ids.size() <= 1) {
+      return ids.stream()
+          .collect(toImmutableMap(id -> id, id -> buildNonObservableData(id, marketDataConfig, marketData, refData)));
+    }
+    Map<MarketDataId<?>, CompletableFuture<Result<MarketDataBox<?>>>> builds = ids.stream()
+        .collect(toImmutableMap(
+            id -> id,
+            id -> CompletableFuture.supplyAsync(
+                () -> buildNonObservableData(id, marketDataConfig, marketData, refData), buildExecutor)));
+    return MapStream.of(builds)
+        .mapValues(build -> join(build))
+        .toMap();
   }
 
   /**
@@ -304,6 +477,8 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
    * <p>
    * The mappings from the scenario definition is applied to the value. If any of the mappings match the value
    * is perturbed and the perturbed values are added to the market data.
+   * If the perturbation fails, the failure is added to the market data. If the perturbation creates the
+   * values on demand, a failure to create a value is instead reported when the value is requested.
    *
    * @param id  ID of the market data value
    * @param value  the market data value
@@ -328,7 +503,9 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
       PerturbationMapping<Object> mapping = (PerturbationMapping<Object>) optionalMapping.get();
       MarketDataBox<Object> objectValue = ((MarketDataBox<Object>) value);
       // Result.of() catches any exceptions thrown by the mapping and wraps them in a failure
-      Result<MarketDataBox<?>> result = Result.of(() -> mapping.applyPerturbation(objectValue, refData));
+      // a lazy perturbation throws when a value is requested, so that is reported as a failure of the ID
+      Result<MarketDataBox<?>> result = Result.of(() -> mapping.applyPerturbation(objectValue, refData))
+          .map(box -> box.isLazy() ? PerturbedMarketDataBox.of(id, box) : box);
       builder.addResult(id, result);
     } else {
       builder.addBox(id, value);
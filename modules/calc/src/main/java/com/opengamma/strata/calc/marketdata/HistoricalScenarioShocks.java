@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+
+/**
+ * Scenario shocks derived from the historical changes in a set of time series.
+ * <p>
+ * Each risk factor has a time series of values, such as the observed values of a quote.
+ * The series are aligned on the dates present in all of them, and each scenario is the return of every
+ * risk factor over a period ending on one of those dates. The period is the number of observations specified
+ * by the horizon, with a horizon of one using the returns between consecutive dates.
+ * <p>
+ * Only the aligned values are stored. The returns are calculated when a scenario is requested.
+ *
+ * @param <K>  the type of the risk factor identifiers
+ */
+public final class HistoricalScenarioShocks<K> implements ScenarioShocks<K> {
+
+  /**
+   * The identifiers of the risk factors.
+   */
+  private final ImmutableList<K> identifiers;
+  /**
+   * The dates on which all the time series have a value.
+   */
+  private final ImmutableList<LocalDate> dates;
+  /**
+   * The values on the aligned dates, indexed by risk factor then date.
+   */
+  private final double[][] values;
+  /**
+   * The return type.
+   */
+  private final ReturnType returnType;
+  /**
+   * The number of observations between the start and end of each return.
+   */
+  private final int horizon;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance using the returns between consecutive dates.
+   * <p>
+   * The identifiers are in the iteration order of the map.
+   *
+   * @param <K>  the type of the risk factor identifiers
+   * @param timeSeries  the time series of each risk factor
+   * @param returnType  the return type
+   * @return the shocks
+   * @throws IllegalArgumentException if the series have fewer than two dates in common
+   */
+  public static <K> HistoricalScenarioShocks<K> of(
+      Map<K, LocalDateDoubleTimeSeries> timeSeries,
+      ReturnType returnType) {
+
+    return of(timeSeries, returnType, 1);
+  }
+
+  /**
+   * Obtains an instance using overlapping returns over a number of observations.
+   * <p>
+   * The identifiers are in the iteration order of the map.
+   * For example, a horizon of ten with daily series uses overlapping ten-day returns.
+   *
+   * @param <K>  the type of the risk factor identifiers
+   * @param timeSeries  the time series of each risk factor
+   * @param returnType  the return type
+   * @param horizon  the number of observations between the start and end of each return
+   * @return the shocks
+   * @throws IllegalArgumentException if the series do not have enough dates in common
+   */
+  public static <K> HistoricalScenarioShocks<K> of(
+      Map<K, LocalDateDoubleTimeSeries> timeSeries,
+      ReturnType returnType,
+      int horizon) {
+
+    ArgChecker.notEmpty(timeSeries, "timeSeries");
+    ArgChecker.notNull(returnType, "returnType");
+    ArgChecker.notNegativeOrZero(horizon, "horizon");
+    Collection<LocalDateDoubleTimeSeries> series = timeSeries.values();
+    ImmutableList<LocalDate> dates = series.iterator().next().dates()
+        .filter(date -> series.stream().allMatch(ts -> ts.containsDate(date)))
+        .collect(toImmutableList());
+    if (dates.size() <= horizon) {
+      throw new IllegalArgumentException(Messages.format(
+          "Time series must have more than {} dates in common but found {}", horizon, dates.size()));
+    }
+    double[][] values = series.stream()
+        .map(ts -> dates.stream().mapToDouble(date -> ts.get(date).getAsDouble()).toArray())
+        .toArray(double[][]::new);
+    return new HistoricalScenarioShocks<>(ImmutableList.copyOf(timeSeries.keySet()), dates, values, returnType, horizon);
+  }
+
+  // restricted constructor
+  private HistoricalScenarioShocks(
+      ImmutableList<K> identifiers,
+      ImmutableList<LocalDate> dates,
+      double[][] values,
+      ReturnType returnType,
+      int horizon) {
+
+    this.identifiers = identifiers;
+    this.dates = dates;
+    this.values = values;
+    this.returnType = returnType;
+    this.horizon = horizon;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int getScenarioCount() {
+    return dates.size() - horizon;
+  }
+
+  @Override
+  public ImmutableList<K> getIdentifiers() {
+    return identifiers;
+  }
+
+  @Override
+  public ReturnType getReturnType() {
+    return returnType;
+  }
+
+  /**
+   * Gets the number of observations between the start and end of each return.
+   *
+   * @return the horizon
+   */
+  public int getHorizon() {
+    return horizon;
+  }
+
+  /**
+   * Gets the dates of the scenarios.
+   * <p>
+   * Each date is the end of the period over which the returns of the scenario are measured.
+   *
+   * @return the scenario dates, one for each scenario
+   */
+  public ImmutableList<LocalDate> getScenarioDates() {
+    return dates.subList(horizon, dates.size());
+  }
+
+  @Override
+  public double getShock(int scenarioIndex, int identifierIndex) {
+    double[] series = values[identifierIndex];
+    return returnType.calculateReturn(series[scenarioIndex], series[scenarioIndex + horizon]);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "HistoricalScenarioShocks[identifiers={}, returnType={}, horizon={}, scenarioCount={}]",
+        identifiers.size(),
+        returnType,
+        horizon,
+        getScenarioCount());
+  }
+
+}
@@ -120,6 +120,24 @@ public final class MarketDataConfig implements ImmutableBean, Serializable {
     return get(type, name.getName());
   }
 
+  /**
+   * Finds the configuration object with the specified type and name.
+   * <p>
+   * Unlike {@link #get(Class, TypedString)}, only configuration of exactly the specified type is searched.
+   *
+   * @param type the type of the configuration object
+   * @param name the name of the configuration object
+   * @param <T> the type of the configuration object
+   * @return the configuration with the specified type and name, empty if not found
+   */
+  public <T> Optional<T> find(Class<T> type, TypedString<?> name) {
+    SingleTypeMarketDataConfig typeConfigs = configs.get(type);
+    if (typeConfigs == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(typeConfigs.getConfigObjects().get(name.getName())).map(type::cast);
+  }
+
   /**
    * Returns an item of configuration that is the default of its type.
    * <p>
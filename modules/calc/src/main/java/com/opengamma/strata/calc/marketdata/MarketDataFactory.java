@@ -6,11 +6,14 @@
 package com.opengamma.strata.calc.marketdata;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -74,6 +77,69 @@ public interface MarketDataFactory {
     return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, functions);
   }
 
+  /**
+   * Obtains an instance of the factory based on providers of market data and time-series,
+   * specifying the executor used to invoke the providers.
+   * <p>
+   * The market data functions are used to build the market data.
+   * <p>
+   * This is intended for providers that block, for example when calling a remote cache.
+   * Each time-series is requested as a separate job on the executor, concurrently with the
+   * bulk request for observable data. An executor separate from the one used for calculations
+   * should be used, such as a cached thread pool, so that blocked providers do not prevent
+   * calculations from running.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param providerExecutor  the executor used to invoke the providers
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Executor providerExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(observableDataProvider, timeSeriesProvider, providerExecutor, functions);
+  }
+
+  /**
+   * Obtains an instance of the factory based on providers of market data and time-series,
+   * specifying the executors used to invoke the providers and to build the market data.
+   * <p>
+   * The market data functions are used to build the market data.
+   * <p>
+   * Market data is built one level of the dependency tree at a time, such that the items at
+   * each level do not depend on one another. Each item at a level is built as a separate job
+   * on the build executor, thus a multi-threaded executor allows independent curve groups,
+   * surfaces and other data to be built concurrently. The market data functions must be thread-safe.
+   * <p>
+   * The provider executor is used as described in
+   * {@link #of(ObservableDataProvider, TimeSeriesProvider, Executor, List)}.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the executors.
+   *
+   * @param observableDataProvider  the provider of observable market data
+   * @param timeSeriesProvider  the provider of time-series
+   * @param providerExecutor  the executor used to invoke the providers
+   * @param buildExecutor  the executor used to build the non-observable market data
+   * @param functions  the functions that create the market data
+   * @return the market data factory
+   */
+  public static MarketDataFactory of(
+      ObservableDataProvider observableDataProvider,
+      TimeSeriesProvider timeSeriesProvider,
+      Executor providerExecutor,
+      Executor buildExecutor,
+      List<MarketDataFunction<?, ?>> functions) {
+
+    return new DefaultMarketDataFactory(
+        observableDataProvider, timeSeriesProvider, providerExecutor, buildExecutor, functions);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds a set of market data.
@@ -109,6 +175,9 @@ public interface MarketDataFactory {
    * For example, if a perturbation is defined that shocks the par rates used to build a curve, the curve
    * must not be provided in {@code suppliedData}. The factory will only build the curve using the par rates
    * if it is not found in {@code suppliedData}.
+   * <p>
+   * If the configuration contains a {@link MarketDataMemoryBudget}, the result should be closed
+   * when no longer used, see {@link BuiltScenarioMarketData#close()}.
    *
    * @param requirements  the market data required for the calculations
    * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
@@ -139,6 +208,9 @@ public interface MarketDataFactory {
    * For example, if a perturbation is defined that shocks the par rates used to build a curve, the curve
    * must not be provided in {@code suppliedData}. The factory will only build the curve using the par rates
    * if it is not found in {@code suppliedData}.
+   * <p>
+   * If the configuration contains a {@link MarketDataMemoryBudget}, the result should be closed
+   * when no longer used, see {@link BuiltScenarioMarketData#close()}.
    *
    * @param requirements  the market data required for the calculations
    * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
@@ -154,4 +226,77 @@ public interface MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Updates a set of market data that was previously built, where some of the inputs have changed.
+   * <p>
+   * This is intended to be used when a small number of inputs change, for example when quotes tick intraday.
+   * The changed IDs are typically the IDs of observable data, but may be the IDs of any market data.
+   * Only the market data that depends directly or indirectly on the changed IDs is built again.
+   * For example, if a quote used to calibrate a curve group changes, the curve group and the curves
+   * within it are rebuilt, but unrelated curve groups are reused from the previous market data.
+   * Market data that could not be built previously is always built again.
+   * Time-series are not affected by changes to current values, and are always reused.
+   * <p>
+   * The requirements, configuration and reference data should be the same as those used to build
+   * the previous market data. The supplied data should contain the new values of any changed data
+   * that is not obtained from the observable data provider.
+   * <p>
+   * The default implementation builds all the market data again.
+   *
+   * @param previous  the market data that was previously built
+   * @param changedIds  the IDs of the market data that has changed since the previous market data was built
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  market data supplied by the user
+   * @param refData  the reference data
+   * @return the market data required by the calculations plus details of any data that could not be built
+   */
+  public default BuiltMarketData update(
+      BuiltMarketData previous,
+      Set<? extends MarketDataId<?>> changedIds,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData) {
+
+    return create(requirements, marketDataConfig, suppliedData, refData);
+  }
+
+  /**
+   * Updates the market data for a set of scenarios that was previously built, where some of the inputs have changed.
+   * <p>
+   * This is intended to be used when a small number of inputs change, for example when quotes tick intraday.
+   * The changed IDs are typically the IDs of observable data, but may be the IDs of any market data.
+   * Only the market data that depends directly or indirectly on the changed IDs is built again.
+   * Market data that could not be built previously is always built again.
+   * Time-series are not affected by changes to current values, and are always reused.
+   * <p>
+   * The requirements, configuration, reference data and scenario definition should be the same as those
+   * used to build the previous market data. The supplied data should contain the new values of any changed
+   * data that is not obtained from the observable data provider.
+   * <p>
+   * The default implementation builds all the market data again.
+   *
+   * @param previous  the market data that was previously built
+   * @param changedIds  the IDs of the market data that has changed since the previous market data was built
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  the base market data used to derive the data for each scenario
+   * @param refData  the reference data
+   * @param scenarioDefinition  defines how the market data for each scenario is derived from the base data
+   * @return the market data required by the calculations
+   */
+  public default BuiltScenarioMarketData updateMultiScenario(
+      BuiltScenarioMarketData previous,
+      Set<? extends MarketDataId<?>> changedIds,
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    return createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+  }
+
 }
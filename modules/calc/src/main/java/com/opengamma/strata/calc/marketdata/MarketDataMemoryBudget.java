@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * The memory budget for the market data values built by a {@link MarketDataFactory}.
+ * <p>
+ * A multi-scenario build can create a large value for every scenario, such as a calibrated curve group
+ * with its Jacobian matrices. By default, all of these are held in the heap for as long as the market data is used.
+ * <p>
+ * When this budget is added to the {@link MarketDataConfig} as a default item, using
+ * {@link MarketDataConfigBuilder#addDefault(Object)}, the values accepted by the {@linkplain MarketDataSpillPolicy
+ * spill policy} are limited to the budget. When the budget is exceeded, the values not recently used are
+ * serialized to a temporary file and read back when they are next requested.
+ * The values are the same, but a large scenario run degrades in speed rather than running out of memory.
+ * <p>
+ * The size of a value in the heap is estimated from the number of scenarios and the type of the value.
+ * The first value of each type is serialized to estimate the size of the values of that type.
+ * <p>
+ * The value of each scenario is spilled separately, so a value can be read back without the other scenarios.
+ * <p>
+ * The file is deleted when the built market data is closed using {@link BuiltScenarioMarketData#close()}.
+ * If it is not closed, the file is deleted once the built market data is no longer referenced,
+ * or when the JVM exits.
+ */
+@BeanDefinition(builderScope = "private")
+public final class MarketDataMemoryBudget
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The maximum number of bytes of spillable values held in the heap.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegative")
+  private final long maxBytes;
+  /**
+   * The policy deciding which values may be spilled.
+   * <p>
+   * The policy must be serializable for the budget to be serializable.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final MarketDataSpillPolicy policy;
+  /**
+   * The directory in which spill files are created.
+   * <p>
+   * If empty, the default temporary directory is used.
+   */
+  @PropertyDefinition(get = "optional")
+  private final String spillDirectory;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a budget that spills scenario values to the default temporary directory.
+   * <p>
+   * The policy is {@link MarketDataSpillPolicy#scenarioValues()}.
+   *
+   * @param maxBytes  the maximum number of bytes of spillable values held in the heap
+   * @return the budget
+   */
+  public static MarketDataMemoryBudget of(long maxBytes) {
+    return new MarketDataMemoryBudget(maxBytes, MarketDataSpillPolicy.scenarioValues(), null);
+  }
+
+  /**
+   * Obtains a budget specifying the spill policy.
+   *
+   * @param maxBytes  the maximum number of bytes of spillable values held in the heap
+   * @param policy  the policy deciding which values may be spilled
+   * @return the budget
+   */
+  public static MarketDataMemoryBudget of(long maxBytes, MarketDataSpillPolicy policy) {
+    return new MarketDataMemoryBudget(maxBytes, policy, null);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this budget that creates spill files in the specified directory.
+   * <p>
+   * The directory must exist.
+   *
+   * @param directory  the directory in which spill files are created
+   * @return a budget based on this one with the specified directory
+   */
+  public MarketDataMemoryBudget withSpillDirectory(Path directory) {
+    ArgChecker.notNull(directory, "directory");
+    return new MarketDataMemoryBudget(maxBytes, policy, directory.toString());
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code MarketDataMemoryBudget}.
+   * @return the meta-bean, not null
+   */
+  public static MarketDataMemoryBudget.Meta meta() {
+    return MarketDataMemoryBudget.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(MarketDataMemoryBudget.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private MarketDataMemoryBudget(
+      long maxBytes,
+      MarketDataSpillPolicy policy,
+      String spillDirectory) {
+    ArgChecker.notNegative(maxBytes, "maxBytes");
+    JodaBeanUtils.notNull(policy, "policy");
+    this.maxBytes = maxBytes;
+    this.policy = policy;
+    this.spillDirectory = spillDirectory;
+  }
+
+  @Override
+  public MarketDataMemoryBudget.Meta metaBean() {
+    return MarketDataMemoryBudget.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum number of bytes of spillable values held in the heap.
+   * @return the value of the property
+   */
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the policy deciding which values may be spilled.
+   * <p>
+   * The policy must be serializable for the budget to be serializable.
+   * @return the value of the property, not null
+   */
+  public MarketDataSpillPolicy getPolicy() {
+    return policy;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the directory in which spill files are created.
+   * <p>
+   * If empty, the default temporary directory is used.
+   * @return the optional value of the property, not null
+   */
+  public Optional<String> getSpillDirectory() {
+    return Optional.ofNullable(spillDirectory);
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      MarketDataMemoryBudget other = (MarketDataMemoryBudget) obj;
+      return (maxBytes == other.maxBytes) &&
+          JodaBeanUtils.equal(policy, other.policy) &&
+          JodaBeanUtils.equal(spillDirectory, other.spillDirectory);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(maxBytes);
+    hash = hash * 31 + JodaBeanUtils.hashCode(policy);
+    hash = hash * 31 + JodaBeanUtils.hashCode(spillDirectory);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("MarketDataMemoryBudget{");
+    buf.append("maxBytes").append('=').append(maxBytes).append(',').append(' ');
+    buf.append("policy").append('=').append(policy).append(',').append(' ');
+    buf.append("spillDirectory").append('=').append(JodaBeanUtils.toString(spillDirectory));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code MarketDataMemoryBudget}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code maxBytes} property.
+     */
+    private final MetaProperty<Long> maxBytes = DirectMetaProperty.ofImmutable(
+        this, "maxBytes", MarketDataMemoryBudget.class, Long.TYPE);
+    /**
+     * The meta-property for the {@code policy} property.
+     */
+    private final MetaProperty<MarketDataSpillPolicy> policy = DirectMetaProperty.ofImmutable(
+        this, "policy", MarketDataMemoryBudget.class, MarketDataSpillPolicy.class);
+    /**
+     * The meta-property for the {@code spillDirectory} property.
+     */
+    private final MetaProperty<String> spillDirectory = DirectMetaProperty.ofImmutable(
+        this, "spillDirectory", MarketDataMemoryBudget.class, String.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "maxBytes",
+        "policy",
+        "spillDirectory");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 381479271:  // maxBytes
+          return maxBytes;
+        case -982670030:  // policy
+          return policy;
+        case 358260641:  // spillDirectory
+          return spillDirectory;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends MarketDataMemoryBudget> builder() {
+      return new MarketDataMemoryBudget.Builder();
+    }
+
+    @Override
+    public Class<? extends MarketDataMemoryBudget> beanType() {
+      return MarketDataMemoryBudget.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code maxBytes} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Long> maxBytes() {
+      return maxBytes;
+    }
+
+    /**
+     * The meta-property for the {@code policy} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<MarketDataSpillPolicy> policy() {
+      return policy;
+    }
+
+    /**
+     * The meta-property for the {@code spillDirectory} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<String> spillDirectory() {
+      return spillDirectory;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 381479271:  // maxBytes
+          return ((MarketDataMemoryBudget) bean).getMaxBytes();
+        case -982670030:  // policy
+          return ((MarketDataMemoryBudget) bean).getPolicy();
+        case 358260641:  // spillDirectory
+          return ((MarketDataMemoryBudget) bean).spillDirectory;
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code MarketDataMemoryBudget}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<MarketDataMemoryBudget> {
+
+    private long maxBytes;
+    private MarketDataSpillPolicy policy;
+    private String spillDirectory;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 381479271:  // maxBytes
+          return maxBytes;
+        case -982670030:  // policy
+          return policy;
+        case 358260641:  // spillDirectory
+          return spillDirectory;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 381479271:  // maxBytes
+          this.maxBytes = (Long) newValue;
+          break;
+        case -982670030:  // policy
+          this.policy = (MarketDataSpillPolicy) newValue;
+          break;
+        case 358260641:  // spillDirectory
+          this.spillDirectory = (String) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public MarketDataMemoryBudget build() {
+      return new MarketDataMemoryBudget(
+          maxBytes,
+          policy,
+          spillDirectory);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(128);
+      buf.append("MarketDataMemoryBudget.Builder{");
+      buf.append("maxBytes").append('=').append(JodaBeanUtils.toString(maxBytes)).append(',').append(' ');
+      buf.append("policy").append('=').append(JodaBeanUtils.toString(policy)).append(',').append(' ');
+      buf.append("spillDirectory").append('=').append(JodaBeanUtils.toString(spillDirectory));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
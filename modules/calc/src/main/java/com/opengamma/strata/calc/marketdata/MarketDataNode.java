@@ -5,10 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
@@ -162,6 +164,36 @@ final class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Returns the IDs of the market data in this tree that depends on any of the specified IDs.
+   * <p>
+   * The result contains the IDs of every node whose subtree contains a single value node with one of the
+   * specified IDs, including those nodes themselves. If the value of any of the specified IDs changes,
+   * the market data in the result must be rebuilt. Time-series nodes are not matched, as the time-series
+   * of an observable is not affected by a change to its current value.
+   *
+   * @param ids  the IDs of the market data that has changed
+   * @return the IDs of the market data that depends directly or indirectly on the specified IDs
+   */
+  Set<MarketDataId<?>> dependants(Set<? extends MarketDataId<?>> ids) {
+    Set<MarketDataId<?>> dependants = new HashSet<>();
+    addDependants(ids, dependants);
+    return dependants;
+  }
+
+  // adds the IDs of the nodes in this tree that depend on the specified IDs, returning true if this node does
+  private boolean addDependants(Set<? extends MarketDataId<?>> ids, Set<MarketDataId<?>> dependants) {
+    boolean dependant = dataType == DataType.SINGLE_VALUE && ids.contains(id);
+    for (MarketDataNode child : dependencies) {
+      // all children are visited as the same ID can appear in more than one subtree
+      dependant |= child.addDependants(ids, dependants);
+    }
+    if (dependant && id != null) {
+      dependants.add(id);
+    }
+    return dependant;
+  }
+
   /**
    * Returns true if this node has no children.
    *
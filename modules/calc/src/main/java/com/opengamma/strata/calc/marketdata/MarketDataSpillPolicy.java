@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Decides which built market data values may be moved out of the heap when a memory budget is exceeded.
+ * <p>
+ * A {@link MarketDataMemoryBudget} limits the memory used by the values built by a {@link MarketDataFactory}.
+ * Values accepted by this policy are retained in memory up to the budget.
+ * When the budget is exceeded, values that have not been used recently are written to a local file
+ * and read back when they are next requested.
+ * <p>
+ * A value may only be spilled if all of its data can be serialized.
+ * <p>
+ * Implementations must be immutable and thread-safe.
+ */
+public interface MarketDataSpillPolicy {
+
+  /**
+   * Obtains a policy that spills values that have a value for each scenario.
+   * <p>
+   * A box is accepted if it contains scenario values of a serializable type.
+   * Single values, such as quotes shared by all scenarios, are never spilled.
+   * Lazy boxes, whose values are created on demand, are never spilled.
+   *
+   * @return the policy
+   */
+  public static MarketDataSpillPolicy scenarioValues() {
+    return ScenarioValueSpillPolicy.INSTANCE;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks whether a value may be spilled.
+   * <p>
+   * Only boxes containing a value for each scenario are spilled, whatever the result of this method.
+   *
+   * @param id  the identifier of the value
+   * @param box  the box containing the value
+   * @return true if the value may be moved out of the heap
+   */
+  public abstract boolean isSpillable(MarketDataId<?> id, MarketDataBox<?> box);
+
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Holds the values of market data boxes within a memory budget, moving the least recently used values to a file.
+ * <p>
+ * Each box added to the store is replaced by a {@link SpilledMarketDataBox} that obtains its values from the store.
+ * The unit held by the store is the value of a single scenario, so reading one scenario reads one value.
+ * When the total size of the values in the heap exceeds the budget, values that have not been used recently
+ * are serialized to a temporary file and released. A released value is read back when next requested.
+ * The value most recently requested is always held, even if it is larger than the budget on its own.
+ * <p>
+ * The values in the heap are released using the clock algorithm, an approximation of least recently used.
+ * Each value has a flag that is set when it is requested, without any locking.
+ * When a value must be released, the values are scanned in turn, clearing the flags that are set
+ * and releasing the first value whose flag is not set.
+ * <p>
+ * The size of a value in the heap is estimated as the size of a value of the market data type.
+ * The size of a value of each type is the serialized size of the first value of that type added to the store,
+ * thus values of the same type are assumed to have a similar size.
+ * <p>
+ * The file is created when the first value is released and is deleted when the store is closed.
+ * The store is closed by {@link BuiltScenarioMarketData#close()}.
+ * If the store is not closed, its file is closed and deleted when the next store is created once the store
+ * is no longer referenced. Any file remaining when the JVM exits is deleted by a shutdown hook.
+ * <p>
+ * This class is thread-safe. Values in the heap are obtained without locking, and released values
+ * are read from the file without holding the lock of the store.
+ */
+final class MarketDataSpillStore implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(MarketDataSpillStore.class);
+
+  /**
+   * The queue receiving the files of the stores that are no longer referenced.
+   */
+  private static final ReferenceQueue<MarketDataSpillStore> UNREFERENCED = new ReferenceQueue<>();
+  /**
+   * The files that are open, retained so that they are received by the queue.
+   */
+  private static final Set<SpillFile> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+  // deletes the files that remain open when the JVM exits
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> OPEN_FILES.forEach(SpillFile::close)));
+  }
+
+  /**
+   * The maximum number of bytes of values held in the heap.
+   */
+  private final long maxBytes;
+  /**
+   * The directory in which the file is created, null for the default temporary directory.
+   */
+  private final Path directory;
+  /**
+   * The estimated size of a value of each market data type.
+   */
+  private final Map<Class<?>, Long> valueSizes = new ConcurrentHashMap<>();
+  /**
+   * The slots whose values are held in the heap, scanned in turn by the clock hand.
+   */
+  private final List<Slot> resident = new ArrayList<>();
+  /**
+   * The index of the next slot scanned when a value must be released.
+   */
+  private int clockHand;
+  /**
+   * The number of bytes of values held in the heap.
+   */
+  private long residentBytes;
+  /**
+   * The file holding the released values, null until the first value is released.
+   */
+  private volatile SpillFile file;
+  /**
+   * Whether the store has been closed.
+   */
+  private volatile boolean closed;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a store using the specified budget.
+   *
+   * @param budget  the memory budget
+   * @return the store
+   */
+  static MarketDataSpillStore of(MarketDataMemoryBudget budget) {
+    closeUnreferenced();
+    return new MarketDataSpillStore(budget.getMaxBytes(), budget.getSpillDirectory().map(Paths::get).orElse(null));
+  }
+
+  // restricted constructor
+  private MarketDataSpillStore(long maxBytes, Path directory) {
+    this.maxBytes = ArgChecker.notNegative(maxBytes, "maxBytes");
+    this.directory = directory;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a box to the store.
+   * <p>
+   * The box must contain a value for each scenario and the values must be serializable.
+   *
+   * @param <T>  the type of data held in the box
+   * @param box  the box
+   * @return a box that obtains the values from the store
+   */
+  <T> SpilledMarketDataBox<T> spill(MarketDataBox<T> box) {
+    long valueSize = valueSizes.computeIfAbsent(box.getMarketDataType(), type -> serializedSize(box.getValue(0)));
+    Slot[] slots = new Slot[box.getScenarioCount()];
+    for (int i = 0; i < slots.length; i++) {
+      slots[i] = new Slot(box.getValue(i), valueSize);
+    }
+    synchronized (this) {
+      checkOpen();
+      for (Slot slot : slots) {
+        hold(slot);
+      }
+    }
+    return new SpilledMarketDataBox<>(this, slots, box);
+  }
+
+  /**
+   * Obtains a value from the store, reading it from the file if it has been released.
+   * <p>
+   * A value held in the heap is obtained without locking.
+   *
+   * @param <T>  the type of the value
+   * @param slot  the slot holding the value
+   * @return the value
+   * @throws IllegalStateException if the store has been closed
+   */
+  @SuppressWarnings("unchecked")
+  <T> T load(Slot slot) {
+    checkOpen();
+    Object value = slot.value;
+    if (value != null) {
+      // the flag is only written if not set, avoiding contention on the cache line of a frequently used value
+      if (!slot.referenced) {
+        slot.referenced = true;
+      }
+      return (T) value;
+    }
+    // the file is read without the lock, the offset and length are written before the value is released
+    Object read = read(slot);
+    synchronized (this) {
+      checkOpen();
+      if (slot.value == null) {
+        slot.value = read;
+        slot.referenced = true;
+        hold(slot);
+      }
+      return (T) slot.value;
+    }
+  }
+
+  /**
+   * Checks if the value of a slot is held in the heap.
+   *
+   * @param slot  the slot
+   * @return true if the value is held in the heap
+   */
+  boolean isResident(Slot slot) {
+    return slot.value != null;
+  }
+
+  /**
+   * Gets the number of bytes of values held in the heap.
+   *
+   * @return the number of bytes
+   */
+  synchronized long getResidentBytes() {
+    return residentBytes;
+  }
+
+  /**
+   * Gets the path of the file holding the released values.
+   *
+   * @return the path, empty if no value has been released
+   */
+  Optional<Path> getFilePath() {
+    return Optional.ofNullable(file).map(spillFile -> spillFile.path);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Closes the store, releasing all values and deleting the file.
+   * <p>
+   * Values cannot be obtained from the store once it is closed.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      resident.forEach(slot -> slot.value = null);
+      resident.clear();
+      residentBytes = 0;
+    }
+    if (file != null) {
+      file.close();
+    }
+  }
+
+  // checks the store is open
+  private void checkOpen() {
+    if (closed) {
+      throw new IllegalStateException("Market data spill store has been closed");
+    }
+  }
+
+  // closes the files of the stores that are no longer referenced
+  private static void closeUnreferenced() {
+    for (Reference<?> ref = UNREFERENCED.poll(); ref != null; ref = UNREFERENCED.poll()) {
+      ((SpillFile) ref).close();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // holds the value of the slot in the heap, releasing values that are not recently used if over budget
+  // each pass of the clock hand clears the flags, so at most two passes are made
+  private void hold(Slot slot) {
+    resident.add(slot);
+    residentBytes += slot.size;
+    while (residentBytes > maxBytes && resident.size() > 1) {
+      if (clockHand >= resident.size()) {
+        clockHand = 0;
+      }
+      Slot candidate = resident.get(clockHand);
+      if (candidate == slot) {
+        clockHand++;
+      } else if (candidate.referenced) {
+        candidate.referenced = false;
+        clockHand++;
+      } else {
+        release(candidate);
+        // the last slot replaces the released one, and is scanned next
+        Slot last = resident.remove(resident.size() - 1);
+        if (last != candidate) {
+          resident.set(clockHand, last);
+        }
+      }
+    }
+  }
+
+  // releases the value of the slot, writing it to the file if not already written
+  private void release(Slot slot) {
+    if (slot.offset < 0) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      serialize(slot.value, bytes);
+      Unchecked.wrap(() -> {
+        SpillFile out = file();
+        slot.offset = out.append(ByteBuffer.wrap(bytes.toByteArray()));
+        slot.length = bytes.size();
+      });
+    }
+    // the volatile write publishes the offset and length to the threads reading the file
+    slot.value = null;
+    residentBytes -= slot.size;
+  }
+
+  // reads the released value of the slot from the file
+  private Object read(Slot slot) {
+    ByteBuffer buffer = ByteBuffer.allocate(slot.length);
+    Unchecked.wrap(() -> file.read(buffer, slot.offset));
+    return Unchecked.wrap(() -> {
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.array()))) {
+        return in.readObject();
+      }
+    });
+  }
+
+  // the file, created when first used
+  private SpillFile file() throws IOException {
+    if (file == null) {
+      closeUnreferenced();
+      Path path = directory != null ?
+          Files.createTempFile(directory, "strata-marketdata-", ".spill") :
+          Files.createTempFile("strata-marketdata-", ".spill");
+      file = new SpillFile(this, path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+    return file;
+  }
+
+  // the size of the serialized form of a value
+  private static long serializedSize(Object value) {
+    CountingOutputStream counter = new CountingOutputStream(ByteStreams.nullOutputStream());
+    serialize(value, counter);
+    return counter.getCount();
+  }
+
+  // serializes the object to the stream
+  private static void serialize(Object object, OutputStream stream) {
+    Unchecked.wrap(() -> {
+      try (ObjectOutputStream out = new ObjectOutputStream(stream)) {
+        out.writeObject(object);
+      }
+    });
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public synchronized String toString() {
+    return Messages.format(
+        "MarketDataSpillStore[maxBytes={}, residentBytes={}, resident={}]", maxBytes, residentBytes, resident.size());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The location of the value of a scenario, in the heap or in the file.
+   * <p>
+   * The value is changed while holding the lock of the store.
+   * The offset and length are set before the value is first released, and are not changed after.
+   */
+  static final class Slot {
+    /**
+     * The estimated size of the value in the heap.
+     */
+    private final long size;
+    /**
+     * The value, null if it has been released.
+     */
+    private volatile Object value;
+    /**
+     * Whether the value has been requested since last scanned by the clock hand.
+     */
+    private volatile boolean referenced;
+    /**
+     * The offset of the value in the file, -1 if not written.
+     */
+    private long offset = -1;
+    /**
+     * The length of the value in the file.
+     */
+    private int length;
+
+    private Slot(Object value, long size) {
+      this.value = value;
+      this.size = size;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The file of a store, closed and deleted when the store is closed or no longer referenced.
+   */
+  private static final class SpillFile extends PhantomReference<MarketDataSpillStore> {
+    /**
+     * The path of the file.
+     */
+    private final Path path;
+    /**
+     * The channel used to read and write the file.
+     */
+    private final FileChannel channel;
+    /**
+     * The length of the file, guarded by the lock of the store.
+     */
+    private long length;
+
+    private SpillFile(MarketDataSpillStore store, Path path, FileChannel channel) {
+      super(store, UNREFERENCED);
+      this.path = path;
+      this.channel = channel;
+      OPEN_FILES.add(this);
+    }
+
+    // appends the bytes to the file, returning the offset
+    private long append(ByteBuffer buffer) throws IOException {
+      long offset = length;
+      while (buffer.hasRemaining()) {
+        channel.write(buffer, offset + buffer.position());
+      }
+      length += buffer.position();
+      return offset;
+    }
+
+    // reads the bytes at the offset, positional reads can be performed concurrently
+    private void read(ByteBuffer buffer, long offset) throws IOException {
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, offset + buffer.position()) < 0) {
+          throw new EOFException(Messages.format("Unexpected end of market data spill file: {}", path));
+        }
+      }
+    }
+
+    // closes and deletes the file, once only
+    private void close() {
+      if (OPEN_FILES.remove(this)) {
+        try {
+          channel.close();
+          Files.deleteIfExists(path);
+        } catch (IOException ex) {
+          log.warn("Unable to delete market data spill file: " + path, ex);
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.lang.ref.SoftReference;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Scenario shocks drawn from a multivariate normal distribution with a specified covariance matrix.
+ * <p>
+ * The shocks of each scenario are {@code L * z}, where {@code L} is the Cholesky factor of the covariance
+ * matrix and {@code z} is a vector of independent standard normal samples. The samples of each scenario
+ * are drawn from a generator seeded from the seed of this instance and the scenario index.
+ * As such, any scenario can be generated independently, in any order and on any thread, and the same
+ * seed always produces the same shocks.
+ * <p>
+ * The shocks of a scenario are drawn when the scenario is first requested, and the shocks of all the
+ * risk factors are retained for reuse. They are retained using soft references, so the memory can be
+ * reclaimed when the scenarios are no longer in use, with the same shocks drawn again if requested.
+ *
+ * @param <K>  the type of the risk factor identifiers
+ */
+public final class MonteCarloScenarioShocks<K> implements ScenarioShocks<K> {
+
+  /**
+   * The increment applied to the seed for each scenario, the 64-bit golden ratio.
+   */
+  private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+  /**
+   * The relative tolerance used to accept a covariance matrix that is symmetric and positive semi-definite.
+   */
+  private static final double TOLERANCE = 1e-12;
+
+  /**
+   * The identifiers of the risk factors.
+   */
+  private final ImmutableList<K> identifiers;
+  /**
+   * The lower triangular Cholesky factor of the covariance matrix.
+   */
+  private final double[][] factor;
+  /**
+   * The return type.
+   */
+  private final ReturnType returnType;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The seed of the random number generator.
+   */
+  private final long seed;
+  /**
+   * The shocks of each scenario, drawn when first requested.
+   */
+  private final AtomicReferenceArray<SoftReference<DoubleArray>> shocks;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * <p>
+   * The rows and columns of the covariance matrix are in the order of the identifiers.
+   * The matrix must be symmetric and positive semi-definite.
+   *
+   * @param <K>  the type of the risk factor identifiers
+   * @param identifiers  the identifiers of the risk factors
+   * @param covariance  the covariance matrix of the shocks
+   * @param returnType  the return type
+   * @param scenarioCount  the number of scenarios
+   * @param seed  the seed of the random number generator
+   * @return the shocks
+   * @throws IllegalArgumentException if the covariance matrix does not match the identifiers,
+   *   or is not symmetric and positive semi-definite
+   */
+  public static <K> MonteCarloScenarioShocks<K> of(
+      List<K> identifiers,
+      DoubleMatrix covariance,
+      ReturnType returnType,
+      int scenarioCount,
+      long seed) {
+
+    ArgChecker.notEmpty(identifiers, "identifiers");
+    ArgChecker.notNull(covariance, "covariance");
+    ArgChecker.notNull(returnType, "returnType");
+    ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    int size = identifiers.size();
+    if (covariance.rowCount() != size || covariance.columnCount() != size) {
+      throw new IllegalArgumentException(Messages.format(
+          "Covariance matrix must be {}x{} but was {}x{}",
+          size,
+          size,
+          covariance.rowCount(),
+          covariance.columnCount()));
+    }
+    return new MonteCarloScenarioShocks<>(
+        ImmutableList.copyOf(identifiers), cholesky(covariance), returnType, scenarioCount, seed);
+  }
+
+  // restricted constructor
+  private MonteCarloScenarioShocks(
+      ImmutableList<K> identifiers,
+      double[][] factor,
+      ReturnType returnType,
+      int scenarioCount,
+      long seed) {
+
+    this.identifiers = identifiers;
+    this.factor = factor;
+    this.returnType = returnType;
+    this.scenarioCount = scenarioCount;
+    this.seed = seed;
+    this.shocks = new AtomicReferenceArray<>(scenarioCount);
+  }
+
+  // the lower triangular Cholesky factor, with zero columns for the degenerate directions of a singular matrix
+  private static double[][] cholesky(DoubleMatrix covariance) {
+    int size = covariance.rowCount();
+    double[][] factor = new double[size][size];
+    for (int j = 0; j < size; j++) {
+      double diagonal = covariance.get(j, j);
+      for (int k = 0; k < j; k++) {
+        diagonal -= factor[j][k] * factor[j][k];
+      }
+      double tolerance = TOLERANCE * Math.max(1d, Math.abs(covariance.get(j, j)));
+      if (diagonal < -tolerance) {
+        throw new IllegalArgumentException("Covariance matrix must be positive semi-definite");
+      }
+      double pivot = diagonal > tolerance ? Math.sqrt(diagonal) : 0d;
+      factor[j][j] = pivot;
+      for (int i = j + 1; i < size; i++) {
+        double lower = covariance.get(i, j);
+        double upper = covariance.get(j, i);
+        if (Math.abs(lower - upper) > TOLERANCE * Math.max(1d, Math.max(Math.abs(lower), Math.abs(upper)))) {
+          throw new IllegalArgumentException("Covariance matrix must be symmetric");
+        }
+        double value = covariance.get(i, j);
+        for (int k = 0; k < j; k++) {
+          value -= factor[i][k] * factor[j][k];
+        }
+        factor[i][j] = pivot > 0 ? value / pivot : 0d;
+      }
+    }
+    return factor;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public ImmutableList<K> getIdentifiers() {
+    return identifiers;
+  }
+
+  @Override
+  public ReturnType getReturnType() {
+    return returnType;
+  }
+
+  /**
+   * Gets the seed of the random number generator.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  @Override
+  public double getShock(int scenarioIndex, int identifierIndex) {
+    return getShocks(scenarioIndex).get(identifierIndex);
+  }
+
+  @Override
+  public DoubleArray getShocks(int scenarioIndex) {
+    if (scenarioIndex < 0 || scenarioIndex >= scenarioCount) {
+      throw new IndexOutOfBoundsException(Messages.format(
+          "Scenario index {} is invalid, the scenario count is {}", scenarioIndex, scenarioCount));
+    }
+    SoftReference<DoubleArray> ref = shocks.get(scenarioIndex);
+    DoubleArray scenarioShocks = ref != null ? ref.get() : null;
+    if (scenarioShocks == null) {
+      // the shocks are repeatable, thus concurrent threads drawing the same scenario store equal values
+      scenarioShocks = drawShocks(scenarioIndex);
+      shocks.set(scenarioIndex, new SoftReference<>(scenarioShocks));
+    }
+    return scenarioShocks;
+  }
+
+  // draws the shocks of a scenario
+  private DoubleArray drawShocks(int scenarioIndex) {
+    Random random = random(scenarioIndex);
+    double[] normals = new double[identifiers.size()];
+    for (int k = 0; k < normals.length; k++) {
+      normals[k] = random.nextGaussian();
+    }
+    return DoubleArray.of(normals.length, i -> {
+      double[] row = factor[i];
+      double shock = 0d;
+      for (int k = 0; k <= i; k++) {
+        shock += row[k] * normals[k];
+      }
+      return shock;
+    });
+  }
+
+  // the generator of the samples of a scenario
+  private Random random(int scenarioIndex) {
+    // mix the bits so that the generators of adjacent scenarios are not correlated
+    long mixed = seed + SEED_INCREMENT * (scenarioIndex + 1);
+    mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+    mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+    return new Random(mixed ^ (mixed >>> 31));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "MonteCarloScenarioShocks[identifiers={}, returnType={}, scenarioCount={}, seed={}]",
+        identifiers.size(),
+        returnType,
+        scenarioCount,
+        seed);
+  }
+
+}
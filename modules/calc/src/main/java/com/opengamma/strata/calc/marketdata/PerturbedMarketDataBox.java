@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.Serializable;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureException;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * A market data box containing perturbed values that are created on demand.
+ * <p>
+ * When a perturbation creates its values lazily, any exception thrown by the perturbation is thrown
+ * when the value is requested, rather than when the market data is built.
+ * This box converts such an exception to a {@link FailureException} describing the failure
+ * of the market data ID, matching the behavior of the market data when a failure is recorded at build time.
+ * <p>
+ * When serialized, all values are created and the box is replaced by a standard scenario box.
+ *
+ * @param <T>  the type of data held in the box
+ */
+final class PerturbedMarketDataBox<T>
+    implements MarketDataBox<T>, Serializable {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The ID of the market data.
+   */
+  private final transient MarketDataId<?> id;
+  /**
+   * The box containing the perturbed values, created on demand.
+   */
+  private final transient MarketDataBox<T> underlying;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance wrapping a box of perturbed values.
+   *
+   * @param <T>  the type of data held in the box
+   * @param id  the ID of the market data
+   * @param underlying  the box containing the perturbed values
+   * @return the box
+   */
+  static <T> PerturbedMarketDataBox<T> of(MarketDataId<?> id, MarketDataBox<T> underlying) {
+    return new PerturbedMarketDataBox<>(id, underlying);
+  }
+
+  // restricted constructor
+  private PerturbedMarketDataBox(MarketDataId<?> id, MarketDataBox<T> underlying) {
+    this.id = ArgChecker.notNull(id, "id");
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public T getSingleValue() {
+    return underlying.getSingleValue();
+  }
+
+  @Override
+  public ScenarioArray<T> getScenarioValue() {
+    return new PerturbedScenarioArray();
+  }
+
+  @Override
+  public T getValue(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, getScenarioCount(), "scenarioIndex");
+    try {
+      return underlying.getValue(scenarioIndex);
+    } catch (RuntimeException ex) {
+      throw new FailureException(Failure.of(
+          FailureReason.ERROR,
+          ex,
+          "Unable to perturb market data '{}' in scenario {}: {}",
+          id,
+          scenarioIndex,
+          ex.getMessage()));
+    }
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return underlying.isSingleValue();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return underlying.getScenarioCount();
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return underlying.getMarketDataType();
+  }
+
+  @Override
+  public boolean isLazy() {
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public <R> MarketDataBox<R> map(Function<T, R> fn) {
+    return materialize().map(fn);
+  }
+
+  @Override
+  public <R> MarketDataBox<R> mapWithIndex(int scenarioCount, ObjIntFunction<T, R> fn) {
+    return materialize().mapWithIndex(scenarioCount, fn);
+  }
+
+  @Override
+  public <U, R> MarketDataBox<R> combineWith(MarketDataBox<U> other, BiFunction<T, U, R> fn) {
+    return materialize().combineWith(other, fn);
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return IntStream.range(0, getScenarioCount()).mapToObj(this::getValue);
+  }
+
+  // creates a standard scenario box containing all the values
+  private MarketDataBox<T> materialize() {
+    return MarketDataBox.ofScenarioValues(stream().collect(toImmutableList()));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Replaces this box with a standard scenario box containing all the values when serialized.
+   *
+   * @return the standard scenario box
+   */
+  private Object writeReplace() {
+    return materialize();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      PerturbedMarketDataBox<?> other = (PerturbedMarketDataBox<?>) obj;
+      return id.equals(other.id) && underlying.equals(other.underlying);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return id.hashCode() * 31 + underlying.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format("PerturbedMarketDataBox[id={}, underlying={}]", id, underlying);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A view of the box as a scenario array.
+   */
+  private final class PerturbedScenarioArray implements ScenarioArray<T> {
+
+    @Override
+    public int getScenarioCount() {
+      return PerturbedMarketDataBox.this.getScenarioCount();
+    }
+
+    @Override
+    public T get(int scenarioIndex) {
+      return getValue(scenarioIndex);
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import org.joda.convert.FromString;
+import org.joda.convert.ToString;
+
+import com.opengamma.strata.collect.named.EnumNames;
+import com.opengamma.strata.collect.named.NamedEnum;
+
+/**
+ * The way a scenario shock is derived from a change in a value and applied to a base value.
+ */
+public enum ReturnType implements NamedEnum {
+
+  /**
+   * An absolute return, where the shock is the change in the value.
+   * <p>
+   * {@code shock = (end - start)} and {@code shockedValue = (value + shock)}
+   */
+  ABSOLUTE {
+    @Override
+    public double calculateReturn(double startValue, double endValue) {
+      return endValue - startValue;
+    }
+
+    @Override
+    public double applyReturn(double value, double shock) {
+      return value + shock;
+    }
+  },
+
+  /**
+   * A relative return, where the shock is the proportional change in the value.
+   * <p>
+   * The shock is a decimal percentage, for example 0.1 for a rise of 10%.
+   * <p>
+   * {@code shock = (end / start - 1)} and {@code shockedValue = (value + value * shock)}
+   * <p>
+   * The shock is well-defined for nonzero start values.
+   */
+  RELATIVE {
+    @Override
+    public double calculateReturn(double startValue, double endValue) {
+      return endValue / startValue - 1d;
+    }
+
+    @Override
+    public double applyReturn(double value, double shock) {
+      return value + value * shock;
+    }
+  };
+
+  // helper for name conversions
+  private static final EnumNames<ReturnType> NAMES = EnumNames.of(ReturnType.class);
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the specified name.
+   * <p>
+   * Parsing handles the mixed case form produced by {@link #toString()} and
+   * the upper and lower case variants of the enum constant name.
+   *
+   * @param name  the name to parse
+   * @return the type
+   * @throws IllegalArgumentException if the name is not known
+   */
+  @FromString
+  public static ReturnType of(String name) {
+    return NAMES.parse(name);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the return between two values using appropriate logic for the return type.
+   *
+   * @param startValue  the value at the start of the period
+   * @param endValue  the value at the end of the period
+   * @return the return, used as the shock
+   */
+  public abstract double calculateReturn(double startValue, double endValue);
+
+  /**
+   * Applies a shock to a value using appropriate logic for the return type.
+   *
+   * @param value  the value to shock
+   * @param shock  the shock to apply
+   * @return the shocked value
+   */
+  public abstract double applyReturn(double value, double shock);
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the formatted name of the type.
+   *
+   * @return the formatted string representing the type
+   */
+  @ToString
+  @Override
+  public String toString() {
+    return NAMES.format(this);
+  }
+
+}
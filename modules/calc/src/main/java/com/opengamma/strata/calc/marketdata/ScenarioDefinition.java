@@ -296,6 +296,37 @@ public final class ScenarioDefinition implements ImmutableBean {
     return scenarioNames.size();
   }
 
+  /**
+   * Returns a scenario definition containing a contiguous range of the scenarios in this definition.
+   * <p>
+   * This is used to build the market data for a shard of the scenarios, such that only the market data
+   * of the scenarios in the range is created. Each perturbation of the returned definition applies the
+   * matching perturbation of this definition and retains the values of the scenarios in the range.
+   * If a perturbation creates its values on demand, only the values of the scenarios in the range are created.
+   * <p>
+   * A perturbation applied to market data that already has a value for each scenario, such as a value
+   * derived from perturbed data, receives the values of the range rather than those of all scenarios.
+   *
+   * @param startIndex  the index of the first scenario in the range, inclusive
+   * @param endIndex  the index of the last scenario in the range, exclusive
+   * @return the scenario definition containing the scenarios in the range
+   * @throws IllegalArgumentException if the range is empty or is not within the scenarios of this definition
+   */
+  public ScenarioDefinition subset(int startIndex, int endIndex) {
+    ArgChecker.inRange(startIndex, 0, getScenarioCount(), "startIndex");
+    ArgChecker.inRangeInclusive(endIndex, startIndex + 1, getScenarioCount(), "endIndex");
+    List<PerturbationMapping<?>> subsetMappings = mappings.stream()
+        .map(mapping -> subset(mapping, startIndex, endIndex))
+        .collect(toImmutableList());
+    return new ScenarioDefinition(subsetMappings, scenarioNames.subList(startIndex, endIndex));
+  }
+
+  // creates a mapping containing a range of the scenarios of the mapping
+  private static <T> PerturbationMapping<T> subset(PerturbationMapping<T> mapping, int startIndex, int endIndex) {
+    return PerturbationMapping.of(
+        mapping.getFilter(), ScenarioSubsetPerturbation.of(mapping.getPerturbation(), startIndex, endIndex));
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code ScenarioDefinition}.
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+import com.opengamma.strata.data.MarketDataId;
+
+/**
+ * A generator of shocks to a set of risk factors, one set of shocks for each scenario.
+ * <p>
+ * Each risk factor is identified by an object, such as the ID of a quote or the identifier
+ * of a curve node. The shocks are generated on demand for each scenario, so a large number of
+ * scenarios can be processed without holding all the shocks in memory.
+ * <p>
+ * The shocks are converted to market data perturbations using {@link #toMapping} or {@link #toMappings}.
+ * The perturbed values are created lazily when each scenario is requested.
+ * <p>
+ * Implementations must be immutable and thread-safe, and must return the same shocks
+ * each time a scenario is requested.
+ *
+ * @param <K>  the type of the risk factor identifiers
+ */
+public interface ScenarioShocks<K> {
+
+  /**
+   * Gets the number of scenarios.
+   *
+   * @return the number of scenarios
+   */
+  public abstract int getScenarioCount();
+
+  /**
+   * Gets the identifiers of the risk factors.
+   * <p>
+   * The index of an identifier in the list is the index used to obtain the shock for the risk factor.
+   *
+   * @return the identifiers
+   */
+  public abstract ImmutableList<K> getIdentifiers();
+
+  /**
+   * Gets the return type, defining how the shocks are applied.
+   *
+   * @return the return type
+   */
+  public abstract ReturnType getReturnType();
+
+  /**
+   * Gets the shock to one risk factor in a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @param identifierIndex  the index of the risk factor in the list of identifiers
+   * @return the shock
+   * @throws IndexOutOfBoundsException if either index is invalid
+   */
+  public abstract double getShock(int scenarioIndex, int identifierIndex);
+
+  /**
+   * Gets the shocks to all risk factors in a scenario.
+   * <p>
+   * The shocks are in the same order as the identifiers.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the shocks
+   * @throws IndexOutOfBoundsException if the index is invalid
+   */
+  public default DoubleArray getShocks(int scenarioIndex) {
+    return DoubleArray.of(getIdentifiers().size(), i -> getShock(scenarioIndex, i));
+  }
+
+  /**
+   * Returns a stream of the shocks to all risk factors, generating one scenario at a time.
+   *
+   * @return the stream of shocks, one element for each scenario
+   */
+  public default Stream<DoubleArray> stream() {
+    return IntStream.range(0, getScenarioCount()).mapToObj(this::getShocks);
+  }
+
+  /**
+   * Applies the shock to one risk factor in a scenario to a value.
+   *
+   * @param value  the value to shock
+   * @param scenarioIndex  the index of the scenario
+   * @param identifierIndex  the index of the risk factor in the list of identifiers
+   * @return the shocked value
+   */
+  public default double applyShock(double value, int scenarioIndex, int identifierIndex) {
+    return getReturnType().applyReturn(value, getShock(scenarioIndex, identifierIndex));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a mapping that applies the shocks to the market data matching a filter.
+   * <p>
+   * The function is invoked with the value and the index of the scenario, and typically
+   * uses {@link #getShocks(int)} or {@link #applyShock(double, int, int)} to derive the shocked value.
+   * It is invoked lazily, when the value for a scenario is first requested.
+   *
+   * @param <T>  the type of the market data
+   * @param filter  the filter used to choose the market data
+   * @param marketDataType  the type of the market data
+   * @param fn  the function applying the shocks of a scenario to a value
+   * @return the mapping
+   */
+  public default <T> PerturbationMapping<T> toMapping(
+      MarketDataFilter<? extends T, ?> filter,
+      Class<T> marketDataType,
+      ObjIntFunction<T, T> fn) {
+
+    return PerturbationMapping.of(filter, ShockedScenarioPerturbation.of(marketDataType, getScenarioCount(), fn));
+  }
+
+  /**
+   * Returns mappings that apply the shocks directly to observable values, such as quotes.
+   * <p>
+   * There is one mapping for each identifier, matching the market data with that ID.
+   * This is typically used with shocks derived from the time series of the quotes,
+   * so that curves calibrated from the quotes reflect the shocks.
+   *
+   * @param <T>  the type of the market data identifiers
+   * @param shocks  the shocks, identified by market data ID
+   * @return the mappings, one for each identifier
+   */
+  public static <T extends MarketDataId<Double>> List<PerturbationMapping<Double>> toMappings(ScenarioShocks<T> shocks) {
+    ImmutableList<T> identifiers = shocks.getIdentifiers();
+    ImmutableList.Builder<PerturbationMapping<Double>> builder = ImmutableList.builder();
+    for (int i = 0; i < identifiers.size(); i++) {
+      int identifierIndex = i;
+      builder.add(shocks.toMapping(
+          MarketDataFilter.ofId(identifiers.get(i)),
+          Double.class,
+          (value, scenarioIndex) -> shocks.applyShock(value, scenarioIndex, identifierIndex)));
+    }
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioPerturbation;
+
+/**
+ * A perturbation creating the values of a contiguous range of the scenarios of another perturbation.
+ * <p>
+ * The underlying perturbation is applied, and the values of the scenarios in the range are retained.
+ * If the underlying perturbation creates its values on demand, the returned box also creates its values
+ * on demand, thus only the values of the scenarios in the range are ever created.
+ * Otherwise the values of the range are copied, and the remaining values can be garbage collected.
+ *
+ * @param <T>  the type of the market data handled by the perturbation
+ */
+final class ScenarioSubsetPerturbation<T> implements ScenarioPerturbation<T> {
+
+  /**
+   * The underlying perturbation.
+   */
+  private final ScenarioPerturbation<T> underlying;
+  /**
+   * The index of the first scenario in the range, inclusive.
+   */
+  private final int startIndex;
+  /**
+   * The index of the last scenario in the range, exclusive.
+   */
+  private final int endIndex;
+
+  /**
+   * Obtains an instance.
+   *
+   * @param <T>  the type of the market data
+   * @param underlying  the underlying perturbation
+   * @param startIndex  the index of the first scenario in the range, inclusive
+   * @param endIndex  the index of the last scenario in the range, exclusive
+   * @return the perturbation
+   */
+  static <T> ScenarioSubsetPerturbation<T> of(ScenarioPerturbation<T> underlying, int startIndex, int endIndex) {
+    return new ScenarioSubsetPerturbation<>(underlying, startIndex, endIndex);
+  }
+
+  // restricted constructor
+  private ScenarioSubsetPerturbation(ScenarioPerturbation<T> underlying, int startIndex, int endIndex) {
+    this.underlying = ArgChecker.notNull(underlying, "underlying");
+    ArgChecker.inRange(startIndex, 0, underlying.getScenarioCount(), "startIndex");
+    ArgChecker.inRangeInclusive(endIndex, startIndex + 1, underlying.getScenarioCount(), "endIndex");
+    this.startIndex = startIndex;
+    this.endIndex = endIndex;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<T> applyTo(MarketDataBox<T> marketData, ReferenceData refData) {
+    MarketDataBox<T> perturbed = underlying.applyTo(marketData, refData);
+    if (!perturbed.isScenarioValue()) {
+      return perturbed;
+    }
+    if (perturbed.isLazy()) {
+      return MarketDataBox.ofSingleValue(perturbed)
+          .mapWithIndexLazily(getScenarioCount(), getMarketDataType(), this, (box, i) -> box.getValue(startIndex + i));
+    }
+    return MarketDataBox.ofScenarioValues(IntStream.range(startIndex, endIndex)
+        .mapToObj(perturbed::getValue)
+        .collect(toImmutableList()));
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return endIndex - startIndex;
+  }
+
+  @Override
+  public Class<T> getMarketDataType() {
+    return underlying.getMarketDataType();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof ScenarioSubsetPerturbation) {
+      ScenarioSubsetPerturbation<?> other = (ScenarioSubsetPerturbation<?>) obj;
+      return startIndex == other.startIndex &&
+          endIndex == other.endIndex &&
+          underlying.equals(other.underlying);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(underlying, startIndex, endIndex);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ScenarioSubsetPerturbation[scenarios={} to {}, underlying={}]", startIndex, endIndex, underlying);
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import java.io.Serializable;
+
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * A spill policy that accepts serializable scenario values.
+ * <p>
+ * Lazy boxes are not accepted, as spilling would create all of their values.
+ */
+enum ScenarioValueSpillPolicy implements MarketDataSpillPolicy {
+
+  /**
+   * The singleton instance.
+   */
+  INSTANCE;
+
+  @Override
+  public boolean isSpillable(MarketDataId<?> id, MarketDataBox<?> box) {
+    return box.isScenarioValue() &&
+        !box.isLazy() &&
+        Serializable.class.isAssignableFrom(box.getMarketDataType());
+  }
+
+  @Override
+  public String toString() {
+    return "ScenarioValueSpillPolicy";
+  }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioPerturbation;
+
+/**
+ * A perturbation applying generated scenario shocks to market data.
+ * <p>
+ * The perturbed values are created on demand, using {@link MarketDataBox#mapWithIndexLazily}.
+ * The function cannot be compared, so this perturbation has identity equality.
+ * The perturbed boxes are therefore only equal if they are created by the same perturbation instance,
+ * such as when the same scenario definition is used to build market data more than once.
+ *
+ * @param <T>  the type of the market data handled by the perturbation
+ */
+final class ShockedScenarioPerturbation<T> implements ScenarioPerturbation<T> {
+
+  /**
+   * The type of the market data.
+   */
+  private final Class<T> marketDataType;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The function applying the shocks of a scenario to a value.
+   */
+  private final ObjIntFunction<T, T> fn;
+
+  /**
+   * Obtains an instance.
+   *
+   * @param <T>  the type of the market data
+   * @param marketDataType  the type of the market data
+   * @param scenarioCount  the number of scenarios
+   * @param fn  the function applying the shocks of a scenario to a value
+   * @return the perturbation
+   */
+  static <T> ShockedScenarioPerturbation<T> of(Class<T> marketDataType, int scenarioCount, ObjIntFunction<T, T> fn) {
+    return new ShockedScenarioPerturbation<>(marketDataType, scenarioCount, fn);
+  }
+
+  // restricted constructor
+  private ShockedScenarioPerturbation(Class<T> marketDataType, int scenarioCount, ObjIntFunction<T, T> fn) {
+    this.marketDataType = ArgChecker.notNull(marketDataType, "marketDataType");
+    this.scenarioCount = ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    this.fn = ArgChecker.notNull(fn, "fn");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<T> applyTo(MarketDataBox<T> marketData, ReferenceData refData) {
+    return marketData.mapWithIndexLazily(scenarioCount, marketDataType, this, fn);
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public Class<T> getMarketDataType() {
+    return marketDataType;
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ShockedScenarioPerturbation[marketDataType={}, scenarioCount={}]", marketDataType.getSimpleName(), scenarioCount);
+  }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.calc.marketdata.MarketDataSpillStore.Slot;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * A market data box whose values are held by a {@link MarketDataSpillStore}.
+ * <p>
+ * The value of each scenario is held separately by the store, and may have been moved to a file,
+ * in which case it is read back when requested. Requesting the value of one scenario only reads that value.
+ * The scenario count and market data type are held directly, so they are available without reading the file.
+ * <p>
+ * This box is only equal to another spilled box holding the same values.
+ * The hash code is that of the box added to the store, computed when it was added,
+ * so it is available without reading the file.
+ * <p>
+ * When serialized, the box is replaced by a standard scenario box containing the values.
+ *
+ * @param <T>  the type of data held in the box
+ */
+final class SpilledMarketDataBox<T>
+    implements MarketDataBox<T>, Serializable {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The store holding the values.
+   */
+  private final transient MarketDataSpillStore store;
+  /**
+   * The slots of the values in the store, indexed by scenario.
+   */
+  private final transient Slot[] slots;
+  /**
+   * The type of the market data.
+   */
+  private final transient Class<?> marketDataType;
+  /**
+   * The hash code of the box added to the store.
+   */
+  private final transient int hashCode;
+
+  // creates an instance
+  SpilledMarketDataBox(MarketDataSpillStore store, Slot[] slots, MarketDataBox<T> box) {
+    this.store = store;
+    this.slots = slots;
+    this.marketDataType = box.getMarketDataType();
+    this.hashCode = box.hashCode();
+  }
+
+  // the store holding the values
+  MarketDataSpillStore getStore() {
+    return store;
+  }
+
+  // checks if the value of the scenario is held in the heap
+  boolean isResident(int scenarioIndex) {
+    return store.isResident(slots[scenarioIndex]);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public T getSingleValue() {
+    throw new IllegalStateException("This box does not contain a single value");
+  }
+
+  @Override
+  public ScenarioArray<T> getScenarioValue() {
+    return ScenarioArray.of(values(this::getValue));
+  }
+
+  @Override
+  public T getValue(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, slots.length, "scenarioIndex");
+    return store.load(slots[scenarioIndex]);
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return false;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return slots.length;
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return marketDataType;
+  }
+
+  @Override
+  public <R> MarketDataBox<R> map(Function<T, R> fn) {
+    return MarketDataBox.ofScenarioValues(values(i -> fn.apply(getValue(i))));
+  }
+
+  @Override
+  public <R> MarketDataBox<R> mapWithIndex(int scenarioCount, ObjIntFunction<T, R> fn) {
+    if (scenarioCount != slots.length) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              slots.length));
+    }
+    return MarketDataBox.ofScenarioValues(values(i -> fn.apply(getValue(i), i)));
+  }
+
+  @Override
+  public <U, R> MarketDataBox<R> combineWith(MarketDataBox<U> other, BiFunction<T, U, R> fn) {
+    if (other.isScenarioValue() && other.getScenarioCount() != slots.length) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario values must have the same number of scenarios. {} has {} scenarios, {} has {}",
+              this,
+              slots.length,
+              other,
+              other.getScenarioCount()));
+    }
+    return MarketDataBox.ofScenarioValues(values(i -> fn.apply(getValue(i), other.getValue(i))));
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return IntStream.range(0, slots.length).mapToObj(this::getValue);
+  }
+
+  // creates a list containing the result of the function for every scenario
+  private <R> List<R> values(Function<Integer, R> fn) {
+    return IntStream.range(0, slots.length)
+        .mapToObj(fn::apply)
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Replaces this box with a standard scenario box containing the values when serialized.
+   *
+   * @return the standard scenario box
+   */
+  private Object writeReplace() {
+    return MarketDataBox.ofScenarioValues(values(this::getValue));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      SpilledMarketDataBox<?> other = (SpilledMarketDataBox<?>) obj;
+      if (hashCode != other.hashCode ||
+          slots.length != other.slots.length ||
+          !marketDataType.equals(other.marketDataType)) {
+        return false;
+      }
+      for (int i = 0; i < slots.length; i++) {
+        if (!getValue(i).equals(other.getValue(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "SpilledMarketDataBox[scenarioCount={}, marketDataType={}]", slots.length, marketDataType.getSimpleName());
+  }
+
+}
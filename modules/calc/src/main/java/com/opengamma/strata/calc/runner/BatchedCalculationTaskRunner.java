@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.calc.runner.DefaultCalculationTaskRunner.unwrapScenarioResult;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.DefaultCalculationTaskRunner.UnwrappingListener;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation task runner that executes tasks in cost-weighted batches on a work-stealing pool.
+ * <p>
+ * The default runner submits one asynchronous job per task, which becomes a significant overhead
+ * when there are hundreds of thousands of small tasks. This runner instead groups adjacent tasks
+ * into batches of similar estimated cost, using a {@link CalculationTaskCostModel}.
+ * The batches are then executed on a {@link ForkJoinPool}, allowing idle threads to steal work.
+ * <p>
+ * The time taken by each batch is logged at debug level.
+ * The time taken by each task is {@linkplain CalculationTaskCostModel#record recorded} in the cost model.
+ */
+final class BatchedCalculationTaskRunner implements CalculationTaskRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchedCalculationTaskRunner.class);
+
+  /**
+   * The number of batches to create for each thread in the pool.
+   * Having more batches than threads allows work-stealing to balance the load.
+   */
+  private static final int BATCHES_PER_THREAD = 8;
+
+  /**
+   * The pool that executes the batches.
+   */
+  private final ForkJoinPool pool;
+  /**
+   * The model used to estimate the cost of each task.
+   */
+  private final CalculationTaskCostModel costModel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a batched multi-threaded calculation task runner using the standard cost model.
+   * <p>
+   * This factory creates a pool basing the number of threads on the number of available processors.
+   *
+   * @return the calculation task runner
+   */
+  static BatchedCalculationTaskRunner ofMultiThreaded() {
+    return new BatchedCalculationTaskRunner(createPool(), CalculationTaskCostModel.standard());
+  }
+
+  /**
+   * Creates a batched calculation task runner, specifying the pool and cost model.
+   * <p>
+   * It is the callers responsibility to manage the life-cycle of the pool.
+   *
+   * @param pool  the pool to use
+   * @param costModel  the model used to estimate the cost of each task
+   * @return the calculation task runner
+   */
+  static BatchedCalculationTaskRunner of(ForkJoinPool pool, CalculationTaskCostModel costModel) {
+    return new BatchedCalculationTaskRunner(pool, costModel);
+  }
+
+  // create a pool with daemon threads
+  private static ForkJoinPool createPool() {
+    ForkJoinWorkerThreadFactory threadFactory = pool -> {
+      ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      t.setName("CalculationTaskRunner-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+    return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), threadFactory, null, false);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance specifying the pool and cost model.
+   *
+   * @param pool  the pool that is used to perform the calculations
+   * @param costModel  the model used to estimate the cost of each task
+   */
+  private BatchedCalculationTaskRunner(ForkJoinPool pool, CalculationTaskCostModel costModel) {
+    this.pool = ArgChecker.notNull(pool, "pool");
+    this.costModel = ArgChecker.notNull(costModel, "costModel");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculate(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    // perform the calculations
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    Results results = calculateMultiScenario(tasks, md, refData);
+
+    // unwrap the results
+    // since there is only one scenario it is not desirable to return scenario result containers
+    List<Result<?>> mappedResults = results.getCells().stream()
+        .map(r -> unwrapScenarioResult(r))
+        .collect(toImmutableList());
+    return Results.of(results.getColumns(), mappedResults);
+  }
+
+  @Override
+  public void calculateAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // the listener is decorated to unwrap ScenarioArrays containing a single result
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    UnwrappingListener unwrappingListener = new UnwrappingListener(listener);
+    calculateMultiScenarioAsync(tasks, md, refData, unwrappingListener);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculateMultiScenario(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    ResultsListener listener = new ResultsListener();
+    calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+    return listener.result();
+  }
+
+  @Override
+  public void calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    List<CalculationTask> taskList = tasks.getTasks();
+    // the listener is invoked via this wrapper
+    // the wrapper ensures thread-safety for the listener
+    // it also calls the listener with single CalculationResult cells, not CalculationResults
+    Consumer<CalculationResults> consumer =
+        new ListenerWrapper(listener, taskList.size(), tasks.getTargets(), tasks.getColumns());
+
+    // group the tasks into batches and run them in the pool, sharing the FX rates between the tasks
+    List<List<CalculationTask>> batches = createBatches(taskList, costModel, pool.getParallelism() * BATCHES_PER_THREAD);
+    if (!batches.isEmpty()) {
+      CalculationFxRateProviders fxProviders = CalculationFxRateProviders.of(marketData);
+      pool.execute(
+          new BatchAction(batches, 0, batches.size(), marketData, refData, fxProviders, costModel, consumer));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Groups the tasks into batches of similar total cost.
+   * <p>
+   * Adjacent tasks are kept together, as they typically share the same target.
+   *
+   * @param tasks  the tasks
+   * @param costModel  the model used to estimate the cost of each task
+   * @param targetBatchCount  the desired number of batches
+   * @return the batches
+   */
+  static List<List<CalculationTask>> createBatches(
+      List<CalculationTask> tasks,
+      CalculationTaskCostModel costModel,
+      int targetBatchCount) {
+
+    double[] costs = new double[tasks.size()];
+    double totalCost = 0;
+    for (int i = 0; i < costs.length; i++) {
+      costs[i] = costModel.cost(tasks.get(i));
+      totalCost += costs[i];
+    }
+    double batchCostLimit = totalCost / Math.max(targetBatchCount, 1);
+
+    ImmutableList.Builder<List<CalculationTask>> batches = ImmutableList.builder();
+    List<CalculationTask> batch = new ArrayList<>();
+    double batchCost = 0;
+    for (int i = 0; i < costs.length; i++) {
+      batch.add(tasks.get(i));
+      batchCost += costs[i];
+      if (batchCost >= batchCostLimit) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        batchCost = 0;
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Fork-join action that splits a range of batches in half until a single batch remains.
+   * Splitting the range allows idle threads in the pool to steal the unprocessed half.
+   */
+  private static final class BatchAction extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<List<CalculationTask>> batches;
+    private final int start;
+    private final int end;
+    private final transient ScenarioMarketData marketData;
+    private final transient ReferenceData refData;
+    private final transient CalculationFxRateProviders fxProviders;
+    private final transient CalculationTaskCostModel costModel;
+    private final transient Consumer<CalculationResults> consumer;
+
+    private BatchAction(
+        List<List<CalculationTask>> batches,
+        int start,
+        int end,
+        ScenarioMarketData marketData,
+        ReferenceData refData,
+        CalculationFxRateProviders fxProviders,
+        CalculationTaskCostModel costModel,
+        Consumer<CalculationResults> consumer) {
+
+      this.batches = batches;
+      this.start = start;
+      this.end = end;
+      this.marketData = marketData;
+      this.refData = refData;
+      this.fxProviders = fxProviders;
+      this.costModel = costModel;
+      this.consumer = consumer;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start > 1) {
+        int mid = (start + end) >>> 1;
+        invokeAll(
+            new BatchAction(batches, start, mid, marketData, refData, fxProviders, costModel, consumer),
+            new BatchAction(batches, mid, end, marketData, refData, fxProviders, costModel, consumer));
+      } else {
+        runBatch();
+      }
+    }
+
+    // runs the tasks in the batch sequentially, passing each result to the consumer
+    // the time taken by each task is recorded in the cost model
+    private void runBatch() {
+      List<CalculationTask> batch = batches.get(start);
+      long startNanos = System.nanoTime();
+      long taskStartNanos = startNanos;
+      for (CalculationTask task : batch) {
+        CalculationResults results = runTask(task);
+        long taskEndNanos = System.nanoTime();
+        costModel.record(task, taskEndNanos - taskStartNanos);
+        consumer.accept(results);
+        taskStartNanos = System.nanoTime();
+      }
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "Batch {} of {} completed {} tasks in {}ms",
+            start + 1,
+            batches.size(),
+            batch.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      }
+    }
+
+    // runs a single task, converting an unexpected exception to a failure so the batch continues
+    private CalculationResults runTask(CalculationTask task) {
+      try {
+        return task.execute(marketData, refData, fxProviders);
+      } catch (RuntimeException ex) {
+        Result<?> failure = Result.failure(ex);
+        List<CalculationResult> failures = task.getCells().stream()
+            .map(cell -> CalculationResult.of(cell.getRowIndex(), cell.getColumnIndex(), failure))
+            .collect(toImmutableList());
+        return CalculationResults.of(task.getTarget(), failures);
+      }
+    }
+  }
+
+}
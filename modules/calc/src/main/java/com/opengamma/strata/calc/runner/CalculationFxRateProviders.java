@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * The providers of scenario FX rates used to convert the results of the tasks of a calculation run.
+ * <p>
+ * The providers cache the rates of each currency pair for all scenarios.
+ * An instance is created for each calculation run and shared by all its tasks,
+ * thus the rates of a currency pair are obtained once per run rather than once per task.
+ * <p>
+ * This class is thread-safe.
+ */
+final class CalculationFxRateProviders {
+
+  /**
+   * The market data for a set of scenarios.
+   */
+  private final ScenarioMarketData marketData;
+  /**
+   * The provider used when the calculation parameters do not specify an FX rate lookup.
+   */
+  private final ScenarioFxRateProvider defaultProvider;
+  /**
+   * The providers keyed by FX rate lookup.
+   */
+  private final ConcurrentMap<FxRateLookup, ScenarioFxRateProvider> lookupProviders = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for the market data of a calculation run.
+   *
+   * @param marketData  the market data used in the calculations
+   * @return the providers
+   */
+  static CalculationFxRateProviders of(ScenarioMarketData marketData) {
+    return new CalculationFxRateProviders(marketData);
+  }
+
+  // restricted constructor
+  private CalculationFxRateProviders(ScenarioMarketData marketData) {
+    this.marketData = ArgChecker.notNull(marketData, "marketData");
+    this.defaultProvider = ScenarioFxRateProvider.of(marketData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the provider of FX rates for the specified calculation parameters.
+   * <p>
+   * If the parameters contain an {@link FxRateLookup}, the provider uses the lookup.
+   *
+   * @param parameters  the calculation parameters
+   * @return the provider of FX rates
+   */
+  ScenarioFxRateProvider fxRateProvider(CalculationParameters parameters) {
+    return parameters.findParameter(FxRateLookup.class)
+        .map(lookup -> lookupProviders.computeIfAbsent(lookup, l -> LookupScenarioFxRateProvider.of(marketData, l)))
+        .orElse(defaultProvider);
+  }
+
+}
@@ -50,6 +50,23 @@ public interface CalculationListener {
    */
   public abstract void resultReceived(CalculationTarget target, CalculationResult result);
 
+  /**
+   * Gets the maximum number of task results that may be waiting to be passed to this listener.
+   * <p>
+   * Results are passed to the listener by one thread at a time, while other threads continue
+   * to perform calculations. If the listener is slower than the calculations, the results wait
+   * in a queue until the listener receives them. When this limit is reached, the threads performing
+   * calculations block until the listener has received more results, applying backpressure.
+   * <p>
+   * The limit applies to the results of each task, which may contain several cells.
+   * By default there is no limit.
+   *
+   * @return the maximum number of task results that may be waiting, greater than zero
+   */
+  public default int maxPendingResults() {
+    return Integer.MAX_VALUE;
+  }
+
   /**
    * Invoked when all calculations have completed.
    * <p>
@@ -203,15 +203,31 @@ public final class CalculationTask implements ImmutableBean {
    * @param refData  the reference data
    * @return results of the calculation, one for every scenario in the market data
    */
-  @SuppressWarnings("unchecked")
   public CalculationResults execute(ScenarioMarketData marketData, ReferenceData refData) {
+    return execute(marketData, refData, CalculationFxRateProviders.of(marketData));
+  }
+
+  /**
+   * Executes the task, performing calculations for the target using multiple sets of market data.
+   * <p>
+   * The FX rate providers are shared by the tasks of a calculation run, and must use the same market data.
+   *
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @param fxProviders  the FX rate providers of the calculation run
+   * @return results of the calculation, one for every scenario in the market data
+   */
+  @SuppressWarnings("unchecked")
+  CalculationResults execute(
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationFxRateProviders fxProviders) {
+
     // calculate the results
     Map<Measure, Result<?>> results = calculate(marketData, refData);
 
     // get a suitable FX provider
-    ScenarioFxRateProvider fxProvider = parameters.findParameter(FxRateLookup.class)
-        .map(lookup -> LookupScenarioFxRateProvider.of(marketData, lookup))
-        .orElse(ScenarioFxRateProvider.of(marketData));
+    ScenarioFxRateProvider fxProvider = fxProviders.fxRateProvider(parameters);
 
     // convert the results, using a normal loop for better stack traces
     ImmutableList.Builder<CalculationResult> resultBuilder = ImmutableList.builder();
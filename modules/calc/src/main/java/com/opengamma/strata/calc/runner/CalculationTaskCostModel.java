@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Map;
+
+/**
+ * A model estimating the relative cost of executing a calculation task.
+ * <p>
+ * The cost is a unitless positive number, used to compare tasks with one another.
+ * It is used by the calculation runner to group tasks into batches of similar total cost,
+ * and can be used to {@linkplain CalculationTasks#orderByCost(CalculationTaskCostModel) order the tasks}
+ * so that the most expensive tasks are started first.
+ * <p>
+ * The calc module has no knowledge of the structure of the targets, thus the standard model
+ * can only use the type of the target and the number of cells in the task. Applications that
+ * know more about their targets, such as the number of legs or payment periods of a trade,
+ * can supply their own implementation.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface CalculationTaskCostModel {
+
+  /**
+   * Obtains the standard cost model, where every cell of every task has a cost of one.
+   *
+   * @return the standard cost model
+   */
+  public static CalculationTaskCostModel standard() {
+    return task -> task.getCells().size();
+  }
+
+  /**
+   * Obtains a cost model based on the type of the target.
+   * <p>
+   * The cost of a task is the weight of the target type multiplied by the number of cells.
+   * The weight is found by looking up the target class, then its superclasses and interfaces.
+   * If no weight is found, the weight of {@code CalculationTarget} is used, defaulting to one.
+   *
+   * @param weights  the weights, keyed by target type
+   * @return the cost model
+   */
+  public static CalculationTaskCostModel ofTargetTypes(Map<Class<?>, Double> weights) {
+    return TargetTypeCostModel.of(weights);
+  }
+
+  /**
+   * Obtains a cost model based on the times recorded when executing earlier tasks.
+   * <p>
+   * The model learns the time taken per cell for each type of target, using the times passed to
+   * {@link #record(CalculationTask, long)}. The batched calculation task runner records the time
+   * of every task it executes, thus the same model instance should be used across runs.
+   * <p>
+   * The cost of a task is the average time per cell for the type of its target multiplied by the number of cells.
+   * If no time has been recorded for the type, the average time per cell of all types is multiplied by the
+   * cost from the fallback model, such as {@link #standard()} or {@link #ofTargetTypes(Map)}.
+   * If no times have been recorded at all, the fallback model is used unchanged.
+   *
+   * @param fallback  the model used for types of target that have no recorded times
+   * @return the cost model
+   */
+  public static CalculationTaskCostModel ofRecordedTimes(CalculationTaskCostModel fallback) {
+    return TimedCostModel.of(fallback);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Estimates the cost of executing the task.
+   *
+   * @param task  the task
+   * @return the estimated cost, greater than zero
+   */
+  public abstract double cost(CalculationTask task);
+
+  /**
+   * Records the time taken to execute the task.
+   * <p>
+   * This is called by runners that measure the time taken by each task, allowing the model to improve
+   * its estimates for later runs. This method may be called concurrently by multiple threads.
+   * <p>
+   * The default implementation does nothing.
+   *
+   * @param task  the task
+   * @param elapsedNanos  the time taken to execute the task, in nanoseconds
+   */
+  public default void record(CalculationTask task, long elapsedNanos) {
+    // by default times are not recorded
+  }
+
+}
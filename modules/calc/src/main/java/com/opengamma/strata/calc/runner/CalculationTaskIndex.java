@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * An index from market data to the calculation tasks that require it.
+ * <p>
+ * This is used to recalculate only the results that are affected by a change to the market data,
+ * see {@link CalculationTaskRunner#recalculate recalculate} and
+ * {@link CalculationTaskRunner#recalculateMultiScenario recalculateMultiScenario}.
+ * <p>
+ * The index is built once from the {@linkplain CalculationTask#requirements(ReferenceData) requirements}
+ * of each task, and can then be used for any number of recalculations of the same tasks.
+ * The requirements include the FX rates used to convert results to the reporting currency.
+ * A task is only found by the index if it declares the changed market data in its requirements.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CalculationTaskIndex {
+
+  /**
+   * The tasks.
+   */
+  private final CalculationTasks tasks;
+  /**
+   * The indices of the tasks that require each item of market data, including time-series.
+   */
+  private final ImmutableSetMultimap<MarketDataId<?>, Integer> taskIndices;
+  /**
+   * The IDs of the single values required by the tasks.
+   */
+  private final ImmutableSet<MarketDataId<?>> valueIds;
+  /**
+   * The IDs of the time-series required by the tasks.
+   */
+  private final ImmutableSet<ObservableId> timeSeriesIds;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an index of the market data required by the tasks.
+   * <p>
+   * This queries the requirements of every task.
+   *
+   * @param tasks  the tasks
+   * @param refData  the reference data
+   * @return the index
+   * @throws RuntimeException if unable to obtain the requirements
+   */
+  public static CalculationTaskIndex of(CalculationTasks tasks, ReferenceData refData) {
+    ArgChecker.notNull(tasks, "tasks");
+    ArgChecker.notNull(refData, "refData");
+    return new CalculationTaskIndex(tasks, refData);
+  }
+
+  // restricted constructor
+  private CalculationTaskIndex(CalculationTasks tasks, ReferenceData refData) {
+    this.tasks = tasks;
+    ImmutableSetMultimap.Builder<MarketDataId<?>, Integer> indexBuilder = ImmutableSetMultimap.builder();
+    ImmutableSet.Builder<MarketDataId<?>> valueIdBuilder = ImmutableSet.builder();
+    ImmutableSet.Builder<ObservableId> timeSeriesIdBuilder = ImmutableSet.builder();
+    // use for loop not streams for shorter stack traces
+    List<CalculationTask> taskList = tasks.getTasks();
+    for (int i = 0; i < taskList.size(); i++) {
+      MarketDataRequirements requirements = taskList.get(i).requirements(refData);
+      for (MarketDataId<?> id : requirements.getObservables()) {
+        indexBuilder.put(id, i);
+        valueIdBuilder.add(id);
+      }
+      for (MarketDataId<?> id : requirements.getNonObservables()) {
+        indexBuilder.put(id, i);
+        valueIdBuilder.add(id);
+      }
+      for (ObservableId id : requirements.getTimeSeries()) {
+        indexBuilder.put(id, i);
+        timeSeriesIdBuilder.add(id);
+      }
+    }
+    this.taskIndices = indexBuilder.build();
+    this.valueIds = valueIdBuilder.build();
+    this.timeSeriesIds = timeSeriesIdBuilder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the tasks that have been indexed.
+   *
+   * @return the tasks
+   */
+  public CalculationTasks getTasks() {
+    return tasks;
+  }
+
+  /**
+   * Gets the IDs of the market data required by the tasks.
+   * <p>
+   * This includes the IDs of both single values and time-series.
+   *
+   * @return the IDs of the market data required by the tasks
+   */
+  public Set<MarketDataId<?>> getMarketDataIds() {
+    return taskIndices.keySet();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the tasks that require any of the specified market data.
+   * <p>
+   * The tasks are returned in the order they appear in the indexed tasks.
+   *
+   * @param changedIds  the IDs of the market data that has changed
+   * @return the tasks that require any of the market data, empty if none
+   */
+  public List<CalculationTask> findTasks(Set<? extends MarketDataId<?>> changedIds) {
+    List<CalculationTask> taskList = tasks.getTasks();
+    return taskIndexStream(changedIds)
+        .mapToObj(taskList::get)
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Finds the IDs of the market data required by the tasks that differs between two sets of market data.
+   * <p>
+   * A single value or time-series is considered to have changed if it is present in one set of market data
+   * and not the other, or if the two values are not equal. Market data that has been reused when building
+   * the current market data, such as a curve that did not need to be recalibrated, is the same instance
+   * and is therefore checked very quickly.
+   *
+   * @param previous  the market data used to calculate the previous results
+   * @param current  the current market data
+   * @return the IDs of the market data that has changed
+   */
+  public Set<MarketDataId<?>> findChangedIds(ScenarioMarketData previous, ScenarioMarketData current) {
+    ArgChecker.notNull(previous, "previous");
+    ArgChecker.notNull(current, "current");
+    if (previous == current) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet.Builder<MarketDataId<?>> builder = ImmutableSet.builder();
+    valueIds.stream()
+        .filter(id -> !Objects.equals(previous.findValue(id), current.findValue(id)))
+        .forEach(builder::add);
+    timeSeriesIds.stream()
+        .filter(id -> !previous.getTimeSeries(id).equals(current.getTimeSeries(id)))
+        .forEach(builder::add);
+    return builder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Recalculates the rows of the results containing tasks that require any of the changed market data.
+   * <p>
+   * The rows are extracted into a smaller set of tasks, which is passed to the calculator.
+   * All tasks for an affected row are recalculated, as the tasks must form a complete grid.
+   * The recalculated rows then replace the matching rows of the previous results.
+   *
+   * @param previousResults  the results of the previous calculation of the indexed tasks
+   * @param changedIds  the IDs of the market data that has changed
+   * @param calculator  the function that calculates a set of tasks
+   * @return the merged results
+   */
+  Results recalculate(
+      Results previousResults,
+      Set<? extends MarketDataId<?>> changedIds,
+      Function<CalculationTasks, Results> calculator) {
+
+    ArgChecker.notNull(previousResults, "previousResults");
+    ArgChecker.notNull(changedIds, "changedIds");
+    int rowCount = tasks.getTargets().size();
+    int columnCount = tasks.getColumns().size();
+    if (previousResults.getRowCount() != rowCount || previousResults.getColumnCount() != columnCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Previous results must have {} rows and {} columns but had {} rows and {} columns",
+          rowCount,
+          columnCount,
+          previousResults.getRowCount(),
+          previousResults.getColumnCount()));
+    }
+    List<CalculationTask> taskList = tasks.getTasks();
+    BitSet affectedRows = new BitSet(rowCount);
+    taskIndexStream(changedIds).forEach(i -> affectedRows.set(taskList.get(i).getRowIndex()));
+    if (affectedRows.isEmpty()) {
+      return previousResults;
+    }
+
+    // map the affected rows to the rows of a smaller grid, in the same order
+    int[] subRows = new int[rowCount];
+    int[] rows = new int[affectedRows.cardinality()];
+    int subRowCount = 0;
+    for (int row = affectedRows.nextSetBit(0); row >= 0; row = affectedRows.nextSetBit(row + 1)) {
+      subRows[row] = subRowCount;
+      rows[subRowCount++] = row;
+    }
+    ImmutableList.Builder<CalculationTask> subTasks = ImmutableList.builder();
+    for (CalculationTask task : taskList) {
+      if (affectedRows.get(task.getRowIndex())) {
+        int subRow = subRows[task.getRowIndex()];
+        List<CalculationTaskCell> cells = task.getCells().stream()
+            .map(cell -> CalculationTaskCell.of(subRow, cell.getColumnIndex(), cell.getMeasure(), cell.getReportingCurrency()))
+            .collect(toImmutableList());
+        subTasks.add(CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), cells));
+      }
+    }
+    Results subResults = calculator.apply(CalculationTasks.of(subTasks.build(), tasks.getColumns()));
+
+    // replace the affected rows of the previous results
+    List<Result<?>> cells = new ArrayList<>(previousResults.getCells());
+    for (int subRow = 0; subRow < rows.length; subRow++) {
+      for (int column = 0; column < columnCount; column++) {
+        cells.set(rows[subRow] * columnCount + column, subResults.get(subRow, column));
+      }
+    }
+    return Results.of(previousResults.getColumns(), cells);
+  }
+
+  // finds the indices of the tasks that require any of the market data, in order
+  private IntStream taskIndexStream(Set<? extends MarketDataId<?>> changedIds) {
+    Set<Integer> indices = changedIds.stream()
+        .flatMap(id -> taskIndices.get(id).stream())
+        .collect(toImmutableSet());
+    return indices.stream().mapToInt(Integer::intValue).sorted();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "CalculationTaskIndex[tasks={}, marketData={}]", tasks.getTasks().size(), taskIndices.keySet().size());
+  }
+
+}
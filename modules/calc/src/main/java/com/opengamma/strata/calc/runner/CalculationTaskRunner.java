@@ -6,13 +6,16 @@
 package com.opengamma.strata.calc.runner;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.CalculationRules;
 import com.opengamma.strata.calc.CalculationRunner;
 import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -79,6 +82,58 @@ public interface CalculationTaskRunner extends AutoCloseable {
     return DefaultCalculationTaskRunner.of(executor);
   }
 
+  /**
+   * Creates a multi-threaded calculation task runner that executes tasks in batches.
+   * <p>
+   * The tasks are grouped into batches of similar cost, estimated using {@link CalculationTaskCostModel#standard()}.
+   * The batches are executed on a work-stealing {@link ForkJoinPool} with a thread for each available processor.
+   * This is more efficient than {@link #ofMultiThreaded()} when there are a large number of small tasks.
+   * It is recommended to use try-with-resources to manage the runner.
+   *
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofBatched() {
+    return BatchedCalculationTaskRunner.ofMultiThreaded();
+  }
+
+  /**
+   * Creates a calculation task runner that executes tasks in batches, specifying the pool and cost model.
+   * <p>
+   * The tasks are grouped into batches of similar cost, estimated using the specified model.
+   * It is the callers responsibility to manage the life-cycle of the pool.
+   *
+   * @param pool  the work-stealing pool to use
+   * @param costModel  the model used to estimate the cost of each task
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofBatched(ForkJoinPool pool, CalculationTaskCostModel costModel) {
+    return BatchedCalculationTaskRunner.of(pool, costModel);
+  }
+
+  /**
+   * Creates a calculation task runner that splits the scenarios into shards.
+   * <p>
+   * Multi-scenario calculations are performed for each shard of scenarios using the delegate runner,
+   * with the results of the shards joined to form the full set of scenario results.
+   * The shards of a task can be calculated concurrently, spreading a task with many scenarios across threads.
+   * The results are the same as those produced by the delegate for all scenarios at once.
+   * <p>
+   * Sharding does not reduce the memory used by the market data, which is built and retained in full.
+   * To limit the memory used, build the market data of each shard in turn using
+   * {@link #calculateMultiScenarioSharded(CalculationTasks, int, int, ScenarioShardMarketDataBuilder, ReferenceData)}.
+   * The delegate must deliver results asynchronously, as required by
+   * {@link #calculateMultiScenarioAsync(CalculationTasks, ScenarioMarketData, ReferenceData, CalculationListener)}.
+   * <p>
+   * The runner takes ownership of the delegate, closing it when closed.
+   *
+   * @param delegate  the runner used to perform the calculations for each shard
+   * @param scenariosPerShard  the maximum number of scenarios in each shard
+   * @return the calculation task runner
+   */
+  public static CalculationTaskRunner ofSharded(CalculationTaskRunner delegate, int scenariosPerShard) {
+    return ShardedCalculationTaskRunner.of(delegate, scenariosPerShard);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Performs calculations for a single set of market data.
@@ -161,6 +216,97 @@ public interface CalculationTaskRunner extends AutoCloseable {
       ReferenceData refData,
       CalculationListener listener);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Recalculates the results affected by a change to a single set of market data.
+   * <p>
+   * This is used when the previous results were calculated from the indexed tasks, and some of the
+   * market data has since changed, for example when a curve group is recalibrated intraday.
+   * Only the rows of the results containing a task that requires any of the changed market data
+   * are recalculated, with the remaining rows taken from the previous results.
+   * The changed IDs can be obtained using {@link CalculationTaskIndex#findChangedIds}.
+   * <p>
+   * The calculations are performed using {@link #calculate(CalculationTasks, MarketData, ReferenceData)}.
+   *
+   * @param index  the index of the tasks that were used to calculate the previous results
+   * @param previousResults  the previous results
+   * @param changedIds  the IDs of the market data that has changed
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the tasks and market data
+   */
+  public default Results recalculate(
+      CalculationTaskIndex index,
+      Results previousResults,
+      Set<? extends MarketDataId<?>> changedIds,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    return index.recalculate(previousResults, changedIds, tasks -> calculate(tasks, marketData, refData));
+  }
+
+  /**
+   * Recalculates the results affected by a change to the market data for multiple scenarios.
+   * <p>
+   * This is used when the previous results were calculated from the indexed tasks, and some of the
+   * market data has since changed, for example when a curve group is recalibrated intraday.
+   * Only the rows of the results containing a task that requires any of the changed market data
+   * are recalculated, with the remaining rows taken from the previous results.
+   * The changed IDs can be obtained using {@link CalculationTaskIndex#findChangedIds}.
+   * <p>
+   * The calculations are performed using
+   * {@link #calculateMultiScenario(CalculationTasks, ScenarioMarketData, ReferenceData)}.
+   *
+   * @param index  the index of the tasks that were used to calculate the previous results
+   * @param previousResults  the previous results
+   * @param changedIds  the IDs of the market data that has changed
+   * @param marketData  the market data to be used in the calculations
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the tasks and market data
+   */
+  public default Results recalculateMultiScenario(
+      CalculationTaskIndex index,
+      Results previousResults,
+      Set<? extends MarketDataId<?>> changedIds,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    return index.recalculate(previousResults, changedIds, tasks -> calculateMultiScenario(tasks, marketData, refData));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Performs calculations for multiple scenarios, building the market data for one shard of scenarios at a time.
+   * <p>
+   * The scenarios are split into contiguous ranges, known as shards. The shards are calculated in turn,
+   * with the market data of each shard built by the builder before its calculations start, and released
+   * once they are complete. Only the scenario market data of one shard is therefore held in memory at any time,
+   * allowing the number of scenarios to exceed those whose market data fits in memory.
+   * The results of the shards are joined in scenario order, and are the same as the results of
+   * {@link #calculateMultiScenario(CalculationTasks, ScenarioMarketData, ReferenceData)}
+   * using the market data of all scenarios at once.
+   * <p>
+   * The calculations of each shard are performed using
+   * {@link #calculateMultiScenario(CalculationTasks, ScenarioMarketData, ReferenceData)}.
+   *
+   * @param tasks  the calculation tasks to invoke
+   * @param scenarioCount  the total number of scenarios
+   * @param scenariosPerShard  the maximum number of scenarios in each shard
+   * @param marketDataBuilder  the builder of the market data of each shard
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the tasks and market data
+   */
+  public default Results calculateMultiScenarioSharded(
+      CalculationTasks tasks,
+      int scenarioCount,
+      int scenariosPerShard,
+      ScenarioShardMarketDataBuilder marketDataBuilder,
+      ReferenceData refData) {
+
+    return ShardedCalculationTaskRunner.calculateShards(
+        this, tasks, scenarioCount, scenariosPerShard, marketDataBuilder, refData);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Closes any resources held by the component.
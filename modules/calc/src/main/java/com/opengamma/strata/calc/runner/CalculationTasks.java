@@ -8,7 +8,9 @@ package com.opengamma.strata.calc.runner;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.joda.beans.ImmutableBean;
 import org.joda.beans.JodaBeanUtils;
@@ -31,6 +33,7 @@ import com.opengamma.strata.calc.Measure;
 import com.opengamma.strata.calc.ReportingCurrency;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 
 /**
@@ -250,6 +253,32 @@ public final class CalculationTasks implements ImmutableBean {
     return builder.build();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of the tasks ordered so that the most expensive tasks are first.
+   * <p>
+   * Calculation task runners start the tasks in the order of the list, but the results are
+   * placed in the grid by row and column, so the order does not affect the results.
+   * Starting the most expensive tasks first prevents a few expensive tasks near the end of the list,
+   * such as trades priced by simulation, from leaving threads idle while they complete.
+   * <p>
+   * Tasks of equal cost remain in their original order, keeping tasks for the same target together.
+   *
+   * @param costModel  the model used to estimate the cost of each task
+   * @return the tasks, ordered by decreasing cost
+   */
+  public CalculationTasks orderByCost(CalculationTaskCostModel costModel) {
+    ArgChecker.notNull(costModel, "costModel");
+    // the cost of each task is only estimated once
+    double[] costs = tasks.stream().mapToDouble(costModel::cost).toArray();
+    List<CalculationTask> ordered = IntStream.range(0, tasks.size())
+        .boxed()
+        .sorted(Comparator.comparingDouble((Integer i) -> costs[i]).reversed())
+        .map(tasks::get)
+        .collect(toImmutableList());
+    return new CalculationTasks(ordered, columns);
+  }
+
   //-------------------------------------------------------------------------
   @Override
   public String toString() {
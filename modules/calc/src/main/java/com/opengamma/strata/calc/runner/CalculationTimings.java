@@ -0,0 +1,388 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Opt-in instrumentation recording the time spent in calculation and market data functions.
+ * <p>
+ * Instrumentation is enabled by passing the calculation functions and market data functions
+ * through the {@code instrument} methods before they are used to create the calculation rules
+ * and the market data factory. The instrumented functions record the wall time of every invocation:
+ * <ul>
+ *   <li>per calculation function, keyed by the class of the function
+ *   <li>per measure, where the time of an invocation is divided equally between the measures it calculates
+ *   <li>per item of market data built by a market data function, keyed by the ID
+ * </ul>
+ * The number of results and failures is also recorded. An exception thrown by a function is counted
+ * as a failure of every requested result before being rethrown.
+ * <p>
+ * The statistics accumulate until {@link #reset()} is called, and can be obtained at any time,
+ * such as from a {@link CalculationListener} when the calculations are complete.
+ * <p>
+ * This class is thread-safe. The overhead is two calls to {@link System#nanoTime()} per invocation
+ * plus updates to striped counters, which is small compared to pricing a trade or calibrating a curve.
+ */
+public final class CalculationTimings {
+
+  /**
+   * The statistics per calculation function.
+   */
+  private final ConcurrentHashMap<Class<?>, Accumulator> functions = new ConcurrentHashMap<>();
+  /**
+   * The statistics per measure.
+   */
+  private final ConcurrentHashMap<Measure, Accumulator> measures = new ConcurrentHashMap<>();
+  /**
+   * The statistics per item of market data.
+   */
+  private final ConcurrentHashMap<MarketDataId<?>, Accumulator> marketData = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance with no recorded times.
+   *
+   * @return the timings
+   */
+  public static CalculationTimings create() {
+    return new CalculationTimings();
+  }
+
+  // restricted constructor
+  private CalculationTimings() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns calculation functions that record their timings in this instance.
+   * <p>
+   * The result should be used to create the {@code CalculationRules}.
+   *
+   * @param functions  the calculation functions to instrument
+   * @return the instrumented calculation functions
+   */
+  public CalculationFunctions instrument(CalculationFunctions functions) {
+    ArgChecker.notNull(functions, "functions");
+    return new TimedCalculationFunctions(functions);
+  }
+
+  /**
+   * Returns market data functions that record their timings in this instance.
+   * <p>
+   * The result should be used to create the {@code MarketDataFactory}.
+   *
+   * @param functions  the market data functions to instrument
+   * @return the instrumented market data functions
+   */
+  public List<MarketDataFunction<?, ?>> instrument(List<? extends MarketDataFunction<?, ?>> functions) {
+    ArgChecker.notNull(functions, "functions");
+    return functions.stream()
+        .map(this::instrumentAny)
+        .collect(toImmutableList());
+  }
+
+  // wraps a single market data function, the wrapper only delegates so the cast is safe
+  private MarketDataFunction<?, ?> instrumentAny(MarketDataFunction<?, ?> function) {
+    @SuppressWarnings("unchecked")
+    MarketDataFunction<Object, MarketDataId<Object>> cast = (MarketDataFunction<Object, MarketDataId<Object>>) function;
+    return new TimedMarketDataFunction<>(cast);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the statistics for each calculation function, keyed by the class of the function.
+   *
+   * @return the statistics for each calculation function
+   */
+  public ImmutableMap<Class<?>, TimingStatistics> getFunctionStatistics() {
+    return snapshot(functions);
+  }
+
+  /**
+   * Gets the statistics for each measure.
+   * <p>
+   * The time of each invocation of a calculation function is divided equally between the measures it calculates.
+   *
+   * @return the statistics for each measure
+   */
+  public ImmutableMap<Measure, TimingStatistics> getMeasureStatistics() {
+    return snapshot(measures);
+  }
+
+  /**
+   * Gets the statistics for each item of market data built by a market data function.
+   *
+   * @return the statistics for each item of market data
+   */
+  public ImmutableMap<MarketDataId<?>, TimingStatistics> getMarketDataStatistics() {
+    return snapshot(marketData);
+  }
+
+  /**
+   * Discards all the recorded statistics.
+   */
+  public void reset() {
+    functions.clear();
+    measures.clear();
+    marketData.clear();
+  }
+
+  /**
+   * Returns a report of the recorded statistics, ordered by decreasing total time.
+   * <p>
+   * The report is intended to be written to a log.
+   *
+   * @return the report
+   */
+  public String report() {
+    StringBuilder buf = new StringBuilder(256);
+    appendReport(buf, "Calculation functions", MapStream.of(getFunctionStatistics()).mapKeys(Class::getName).toMap());
+    appendReport(buf, "Measures", MapStream.of(getMeasureStatistics()).mapKeys(Measure::getName).toMap());
+    appendReport(buf, "Market data", MapStream.of(getMarketDataStatistics()).mapKeys(Object::toString).toMap());
+    return buf.toString();
+  }
+
+  // appends a section of the report
+  private static void appendReport(StringBuilder buf, String title, Map<String, TimingStatistics> statistics) {
+    buf.append(title).append(':').append(System.lineSeparator());
+    MapStream.of(statistics)
+        .sortedValues(Comparator.comparingLong(TimingStatistics::getTotalNanos).reversed())
+        .forEach((name, stats) -> buf.append(Messages.format(
+            "  {}: {}ms, invocations={}, results={}, failures={}{}",
+            name,
+            TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()),
+            stats.getInvocationCount(),
+            stats.getResultCount(),
+            stats.getFailureCount(),
+            System.lineSeparator())));
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "CalculationTimings[functions={}, measures={}, marketData={}]",
+        functions.size(),
+        measures.size(),
+        marketData.size());
+  }
+
+  //-------------------------------------------------------------------------
+  // records an invocation of a calculation function
+  private void recordCalculation(
+      Class<?> functionType,
+      Set<Measure> requestedMeasures,
+      long elapsedNanos,
+      Map<Measure, Result<?>> results) {
+
+    long failures = results.values().stream().filter(Result::isFailure).count();
+    accumulator(functions, functionType).add(elapsedNanos, results.size(), failures);
+    if (!requestedMeasures.isEmpty()) {
+      long measureNanos = elapsedNanos / requestedMeasures.size();
+      for (Measure measure : requestedMeasures) {
+        Result<?> result = results.get(measure);
+        int resultCount = result == null ? 0 : 1;
+        int failureCount = result != null && result.isFailure() ? 1 : 0;
+        accumulator(measures, measure).add(measureNanos, resultCount, failureCount);
+      }
+    }
+  }
+
+  // records an invocation of a calculation function that threw an exception
+  private void recordCalculationFailure(Class<?> functionType, Set<Measure> requestedMeasures, long elapsedNanos) {
+    accumulator(functions, functionType).add(elapsedNanos, requestedMeasures.size(), requestedMeasures.size());
+    if (!requestedMeasures.isEmpty()) {
+      long measureNanos = elapsedNanos / requestedMeasures.size();
+      requestedMeasures.forEach(measure -> accumulator(measures, measure).add(measureNanos, 1, 1));
+    }
+  }
+
+  // records the building of an item of market data
+  private void recordMarketData(MarketDataId<?> id, long elapsedNanos, boolean failed) {
+    accumulator(marketData, id).add(elapsedNanos, 1, failed ? 1 : 0);
+  }
+
+  private static <K> Accumulator accumulator(ConcurrentHashMap<K, Accumulator> map, K key) {
+    return map.computeIfAbsent(key, k -> new Accumulator());
+  }
+
+  private static <K> ImmutableMap<K, TimingStatistics> snapshot(ConcurrentHashMap<K, Accumulator> map) {
+    return MapStream.of(map).mapValues(Accumulator::statistics).toMap();
+  }
+
+  //-------------------------------------------------------------------------
+  // the statistics of an operation, updated concurrently
+  private static final class Accumulator {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder results = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private void add(long elapsedNanos, long resultCount, long failureCount) {
+      invocations.increment();
+      nanos.add(elapsedNanos);
+      results.add(resultCount);
+      failures.add(failureCount);
+    }
+
+    private TimingStatistics statistics() {
+      return TimingStatistics.of(invocations.sum(), nanos.sum(), results.sum(), failures.sum());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // calculation functions that instrument every function they return
+  private final class TimedCalculationFunctions implements CalculationFunctions {
+    private final CalculationFunctions underlying;
+
+    private TimedCalculationFunctions(CalculationFunctions underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public <T extends CalculationTarget> Optional<CalculationFunction<? super T>> findFunction(T target) {
+      return underlying.findFunction(target).map(fn -> new TimedCalculationFunction<>(fn));
+    }
+
+    @Override
+    public String toString() {
+      return "TimedCalculationFunctions[" + underlying + "]";
+    }
+  }
+
+  // calculation function that records the time taken to calculate
+  private final class TimedCalculationFunction<T extends CalculationTarget> implements CalculationFunction<T> {
+    private final CalculationFunction<T> underlying;
+
+    private TimedCalculationFunction(CalculationFunction<T> underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public Class<T> targetType() {
+      return underlying.targetType();
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return underlying.supportedMeasures();
+    }
+
+    @Override
+    public Optional<String> identifier(T target) {
+      return underlying.identifier(target);
+    }
+
+    @Override
+    public Currency naturalCurrency(T target, ReferenceData refData) {
+      return underlying.naturalCurrency(target, refData);
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        T target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return underlying.requirements(target, measures, parameters, refData);
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        T target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      long start = System.nanoTime();
+      try {
+        Map<Measure, Result<?>> results = underlying.calculate(target, measures, parameters, marketData, refData);
+        recordCalculation(underlying.getClass(), measures, System.nanoTime() - start, results);
+        return results;
+      } catch (RuntimeException ex) {
+        recordCalculationFailure(underlying.getClass(), measures, System.nanoTime() - start);
+        throw ex;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return "TimedCalculationFunction[" + underlying + "]";
+    }
+  }
+
+  // market data function that records the time taken to build
+  private final class TimedMarketDataFunction<T, I extends MarketDataId<? extends T>>
+      implements MarketDataFunction<T, I> {
+
+    private final MarketDataFunction<T, I> underlying;
+
+    private TimedMarketDataFunction(MarketDataFunction<T, I> underlying) {
+      this.underlying = underlying;
+    }
+
+    @Override
+    public MarketDataRequirements requirements(I id, MarketDataConfig marketDataConfig) {
+      return underlying.requirements(id, marketDataConfig);
+    }
+
+    @Override
+    public MarketDataBox<T> build(
+        I id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      long start = System.nanoTime();
+      try {
+        MarketDataBox<T> result = underlying.build(id, marketDataConfig, marketData, refData);
+        recordMarketData(id, System.nanoTime() - start, false);
+        return result;
+      } catch (RuntimeException ex) {
+        recordMarketData(id, System.nanoTime() - start, true);
+        throw ex;
+      }
+    }
+
+    @Override
+    public Class<I> getMarketDataIdType() {
+      return underlying.getMarketDataIdType();
+    }
+
+    @Override
+    public String toString() {
+      return "TimedMarketDataFunction[" + underlying + "]";
+    }
+  }
+
+}
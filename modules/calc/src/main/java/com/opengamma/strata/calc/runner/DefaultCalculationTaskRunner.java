@@ -13,7 +13,6 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
-import java.util.function.Supplier;
 
 import com.opengamma.strata.basics.CalculationTarget;
 import com.opengamma.strata.basics.ReferenceData;
@@ -123,7 +122,7 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * <p>
    * If this method is called with a {@code ScenarioArray} containing more than one value it throws an exception.
    */
-  private static Result<?> unwrapScenarioResult(Result<?> result) {
+  static Result<?> unwrapScenarioResult(Result<?> result) {
     if (result.isFailure()) {
       return result;
     }
@@ -179,8 +178,9 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     Consumer<CalculationResults> consumer =
         new ListenerWrapper(listener, taskList.size(), tasks.getTargets(), tasks.getColumns());
 
-    // run each task using the executor
-    taskList.forEach(task -> runTask(task, marketData, refData, consumer));
+    // run each task using the executor, sharing the FX rates between the tasks
+    CalculationFxRateProviders fxProviders = CalculationFxRateProviders.of(marketData);
+    taskList.forEach(task -> runTask(task, marketData, refData, fxProviders, consumer));
   }
 
   // submits a task to the executor to be run
@@ -188,12 +188,14 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
       CalculationTask task,
       ScenarioMarketData marketData,
       ReferenceData refData,
+      CalculationFxRateProviders fxProviders,
       Consumer<CalculationResults> consumer) {
 
     // the task is executed, with the result passed to the consumer
     // the consumer wraps the listener to ensure thread-safety
-    Supplier<CalculationResults> taskExecutor = () -> task.execute(marketData, refData);
-    CompletableFuture.supplyAsync(taskExecutor, executor).thenAccept(consumer);
+    // the consumer is invoked by the executor, never by the calling thread, as it may block for backpressure
+    Runnable taskExecutor = () -> consumer.accept(task.execute(marketData, refData, fxProviders));
+    CompletableFuture.runAsync(taskExecutor, executor);
   }
 
   //-------------------------------------------------------------------------
@@ -210,11 +212,11 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * containing a single value before passing the value to the delegate listener.
    * This is used by the single scenario async method.
    */
-  private static final class UnwrappingListener implements CalculationListener {
+  static final class UnwrappingListener implements CalculationListener {
 
     private final CalculationListener delegate;
 
-    private UnwrappingListener(CalculationListener delegate) {
+    UnwrappingListener(CalculationListener delegate) {
       this.delegate = delegate;
     }
 
@@ -235,6 +237,11 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
     public void calculationsComplete() {
       delegate.calculationsComplete();
     }
+
+    @Override
+    public int maxPendingResults() {
+      return delegate.maxPendingResults();
+    }
   }
 
 }
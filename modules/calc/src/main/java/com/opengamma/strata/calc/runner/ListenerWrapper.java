@@ -5,11 +5,11 @@
  */
 package com.opengamma.strata.calc.runner;
 
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.slf4j.Logger;
@@ -29,6 +29,12 @@ import com.opengamma.strata.collect.ArgChecker;
  * Calculations may be performed in bulk for a given target.
  * The logic in this class unwraps the {@link CalculationResults}, calling the
  * listener with each individual {@link CalculationResult}.
+ * <p>
+ * No locks are used. Results are added to a lock-free queue and an atomic counter
+ * of undelivered results elects a single thread to drain the queue.
+ * <p>
+ * If the listener limits the {@linkplain CalculationListener#maxPendingResults() number of pending results},
+ * threads adding a result block while the queue is full.
  */
 final class ListenerWrapper implements Consumer<CalculationResults> {
 
@@ -37,51 +43,47 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
   /** The wrapped listener. */
   private final CalculationListener listener;
 
-  /** Queue of actions to perform on the delegate. */
-  private final Queue<CalculationResults> queue = new LinkedList<>();
+  /** Queue of results to deliver to the listener, added to by many threads and drained by one. */
+  private final Queue<CalculationResults> queue = new ConcurrentLinkedQueue<>();
 
-  /** Protects the queue and the executing flag. */
-  private final Lock lock = new ReentrantLock();
+  /**
+   * The number of results that have been added to the queue but not yet delivered.
+   * <p>
+   * The thread that increments this from zero delivers results until it is decremented back to zero.
+   * Any other thread that increments it returns immediately, as its result will be delivered by that thread.
+   * The atomic updates also guarantee the listener state is visible to the next delivering thread.
+   */
+  private final AtomicInteger undelivered = new AtomicInteger();
 
-  /** This lock is never contended; it is used to guarantee the listener state is visible to all threads. */
-  private final Lock listenerLock = new ReentrantLock();
+  /** Permits to add results to the queue, null if the number of pending results is not limited. */
+  private final Semaphore pending;
 
   /** The total number of tasks to be executed. */
   private final int tasksExpected;
 
   // Mutable state -----------------------------------------------------
 
-  /**
-   * Flags whether a call to the underlying listener is executing.
-   * If this flag is set when {@link #accept} is called, the result is added to
-   * the queue and the calling thread returns. The executing thread will ensure
-   * all queued results are delivered.
-   */
-  private boolean executing;
-
-  /** The number of task results that have been received. */
+  /** The number of task results that have been received, only accessed by the delivering thread. */
   private int tasksReceived;
 
   //-------------------------------------------------------------------------
   /**
    * Creates an instance wrapping the specified listener.
-   *  @param listener  the underlying listener wrapped by this object
+   *
+   * @param listener  the underlying listener wrapped by this object
    * @param tasksExpected  the number of tasks to be executed
+   * @param targets  the targets for which values are being calculated
    * @param columns  the columns for which values are being calculated
    */
   ListenerWrapper(CalculationListener listener, int tasksExpected, List<CalculationTarget> targets, List<Column> columns) {
     this.listener = ArgChecker.notNull(listener, "listener");
     this.tasksExpected = ArgChecker.notNegative(tasksExpected, "tasksExpected");
+    int maxPending = ArgChecker.notNegativeOrZero(listener.maxPendingResults(), "maxPendingResults");
+    this.pending = maxPending == Integer.MAX_VALUE ? null : new Semaphore(maxPending);
 
-    listenerLock.lock();
-    try {
-      listener.calculationsStarted(targets, columns);
-
-      if (tasksExpected == 0) {
-        listener.calculationsComplete();
-      }
-    } finally {
-      listenerLock.unlock();
+    listener.calculationsStarted(targets, columns);
+    if (tasksExpected == 0) {
+      listener.calculationsComplete();
     }
   }
 
@@ -95,91 +97,52 @@ final class ListenerWrapper implements Consumer<CalculationResults> {
    * <p>
    * The other threads do not block while the listener is invoked. They
    * add their results to a queue and return quickly. Their results are
-   * delivered by the thread invoking the listener.
+   * delivered by the thread invoking the listener. If the number of pending
+   * results is limited, they block until there is space in the queue.
    *
    * @param result the result of a calculation
    */
   @Override
   public void accept(CalculationResults result) {
-    CalculationResults nextResult;
-
-    // Multiple calculation threads can try to acquire this lock at the same time.
-    // The thread which acquires the lock will set the executing flag and proceed into
-    // the body of the method.
-    // If another thread acquires the lock while the first thread is executing it will
-    // add an item to the queue and return.
-    // The lock also ensures the state of the executing flag and the queue are visible
-    // to any thread acquiring the lock.
-    lock.lock();
-    try {
-      if (executing) {
-        // Another thread is already invoking the listener. Add the result to
-        // the queue and return. The other thread will ensure the queued results
-        // are delivered.
-        queue.add(result);
-        return;
-      } else {
-        // There is no thread invoking the listener. Set the executing flag to
-        // ensure no other thread passes this point and invoke the listener.
-        executing = true;
-        nextResult = result;
-      }
-    } finally {
-      lock.unlock();
+    // The result is always queued before the counter is incremented.
+    // This guarantees the delivering thread finds a result on the queue for every increment.
+    // The thread that blocks for a permit never holds results, so the delivering thread can always release one.
+    if (pending != null) {
+      pending.acquireUninterruptibly();
+    }
+    queue.add(result);
+    if (undelivered.getAndIncrement() != 0) {
+      // Another thread is delivering results, it will deliver this result before it stops
+      return;
     }
 
-    // The logic in the block above guarantees that there will never be more than one thread in the
-    // rest of the method below this point.
-
-    // Loop until the nextResult and all the results from the queue have been delivered
-    for (;;) {
-      // The logic above means this lock is never contended; the executing flag means
-      // only one thread will ever be in this loop at any given time.
-      // This lock is required to ensure any state changes in the listener are visible to all threads
-      listenerLock.lock();
-      try {
-        // Invoke the listener while not protected by lock. This allows other threads
-        // to queue results while this thread is delivering them to the listener.
-        for (CalculationResult cell : nextResult.getCells()) {
-          listener.resultReceived(nextResult.getTarget(), cell);
-        }
-      } catch (RuntimeException e) {
-        log.warn("Exception invoking listener.resultReceived", e);
-      } finally {
-        listenerLock.unlock();
+    // The logic above guarantees that there will never be more than one thread in the loop below.
+    // The loop continues until the counter is decremented to zero, at which point all results are delivered.
+    do {
+      deliver(queue.poll());
+      if (pending != null) {
+        pending.release();
       }
+    } while (undelivered.decrementAndGet() != 0);
+  }
 
-      // The following code must be executed whilst holding the lock to guarantee any changes
-      // to the executing flag and to the state of the queue are visible to all threads
-      lock.lock();
+  // delivers a single result to the listener, only called by the delivering thread
+  private void deliver(CalculationResults result) {
+    try {
+      for (CalculationResult cell : result.getCells()) {
+        listener.resultReceived(result.getTarget(), cell);
+      }
+    } catch (RuntimeException e) {
+      log.warn("Exception invoking listener.resultReceived", e);
+    }
+    if (++tasksReceived == tasksExpected) {
+      // The expected number of results have been received, inform the listener
       try {
-        if (++tasksReceived == tasksExpected) {
-          // The expected number of results have been received, inform the listener.
-          // The listener lock must be acquired to ensure any state changes in the listener are
-          // visible to all threads
-          listenerLock.lock();
-          try {
-            listener.calculationsComplete();
-          } catch (RuntimeException e) {
-            log.warn("Exception invoking listener.calculationsComplete", e);
-          } finally {
-            listenerLock.unlock();
-          }
-          return;
-        } else if (queue.isEmpty()) {
-          // There are no more results to deliver. Unset the executing flag and return.
-          // This allows the next calling thread to deliver results.
-          executing = false;
-          return;
-        } else {
-          // There are results on the queue. This means another thread called accept(),
-          // added a result to the queue and returned while this thread was invoking the listener.
-          // This thread must deliver the results from the queue.
-          nextResult = queue.remove();
-        }
-      } finally {
-        lock.unlock();
+        listener.calculationsComplete();
+      } catch (RuntimeException e) {
+        log.warn("Exception invoking listener.calculationsComplete", e);
       }
     }
   }
+
 }
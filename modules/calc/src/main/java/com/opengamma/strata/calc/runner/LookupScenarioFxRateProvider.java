@@ -6,15 +6,23 @@
 package com.opengamma.strata.calc.runner;
 
 import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.FxRateProvider;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
  * A provider of scenario FX rates that uses FX rate lookup.
  * The use of {@link FxRateLookup} allows triangulation currency and observable source to be controlled.
+ * <p>
+ * The rates of a currency pair are obtained for all scenarios at once and cached,
+ * so the lookup is only performed once for each pair and scenario.
  */
 class LookupScenarioFxRateProvider
     implements ScenarioFxRateProvider, Serializable {
@@ -30,6 +38,10 @@ class LookupScenarioFxRateProvider
    * The FX rate lookup.
    */
   private final FxRateLookup lookup;
+  /**
+   * The rates for all scenarios, keyed by currency pair.
+   */
+  private final transient ConcurrentMap<CurrencyPair, DoubleArray> rates = new ConcurrentHashMap<>();
 
   // obtains an instance, returning the interface type to make type system happy at call site
   static ScenarioFxRateProvider of(ScenarioMarketData marketData, FxRateLookup lookup) {
@@ -41,11 +53,34 @@ class LookupScenarioFxRateProvider
     this.lookup = ArgChecker.notNull(lookup, "lookup");
   }
 
+  // ensure the cache is created when deserialized
+  private Object readResolve() {
+    return new LookupScenarioFxRateProvider(marketData, lookup);
+  }
+
   @Override
   public int getScenarioCount() {
     return marketData.getScenarioCount();
   }
 
+  @Override
+  public double fxRate(Currency baseCurrency, Currency counterCurrency, int scenarioIndex) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return 1;
+    }
+    return fxRates(baseCurrency, counterCurrency).get(scenarioIndex);
+  }
+
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(getScenarioCount(), 1d);
+    }
+    return rates.computeIfAbsent(
+        CurrencyPair.of(baseCurrency, counterCurrency),
+        pair -> DoubleArray.of(getScenarioCount(), i -> fxRateProvider(i).fxRate(baseCurrency, counterCurrency)));
+  }
+
   @Override
   public FxRateProvider fxRateProvider(int scenarioIndex) {
     return lookup.fxRateProvider(marketData.scenario(scenarioIndex));
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A view of a contiguous range of the scenarios in a set of market data.
+ * <p>
+ * Values with a single value for all scenarios are returned unchanged.
+ * Values with a value for each scenario are returned as a view of the scenarios in the range.
+ * The view refers to the underlying box, thus no values are copied and only the values of the scenarios
+ * in the range are created by lazily perturbed data.
+ */
+final class ScenarioShardMarketData implements ScenarioMarketData {
+
+  /**
+   * The underlying market data.
+   */
+  private final ScenarioMarketData underlying;
+  /**
+   * The index of the first scenario in the range, inclusive.
+   */
+  private final int startIndex;
+  /**
+   * The index of the last scenario in the range, exclusive.
+   */
+  private final int endIndex;
+
+  // creates an instance
+  ScenarioShardMarketData(ScenarioMarketData underlying, int startIndex, int endIndex) {
+    if (startIndex < 0 || endIndex > underlying.getScenarioCount() || startIndex >= endIndex) {
+      throw new IllegalArgumentException(Messages.format(
+          "Invalid scenario range {} to {} for {} scenarios", startIndex, endIndex, underlying.getScenarioCount()));
+    }
+    this.underlying = underlying;
+    this.startIndex = startIndex;
+    this.endIndex = endIndex;
+  }
+
+  // returns a view of the range of scenarios of a box, the start index identifies the view
+  @SuppressWarnings("unchecked")
+  private <T> MarketDataBox<T> slice(MarketDataBox<T> box) {
+    if (!box.isScenarioValue()) {
+      return box;
+    }
+    return MarketDataBox.ofSingleValue(box).mapWithIndexLazily(
+        getScenarioCount(),
+        (Class<T>) box.getMarketDataType(),
+        startIndex,
+        (underlyingBox, i) -> underlyingBox.getValue(startIndex + i));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return slice(underlying.getValuationDate());
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return endIndex - startIndex;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return underlying.containsValue(id);
+  }
+
+  @Override
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    return slice(underlying.getValue(id));
+  }
+
+  @Override
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    return underlying.findValue(id).map(this::slice);
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    return underlying.getIds();
+  }
+
+  @Override
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    return underlying.findIds(name);
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    return underlying.getTimeSeriesIds();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    return underlying.getTimeSeries(id);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ScenarioShardMarketData[scenarios={} to {}, underlying={}]", startIndex, endIndex, underlying);
+  }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Builds the market data for a shard of scenarios, a contiguous range of the scenarios of a calculation.
+ * <p>
+ * This is used by {@link CalculationTaskRunner#calculateMultiScenarioSharded(
+ * CalculationTasks, int, int, ScenarioShardMarketDataBuilder, ReferenceData)}, such that only the market data
+ * of one shard of scenarios is held in memory at any time.
+ * The market data of a shard is typically built by {@link MarketDataFactory} using the
+ * {@linkplain ScenarioDefinition#subset(int, int) subset} of the scenario definition for the shard.
+ */
+@FunctionalInterface
+public interface ScenarioShardMarketDataBuilder {
+
+  /**
+   * Builds the market data for the scenarios in the range.
+   * <p>
+   * The market data must contain one scenario for each scenario in the range, in order.
+   * If the market data is {@link AutoCloseable}, it is closed once the calculations of the shard are complete.
+   *
+   * @param startIndex  the index of the first scenario in the range, inclusive
+   * @param endIndex  the index of the last scenario in the range, exclusive
+   * @return the market data for the scenarios in the range
+   */
+  public abstract ScenarioMarketData build(int startIndex, int endIndex);
+
+}
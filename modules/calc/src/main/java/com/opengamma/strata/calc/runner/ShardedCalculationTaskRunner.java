@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation task runner that performs multi-scenario calculations in shards of scenarios.
+ * <p>
+ * The scenarios are split into contiguous ranges, known as shards, and each shard is calculated
+ * by a delegate runner using a view of the market data containing only those scenarios.
+ * All shards are submitted to the delegate at once, thus the shards of a single task can be
+ * calculated concurrently, which is useful when there are few targets and many scenarios.
+ * The scenario results of a task are joined in scenario order once every shard of the task is complete,
+ * and are delivered to the listener by the thread of the delegate that completed the last shard.
+ * <p>
+ * Sharding does not reduce the memory used by the market data. The full scenario market data is built
+ * before the calculations start and is retained until they complete, including any perturbed values
+ * created on demand. Only the per-scenario working data of a calculation is limited to one shard.
+ * The results of each shard of a task are retained until every shard of that task is complete.
+ * <p>
+ * The memory used by the market data is limited by {@link #calculateShards}, which builds the market data
+ * of each shard in turn, releasing it before the next shard is built.
+ * <p>
+ * Scenario arrays are joined using {@link ScenarioArray#join(List)}, thus the joined array has the same type
+ * as the arrays of the shards.
+ * A result that is not a scenario array is only valid if it is the same for every shard.
+ * Otherwise the joined result is a failure.
+ * If the result of any shard is a failure, the joined result is the first failure.
+ */
+final class ShardedCalculationTaskRunner implements CalculationTaskRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(ShardedCalculationTaskRunner.class);
+
+  /**
+   * The runner used to perform the calculations for each shard.
+   */
+  private final CalculationTaskRunner delegate;
+  /**
+   * The maximum number of scenarios in each shard.
+   */
+  private final int scenariosPerShard;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a sharded calculation task runner.
+   *
+   * @param delegate  the runner used to perform the calculations for each shard
+   * @param scenariosPerShard  the maximum number of scenarios in each shard
+   * @return the calculation task runner
+   */
+  static ShardedCalculationTaskRunner of(CalculationTaskRunner delegate, int scenariosPerShard) {
+    return new ShardedCalculationTaskRunner(delegate, scenariosPerShard);
+  }
+
+  /**
+   * Creates an instance specifying the delegate and shard size.
+   *
+   * @param delegate  the runner used to perform the calculations for each shard
+   * @param scenariosPerShard  the maximum number of scenarios in each shard
+   */
+  private ShardedCalculationTaskRunner(CalculationTaskRunner delegate, int scenariosPerShard) {
+    this.delegate = ArgChecker.notNull(delegate, "delegate");
+    this.scenariosPerShard = ArgChecker.notNegativeOrZero(scenariosPerShard, "scenariosPerShard");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculate(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    // a single scenario cannot be split
+    return delegate.calculate(tasks, marketData, refData);
+  }
+
+  @Override
+  public void calculateAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // a single scenario cannot be split
+    delegate.calculateAsync(tasks, marketData, refData, listener);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculateMultiScenario(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    ResultsListener listener = new ResultsListener();
+    calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+    return listener.result();
+  }
+
+  @Override
+  public void calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    int scenarioCount = marketData.getScenarioCount();
+    if (scenarioCount <= scenariosPerShard) {
+      delegate.calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+      return;
+    }
+    // the listener is invoked via this wrapper, once every shard of a task is complete
+    Consumer<CalculationResults> consumer =
+        new ListenerWrapper(listener, tasks.getTasks().size(), tasks.getTargets(), tasks.getColumns());
+    int shardCount = (scenarioCount + scenariosPerShard - 1) / scenariosPerShard;
+    ShardJoiner joiner = new ShardJoiner(tasks, shardCount, consumer);
+
+    // each shard is calculated asynchronously by the delegate, the calling thread never delivers results
+    for (int shard = 0; shard < shardCount; shard++) {
+      int start = shard * scenariosPerShard;
+      int end = Math.min(start + scenariosPerShard, scenarioCount);
+      ScenarioMarketData shardMarketData = new ScenarioShardMarketData(marketData, start, end);
+      delegate.calculateMultiScenarioAsync(tasks, shardMarketData, refData, joiner.listener(shard, start, end));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Performs calculations for multiple scenarios, building the market data for one shard of scenarios at a time.
+   * <p>
+   * The shards are calculated in turn by the runner. The market data of a shard is closed, if it is
+   * {@link AutoCloseable}, once the calculations of the shard are complete.
+   * The results of each shard are retained until every shard is complete.
+   *
+   * @param runner  the runner used to perform the calculations for each shard
+   * @param tasks  the calculation tasks to invoke
+   * @param scenarioCount  the total number of scenarios
+   * @param scenariosPerShard  the maximum number of scenarios in each shard
+   * @param marketDataBuilder  the builder of the market data of each shard
+   * @param refData  the reference data to be used in the calculations
+   * @return the grid of calculation results, based on the tasks and market data
+   */
+  static Results calculateShards(
+      CalculationTaskRunner runner,
+      CalculationTasks tasks,
+      int scenarioCount,
+      int scenariosPerShard,
+      ScenarioShardMarketDataBuilder marketDataBuilder,
+      ReferenceData refData) {
+
+    ArgChecker.notNull(runner, "runner");
+    ArgChecker.notNull(tasks, "tasks");
+    ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    ArgChecker.notNegativeOrZero(scenariosPerShard, "scenariosPerShard");
+    ArgChecker.notNull(marketDataBuilder, "marketDataBuilder");
+    ArgChecker.notNull(refData, "refData");
+    int shardCount = (scenarioCount + scenariosPerShard - 1) / scenariosPerShard;
+    List<Results> shardResults = new ArrayList<>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++) {
+      int start = shard * scenariosPerShard;
+      int end = Math.min(start + scenariosPerShard, scenarioCount);
+      long startNanos = System.nanoTime();
+      ScenarioMarketData shardMarketData = marketDataBuilder.build(start, end);
+      try {
+        if (shardMarketData.getScenarioCount() != end - start) {
+          throw new IllegalArgumentException(Messages.format(
+              "Market data for scenarios {} to {} has {} scenarios, expected {}",
+              start,
+              end - 1,
+              shardMarketData.getScenarioCount(),
+              end - start));
+        }
+        shardResults.add(runner.calculateMultiScenario(tasks, shardMarketData, refData));
+      } finally {
+        if (shardMarketData instanceof AutoCloseable) {
+          Unchecked.wrap(() -> ((AutoCloseable) shardMarketData).close());
+        }
+      }
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "Shard of scenarios {} to {} completed in {}ms",
+            start,
+            end - 1,
+            (System.nanoTime() - startNanos) / 1_000_000);
+      }
+    }
+    // join the results of each cell, in scenario order
+    int cellCount = shardResults.get(0).getCells().size();
+    List<Result<?>> cells = new ArrayList<>(cellCount);
+    for (int cell = 0; cell < cellCount; cell++) {
+      int cellIndex = cell;
+      cells.add(join(shardResults.stream()
+          .map(results -> results.getCells().get(cellIndex))
+          .collect(toImmutableList())));
+    }
+    return Results.of(shardResults.get(0).getColumns(), cells);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Joins the results of a cell for each shard, in scenario order.
+   *
+   * @param shardResults  the results of the shards
+   * @return the joined result
+   */
+  static Result<?> join(List<Result<?>> shardResults) {
+    for (Result<?> result : shardResults) {
+      if (result.isFailure()) {
+        return result;
+      }
+    }
+    Object first = shardResults.get(0).getValue();
+    for (Result<?> result : shardResults) {
+      if (result.getValue().getClass() != first.getClass()) {
+        return Result.failure(
+            FailureReason.CALCULATION_FAILED,
+            "Unable to join results of type {} and {}",
+            first.getClass().getName(),
+            result.getValue().getClass().getName());
+      }
+    }
+    if (!(first instanceof ScenarioArray)) {
+      // a value that does not vary by scenario is the same for every shard
+      return joinSame(shardResults.stream().map(Result::getValue).collect(toImmutableList()));
+    }
+    List<ScenarioArray<?>> arrays = shardResults.stream()
+        .map(result -> (ScenarioArray<?>) result.getValue())
+        .collect(toImmutableList());
+    try {
+      return Result.success(ScenarioArray.join(arrays));
+    } catch (IllegalArgumentException ex) {
+      return Result.failure(FailureReason.CALCULATION_FAILED, ex, "Unable to join results: {}", ex.getMessage());
+    }
+  }
+
+  // returns the value if it is the same for every shard
+  private static Result<?> joinSame(List<Object> values) {
+    Object first = values.get(0);
+    for (Object value : values) {
+      if (!first.equals(value)) {
+        return Result.failure(
+            FailureReason.CALCULATION_FAILED,
+            "Unable to join results of type {} that differ between scenarios",
+            first.getClass().getName());
+      }
+    }
+    return Result.success(first);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Receives the results of the shards, joining and delivering the results of a task once every shard is complete.
+   * <p>
+   * The result of each cell of each shard is held until the results of the task are joined.
+   * The last shard of a task to complete joins and delivers the results, on the thread that completed it.
+   */
+  private static final class ShardJoiner {
+
+    /**
+     * The tasks.
+     */
+    private final List<CalculationTask> tasks;
+    /**
+     * The number of shards.
+     */
+    private final int shardCount;
+    /**
+     * The number of columns.
+     */
+    private final int columnCount;
+    /**
+     * The consumer receiving the joined results of each task.
+     */
+    private final Consumer<CalculationResults> consumer;
+    /**
+     * The index of the task of each cell, indexed by row and column.
+     */
+    private final int[] taskIndices;
+    /**
+     * The result of each cell of each shard, indexed by row, column and shard.
+     */
+    private final AtomicReferenceArray<Result<?>> shardResults;
+    /**
+     * The number of cell results still to be received for each task.
+     */
+    private final AtomicIntegerArray remaining;
+
+    private ShardJoiner(CalculationTasks tasks, int shardCount, Consumer<CalculationResults> consumer) {
+      this.tasks = tasks.getTasks();
+      this.shardCount = shardCount;
+      this.columnCount = tasks.getColumns().size();
+      this.consumer = consumer;
+      this.taskIndices = new int[tasks.getTargets().size() * columnCount];
+      this.shardResults = new AtomicReferenceArray<>(taskIndices.length * shardCount);
+      this.remaining = new AtomicIntegerArray(this.tasks.size());
+      for (int i = 0; i < this.tasks.size(); i++) {
+        List<CalculationTaskCell> cells = this.tasks.get(i).getCells();
+        for (CalculationTaskCell cell : cells) {
+          taskIndices[cell.getRowIndex() * columnCount + cell.getColumnIndex()] = i;
+        }
+        remaining.set(i, cells.size() * shardCount);
+      }
+    }
+
+    // creates the listener receiving the results of a shard
+    private CalculationListener listener(int shard, int startScenario, int endScenario) {
+      long startNanos = System.nanoTime();
+      return new CalculationListener() {
+
+        @Override
+        public void resultReceived(CalculationTarget target, CalculationResult result) {
+          received(shard, result);
+        }
+
+        @Override
+        public void calculationsComplete() {
+          if (log.isDebugEnabled()) {
+            log.debug(
+                "Shard of scenarios {} to {} completed in {}ms",
+                startScenario,
+                endScenario - 1,
+                (System.nanoTime() - startNanos) / 1_000_000);
+          }
+        }
+      };
+    }
+
+    // stores the result of a cell of a shard, joining the results of the task if it is the last
+    private void received(int shard, CalculationResult result) {
+      int cellIndex = result.getRowIndex() * columnCount + result.getColumnIndex();
+      shardResults.set(cellIndex * shardCount + shard, result.getResult());
+      int taskIndex = taskIndices[cellIndex];
+      if (remaining.decrementAndGet(taskIndex) == 0) {
+        CalculationTask task = tasks.get(taskIndex);
+        List<CalculationResult> joined = task.getCells().stream()
+            .map(cell -> CalculationResult.of(cell.getRowIndex(), cell.getColumnIndex(), joinCell(cell)))
+            .collect(toImmutableList());
+        consumer.accept(CalculationResults.of(task.getTarget(), joined));
+      }
+    }
+
+    // joins the results of a cell, releasing the results of the shards
+    private Result<?> joinCell(CalculationTaskCell cell) {
+      int offset = (cell.getRowIndex() * columnCount + cell.getColumnIndex()) * shardCount;
+      List<Result<?>> results = new ArrayList<>(shardCount);
+      for (int shard = 0; shard < shardCount; shard++) {
+        results.add(shardResults.getAndSet(offset + shard, null));
+      }
+      return join(results);
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Calculation listener that streams the results of individual calculations to a consumer thread.
+ * <p>
+ * Unlike {@link ResultsListener}, this listener does not hold the results until the calculations are complete.
+ * Each result is added to a bounded queue as it arrives, and is removed by a separate thread calling
+ * {@link #next()} or {@link #drain(Consumer)}. This allows the results to be written to a file or database,
+ * or aggregated, without holding the full grid of results in memory.
+ * <p>
+ * The listener applies backpressure. When the queue is full, the calculations wait for the consumer.
+ * The number of results held in memory is therefore limited by the capacity, regardless of the
+ * number of targets and scenarios.
+ * <p>
+ * The consumer must run in a different thread to every thread that may deliver results to this listener,
+ * otherwise the calculations block forever once the capacity is reached.
+ * The standard calculation runners deliver results from the threads of their executor, so the thread that
+ * starts the calculations asynchronously can consume the results once the start method returns.
+ * The calculations must instead be started in a separate thread to the one consuming the results if they
+ * may run on the starting thread, for example when using a direct executor, an executor whose rejection
+ * policy runs tasks in the caller, or a runner whose asynchronous methods block until the calculations complete.
+ * <p>
+ * A listener instance should not be used for multiple sets of calculations.
+ */
+public final class StreamingCalculationListener implements CalculationListener {
+
+  /** The queue of results, with an empty value marking the end of the results. */
+  private final BlockingQueue<Optional<CalculationResult>> queue;
+
+  /** The maximum number of results that may be waiting. */
+  private final int capacity;
+
+  /** The targets, set when the calculations start. */
+  private volatile List<CalculationTarget> targets = ImmutableList.of();
+
+  /** The columns, set when the calculations start. */
+  private volatile List<Column> columns = ImmutableList.of();
+
+  /** Whether the end of the results has been reached by the consumer. */
+  private volatile boolean complete;
+
+  /**
+   * Creates an instance with the specified capacity.
+   * <p>
+   * The capacity is used for the queue of results in this listener, and for the queue of results
+   * of the calculation tasks that are waiting to be passed to this listener.
+   *
+   * @param capacity  the maximum number of results that may be waiting for the consumer
+   */
+  public StreamingCalculationListener(int capacity) {
+    this.capacity = ArgChecker.notNegativeOrZero(capacity, "capacity");
+    this.queue = new ArrayBlockingQueue<>(capacity);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the targets for which values are being calculated.
+   * <p>
+   * The row index of each result refers to this list.
+   * This is empty until the calculations have started.
+   *
+   * @return the targets
+   */
+  public List<CalculationTarget> getTargets() {
+    return targets;
+  }
+
+  /**
+   * Gets the columns for which values are being calculated.
+   * <p>
+   * The column index of each result refers to this list.
+   * This is empty until the calculations have started.
+   *
+   * @return the columns
+   */
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    this.targets = ImmutableList.copyOf(targets);
+    this.columns = ImmutableList.copyOf(columns);
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    Uninterruptibles.putUninterruptibly(queue, Optional.of(result));
+  }
+
+  @Override
+  public void calculationsComplete() {
+    Uninterruptibles.putUninterruptibly(queue, Optional.empty());
+  }
+
+  @Override
+  public int maxPendingResults() {
+    return capacity;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the next result, blocking until it is available.
+   * <p>
+   * The results are returned in the order they were calculated, not in row and column order.
+   * If the thread is interrupted while this method is blocked, then a runtime exception
+   * is thrown, but with the interrupt flag set.
+   *
+   * @return the next result, empty if all the results have been returned
+   */
+  public Optional<CalculationResult> next() {
+    if (complete) {
+      return Optional.empty();
+    }
+    try {
+      Optional<CalculationResult> result = queue.take();
+      if (!result.isPresent()) {
+        complete = true;
+      }
+      return result;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Passes each result to the consumer as it arrives, blocking until all the results have been consumed.
+   * <p>
+   * The results are passed in the order they were calculated, not in row and column order.
+   * If the thread is interrupted while this method is blocked, then a runtime exception
+   * is thrown, but with the interrupt flag set.
+   *
+   * @param consumer  the consumer of the results
+   */
+  public void drain(Consumer<? super CalculationResult> consumer) {
+    ArgChecker.notNull(consumer, "consumer");
+    for (Optional<CalculationResult> result = next(); result.isPresent(); result = next()) {
+      consumer.accept(result.get());
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Cost model based on the type of the target.
+ * <p>
+ * The cost of a task is the weight of the target type multiplied by the number of cells.
+ */
+final class TargetTypeCostModel implements CalculationTaskCostModel {
+
+  /**
+   * The weights, keyed by target type.
+   */
+  private final ImmutableMap<Class<?>, Double> weights;
+  /**
+   * The weight used when no type matches.
+   */
+  private final double defaultWeight;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the weights.
+   *
+   * @param weights  the weights, keyed by target type
+   * @return the cost model
+   */
+  static TargetTypeCostModel of(Map<Class<?>, Double> weights) {
+    return new TargetTypeCostModel(ImmutableMap.copyOf(weights));
+  }
+
+  // restricted constructor
+  private TargetTypeCostModel(ImmutableMap<Class<?>, Double> weights) {
+    weights.values().forEach(weight -> ArgChecker.notNegativeOrZero(weight, "weight"));
+    this.weights = weights;
+    this.defaultWeight = weights.getOrDefault(CalculationTarget.class, 1d);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double cost(CalculationTask task) {
+    return findWeight(task.getTarget().getClass()) * task.getCells().size();
+  }
+
+  // finds the weight of the most specific matching type, checking superclasses then interfaces
+  private double findWeight(Class<?> type) {
+    for (Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+      Double weight = weights.get(cls);
+      if (weight != null) {
+        return weight;
+      }
+    }
+    for (Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+      for (Class<?> iface : cls.getInterfaces()) {
+        Double weight = weights.get(iface);
+        if (weight != null) {
+          return weight;
+        }
+      }
+    }
+    return defaultWeight;
+  }
+
+  @Override
+  public String toString() {
+    return "TargetTypeCostModel" + weights;
+  }
+
+}
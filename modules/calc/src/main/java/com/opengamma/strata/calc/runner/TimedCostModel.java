@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * Cost model based on the times recorded when executing earlier tasks.
+ * <p>
+ * The time taken per cell is recorded for each type of target.
+ * The cost of a task is the average time per cell for the type of its target multiplied by the number of cells.
+ * If no time has been recorded for the type, the average time per cell of all types is multiplied by the cost
+ * from the fallback model, which should therefore have a cost of approximately one per cell.
+ * If no times have been recorded at all, the fallback model is used unchanged.
+ */
+final class TimedCostModel implements CalculationTaskCostModel {
+
+  /**
+   * The recorded times, keyed by target type.
+   */
+  private final ConcurrentHashMap<Class<?>, Timing> timings = new ConcurrentHashMap<>();
+  /**
+   * The recorded times of all target types.
+   */
+  private final Timing total = new Timing();
+  /**
+   * The model used when no times have been recorded.
+   */
+  private final CalculationTaskCostModel fallback;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance with no recorded times.
+   *
+   * @param fallback  the model used when no times have been recorded
+   * @return the cost model
+   */
+  static TimedCostModel of(CalculationTaskCostModel fallback) {
+    return new TimedCostModel(fallback);
+  }
+
+  // restricted constructor
+  private TimedCostModel(CalculationTaskCostModel fallback) {
+    this.fallback = ArgChecker.notNull(fallback, "fallback");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public double cost(CalculationTask task) {
+    Timing timing = timings.get(task.getTarget().getClass());
+    if (timing != null && timing.hasTimes()) {
+      return Math.max(timing.nanosPerCell() * task.getCells().size(), 1d);
+    }
+    double fallbackCost = fallback.cost(task);
+    return total.hasTimes() ? Math.max(total.nanosPerCell() * fallbackCost, 1d) : fallbackCost;
+  }
+
+  @Override
+  public void record(CalculationTask task, long elapsedNanos) {
+    int cellCount = task.getCells().size();
+    timings.computeIfAbsent(task.getTarget().getClass(), type -> new Timing()).add(elapsedNanos, cellCount);
+    total.add(elapsedNanos, cellCount);
+  }
+
+  @Override
+  public String toString() {
+    return "TimedCostModel[types=" + timings.size() + ", fallback=" + fallback + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // the total time and number of cells recorded, updated concurrently
+  private static final class Timing {
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder cells = new LongAdder();
+
+    private void add(long elapsedNanos, int cellCount) {
+      nanos.add(elapsedNanos);
+      cells.add(cellCount);
+    }
+
+    private boolean hasTimes() {
+      return cells.sum() > 0;
+    }
+
+    private double nanosPerCell() {
+      return (double) nanos.sum() / cells.sum();
+    }
+  }
+
+}
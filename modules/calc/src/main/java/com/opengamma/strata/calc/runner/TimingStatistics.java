@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+
+/**
+ * Statistics of the time spent performing an operation, recorded by {@link CalculationTimings}.
+ * <p>
+ * The operation is typically a calculation function, a measure or the building of an item of market data.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class TimingStatistics {
+
+  /**
+   * The number of invocations.
+   */
+  private final long invocationCount;
+  /**
+   * The total wall time, in nanoseconds.
+   */
+  private final long totalNanos;
+  /**
+   * The number of results produced.
+   */
+  private final long resultCount;
+  /**
+   * The number of results that were failures.
+   */
+  private final long failureCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   *
+   * @param invocationCount  the number of invocations
+   * @param totalNanos  the total wall time, in nanoseconds
+   * @param resultCount  the number of results produced
+   * @param failureCount  the number of results that were failures
+   * @return the statistics
+   */
+  public static TimingStatistics of(long invocationCount, long totalNanos, long resultCount, long failureCount) {
+    return new TimingStatistics(invocationCount, totalNanos, resultCount, failureCount);
+  }
+
+  // restricted constructor
+  private TimingStatistics(long invocationCount, long totalNanos, long resultCount, long failureCount) {
+    this.invocationCount = ArgChecker.notNegative(invocationCount, "invocationCount");
+    this.totalNanos = ArgChecker.notNegative(totalNanos, "totalNanos");
+    this.resultCount = ArgChecker.notNegative(resultCount, "resultCount");
+    this.failureCount = ArgChecker.notNegative(failureCount, "failureCount");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of invocations.
+   *
+   * @return the number of invocations
+   */
+  public long getInvocationCount() {
+    return invocationCount;
+  }
+
+  /**
+   * Gets the total wall time, in nanoseconds.
+   *
+   * @return the total wall time
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Gets the average wall time of an invocation, in nanoseconds.
+   *
+   * @return the average wall time, zero if there were no invocations
+   */
+  public double getAverageNanos() {
+    return invocationCount == 0 ? 0d : (double) totalNanos / invocationCount;
+  }
+
+  /**
+   * Gets the number of results produced.
+   *
+   * @return the number of results
+   */
+  public long getResultCount() {
+    return resultCount;
+  }
+
+  /**
+   * Gets the number of results that were failures.
+   *
+   * @return the number of failures
+   */
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof TimingStatistics) {
+      TimingStatistics other = (TimingStatistics) obj;
+      return invocationCount == other.invocationCount &&
+          totalNanos == other.totalNanos &&
+          resultCount == other.resultCount &&
+          failureCount == other.failureCount;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(invocationCount, totalNanos, resultCount, failureCount);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "TimingStatistics[invocations={}, totalMillis={}, results={}, failures={}]",
+        invocationCount,
+        TimeUnit.NANOSECONDS.toMillis(totalNanos),
+        resultCount,
+        failureCount);
+  }
+
+}
@@ -13,14 +13,20 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.result.FailureException;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
@@ -31,6 +37,7 @@ import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.data.ObservableSource;
 import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.data.scenario.ScenarioPerturbation;
 
@@ -70,6 +77,92 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getTimeSeriesIds()).isEqualTo(ImmutableSet.of(id1, id2));
   }
 
+  /**
+   * Tests time series are requested concurrently when an executor is specified.
+   */
+  public void buildTimeSeries_providerExecutor() {
+    TestObservableId id1 = TestObservableId.of("1");
+    TestObservableId id2 = TestObservableId.of("2");
+    // each request blocks until both requests have been made
+    CountDownLatch latch = new CountDownLatch(2);
+    TimeSeriesProvider blockingProvider = id -> {
+      latch.countDown();
+      try {
+        return latch.await(5, TimeUnit.SECONDS) ?
+            Result.success(LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1)) :
+            Result.failure(FailureReason.MISSING_DATA, "Requests not concurrent");
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(ex);
+      }
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory =
+          MarketDataFactory.of(ObservableDataProvider.none(), blockingProvider, executor, ImmutableList.of());
+
+      MarketDataRequirements requirements = MarketDataRequirements.builder()
+          .addTimeSeries(id1, id2)
+          .build();
+      MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+      BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+      assertThat(marketData.getTimeSeries(id1)).isEqualTo(LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1));
+      assertThat(marketData.getTimeSeries(id2)).isEqualTo(LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests an exception thrown by a provider invoked using an executor is rethrown.
+   */
+  public void buildTimeSeries_providerExecutorException() {
+    TestObservableId id1 = TestObservableId.of("1");
+    TimeSeriesProvider failingProvider = id -> {
+      throw new IllegalStateException("Provider failed");
+    };
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      MarketDataFactory factory =
+          MarketDataFactory.of(ObservableDataProvider.none(), failingProvider, executor, ImmutableList.of());
+      MarketDataRequirements requirements = MarketDataRequirements.builder().addTimeSeries(id1).build();
+      MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+      assertThrows(
+          () -> factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA),
+          IllegalStateException.class,
+          "Provider failed");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests independent non-observable values are built concurrently when a build executor is specified.
+   */
+  public void buildNonObservableValues_buildExecutor() {
+    TestId id1 = TestId.of("1");
+    TestId id2 = TestId.of("2");
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      MarketDataFactory factory = MarketDataFactory.of(
+          ObservableDataProvider.none(),
+          TimeSeriesProvider.none(),
+          MoreExecutors.directExecutor(),
+          executor,
+          ImmutableList.of(new ConcurrentBuildFunction(2)));
+
+      MarketDataRequirements requirements = MarketDataRequirements.builder()
+          .addValues(id1, id2)
+          .build();
+      MarketData suppliedData = MarketData.empty(date(2011, 3, 8));
+      BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+      assertThat(marketData.getValue(id1)).isEqualTo(id1.toString());
+      assertThat(marketData.getValue(id2)).isEqualTo(id2.toString());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Tests non-observable market data values supplied by the user are included in the results.
    */
@@ -209,6 +302,55 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketDataB2).isEqualTo(expectedB2);
   }
 
+  /**
+   * Tests updating market data when some of the observable values it depends on have changed.
+   */
+  public void updateDataFromOtherData() {
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(new TestIdB("1"), new TestIdB("2"))
+        .build();
+
+    LocalDateDoubleTimeSeries timeSeries1 = LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 1);
+    LocalDateDoubleTimeSeries timeSeries2 = LocalDateDoubleTimeSeries.of(date(2011, 3, 8), 2);
+    TimeSeriesProvider timeSeriesProvider = new TestTimeSeriesProvider(
+        ImmutableMap.of(new TestIdA("1"), timeSeries1, new TestIdA("2"), timeSeries2));
+
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        timeSeriesProvider,
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+
+    MarketData suppliedData = ImmutableMarketData.builder(date(2011, 3, 8))
+        .addValue(new TestIdA("1"), 1d)
+        .addValue(new TestIdA("2"), 2d)
+        .build();
+    BuiltMarketData marketData = factory.create(requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA);
+
+    MarketData updatedData = ImmutableMarketData.builder(date(2011, 3, 8))
+        .addValue(new TestIdA("1"), 10d)
+        .addValue(new TestIdA("2"), 2d)
+        .build();
+    BuiltMarketData updated = factory.update(
+        marketData, ImmutableSet.of(new TestIdA("1")), requirements, MARKET_DATA_CONFIG, updatedData, REF_DATA);
+
+    assertThat(updated.getValueFailures()).isEmpty();
+    assertThat(updated.getTimeSeriesFailures()).isEmpty();
+    assertThat(updated.getValue(new TestIdA("1"))).isEqualTo(10d);
+    assertThat(updated.getValue(new TestIdB("1"))).isEqualTo(new TestMarketDataB(10, new TestMarketDataC(timeSeries1)));
+    // data that does not depend on the changed value is reused
+    assertThat(updated.getValue(new TestIdB("2"))).isSameAs(marketData.getValue(new TestIdB("2")));
+    assertThat(updated.getValue(new TestIdC("1"))).isSameAs(marketData.getValue(new TestIdC("1")));
+    assertThat(updated.getTimeSeries(new TestIdA("1"))).isEqualTo(timeSeries1);
+
+    // the result is the same as building everything again
+    BuiltMarketData expected = factory.create(requirements, MARKET_DATA_CONFIG, updatedData, REF_DATA);
+    assertThat(updated.getIds()).isEqualTo(expected.getIds());
+    for (MarketDataId<?> id : expected.getIds()) {
+      assertThat(updated.getValue(id)).isEqualTo(expected.getValue(id));
+    }
+  }
+
   /**
    * Tests building market data that depends on other market data that is supplied by the user.
    *
@@ -480,6 +622,70 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofSingleValue(2d));
   }
 
+  /**
+   * Tests building the market data for a subset of the scenarios matches those scenarios of the full market data.
+   */
+  public void perturbObservableValuesSubset() {
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of()));
+
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    TestObservableId id2 = TestObservableId.of(StandardId.of("reqs", "b"));
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id1, id2).build();
+    PerturbationMapping<Double> mapping = PerturbationMapping.of(
+        new ExactIdFilter<>(id1),
+        new AbsoluteDoubleShift(1, 2, 3));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(ImmutableList.of(mapping));
+    BuiltScenarioMarketData marketData = factory.createMultiScenario(
+        requirements,
+        MARKET_DATA_CONFIG,
+        suppliedData,
+        REF_DATA, scenarioDefinition.subset(1, 3));
+
+    assertThat(marketData.getScenarioCount()).isEqualTo(2);
+    assertThat(marketData.getValue(id1)).isEqualTo(MarketDataBox.ofScenarioValues(3d, 4d));
+    assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofSingleValue(2d));
+  }
+
+  /**
+   * Tests that a failure of a lazy perturbation is reported as a failure of the ID when the value is requested.
+   */
+  public void perturbObservableValuesLazilyWithFailure() {
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of()));
+
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+    TestObservableId id1 = TestObservableId.of(StandardId.of("reqs", "a"));
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id1).build();
+    PerturbationMapping<Double> mapping = PerturbationMapping.of(
+        new ExactIdFilter<>(id1),
+        ShockedScenarioPerturbation.of(Double.class, 3, (value, scenarioIndex) -> {
+          if (scenarioIndex == 1) {
+            throw new IllegalStateException("Shock failed");
+          }
+          return value + scenarioIndex;
+        }));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(ImmutableList.of(mapping));
+    BuiltScenarioMarketData marketData = factory.createMultiScenario(
+        requirements,
+        MARKET_DATA_CONFIG,
+        suppliedData,
+        REF_DATA, scenarioDefinition);
+
+    MarketDataBox<Double> box = marketData.getValue(id1);
+    assertThat(box.isLazy()).isTrue();
+    assertThat(box.getMarketDataType()).isEqualTo(Double.class);
+    assertThat(box.getValue(0)).isEqualTo(1d);
+    assertThat(box.getValue(2)).isEqualTo(3d);
+    assertThrows(
+        () -> box.getValue(1),
+        FailureException.class,
+        "Unable to perturb market data '.*' in scenario 1: Shock failed");
+  }
+
   /**
    * Tests that observable data is only perturbed once, even if there are two applicable perturbation mappings.
    */
@@ -684,6 +890,38 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofSingleValue("2.0"));
   }
 
+  /**
+   * Tests that scenario values are moved out of the heap when a memory budget is configured.
+   */
+  public void perturbNonObservableValues_memoryBudget() {
+    MarketDataFactory factory = MarketDataFactory.of(
+        new TestObservableDataProvider(),
+        new TestTimeSeriesProvider(ImmutableMap.of()),
+        new NonObservableMarketDataFunction());
+    BuiltScenarioMarketData suppliedData = BuiltScenarioMarketData.builder(date(2011, 3, 8)).build();
+
+    NonObservableId id1 = new NonObservableId("a");
+    NonObservableId id2 = new NonObservableId("b");
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(id1, id2).build();
+
+    PerturbationMapping<String> mapping =
+        PerturbationMapping.of(
+            new ExactIdFilter<>(id1),
+            new StringAppender("foo", "bar", "baz"));
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(ImmutableList.of(mapping));
+    MarketDataConfig config = MarketDataConfig.builder().addDefault(MarketDataMemoryBudget.of(0)).build();
+    BuiltScenarioMarketData marketData = factory.createMultiScenario(
+        requirements,
+        config,
+        suppliedData,
+        REF_DATA, scenarioDefinition);
+
+    assertThat(marketData.getValue(id1)).isInstanceOf(SpilledMarketDataBox.class);
+    assertThat(marketData.getValue(id1).getScenarioValue()).isEqualTo(ScenarioArray.of("1.0foo", "1.0bar", "1.0baz"));
+    assertThat(marketData.getValue(id2)).isEqualTo(MarketDataBox.ofSingleValue("2.0"));
+    marketData.close();
+  }
+
   /**
    * Tests that non-observable data is only perturbed once, even if there are two applicable perturbation mappings.
    */
@@ -878,6 +1116,47 @@ public class DefaultMarketDataFactoryTest {
     }
   }
 
+  /**
+   * Builds a value once the expected number of builds are running concurrently.
+   */
+  private static final class ConcurrentBuildFunction implements MarketDataFunction<String, TestId> {
+
+    private final CountDownLatch latch;
+
+    private ConcurrentBuildFunction(int concurrentBuilds) {
+      this.latch = new CountDownLatch(concurrentBuilds);
+    }
+
+    @Override
+    public MarketDataRequirements requirements(TestId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.empty();
+    }
+
+    @Override
+    public MarketDataBox<String> build(
+        TestId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      latch.countDown();
+      try {
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("Builds not concurrent");
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(ex);
+      }
+      return MarketDataBox.ofSingleValue(id.toString());
+    }
+
+    @Override
+    public Class<TestId> getMarketDataIdType() {
+      return TestId.class;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Test ID A.
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Test {@link HistoricalScenarioShocks}.
+ */
+@Test
+public class HistoricalScenarioShocksTest {
+
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final LocalDateDoubleTimeSeries TS1 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2020, 1, 1), 1.0)
+      .put(date(2020, 1, 2), 1.1)
+      .put(date(2020, 1, 3), 1.3)
+      .put(date(2020, 1, 6), 1.2)
+      .build();
+  private static final LocalDateDoubleTimeSeries TS2 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2020, 1, 1), 2.0)
+      .put(date(2020, 1, 3), 2.5)
+      .put(date(2020, 1, 6), 2.0)
+      .put(date(2020, 1, 7), 3.0)
+      .build();
+  private static final ImmutableMap<TestObservableId, LocalDateDoubleTimeSeries> SERIES =
+      ImmutableMap.of(ID1, TS1, ID2, TS2);
+  private static final double TOLERANCE = 1e-12;
+
+  //-------------------------------------------------------------------------
+  public void test_absolute() {
+    HistoricalScenarioShocks<TestObservableId> test = HistoricalScenarioShocks.of(SERIES, ReturnType.ABSOLUTE);
+    assertThat(test.getIdentifiers()).containsExactly(ID1, ID2);
+    assertThat(test.getReturnType()).isEqualTo(ReturnType.ABSOLUTE);
+    assertThat(test.getHorizon()).isEqualTo(1);
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getScenarioDates()).containsExactly(date(2020, 1, 3), date(2020, 1, 6));
+    assertThat(test.getShock(0, 0)).isCloseTo(0.3, offset(TOLERANCE));
+    assertThat(test.getShock(1, 1)).isCloseTo(-0.5, offset(TOLERANCE));
+    assertThat(test.getShocks(1).equalWithTolerance(DoubleArray.of(-0.1, -0.5), TOLERANCE)).isTrue();
+    assertThat(test.applyShock(5, 0, 1)).isCloseTo(5.5, offset(TOLERANCE));
+  }
+
+  public void test_relative_horizon() {
+    HistoricalScenarioShocks<TestObservableId> test = HistoricalScenarioShocks.of(SERIES, ReturnType.RELATIVE, 2);
+    assertThat(test.getScenarioCount()).isEqualTo(1);
+    assertThat(test.getScenarioDates()).containsExactly(date(2020, 1, 6));
+    assertThat(test.getShocks(0).equalWithTolerance(DoubleArray.of(0.2, 0), TOLERANCE)).isTrue();
+    assertThat(test.applyShock(5, 0, 0)).isCloseTo(6, offset(TOLERANCE));
+  }
+
+  public void test_stream() {
+    HistoricalScenarioShocks<TestObservableId> test = HistoricalScenarioShocks.of(SERIES, ReturnType.ABSOLUTE);
+    assertThat(test.stream()).containsExactly(test.getShocks(0), test.getShocks(1));
+  }
+
+  public void test_toMappings() {
+    HistoricalScenarioShocks<TestObservableId> test = HistoricalScenarioShocks.of(SERIES, ReturnType.ABSOLUTE);
+    List<PerturbationMapping<Double>> mappings = ScenarioShocks.toMappings(test);
+    assertThat(mappings).hasSize(2);
+    PerturbationMapping<Double> mapping = mappings.get(1);
+    assertThat(mapping.getScenarioCount()).isEqualTo(2);
+    assertThat(mapping.matches(ID2, MarketDataBox.ofSingleValue(3d), ReferenceData.empty())).isTrue();
+    assertThat(mapping.matches(ID1, MarketDataBox.ofSingleValue(3d), ReferenceData.empty())).isFalse();
+    MarketDataBox<Double> perturbed = mapping.applyPerturbation(MarketDataBox.ofSingleValue(3d), ReferenceData.empty());
+    assertThat(perturbed.getScenarioCount()).isEqualTo(2);
+    assertThat(perturbed.getValue(0)).isCloseTo(3.5, offset(TOLERANCE));
+    assertThat(perturbed.getValue(1)).isCloseTo(2.5, offset(TOLERANCE));
+    assertThat(ScenarioDefinition.ofMappings(mappings).getScenarioCount()).isEqualTo(2);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> HistoricalScenarioShocks.of(ImmutableMap.of(), ReturnType.ABSOLUTE));
+    assertThrowsIllegalArg(() -> HistoricalScenarioShocks.of(SERIES, ReturnType.ABSOLUTE, 3));
+    assertThrowsIllegalArg(() -> HistoricalScenarioShocks.of(SERIES, ReturnType.ABSOLUTE, 0));
+    assertThrowsIllegalArg(() -> HistoricalScenarioShocks.of(
+        ImmutableMap.of(ID1, LocalDateDoubleTimeSeries.of(date(2020, 1, 1), 1d)), ReturnType.ABSOLUTE));
+  }
+
+  public void test_returnType() {
+    assertThat(ReturnType.of("Relative")).isEqualTo(ReturnType.RELATIVE);
+    assertThat(ReturnType.ABSOLUTE.toString()).isEqualTo("Absolute");
+    assertThat(ReturnType.RELATIVE.calculateReturn(2, 3)).isCloseTo(0.5, offset(TOLERANCE));
+    assertThat(ImmutableList.copyOf(ReturnType.values())).hasSize(2);
+  }
+
+}
@@ -15,6 +15,7 @@ import java.util.Objects;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.tuple.Pair;
@@ -100,6 +101,34 @@ public class MarketDataNodeTest {
     assertThat(expectedReqs3).isEqualTo(reqs3);
   }
 
+  /**
+   * Tests finding the market data that depends on changed market data.
+   */
+  public void dependants() {
+    MarketDataNode root =
+        rootNode(
+            observableNode(new TestIdA("1")),
+            valueNode(
+                new TestIdB("2"),
+                valueNode(new TestIdB("3")),
+                observableNode(new TestIdA("4")),
+                valueNode(
+                    new TestIdB("5"),
+                    timeSeriesNode(new TestIdA("6")))),
+            valueNode(
+                new TestIdB("7"),
+                observableNode(new TestIdA("4"))));
+
+    assertThat(root.dependants(ImmutableSet.of(new TestIdA("1")))).containsOnly(new TestIdA("1"));
+    assertThat(root.dependants(ImmutableSet.of(new TestIdA("4"))))
+        .containsOnly(new TestIdA("4"), new TestIdB("2"), new TestIdB("7"));
+    assertThat(root.dependants(ImmutableSet.of(new TestIdB("3"))))
+        .containsOnly(new TestIdB("3"), new TestIdB("2"));
+    // time-series are not affected by a change to the current value
+    assertThat(root.dependants(ImmutableSet.of(new TestIdA("6")))).isEmpty();
+    assertThat(root.dependants(ImmutableSet.of(new TestIdA("8")))).isEmpty();
+  }
+
   /**
    * Tests building a tree of requirements using market data functions.
    */
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+
+/**
+ * Test {@link MarketDataSpillStore}, {@link SpilledMarketDataBox} and {@link MarketDataMemoryBudget}.
+ */
+@Test
+public class MarketDataSpillStoreTest {
+
+  private static final MarketDataBox<DoubleArray> BOX1 =
+      MarketDataBox.ofScenarioValues(DoubleArray.filled(100, 1d), DoubleArray.filled(100, 2d));
+  private static final MarketDataBox<DoubleArray> BOX2 =
+      MarketDataBox.ofScenarioValues(DoubleArray.filled(100, 3d), DoubleArray.filled(100, 4d));
+  private static final MarketDataBox<DoubleArray> BOX3 =
+      MarketDataBox.ofScenarioValues(DoubleArray.filled(100, 5d), DoubleArray.filled(100, 6d));
+
+  //-------------------------------------------------------------------------
+  public void test_withinBudget() {
+    MarketDataSpillStore test = MarketDataSpillStore.of(MarketDataMemoryBudget.of(1_000_000));
+    SpilledMarketDataBox<DoubleArray> spilled1 = test.spill(BOX1);
+    SpilledMarketDataBox<DoubleArray> spilled2 = test.spill(BOX2);
+    long bytes = test.getResidentBytes();
+    assertThat(bytes).isGreaterThan(2 * 100 * 8 * 2);
+    assertThat(spilled1.getScenarioValue()).isEqualTo(BOX1.getScenarioValue());
+    assertThat(spilled2.getValue(1)).isEqualTo(DoubleArray.filled(100, 4d));
+    assertThat(test.getResidentBytes()).isEqualTo(bytes);
+  }
+
+  public void test_overBudget() {
+    MarketDataSpillStore test = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    SpilledMarketDataBox<DoubleArray> spilled1 = test.spill(BOX1);
+    long size1 = test.getResidentBytes();
+    SpilledMarketDataBox<DoubleArray> spilled2 = test.spill(BOX2);
+    SpilledMarketDataBox<DoubleArray> spilled3 = test.spill(BOX3);
+    // only the most recently used value is held
+    assertThat(test.getResidentBytes()).isEqualTo(size1);
+    assertThat(spilled1.isResident(0)).isFalse();
+    assertThat(spilled3.isResident(1)).isTrue();
+    assertThat(spilled1.getValue(0)).isEqualTo(DoubleArray.filled(100, 1d));
+    assertThat(spilled3.getValue(1)).isEqualTo(DoubleArray.filled(100, 6d));
+    assertThat(spilled2.stream()).containsExactly(DoubleArray.filled(100, 3d), DoubleArray.filled(100, 4d));
+    assertThat(spilled1.getValue(1)).isEqualTo(DoubleArray.filled(100, 2d));
+    assertThat(test.getResidentBytes()).isEqualTo(size1);
+    // reading one scenario only reads the value of that scenario
+    assertThat(spilled1.isResident(1)).isTrue();
+    assertThat(spilled1.isResident(0)).isFalse();
+  }
+
+  public void test_recentlyUsedHeld() {
+    MarketDataSpillStore sizing = MarketDataSpillStore.of(MarketDataMemoryBudget.of(1_000_000));
+    sizing.spill(BOX1);
+    long size = sizing.getResidentBytes() / 2;
+
+    // the budget holds two values
+    MarketDataSpillStore test = MarketDataSpillStore.of(MarketDataMemoryBudget.of(2 * size));
+    SpilledMarketDataBox<DoubleArray> spilled1 = test.spill(BOX1);
+    test.spill(BOX2);
+    assertThat(spilled1.getValue(0)).isEqualTo(DoubleArray.filled(100, 1d));
+    // the value just used is held while the values of box 3 are added
+    SpilledMarketDataBox<DoubleArray> spilled3 = test.spill(BOX3);
+    assertThat(test.getResidentBytes()).isEqualTo(2 * size);
+    assertThat(spilled1.isResident(0)).isTrue();
+    assertThat(spilled3.isResident(1)).isTrue();
+    assertThat(spilled3.getValue(0)).isEqualTo(DoubleArray.filled(100, 5d));
+    assertThat(test.getResidentBytes()).isEqualTo(2 * size);
+  }
+
+  public void test_box() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    SpilledMarketDataBox<DoubleArray> test = store.spill(BOX1);
+    store.spill(BOX2);
+    assertThat(test.isSingleValue()).isFalse();
+    assertThat(test.isScenarioValue()).isTrue();
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getMarketDataType()).isEqualTo(DoubleArray.class);
+    assertThat(test.map(array -> array.get(0))).isEqualTo(MarketDataBox.ofScenarioValues(1d, 2d));
+    assertThat(test.mapWithIndex(2, (array, i) -> array.get(0) + i)).isEqualTo(MarketDataBox.ofScenarioValues(1d, 3d));
+    assertThat(test.combineWith(MarketDataBox.ofSingleValue(10d), (array, v) -> array.get(0) + v))
+        .isEqualTo(MarketDataBox.ofScenarioValues(11d, 12d));
+    assertThat(test.getScenarioValue()).isEqualTo(BOX1.getScenarioValue());
+    assertThrows(test::getSingleValue, IllegalStateException.class);
+    assertThrowsIllegalArg(() -> test.getValue(2));
+    assertThrowsIllegalArg(() -> test.mapWithIndex(3, (array, i) -> array));
+    assertThrowsIllegalArg(() -> test.combineWith(MarketDataBox.ofScenarioValues(1d, 2d, 3d), (array, v) -> v));
+    assertThat(test.toString()).contains("scenarioCount=2");
+  }
+
+  public void test_box_equalsHashCode() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    SpilledMarketDataBox<DoubleArray> test = store.spill(BOX1);
+    SpilledMarketDataBox<DoubleArray> test2 = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0)).spill(BOX1);
+    store.spill(BOX2);
+    assertThat(test).isEqualTo(test);
+    assertThat(test).isEqualTo(store.spill(BOX1));
+    assertThat(test).isEqualTo(test2);
+    assertThat(test).isNotEqualTo(store.spill(BOX2));
+    assertThat(test).isNotEqualTo(store.spill(MarketDataBox.ofScenarioValues(DoubleArray.filled(100, 1d))));
+    // only equal to other spilled boxes, so equality is symmetric
+    assertThat(test).isNotEqualTo(BOX1);
+    assertThat(BOX1).isNotEqualTo(test);
+    assertThat(test).isNotEqualTo(null);
+    assertThat(test.hashCode()).isEqualTo(BOX1.hashCode());
+    assertThat(test.hashCode()).isEqualTo(test2.hashCode());
+  }
+
+  public void test_box_serialization() throws IOException, ClassNotFoundException {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    SpilledMarketDataBox<DoubleArray> test = store.spill(BOX1);
+    store.spill(BOX2);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(test);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertThat(in.readObject()).isEqualTo(BOX1);
+    }
+  }
+
+  public void test_close() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    SpilledMarketDataBox<DoubleArray> test = store.spill(BOX1);
+    store.spill(BOX2);
+    Path path = store.getFilePath().get();
+    assertThat(Files.exists(path)).isTrue();
+    store.close();
+    assertThat(Files.exists(path)).isFalse();
+    assertThrows(() -> test.getValue(0), IllegalStateException.class);
+    assertThrows(() -> store.spill(BOX3), IllegalStateException.class);
+    store.close();
+  }
+
+  public void test_close_builtMarketData() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    BuiltScenarioMarketData marketData = BuiltScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
+        .addBox(TestId.of("1"), store.spill(MarketDataBox.ofScenarioValues("1A", "1B")))
+        .addBox(TestId.of("2"), store.spill(MarketDataBox.ofScenarioValues("2A", "2B")))
+        .addValue(TestId.of("3"), "3")
+        .build();
+    Path path = store.getFilePath().get();
+    marketData.close();
+    assertThat(Files.exists(path)).isFalse();
+    assertThrows(() -> marketData.getValue(TestId.of("1")).getValue(0), IllegalStateException.class);
+    assertThat(marketData.getValue(TestId.of("3"))).isEqualTo(MarketDataBox.ofSingleValue("3"));
+    marketData.close();
+    BuiltScenarioMarketData.empty().close();
+  }
+
+  public void test_unreferenced() throws InterruptedException {
+    Path path = spillAndDiscard();
+    assertThat(Files.exists(path)).isTrue();
+    // the file is deleted when a store is created after the unreferenced store is garbage collected
+    for (int i = 0; i < 100 && Files.exists(path); i++) {
+      System.gc();
+      Thread.sleep(10);
+      MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    }
+    assertThat(Files.exists(path)).isFalse();
+  }
+
+  // creates a store with a file, returning the path of the file without retaining the store
+  private static Path spillAndDiscard() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(MarketDataMemoryBudget.of(0));
+    store.spill(BOX1);
+    store.spill(BOX2);
+    return store.getFilePath().get();
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_policy() {
+    MarketDataSpillPolicy test = MarketDataSpillPolicy.scenarioValues();
+    assertThat(test.isSpillable(TestId.of("1"), BOX1)).isTrue();
+    assertThat(test.isSpillable(TestId.of("1"), MarketDataBox.ofSingleValue(DoubleArray.of(1d)))).isFalse();
+    assertThat(test.isSpillable(TestId.of("1"), MarketDataBox.ofScenarioValues(new Object(), new Object()))).isFalse();
+    assertThat(test.isSpillable(TestId.of("1"), MarketDataBox.ofScenarioValue(ScenarioArray.of("A", "B")))).isTrue();
+    MarketDataBox<DoubleArray> lazy = BOX1.mapWithIndexLazily(2, DoubleArray.class, "lazy", (array, i) -> array);
+    assertThat(test.isSpillable(TestId.of("1"), lazy)).isFalse();
+  }
+
+  public void test_budget() {
+    MarketDataMemoryBudget test = MarketDataMemoryBudget.of(1000);
+    assertThat(test.getMaxBytes()).isEqualTo(1000);
+    assertThat(test.getPolicy()).isEqualTo(MarketDataSpillPolicy.scenarioValues());
+    assertThat(test.getSpillDirectory()).isEmpty();
+    MarketDataMemoryBudget test2 = MarketDataMemoryBudget.of(2000, MarketDataSpillPolicy.scenarioValues())
+        .withSpillDirectory(Paths.get("target"));
+    assertThat(test2.getSpillDirectory()).hasValue("target");
+    coverImmutableBean(test);
+    coverBeanEquals(test, test2);
+    assertSerialization(test);
+    assertThrowsIllegalArg(() -> MarketDataMemoryBudget.of(-1));
+  }
+
+  public void test_spillDirectory() {
+    MarketDataSpillStore store = MarketDataSpillStore.of(
+        MarketDataMemoryBudget.of(0).withSpillDirectory(Paths.get(System.getProperty("java.io.tmpdir"))));
+    SpilledMarketDataBox<DoubleArray> test = store.spill(BOX1);
+    store.spill(BOX2);
+    assertThat(test.getValue(0)).isEqualTo(DoubleArray.filled(100, 1d));
+  }
+
+}
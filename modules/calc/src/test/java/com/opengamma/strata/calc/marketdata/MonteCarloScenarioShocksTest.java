@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.marketdata;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+
+/**
+ * Test {@link MonteCarloScenarioShocks}.
+ */
+@Test
+public class MonteCarloScenarioShocksTest {
+
+  private static final List<String> IDS = ImmutableList.of("A", "B");
+  private static final DoubleMatrix COVARIANCE = DoubleMatrix.of(2, 2, 0.04, 0.018, 0.018, 0.09);
+  private static final int SCENARIOS = 20_000;
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.RELATIVE, 10, 1L);
+    assertThat(test.getIdentifiers()).containsExactlyElementsOf(IDS);
+    assertThat(test.getReturnType()).isEqualTo(ReturnType.RELATIVE);
+    assertThat(test.getScenarioCount()).isEqualTo(10);
+    assertThat(test.getSeed()).isEqualTo(1L);
+    assertThat(test.toString()).contains("seed=1");
+  }
+
+  public void test_shocks_repeatable() {
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 10, 1L);
+    MonteCarloScenarioShocks<String> same = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 10, 1L);
+    MonteCarloScenarioShocks<String> other = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 10, 2L);
+    for (int i = 0; i < 10; i++) {
+      DoubleArray shocks = test.getShocks(i);
+      assertThat(same.getShocks(i)).isEqualTo(shocks);
+      assertThat(other.getShocks(i)).isNotEqualTo(shocks);
+      assertThat(test.getShocks(i)).isSameAs(shocks);
+      assertThat(test.getShock(i, 0)).isEqualTo(shocks.get(0));
+      assertThat(test.getShock(i, 1)).isEqualTo(shocks.get(1));
+    }
+    assertThat(test.getShocks(0)).isNotEqualTo(test.getShocks(1));
+  }
+
+  public void test_shocks_covariance() {
+    MonteCarloScenarioShocks<String> test =
+        MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, SCENARIOS, 42L);
+    double[][] sums = new double[2][2];
+    test.stream().forEach(shocks -> {
+      for (int i = 0; i < 2; i++) {
+        for (int j = 0; j < 2; j++) {
+          sums[i][j] += shocks.get(i) * shocks.get(j);
+        }
+      }
+    });
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < 2; j++) {
+        assertThat(sums[i][j] / SCENARIOS).isCloseTo(COVARIANCE.get(i, j), offset(0.005));
+      }
+    }
+  }
+
+  public void test_singular() {
+    DoubleMatrix singular = DoubleMatrix.of(2, 2, 0.04, 0.04, 0.04, 0.04);
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, singular, ReturnType.ABSOLUTE, 5, 1L);
+    for (int i = 0; i < 5; i++) {
+      DoubleArray shocks = test.getShocks(i);
+      assertThat(shocks.get(1)).isCloseTo(shocks.get(0), offset(1e-15));
+    }
+  }
+
+  public void test_nearlySymmetric() {
+    DoubleMatrix covariance = DoubleMatrix.of(2, 2, 0.04, 0.018, 0.018 * (1 + 1e-14), 0.09);
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, covariance, ReturnType.ABSOLUTE, 5, 1L);
+    MonteCarloScenarioShocks<String> symmetric =
+        MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 5, 1L);
+    for (int i = 0; i < 5; i++) {
+      assertThat(test.getShock(i, 1)).isCloseTo(symmetric.getShock(i, 1), offset(1e-12));
+    }
+  }
+
+  public void test_toMapping() {
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.RELATIVE, 3, 1L);
+    PerturbationMapping<Double> mapping = test.toMapping(
+        MarketDataFilter.ofId(TestObservableId.of("1")),
+        Double.class,
+        (value, scenarioIndex) -> test.applyShock(value, scenarioIndex, 0));
+    MarketDataBox<Double> perturbed = mapping.applyPerturbation(MarketDataBox.ofSingleValue(2d), ReferenceData.empty());
+    assertThat(perturbed.getScenarioCount()).isEqualTo(3);
+    for (int i = 0; i < 3; i++) {
+      assertThat(perturbed.getValue(i)).isCloseTo(2d * (1 + test.getShock(i, 0)), offset(1e-15));
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> MonteCarloScenarioShocks.of(
+        ImmutableList.of("A"), COVARIANCE, ReturnType.ABSOLUTE, 10, 1L));
+    assertThrowsIllegalArg(() -> MonteCarloScenarioShocks.of(
+        IDS, DoubleMatrix.of(2, 2, 0.04, 0.01, 0.02, 0.09), ReturnType.ABSOLUTE, 10, 1L));
+    assertThrowsIllegalArg(() -> MonteCarloScenarioShocks.of(
+        IDS, DoubleMatrix.of(2, 2, 0.04, 0.1, 0.1, 0.09), ReturnType.ABSOLUTE, 10, 1L));
+    assertThrowsIllegalArg(() -> MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 0, 1L));
+    MonteCarloScenarioShocks<String> test = MonteCarloScenarioShocks.of(IDS, COVARIANCE, ReturnType.ABSOLUTE, 10, 1L);
+    assertThrows(() -> test.getShocks(10), IndexOutOfBoundsException.class);
+    assertThrows(() -> test.getShock(-1, 0), IndexOutOfBoundsException.class);
+    assertThrows(() -> test.getShock(0, 2), IndexOutOfBoundsException.class);
+  }
+
+}
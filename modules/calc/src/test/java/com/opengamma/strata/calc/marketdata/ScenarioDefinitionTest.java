@@ -8,6 +8,7 @@ package com.opengamma.strata.calc.marketdata;
 import static com.opengamma.strata.collect.TestHelper.assertThrows;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -112,6 +113,69 @@ public class ScenarioDefinitionTest {
   }
 
   //-------------------------------------------------------------------------
+  public void subset() {
+    ScenarioDefinition definition =
+        ScenarioDefinition.ofMappings(ImmutableList.of(MAPPING_A, MAPPING_B), ImmutableList.of("foo", "bar"));
+    ScenarioDefinition test = definition.subset(1, 2);
+    assertThat(test.getScenarioCount()).isEqualTo(1);
+    assertThat(test.getScenarioNames()).containsExactly("bar");
+    assertThat(test.getMappings()).hasSize(2);
+    assertThat(test.getMappings().get(0).getFilter()).isEqualTo(FILTER_A);
+    assertThat(test.getMappings().get(0).getPerturbation())
+        .isEqualTo(ScenarioSubsetPerturbation.of(PERTURBATION_A1, 1, 2));
+    assertThat(test).isEqualTo(definition.subset(1, 2));
+    assertThrows(() -> definition.subset(1, 1), IllegalArgumentException.class);
+    assertThrows(() -> definition.subset(0, 3), IllegalArgumentException.class);
+  }
+
+  public void subset_eagerPerturbation() {
+    ScenarioPerturbation<Double> test = ScenarioSubsetPerturbation.of(new ShiftPerturbation(5), 2, 4);
+    MarketDataBox<Double> box = test.applyTo(MarketDataBox.ofSingleValue(10d), ReferenceData.empty());
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(box).isEqualTo(MarketDataBox.ofScenarioValues(12d, 13d));
+  }
+
+  public void subset_lazyPerturbation() {
+    List<Integer> created = new ArrayList<>();
+    ScenarioPerturbation<Double> shocks = ShockedScenarioPerturbation.of(Double.class, 5, (value, scenarioIndex) -> {
+      created.add(scenarioIndex);
+      return value + scenarioIndex;
+    });
+    ScenarioPerturbation<Double> test = ScenarioSubsetPerturbation.of(shocks, 2, 4);
+    MarketDataBox<Double> box = test.applyTo(MarketDataBox.ofSingleValue(10d), ReferenceData.empty());
+    assertThat(box.isLazy()).isTrue();
+    assertThat(box.getScenarioCount()).isEqualTo(2);
+    assertThat(created).isEmpty();
+    assertThat(box.getValue(0)).isEqualTo(12d);
+    assertThat(box.getValue(1)).isEqualTo(13d);
+    assertThat(created).containsExactly(2, 3);
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class ShiftPerturbation implements ScenarioPerturbation<Double> {
+
+    private final int scenarioCount;
+
+    private ShiftPerturbation(int scenarioCount) {
+      this.scenarioCount = scenarioCount;
+    }
+
+    @Override
+    public MarketDataBox<Double> applyTo(MarketDataBox<Double> marketData, ReferenceData refData) {
+      return marketData.mapWithIndex(scenarioCount, (value, scenarioIndex) -> value + scenarioIndex);
+    }
+
+    @Override
+    public int getScenarioCount() {
+      return scenarioCount;
+    }
+
+    @Override
+    public Class<Double> getMarketDataType() {
+      return Double.class;
+    }
+  }
+
   private static final class TestPerturbation implements ScenarioPerturbation<Object> {
 
     private final int[] values;
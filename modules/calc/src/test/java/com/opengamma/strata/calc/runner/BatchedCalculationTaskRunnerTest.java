@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link BatchedCalculationTaskRunner}.
+ */
+@Test
+public class BatchedCalculationTaskRunnerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final Column COLUMN = Column.of(TestingMeasures.PRESENT_VALUE);
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    CalculationTasks tasks = tasks(1000);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofBatched()) {
+      Results results = test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.getRowCount()).isEqualTo(1000);
+      for (int i = 0; i < 1000; i++) {
+        assertThat(results.get(i, 0)).hasValue(i);
+      }
+    }
+  }
+
+  public void test_calculateMultiScenario_matchesDefault() {
+    CalculationTasks tasks = tasks(200);
+    ScenarioMarketData marketData = ScenarioMarketData.of(1, MarketData.empty(VAL_DATE));
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofBatched(pool, CalculationTaskCostModel.standard());
+        CalculationTaskRunner expected = CalculationTaskRunner.ofMultiThreaded()) {
+      Results results = test.calculateMultiScenario(tasks, marketData, REF_DATA);
+      assertThat(results).isEqualTo(expected.calculateMultiScenario(tasks, marketData, REF_DATA));
+    }
+  }
+
+  public void test_calculate_failure() {
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(-1), new IndexFunction(), CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL));
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(COLUMN));
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofBatched()) {
+      Results results = test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.get(0, 0)).isFailure(FailureReason.CALCULATION_FAILED);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_createBatches() {
+    List<CalculationTask> tasks = tasks(100).getTasks();
+    List<List<CalculationTask>> batches =
+        BatchedCalculationTaskRunner.createBatches(tasks, CalculationTaskCostModel.standard(), 10);
+    assertThat(batches).hasSize(10);
+    assertThat(batches.get(0)).isEqualTo(tasks.subList(0, 10));
+    assertThat(batches.get(9)).isEqualTo(tasks.subList(90, 100));
+  }
+
+  public void test_createBatches_weighted() {
+    List<CalculationTask> tasks = tasks(100).getTasks();
+    // the first task is as expensive as all the others
+    CalculationTaskCostModel costModel = task -> task.getRowIndex() == 0 ? 99 : 1;
+    List<List<CalculationTask>> batches = BatchedCalculationTaskRunner.createBatches(tasks, costModel, 2);
+    assertThat(batches).hasSize(2);
+    assertThat(batches.get(0)).containsExactly(tasks.get(0));
+    assertThat(batches.get(1)).isEqualTo(tasks.subList(1, 100));
+  }
+
+  public void test_createBatches_moreBatchesThanTasks() {
+    List<CalculationTask> tasks = tasks(3).getTasks();
+    List<List<CalculationTask>> batches =
+        BatchedCalculationTaskRunner.createBatches(tasks, CalculationTaskCostModel.standard(), 10);
+    assertThat(batches).hasSize(3);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_costModel_targetTypes() {
+    CalculationTaskCell cell1 = CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+    CalculationTaskCell cell2 = CalculationTaskCell.of(0, 1, TestingMeasures.PAR_RATE, NATURAL);
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(0), new IndexFunction(), CalculationParameters.empty(), ImmutableList.of(cell1, cell2));
+    assertThat(CalculationTaskCostModel.standard().cost(task)).isEqualTo(2d);
+    assertThat(CalculationTaskCostModel.ofTargetTypes(ImmutableMap.of(IndexTarget.class, 5d)).cost(task))
+        .isEqualTo(10d);
+    assertThat(CalculationTaskCostModel.ofTargetTypes(ImmutableMap.of(CalculationTarget.class, 3d)).cost(task))
+        .isEqualTo(6d);
+    assertThat(CalculationTaskCostModel.ofTargetTypes(ImmutableMap.of(String.class, 3d)).cost(task))
+        .isEqualTo(2d);
+  }
+
+  public void test_costModel_recordedTimes() {
+    CalculationTaskCell cell1 = CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+    CalculationTaskCell cell2 = CalculationTaskCell.of(0, 1, TestingMeasures.PAR_RATE, NATURAL);
+    CalculationTask task = CalculationTask.of(
+        new IndexTarget(0), new IndexFunction(), CalculationParameters.empty(), ImmutableList.of(cell1, cell2));
+    CalculationTask otherTask = CalculationTask.of(new OtherTarget(), new IndexFunction(), cell1);
+
+    CalculationTaskCostModel test = CalculationTaskCostModel.ofRecordedTimes(CalculationTaskCostModel.standard());
+    // no times, so the fallback is used
+    assertThat(test.cost(task)).isEqualTo(2d);
+    test.record(task, 1000);
+    test.record(task, 3000);
+    // two cells per task, so 1000ns per cell
+    assertThat(test.cost(task)).isEqualTo(2000d);
+    // no time for the type, so the average time per cell is used
+    assertThat(test.cost(otherTask)).isEqualTo(1000d);
+    test.record(otherTask, 50);
+    assertThat(test.cost(otherTask)).isEqualTo(50d);
+  }
+
+  public void test_calculate_recordsTimes() {
+    CalculationTasks tasks = tasks(100);
+    CalculationTaskCostModel costModel = CalculationTaskCostModel.ofRecordedTimes(task -> 7d);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofBatched(new ForkJoinPool(2), costModel)) {
+      Results results = test.calculate(tasks.orderByCost(costModel), MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.getRowCount()).isEqualTo(100);
+      assertThat(results.get(99, 0)).hasValue(99);
+    }
+    // the fallback is no longer used once times have been recorded
+    assertThat(costModel.cost(tasks.getTasks().get(0))).isNotEqualTo(7d);
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTasks tasks(int count) {
+    IndexFunction fn = new IndexFunction();
+    ImmutableList.Builder<CalculationTask> builder = ImmutableList.builder();
+    for (int i = 0; i < count; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      builder.add(CalculationTask.of(new IndexTarget(i), fn, cell));
+    }
+    return CalculationTasks.of(builder.build(), ImmutableList.of(COLUMN));
+  }
+
+  private static final class IndexTarget implements CalculationTarget {
+    private final int index;
+
+    private IndexTarget(int index) {
+      this.index = index;
+    }
+  }
+
+  private static final class OtherTarget implements CalculationTarget {
+  }
+
+  // returns the index of the target, failing if negative
+  private static final class IndexFunction implements CalculationFunction<IndexTarget> {
+
+    @Override
+    public Class<IndexTarget> targetType() {
+      return IndexTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE, TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(IndexTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      if (target.index < 0) {
+        throw new IllegalStateException("Negative index");
+      }
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of(target.index)));
+    }
+  }
+
+}
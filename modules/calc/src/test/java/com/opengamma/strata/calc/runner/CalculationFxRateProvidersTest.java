@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.ObservableSource;
+import com.opengamma.strata.data.scenario.FxRateScenarioArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
+
+/**
+ * Test {@link CalculationFxRateProviders} and {@link LookupScenarioFxRateProvider}.
+ */
+@Test
+public class CalculationFxRateProvidersTest {
+
+  private static final ObservableSource OBS_SOURCE = ObservableSource.of("Vendor");
+  private static final ImmutableScenarioMarketData MARKET_DATA = ImmutableScenarioMarketData.builder(date(2016, 6, 30))
+      .addScenarioValue(FxRateId.of(GBP, USD), FxRateScenarioArray.of(GBP, USD, DoubleArray.of(1.4, 1.5, 1.6)))
+      .addScenarioValue(
+          FxRateId.of(GBP, USD, OBS_SOURCE),
+          FxRateScenarioArray.of(GBP, USD, DoubleArray.of(1.41, 1.51, 1.61)))
+      .addValue(FxRateId.of(EUR, USD, OBS_SOURCE), FxRate.of(EUR, USD, 1.2d))
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_fxRateProvider() {
+    CalculationFxRateProviders test = CalculationFxRateProviders.of(MARKET_DATA);
+    CalculationParameters lookupParams = CalculationParameters.of(FxRateLookup.ofRates(OBS_SOURCE));
+
+    ScenarioFxRateProvider defaultProvider = test.fxRateProvider(CalculationParameters.empty());
+    ScenarioFxRateProvider lookupProvider = test.fxRateProvider(lookupParams);
+    assertThat(test.fxRateProvider(CalculationParameters.empty())).isSameAs(defaultProvider);
+    assertThat(test.fxRateProvider(CalculationParameters.of(FxRateLookup.ofRates(OBS_SOURCE))))
+        .isSameAs(lookupProvider);
+    assertThat(test.fxRateProvider(CalculationParameters.of(FxRateLookup.ofRates()))).isNotSameAs(lookupProvider);
+
+    assertThat(defaultProvider.fxRates(GBP, USD)).isEqualTo(DoubleArray.of(1.4, 1.5, 1.6));
+    assertThat(lookupProvider.fxRates(GBP, USD)).isEqualTo(DoubleArray.of(1.41, 1.51, 1.61));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_lookup_fxRates() {
+    ScenarioFxRateProvider test = LookupScenarioFxRateProvider.of(MARKET_DATA, FxRateLookup.ofRates(OBS_SOURCE));
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+
+    DoubleArray rates = test.fxRates(GBP, USD);
+    assertThat(rates).isEqualTo(DoubleArray.of(1.41, 1.51, 1.61));
+    assertThat(test.fxRates(GBP, USD)).isSameAs(rates);
+    assertThat(test.fxRates(USD, GBP).get(1)).isEqualTo(1 / 1.51d);
+    assertThat(test.fxRates(GBP, GBP)).isEqualTo(DoubleArray.filled(3, 1d));
+    assertThat(test.fxRates(EUR, USD)).isEqualTo(DoubleArray.filled(3, 1.2d));
+    assertThat(test.fxRate(GBP, GBP, 0)).isEqualTo(1d);
+    for (int i = 0; i < 3; i++) {
+      assertThat(test.fxRate(GBP, USD, i)).isEqualTo(test.fxRateProvider(i).fxRate(GBP, USD));
+    }
+  }
+
+  public void test_lookup_serialization() throws Exception {
+    ScenarioFxRateProvider test = LookupScenarioFxRateProvider.of(MARKET_DATA, FxRateLookup.ofRates(OBS_SOURCE));
+    test.fxRates(GBP, USD);
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(test);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      ScenarioFxRateProvider deserialized = (ScenarioFxRateProvider) in.readObject();
+      assertThat(deserialized.fxRates(GBP, USD)).isEqualTo(DoubleArray.of(1.41, 1.51, 1.61));
+    }
+  }
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.marketdata.TestId;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link CalculationTaskIndex}.
+ */
+@Test
+public class CalculationTaskIndexTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final TestId ID_A = new TestId("A");
+  private static final TestId ID_B = new TestId("B");
+  private static final MarketData MARKET_DATA_1 = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(ID_A, "a1")
+      .addValue(ID_B, "b1")
+      .build();
+  private static final MarketData MARKET_DATA_2 = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(ID_A, "a2")
+      .addValue(ID_B, "b1")
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_findTasks() {
+    CalculationTasks tasks = tasks(new KeyFunction(), "A", "B", "A");
+    CalculationTaskIndex test = CalculationTaskIndex.of(tasks, REF_DATA);
+    assertThat(test.getTasks()).isEqualTo(tasks);
+    assertThat(test.getMarketDataIds()).containsOnly(ID_A, ID_B);
+    assertThat(test.findTasks(ImmutableSet.of(ID_A)))
+        .containsExactly(tasks.getTasks().get(0), tasks.getTasks().get(2));
+    assertThat(test.findTasks(ImmutableSet.of(ID_B, ID_A))).isEqualTo(tasks.getTasks());
+    assertThat(test.findTasks(ImmutableSet.of(new TestId("C")))).isEmpty();
+  }
+
+  public void test_findChangedIds() {
+    CalculationTaskIndex test = CalculationTaskIndex.of(tasks(new KeyFunction(), "A", "B"), REF_DATA);
+    ScenarioMarketData md1 = ScenarioMarketData.of(1, MARKET_DATA_1);
+    ScenarioMarketData md2 = ScenarioMarketData.of(1, MARKET_DATA_2);
+    assertThat(test.findChangedIds(md1, md2)).containsOnly(ID_A);
+    assertThat(test.findChangedIds(md1, md1)).isEmpty();
+    assertThat(test.findChangedIds(md1, ScenarioMarketData.empty())).containsOnly(ID_A, ID_B);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_recalculate() {
+    KeyFunction fn = new KeyFunction();
+    CalculationTasks tasks = tasks(fn, "A", "B", "A");
+    CalculationTaskIndex index = CalculationTaskIndex.of(tasks, REF_DATA);
+    try (CalculationTaskRunner runner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())) {
+      Results previous = runner.calculate(tasks, MARKET_DATA_1, REF_DATA);
+      assertThat(fn.count.get()).isEqualTo(3);
+
+      Results test = runner.recalculate(index, previous, ImmutableSet.of(ID_A), MARKET_DATA_2, REF_DATA);
+      assertThat(fn.count.get()).isEqualTo(5);
+      assertThat(test).isEqualTo(runner.calculate(tasks, MARKET_DATA_2, REF_DATA));
+      assertThat(test.get(0, 0).getValue()).isEqualTo("a2");
+      assertThat(test.get(1, 0)).isSameAs(previous.get(1, 0));
+
+      // nothing to recalculate
+      fn.count.set(0);
+      assertThat(runner.recalculate(index, previous, ImmutableSet.of(), MARKET_DATA_2, REF_DATA)).isSameAs(previous);
+      assertThat(fn.count.get()).isEqualTo(0);
+    }
+  }
+
+  public void test_recalculateMultiScenario() {
+    CalculationTasks tasks = tasks(new KeyFunction(), "A", "B", "A", "B");
+    CalculationTaskIndex index = CalculationTaskIndex.of(tasks, REF_DATA);
+    ScenarioMarketData md1 = ScenarioMarketData.of(1, MARKET_DATA_1);
+    ScenarioMarketData md2 = ScenarioMarketData.of(1, MARKET_DATA_2);
+    try (CalculationTaskRunner runner = CalculationTaskRunner.ofBatched()) {
+      Results previous = runner.calculateMultiScenario(tasks, md1, REF_DATA);
+      Set<MarketDataId<?>> changedIds = index.findChangedIds(md1, md2);
+      Results test = runner.recalculateMultiScenario(index, previous, changedIds, md2, REF_DATA);
+      assertThat(test).isEqualTo(runner.calculateMultiScenario(tasks, md2, REF_DATA));
+      assertThat(test.get(0, 0).getValue()).isEqualTo(ScenarioArray.of("a2"));
+      assertThat(test.get(3, 0)).isSameAs(previous.get(3, 0));
+    }
+  }
+
+  public void test_recalculate_wrongResults() {
+    CalculationTaskIndex index = CalculationTaskIndex.of(tasks(new KeyFunction(), "A", "B"), REF_DATA);
+    Results previous = Results.of(
+        ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE).toHeader()), ImmutableList.of(Result.success("")));
+    try (CalculationTaskRunner runner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())) {
+      assertThrowsIllegalArg(() -> runner.recalculate(index, previous, ImmutableSet.of(ID_A), MARKET_DATA_2, REF_DATA));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTasks tasks(KeyFunction fn, String... keys) {
+    ImmutableList.Builder<CalculationTask> builder = ImmutableList.builder();
+    for (int i = 0; i < keys.length; i++) {
+      CalculationTaskCell cell = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      builder.add(CalculationTask.of(new KeyTarget(keys[i]), fn, cell));
+    }
+    return CalculationTasks.of(builder.build(), ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE)));
+  }
+
+  private static final class KeyTarget implements CalculationTarget {
+    private final String key;
+
+    private KeyTarget(String key) {
+      this.key = key;
+    }
+  }
+
+  // returns the market data value for the key of the target, counting the number of invocations
+  private static final class KeyFunction implements CalculationFunction<KeyTarget> {
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Class<KeyTarget> targetType() {
+      return KeyTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE);
+    }
+
+    @Override
+    public Currency naturalCurrency(KeyTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        KeyTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder().valueRequirements(new TestId(target.key)).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        KeyTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      count.incrementAndGet();
+      String value = marketData.getValue(new TestId(target.key)).getValue(0);
+      return ImmutableMap.of(TestingMeasures.PRESENT_VALUE, Result.success(ScenarioArray.of(value)));
+    }
+  }
+
+}
@@ -102,6 +102,23 @@ public class CalculationTasksTest {
     assertThat(timeSeries.iterator().next()).isEqualTo(timeSeriesId);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_orderByCost() {
+    CalculationFunctions functions = CalculationFunctions.of(ImmutableMap.of(TestTarget.class, new TestFunction()));
+    CalculationRules calculationRules = CalculationRules.of(functions, USD);
+    TestTarget target3 = new TestTarget();
+    List<TestTarget> targets = ImmutableList.of(TARGET1, TARGET2, target3);
+    List<Column> columns = ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE));
+    CalculationTasks base = CalculationTasks.of(calculationRules, targets, columns);
+
+    // the last target is the most expensive, the others are equal
+    CalculationTasks test = base.orderByCost(task -> task.getTarget() == target3 ? 10 : 1);
+    assertThat(test.getTargets()).isEqualTo(base.getTargets());
+    assertThat(test.getColumns()).isEqualTo(base.getColumns());
+    assertThat(test.getTasks()).containsExactly(base.getTasks().get(2), base.getTasks().get(0), base.getTasks().get(1));
+    assertThat(base.orderByCost(CalculationTaskCostModel.standard())).isEqualTo(base);
+  }
+
   //-------------------------------------------------------------------------
   public void testToString() {
     List<TestTarget> targets = ImmutableList.of(TARGET1, TARGET1);
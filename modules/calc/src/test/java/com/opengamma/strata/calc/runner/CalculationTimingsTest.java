@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.marketdata.BuiltMarketData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.TestId;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link CalculationTimings}.
+ */
+@Test
+public class CalculationTimingsTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final TestId ID_A = new TestId("A");
+  private static final TestId ID_FAIL = new TestId("FAIL");
+  private static final Measure PV = TestingMeasures.PRESENT_VALUE;
+  private static final Measure PAR_RATE = TestingMeasures.PAR_RATE;
+
+  //-------------------------------------------------------------------------
+  public void test_calculationFunctions() {
+    CalculationTimings timings = CalculationTimings.create();
+    CalculationFunctions functions = timings.instrument(CalculationFunctions.of(new KeyFunction()));
+    CalculationFunction<? super KeyTarget> fn = functions.getFunction(new KeyTarget("A"));
+    assertThat(fn.targetType()).isEqualTo(KeyTarget.class);
+    assertThat(fn.supportedMeasures()).containsOnly(PV, PAR_RATE);
+    assertThat(fn.naturalCurrency(new KeyTarget("A"), REF_DATA)).isEqualTo(USD);
+
+    List<CalculationTask> tasks = ImmutableList.of(
+        task(fn, 0, "A"),
+        task(fn, 1, "B"),
+        task(fn, 2, "FAIL"));
+    CalculationTasks calcTasks = CalculationTasks.of(tasks, ImmutableList.of(Column.of(PV), Column.of(PAR_RATE)));
+    MarketData marketData = MarketData.of(date(2011, 3, 8), ImmutableMap.of(ID_A, "a", new TestId("B"), "b"));
+    try (CalculationTaskRunner runner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService())) {
+      Results results = runner.calculate(calcTasks, marketData, REF_DATA);
+      assertThat(results.get(0, 0).getValue()).isEqualTo("a");
+      assertThat(results.get(2, 0).isFailure()).isTrue();
+    }
+
+    TimingStatistics fnStats = timings.getFunctionStatistics().get(KeyFunction.class);
+    assertThat(fnStats.getInvocationCount()).isEqualTo(3);
+    assertThat(fnStats.getResultCount()).isEqualTo(6);
+    assertThat(fnStats.getFailureCount()).isEqualTo(2);
+    assertThat(fnStats.getTotalNanos()).isGreaterThan(0);
+
+    assertThat(timings.getMeasureStatistics()).containsOnlyKeys(PV, PAR_RATE);
+    TimingStatistics pvStats = timings.getMeasureStatistics().get(PV);
+    assertThat(pvStats.getInvocationCount()).isEqualTo(3);
+    assertThat(pvStats.getResultCount()).isEqualTo(3);
+    assertThat(pvStats.getFailureCount()).isEqualTo(1);
+    assertThat(pvStats.getTotalNanos()).isLessThanOrEqualTo(fnStats.getTotalNanos());
+    assertThat(timings.getMarketDataStatistics()).isEmpty();
+
+    assertThat(timings.report()).contains(KeyFunction.class.getName()).contains(PV.getName());
+    timings.reset();
+    assertThat(timings.getFunctionStatistics()).isEmpty();
+    assertThat(timings.getMeasureStatistics()).isEmpty();
+  }
+
+  public void test_calculationFunctions_exception() {
+    CalculationTimings timings = CalculationTimings.create();
+    CalculationFunction<? super KeyTarget> fn =
+        timings.instrument(CalculationFunctions.of(new KeyFunction())).getFunction(new KeyTarget("A"));
+    assertThrows(
+        () -> fn.calculate(new KeyTarget("A"), ImmutableSet.of(PV), CalculationParameters.empty(), null, REF_DATA),
+        NullPointerException.class);
+
+    TimingStatistics fnStats = timings.getFunctionStatistics().get(KeyFunction.class);
+    assertThat(fnStats.getInvocationCount()).isEqualTo(1);
+    assertThat(fnStats.getResultCount()).isEqualTo(1);
+    assertThat(fnStats.getFailureCount()).isEqualTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_marketDataFunctions() {
+    CalculationTimings timings = CalculationTimings.create();
+    List<MarketDataFunction<?, ?>> functions = timings.instrument(ImmutableList.of(new KeyMarketDataFunction()));
+    assertThat(functions.get(0).getMarketDataIdType()).isEqualTo(TestId.class);
+
+    MarketDataFactory factory = MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), functions);
+    MarketDataRequirements requirements = MarketDataRequirements.builder().addValues(ID_A, ID_FAIL).build();
+    BuiltMarketData built = factory.create(
+        requirements, MarketDataConfig.empty(), MarketData.empty(date(2011, 3, 8)), REF_DATA);
+    assertThat(built.getValue(ID_A)).isEqualTo("value");
+    assertThat(built.getValueFailures()).containsOnlyKeys(ID_FAIL);
+
+    assertThat(timings.getMarketDataStatistics()).containsOnlyKeys(ID_A, ID_FAIL);
+    TimingStatistics stats = timings.getMarketDataStatistics().get(ID_A);
+    assertThat(stats.getInvocationCount()).isEqualTo(1);
+    assertThat(stats.getFailureCount()).isEqualTo(0);
+    assertThat(timings.getMarketDataStatistics().get(ID_FAIL).getFailureCount()).isEqualTo(1);
+    assertThat(timings.report()).contains(ID_A.toString());
+    assertThat(timings.toString()).contains("marketData=2");
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationTask task(CalculationFunction<? super KeyTarget> fn, int row, String key) {
+    return CalculationTask.of(
+        new KeyTarget(key),
+        fn,
+        CalculationTaskCell.of(row, 0, PV, NATURAL),
+        CalculationTaskCell.of(row, 1, PAR_RATE, NATURAL));
+  }
+
+  private static final class KeyTarget implements CalculationTarget {
+    private final String key;
+
+    private KeyTarget(String key) {
+      this.key = key;
+    }
+  }
+
+  // returns the market data value for the key of the target, or a failure
+  private static final class KeyFunction implements CalculationFunction<KeyTarget> {
+
+    @Override
+    public Class<KeyTarget> targetType() {
+      return KeyTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(PV, PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(KeyTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        KeyTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder().valueRequirements(new TestId(target.key)).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        KeyTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      Result<?> result = target.key.equals("FAIL") ?
+          Result.failure(FailureReason.CALCULATION_FAILED, "Failed") :
+          Result.success(ScenarioArray.of(marketData.getValue(new TestId(target.key)).getValue(0)));
+      ImmutableMap.Builder<Measure, Result<?>> builder = ImmutableMap.builder();
+      measures.forEach(measure -> builder.put(measure, result));
+      return builder.build();
+    }
+  }
+
+  // builds a constant value, failing for the ID "FAIL"
+  private static final class KeyMarketDataFunction implements MarketDataFunction<String, TestId> {
+
+    @Override
+    public MarketDataRequirements requirements(TestId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.empty();
+    }
+
+    @Override
+    public MarketDataBox<String> build(
+        TestId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      if (id.equals(ID_FAIL)) {
+        throw new IllegalArgumentException("Failed");
+      }
+      return MarketDataBox.ofSingleValue("value");
+    }
+
+    @Override
+    public Class<TestId> getMarketDataIdType() {
+      return TestId.class;
+    }
+  }
+
+}
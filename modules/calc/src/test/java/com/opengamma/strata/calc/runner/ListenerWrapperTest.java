@@ -6,16 +6,22 @@
 package com.opengamma.strata.calc.runner;
 
 import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import java.util.LinkedList;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
@@ -52,6 +58,178 @@ public class ListenerWrapperTest {
     }
   }
 
+  @DataProvider(name = "threadCounts")
+  public static Object[][] data_threadCounts() {
+    return new Object[][] {
+        {16},
+        {32},
+        {64},
+    };
+  }
+
+  // Tests that every result is delivered exactly once under heavy contention.
+  // The listener state is not thread-safe, so any lost update would show as an incorrect count.
+  @Test(dataProvider = "threadCounts", timeOut = 60000)
+  public void contendedExecution(int nThreads) throws InterruptedException {
+    int resultsPerThread = 2000;
+    int expectedResultCount = nThreads * resultsPerThread;
+    CountingListener listener = new CountingListener();
+    Consumer<CalculationResults> wrapper =
+        new ListenerWrapper(listener, expectedResultCount, ImmutableList.of(), ImmutableList.of());
+    deliver(wrapper, listener, nThreads, resultsPerThread);
+
+    assertThat(listener.received).isEqualTo(expectedResultCount);
+    assertThat(listener.completed).isEqualTo(1);
+  }
+
+  //-------------------------------------------------------------------------
+  // compares the delivery time with the lock-based wrapper that was used before the wrapper was lock-free
+  @Test(enabled = false)
+  void performance() throws InterruptedException {
+    int resultsPerThread = 20_000;
+    int nbRep = 5;
+    for (int nThreads : new int[] {16, 32, 64}) {
+      int expectedResultCount = nThreads * resultsPerThread;
+      long lockFreeTime = Long.MAX_VALUE;
+      long lockingTime = Long.MAX_VALUE;
+      for (int i = 0; i < nbRep; i++) {
+        lockFreeTime = Math.min(lockFreeTime, time(
+            listener -> new ListenerWrapper(listener, expectedResultCount, ImmutableList.of(), ImmutableList.of()),
+            nThreads,
+            resultsPerThread));
+        lockingTime = Math.min(lockingTime, time(
+            listener -> new LockingListenerWrapper(listener, expectedResultCount),
+            nThreads,
+            resultsPerThread));
+      }
+      System.out.println("Performance: " + expectedResultCount + " results from " + nThreads + " threads in " +
+          lockFreeTime + " ms lock-free and " + lockingTime + " ms with locks");
+    }
+  }
+
+  // the time to deliver all the results in milliseconds
+  private static long time(
+      Function<CountingListener, Consumer<CalculationResults>> wrapperFactory,
+      int nThreads,
+      int resultsPerThread) throws InterruptedException {
+
+    CountingListener listener = new CountingListener();
+    Consumer<CalculationResults> wrapper = wrapperFactory.apply(listener);
+    long start = System.nanoTime();
+    deliver(wrapper, listener, nThreads, resultsPerThread);
+    long end = System.nanoTime();
+    assertThat(listener.received).isEqualTo(nThreads * resultsPerThread);
+    return (end - start) / 1_000_000;
+  }
+
+  // delivers results to the wrapper from the threads, all starting together, waiting until calculations are complete
+  private static void deliver(
+      Consumer<CalculationResults> wrapper,
+      CountingListener listener,
+      int nThreads,
+      int resultsPerThread) throws InterruptedException {
+
+    CalculationResult result = CalculationResult.of(0, 0, Result.failure(FailureReason.ERROR, "foo"));
+    CalculationTarget target = new CalculationTarget() {};
+    CalculationResults results = CalculationResults.of(target, ImmutableList.of(result));
+
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    CountDownLatch start = new CountDownLatch(1);
+    IntStream.range(0, nThreads).forEach(i -> executor.submit(() -> {
+      start.await();
+      for (int j = 0; j < resultsPerThread; j++) {
+        wrapper.accept(results);
+      }
+      return null;
+    }));
+    start.countDown();
+    listener.latch.await();
+    executor.shutdown();
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class CountingListener implements CalculationListener {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private int received;
+    private int completed;
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      received++;
+    }
+
+    @Override
+    public void calculationsComplete() {
+      completed++;
+      latch.countDown();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the wrapper as it was before delivery was lock-free, queuing the results under a lock
+  private static final class LockingListenerWrapper implements Consumer<CalculationResults> {
+
+    private final CalculationListener listener;
+    private final Queue<CalculationResults> queue = new LinkedList<>();
+    private final Lock lock = new ReentrantLock();
+    private final Lock listenerLock = new ReentrantLock();
+    private final int tasksExpected;
+    private boolean executing;
+    private int tasksReceived;
+
+    private LockingListenerWrapper(CalculationListener listener, int tasksExpected) {
+      this.listener = listener;
+      this.tasksExpected = tasksExpected;
+    }
+
+    @Override
+    public void accept(CalculationResults result) {
+      CalculationResults nextResult;
+      lock.lock();
+      try {
+        if (executing) {
+          queue.add(result);
+          return;
+        }
+        executing = true;
+        nextResult = result;
+      } finally {
+        lock.unlock();
+      }
+      for (;;) {
+        listenerLock.lock();
+        try {
+          for (CalculationResult cell : nextResult.getCells()) {
+            listener.resultReceived(nextResult.getTarget(), cell);
+          }
+        } finally {
+          listenerLock.unlock();
+        }
+        lock.lock();
+        try {
+          if (++tasksReceived == tasksExpected) {
+            listenerLock.lock();
+            try {
+              listener.calculationsComplete();
+            } finally {
+              listenerLock.unlock();
+            }
+            return;
+          } else if (queue.isEmpty()) {
+            executing = false;
+            return;
+          } else {
+            nextResult = queue.remove();
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
   public static final class Listener implements CalculationListener {
 
     /**
@@ -0,0 +1,400 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.CollectProjectAssertions.assertThat;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ImmutableMeasure;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.FxRateScenarioArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link ShardedCalculationTaskRunner}.
+ */
+@Test
+public class ShardedCalculationTaskRunnerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = date(2011, 3, 8);
+  private static final int SCENARIO_COUNT = 10;
+  private static final ScenarioMarketData MARKET_DATA = marketData(0, SCENARIO_COUNT);
+
+  //-------------------------------------------------------------------------
+  public void test_calculateMultiScenario_matchesUnsharded() {
+    CalculationTasks tasks = tasks(20);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 3);
+        CalculationTaskRunner expected = CalculationTaskRunner.ofMultiThreaded()) {
+      Results results = test.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA);
+      assertThat(results).isEqualTo(expected.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA));
+      assertThat(results.get(5, 0)).hasValue(DoubleScenarioArray.of(SCENARIO_COUNT, i -> 500 + 8 + i));
+      assertThat(results.get(5, 1)).hasValue(5d);
+    }
+  }
+
+  public void test_calculateMultiScenario_singleShard() {
+    CalculationTasks tasks = tasks(5);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 100);
+        CalculationTaskRunner expected = CalculationTaskRunner.ofMultiThreaded()) {
+      Results results = test.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA);
+      assertThat(results).isEqualTo(expected.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA));
+    }
+  }
+
+  public void test_calculateMultiScenarioAsync() {
+    CalculationTasks tasks = tasks(20);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 4)) {
+      ResultsListener listener = new ResultsListener();
+      test.calculateMultiScenarioAsync(tasks, MARKET_DATA, REF_DATA, listener);
+      Results results = listener.result();
+      assertThat(results).isEqualTo(test.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA));
+    }
+  }
+
+  public void test_calculateMultiScenario_joinedTypes() {
+    TypesFunction fn = new TypesFunction();
+    List<Column> columns = TypesFunction.MEASURES.stream().map(Column::of).collect(toImmutableList());
+    List<CalculationTaskCell> cells = IntStream.range(0, columns.size())
+        .mapToObj(i -> CalculationTaskCell.of(0, i, TypesFunction.MEASURES.get(i), NATURAL))
+        .collect(toImmutableList());
+    CalculationTasks tasks = CalculationTasks.of(
+        ImmutableList.of(CalculationTask.of(new IndexTarget(0), fn, CalculationParameters.empty(), cells)), columns);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 3);
+        CalculationTaskRunner expected = CalculationTaskRunner.ofMultiThreaded()) {
+      Results results = test.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA);
+      Results expectedResults = expected.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA);
+      for (int i = 0; i < columns.size(); i++) {
+        assertThat(results.get(0, i)).isEqualTo(expectedResults.get(0, i));
+        assertThat(results.get(0, i).getValue()).isInstanceOf(expectedResults.get(0, i).getValue().getClass());
+      }
+    }
+  }
+
+  public void test_calculateMultiScenarioAsync_streaming() {
+    CalculationTasks tasks = tasks(20);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 3)) {
+      // the results are only drained once the call returns, thus no results can be delivered by the calling thread
+      StreamingCalculationListener listener = new StreamingCalculationListener(2);
+      test.calculateMultiScenarioAsync(tasks, MARKET_DATA, REF_DATA, listener);
+      BitSet rows = new BitSet();
+      listener.drain(result -> rows.set(result.getRowIndex()));
+      assertThat(rows.cardinality()).isEqualTo(20);
+    }
+  }
+
+  public void test_calculateMultiScenarioSharded() {
+    CalculationTasks tasks = tasks(20);
+    List<String> shards = new ArrayList<>();
+    List<String> closed = new ArrayList<>();
+    ScenarioShardMarketDataBuilder builder = (start, end) -> {
+      shards.add(start + "-" + end);
+      return new ClosingMarketData(marketData(start, end), () -> closed.add(start + "-" + end));
+    };
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofMultiThreaded()) {
+      Results results = test.calculateMultiScenarioSharded(tasks, SCENARIO_COUNT, 4, builder, REF_DATA);
+      assertThat(results).isEqualTo(test.calculateMultiScenario(tasks, MARKET_DATA, REF_DATA));
+      assertThat(shards).containsExactly("0-4", "4-8", "8-10");
+      assertThat(closed).isEqualTo(shards);
+    }
+  }
+
+  public void test_calculateMultiScenarioSharded_wrongScenarioCount() {
+    CalculationTasks tasks = tasks(2);
+    List<String> closed = new ArrayList<>();
+    ScenarioShardMarketDataBuilder builder =
+        (start, end) -> new ClosingMarketData(marketData(start, end + 1), () -> closed.add(start + "-" + end));
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofMultiThreaded()) {
+      assertThrowsIllegalArg(() -> test.calculateMultiScenarioSharded(tasks, 8, 4, builder, REF_DATA));
+      assertThat(closed).containsExactly("0-4");
+      assertThrowsIllegalArg(() -> test.calculateMultiScenarioSharded(tasks, 0, 4, builder, REF_DATA));
+      assertThrowsIllegalArg(() -> test.calculateMultiScenarioSharded(tasks, 8, 0, builder, REF_DATA));
+    }
+  }
+
+  public void test_calculate() {
+    CalculationTasks tasks = tasks(5);
+    try (CalculationTaskRunner test = CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 1)) {
+      Results results = test.calculate(tasks, MarketData.empty(VAL_DATE), REF_DATA);
+      assertThat(results.get(2, 0)).hasValue(208d);
+    }
+  }
+
+  public void test_of_invalid() {
+    assertThrowsIllegalArg(() -> CalculationTaskRunner.ofSharded(CalculationTaskRunner.ofMultiThreaded(), 0));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_join() {
+    Result<?> failure = Result.failure(FailureReason.ERROR, "Fail");
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(Result.success(1d), failure))).isSameAs(failure);
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(Result.success(1d), Result.success(2d))))
+        .isFailure(FailureReason.CALCULATION_FAILED);
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(
+        Result.success(ScenarioArray.of("A", "B")), Result.success(ScenarioArray.of("C")))))
+        .hasValue(ScenarioArray.of("A", "B", "C"));
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(
+        Result.success(ScenarioArray.of("A")), Result.success("B"))))
+        .isFailure(FailureReason.CALCULATION_FAILED);
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(
+        Result.success(CurrencyScenarioArray.of(USD, DoubleArray.of(1d))),
+        Result.success(CurrencyScenarioArray.of(GBP, DoubleArray.of(2d))))))
+        .isFailure(FailureReason.CALCULATION_FAILED);
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(
+        Result.success(ScenarioArray.ofSingleValue(2, "A")), Result.success(ScenarioArray.ofSingleValue(1, "B")))))
+        .isFailure(FailureReason.CALCULATION_FAILED);
+    assertThat(ShardedCalculationTaskRunner.join(ImmutableList.of(
+        Result.success(ScenarioArray.of("A")), Result.success(ScenarioArray.ofSingleValue(1, "B")))))
+        .isFailure(FailureReason.CALCULATION_FAILED);
+  }
+
+  public void test_shardMarketData() {
+    ScenarioShardMarketData test = new ScenarioShardMarketData(MARKET_DATA, 3, 6);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    MarketDataBox<LocalDate> valuationDate = test.getValuationDate();
+    assertThat(valuationDate.getScenarioCount()).isEqualTo(3);
+    assertThat(valuationDate.getValue(2)).isEqualTo(VAL_DATE.plusDays(5));
+    assertThat(valuationDate.getValue(0)).isSameAs(MARKET_DATA.getValuationDate().getValue(3));
+    assertThat(valuationDate).isEqualTo(test.getValuationDate());
+    assertThrowsIllegalArg(() -> new ScenarioShardMarketData(MARKET_DATA, 8, 11));
+    assertThrowsIllegalArg(() -> new ScenarioShardMarketData(MARKET_DATA, 3, 3));
+  }
+
+  //-------------------------------------------------------------------------
+  // creates the market data for a range of scenarios, with a valuation date for each scenario
+  private static ScenarioMarketData marketData(int start, int end) {
+    return ImmutableScenarioMarketData.of(
+        end - start,
+        MarketDataBox.ofScenarioValues(IntStream.range(start, end)
+            .mapToObj(VAL_DATE::plusDays)
+            .collect(toImmutableList())),
+        ImmutableMap.of(),
+        ImmutableMap.of());
+  }
+
+  private static CalculationTasks tasks(int count) {
+    ScenarioFunction fn = new ScenarioFunction();
+    ImmutableList.Builder<CalculationTask> builder = ImmutableList.builder();
+    for (int i = 0; i < count; i++) {
+      CalculationTaskCell cell1 = CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+      CalculationTaskCell cell2 = CalculationTaskCell.of(i, 1, TestingMeasures.PAR_RATE, NATURAL);
+      builder.add(CalculationTask.of(
+          new IndexTarget(i), fn, CalculationParameters.empty(), ImmutableList.of(cell1, cell2)));
+    }
+    return CalculationTasks.of(
+        builder.build(),
+        ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE), Column.of(TestingMeasures.PAR_RATE)));
+  }
+
+  private static final class IndexTarget implements CalculationTarget {
+    private final int index;
+
+    private IndexTarget(int index) {
+      this.index = index;
+    }
+  }
+
+  // returns a value for each scenario based on the valuation date, and a value that is the same for all scenarios
+  private static final class ScenarioFunction implements CalculationFunction<IndexTarget> {
+
+    @Override
+    public Class<IndexTarget> targetType() {
+      return IndexTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE, TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(IndexTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      DoubleScenarioArray values = DoubleScenarioArray.of(
+          marketData.getScenarioCount(),
+          i -> target.index * 100 + marketData.getValuationDate().getValue(i).getDayOfMonth());
+      return ImmutableMap.of(
+          TestingMeasures.PRESENT_VALUE, Result.success(values),
+          TestingMeasures.PAR_RATE, Result.success((double) target.index));
+    }
+  }
+
+  // returns a result of each supported type, with values based on the valuation date
+  private static final class TypesFunction implements CalculationFunction<IndexTarget> {
+
+    private static final List<Measure> MEASURES = ImmutableList.of(
+        ImmutableMeasure.of("Double", false),
+        ImmutableMeasure.of("Currency", false),
+        ImmutableMeasure.of("MultiCurrency", false),
+        ImmutableMeasure.of("FxRate", false),
+        ImmutableMeasure.of("Single", false),
+        ImmutableMeasure.of("Default", false),
+        ImmutableMeasure.of("Value", false));
+
+    @Override
+    public Class<IndexTarget> targetType() {
+      return IndexTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.copyOf(MEASURES);
+    }
+
+    @Override
+    public Currency naturalCurrency(IndexTarget target, ReferenceData refData) {
+      return USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.empty();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        IndexTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      int count = marketData.getScenarioCount();
+      DoubleArray days = DoubleArray.of(count, i -> marketData.getValuationDate().getValue(i).getDayOfMonth());
+      List<Object> values = ImmutableList.of(
+          DoubleScenarioArray.of(days),
+          CurrencyScenarioArray.of(USD, days),
+          MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, days, GBP, days.multipliedBy(2))),
+          FxRateScenarioArray.of(GBP, USD, days),
+          ScenarioArray.ofSingleValue(count, "A"),
+          ScenarioArray.of(count, i -> "D" + days.get(i)),
+          "V");
+      ImmutableMap.Builder<Measure, Result<?>> builder = ImmutableMap.builder();
+      for (int i = 0; i < MEASURES.size(); i++) {
+        builder.put(MEASURES.get(i), Result.success(values.get(i)));
+      }
+      return builder.build();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // market data that runs an action when closed
+  private static final class ClosingMarketData implements ScenarioMarketData, AutoCloseable {
+    private final ScenarioMarketData underlying;
+    private final Runnable closeAction;
+
+    private ClosingMarketData(ScenarioMarketData underlying, Runnable closeAction) {
+      this.underlying = underlying;
+      this.closeAction = closeAction;
+    }
+
+    @Override
+    public MarketDataBox<LocalDate> getValuationDate() {
+      return underlying.getValuationDate();
+    }
+
+    @Override
+    public int getScenarioCount() {
+      return underlying.getScenarioCount();
+    }
+
+    @Override
+    public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+      return underlying.findValue(id);
+    }
+
+    @Override
+    public Set<MarketDataId<?>> getIds() {
+      return underlying.getIds();
+    }
+
+    @Override
+    public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+      return underlying.findIds(name);
+    }
+
+    @Override
+    public Set<ObservableId> getTimeSeriesIds() {
+      return underlying.getTimeSeriesIds();
+    }
+
+    @Override
+    public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+      return underlying.getTimeSeries(id);
+    }
+
+    @Override
+    public void close() {
+      closeAction.run();
+    }
+  }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.MarketData;
+
+/**
+ * Test {@link StreamingCalculationListener}.
+ */
+@Test
+public class StreamingCalculationListenerTest {
+
+  private static final CalculationTarget TARGET = new CalculationTarget() {};
+
+  //-------------------------------------------------------------------------
+  public void test_noResults() {
+    StreamingCalculationListener test = new StreamingCalculationListener(2);
+    new ListenerWrapper(test, 0, ImmutableList.of(TARGET), ImmutableList.of());
+    assertThat(test.getTargets()).containsExactly(TARGET);
+    assertThat(test.next()).isEmpty();
+    assertThat(test.next()).isEmpty();
+  }
+
+  public void test_invalidCapacity() {
+    assertThrowsIllegalArg(() -> new StreamingCalculationListener(0));
+  }
+
+  // Tests that every result is streamed and that the producers block when the consumer is slow
+  @Test(timeOut = 60000)
+  public void test_backpressure() throws InterruptedException {
+    int nThreads = 4;
+    int resultsPerThread = 100;
+    int capacity = 4;
+    int expectedResultCount = nThreads * resultsPerThread;
+    StreamingCalculationListener listener = new StreamingCalculationListener(capacity);
+    Consumer<CalculationResults> wrapper =
+        new ListenerWrapper(listener, expectedResultCount, ImmutableList.of(), ImmutableList.of());
+
+    AtomicInteger produced = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    CountDownLatch start = new CountDownLatch(1);
+    IntStream.range(0, nThreads).forEach(i -> executor.submit(() -> {
+      start.await();
+      for (int j = 0; j < resultsPerThread; j++) {
+        int row = produced.getAndIncrement();
+        CalculationResult result = CalculationResult.of(row, 0, Result.success(row));
+        wrapper.accept(CalculationResults.of(TARGET, ImmutableList.of(result)));
+      }
+      return null;
+    }));
+    start.countDown();
+
+    // results held in the listener queue, the wrapper queue and the threads blocked waiting to add them
+    int maxInFlight = 2 * capacity + nThreads + 1;
+    BitSet rows = new BitSet();
+    AtomicInteger consumed = new AtomicInteger();
+    AtomicInteger maxObserved = new AtomicInteger();
+    listener.drain(result -> {
+      rows.set(result.getRowIndex());
+      maxObserved.accumulateAndGet(produced.get() - consumed.incrementAndGet(), Math::max);
+      if (consumed.get() % 50 == 0) {
+        // let the producers fill the queues
+        try {
+          Thread.sleep(20);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    executor.shutdown();
+
+    assertThat(consumed.get()).isEqualTo(expectedResultCount);
+    assertThat(rows.cardinality()).isEqualTo(expectedResultCount);
+    assertThat(maxObserved.get()).isLessThanOrEqualTo(maxInFlight);
+  }
+
+  //-------------------------------------------------------------------------
+  // Tests that a runner streams more results than the capacity to the thread that started the calculations
+  @Test(timeOut = 60000)
+  public void test_runner_moreTasksThanCapacity() {
+    int targetCount = 20;
+    ImmutableList<CalculationTarget> targets = IntStream.range(0, targetCount)
+        .mapToObj(i -> new CalculationTarget() {})
+        .collect(toImmutableList());
+    ImmutableList<Column> columns = ImmutableList.of(Column.of(TestingMeasures.PRESENT_VALUE));
+    CalculationRules rules = CalculationRules.of(CalculationFunctions.empty());
+    MarketData marketData = MarketData.empty(date(2016, 6, 30));
+
+    ExecutorService executor = new FinishingExecutor(Executors.newFixedThreadPool(2));
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      for (CalculationRunner runner : ImmutableList.of(
+          CalculationRunner.of(executor),
+          CalculationRunner.ofBatched(pool, CalculationTaskCostModel.standard()))) {
+        StreamingCalculationListener listener = new StreamingCalculationListener(2);
+        runner.calculateAsync(rules, targets, columns, marketData, ReferenceData.standard(), listener);
+        BitSet rows = new BitSet();
+        listener.drain(result -> rows.set(result.getRowIndex()));
+        assertThat(rows.cardinality()).isEqualTo(targetCount);
+      }
+    } finally {
+      executor.shutdown();
+      pool.shutdown();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // executor that runs each task in another thread, but waits a short time for it to finish before returning
+  // this ensures that tasks typically finish before the caller has processed their submission
+  private static final class FinishingExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    private FinishingExecutor(ExecutorService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      Future<?> future = delegate.submit(command);
+      try {
+        future.get(50, TimeUnit.MILLISECONDS);
+      } catch (TimeoutException | ExecutionException ex) {
+        // the task is blocked or failed, the caller continues
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+
+}
@@ -20,6 +20,7 @@ import java.util.Optional;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -1001,6 +1002,30 @@ public final class Guavate {
     return collectingAndThen(entriesToImmutableMap(), Guavate::combineFuturesAsMap);
   }
 
+  /**
+   * Waits for a future to complete, returning its value.
+   * <p>
+   * This is similar to {@link CompletableFuture#join()}, but if the future completed with
+   * a runtime exception, that exception is thrown rather than a {@link CompletionException} wrapping it.
+   * Thus, code that completes a task asynchronously throws the same exception as when run directly.
+   *
+   * @param <T> the type of the value
+   * @param future the future to wait for
+   * @return the value of the future
+   * @throws RuntimeException if the future completed with a runtime exception
+   * @throws CompletionException if the future completed with a checked exception or error
+   */
+  public static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Polls on a regular frequency until a result is found.
@@ -625,6 +625,17 @@ public class GuavateTest {
     assertEquals(combined.get("b"), "B");
   }
 
+  public void test_join() {
+    assertEquals(Guavate.join(CompletableFuture.completedFuture("A")), "A");
+    CompletableFuture<String> runtime = CompletableFuture.supplyAsync(() -> {
+      throw new IllegalStateException("Oops");
+    });
+    assertThrows(() -> Guavate.join(runtime), IllegalStateException.class, "Oops");
+    CompletableFuture<String> checked = new CompletableFuture<>();
+    checked.completeExceptionally(new Exception("Checked"));
+    assertThrows(() -> Guavate.join(checked), CompletionException.class, "java.lang.Exception: Checked");
+  }
+
   //-------------------------------------------------------------------------
   public void test_poll() {
     AtomicInteger counter = new AtomicInteger();
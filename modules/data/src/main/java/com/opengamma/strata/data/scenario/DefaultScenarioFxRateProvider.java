@@ -6,13 +6,24 @@
 package com.opengamma.strata.data.scenario;
 
 import java.io.Serializable;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.FxRateProvider;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.ObservableSource;
 
 /**
  * A provider of FX rates which takes its data from one scenario in a set of data for multiple scenarios.
+ * <p>
+ * The rates of a currency pair are obtained for all scenarios at once and cached,
+ * so triangulated cross rates are only calculated once for each pair and scenario.
  */
 class DefaultScenarioFxRateProvider
     implements ScenarioFxRateProvider, Serializable {
@@ -29,6 +40,10 @@ class DefaultScenarioFxRateProvider
    * The source of the FX rates.
    */
   private final ObservableSource source;
+  /**
+   * The rates for all scenarios, keyed by currency pair.
+   */
+  private final transient ConcurrentMap<CurrencyPair, DoubleArray> rates = new ConcurrentHashMap<>();
 
   // creates an instance
   DefaultScenarioFxRateProvider(ScenarioMarketData marketData, ObservableSource source) {
@@ -36,11 +51,44 @@ class DefaultScenarioFxRateProvider
     this.source = source;
   }
 
+  // ensure the cache is created when deserialized
+  private Object readResolve() {
+    return new DefaultScenarioFxRateProvider(marketData, source);
+  }
+
   @Override
   public int getScenarioCount() {
     return marketData.getScenarioCount();
   }
 
+  @Override
+  public double fxRate(Currency baseCurrency, Currency counterCurrency, int scenarioIndex) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return 1;
+    }
+    return fxRates(baseCurrency, counterCurrency).get(scenarioIndex);
+  }
+
+  @Override
+  public DoubleArray fxRates(Currency baseCurrency, Currency counterCurrency) {
+    if (baseCurrency.equals(counterCurrency)) {
+      return DoubleArray.filled(getScenarioCount(), 1d);
+    }
+    return rates.computeIfAbsent(CurrencyPair.of(baseCurrency, counterCurrency), this::findRates);
+  }
+
+  // finds the rates for all scenarios, using the rate for the pair directly if available
+  private DoubleArray findRates(CurrencyPair pair) {
+    Currency base = pair.getBase();
+    Currency counter = pair.getCounter();
+    Optional<MarketDataBox<FxRate>> direct = marketData.findValue(FxRateId.of(base, counter, source));
+    if (direct.isPresent()) {
+      MarketDataBox<FxRate> box = direct.get();
+      return DoubleArray.of(getScenarioCount(), i -> box.getValue(i).fxRate(base, counter));
+    }
+    return DoubleArray.of(getScenarioCount(), i -> fxRateProvider(i).fxRate(base, counter));
+  }
+
   @Override
   public FxRateProvider fxRateProvider(int scenarioIndex) {
     return MarketDataFxRateProvider.of(marketData.scenario(scenarioIndex), source);
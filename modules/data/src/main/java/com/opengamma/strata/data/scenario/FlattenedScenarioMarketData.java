@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.data.NamedMarketDataId;
+import com.opengamma.strata.data.ObservableId;
+
+/**
+ * A set of market data where a chain of combined and extended layers has been collapsed.
+ * <p>
+ * Each call to {@link ScenarioMarketData#combinedWith(ScenarioMarketData)} and
+ * {@link ScenarioMarketData#withValue(MarketDataId, MarketDataBox)} adds a layer that delegates to the layers
+ * below it, so the cost of a query grows with the number of layers.
+ * This implementation collects the values of the combined and extended layers in a single map.
+ * <p>
+ * The layers that are not combined or extended data, known as leaves, are not copied.
+ * They are retained in priority order and are queried in turn for any identifier not found in the map,
+ * so the behavior is the same as the chain that was flattened.
+ * A value of a layer is only added to the map if no leaf of higher priority holds a value for the identifier.
+ */
+final class FlattenedScenarioMarketData
+    implements ScenarioMarketData, Serializable {
+
+  /**
+   * The depth of a chain of layers above which the chain is flattened automatically.
+   */
+  static final int MAX_DEPTH = 8;
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The values of the layers that are not leaves, resolved through the layers.
+   */
+  private final ImmutableMap<MarketDataId<?>, MarketDataBox<?>> values;
+  /**
+   * The underlying market data that was not layered, in priority order.
+   */
+  private final ImmutableList<ScenarioMarketData> leaves;
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Flattens the market data if it is a chain of layers.
+   *
+   * @param marketData  the market data
+   * @return the flattened market data, or the input if it is not layered
+   */
+  static ScenarioMarketData of(ScenarioMarketData marketData) {
+    if (!(marketData instanceof CombinedScenarioMarketData || marketData instanceof ExtendedScenarioMarketData)) {
+      return marketData;
+    }
+    Map<MarketDataId<?>, MarketDataBox<?>> values = new LinkedHashMap<>();
+    List<ScenarioMarketData> leaves = new ArrayList<>();
+    resolve(marketData, values, leaves);
+    return new FlattenedScenarioMarketData(
+        ImmutableMap.copyOf(values), ImmutableList.copyOf(leaves), marketData.getScenarioCount());
+  }
+
+  /**
+   * Flattens the market data if it is a chain of layers deeper than the maximum depth.
+   *
+   * @param marketData  the market data
+   * @return the flattened market data, or the input if the chain is not deep enough to flatten
+   */
+  static ScenarioMarketData ofIfDeep(ScenarioMarketData marketData) {
+    return depth(marketData) > MAX_DEPTH ? of(marketData) : marketData;
+  }
+
+  // the number of layers above the deepest leaf
+  static int depth(ScenarioMarketData marketData) {
+    if (marketData instanceof CombinedScenarioMarketData) {
+      CombinedScenarioMarketData combined = (CombinedScenarioMarketData) marketData;
+      return 1 + Math.max(depth(combined.getUnderlying1()), depth(combined.getUnderlying2()));
+    }
+    if (marketData instanceof ExtendedScenarioMarketData) {
+      return 1 + depth(((ExtendedScenarioMarketData<?>) marketData).getUnderlying());
+    }
+    return 0;
+  }
+
+  // resolves the values of the layers in priority order, a value is only added if not already resolved
+  // the leaves are not copied, thus flattening is linear in the number of layered values
+  private static void resolve(
+      ScenarioMarketData marketData,
+      Map<MarketDataId<?>, MarketDataBox<?>> values,
+      List<ScenarioMarketData> leaves) {
+
+    if (marketData instanceof CombinedScenarioMarketData) {
+      CombinedScenarioMarketData combined = (CombinedScenarioMarketData) marketData;
+      resolve(combined.getUnderlying1(), values, leaves);
+      resolve(combined.getUnderlying2(), values, leaves);
+    } else if (marketData instanceof ExtendedScenarioMarketData) {
+      ExtendedScenarioMarketData<?> extended = (ExtendedScenarioMarketData<?>) marketData;
+      addValue(extended.getId(), extended.getValue(), values, leaves);
+      resolve(extended.getUnderlying(), values, leaves);
+    } else if (marketData instanceof FlattenedScenarioMarketData) {
+      FlattenedScenarioMarketData flattened = (FlattenedScenarioMarketData) marketData;
+      flattened.values.forEach((id, value) -> addValue(id, value, values, leaves));
+      flattened.leaves.forEach(leaf -> addLeaf(leaf, leaves));
+    } else {
+      addLeaf(marketData, leaves);
+    }
+  }
+
+  // adds a value unless already resolved or held by a leaf of higher priority
+  private static void addValue(
+      MarketDataId<?> id,
+      MarketDataBox<?> value,
+      Map<MarketDataId<?>, MarketDataBox<?>> values,
+      List<ScenarioMarketData> leaves) {
+
+    if (!values.containsKey(id) && leaves.stream().noneMatch(leaf -> leaf.findValue(id).isPresent())) {
+      values.put(id, value);
+    }
+  }
+
+  // adds a leaf, a leaf that is already present is hidden by the earlier occurrence
+  private static void addLeaf(ScenarioMarketData leaf, List<ScenarioMarketData> leaves) {
+    if (leaves.stream().noneMatch(existing -> existing == leaf)) {
+      leaves.add(leaf);
+    }
+  }
+
+  // restricted constructor
+  private FlattenedScenarioMarketData(
+      ImmutableMap<MarketDataId<?>, MarketDataBox<?>> values,
+      ImmutableList<ScenarioMarketData> leaves,
+      int scenarioCount) {
+
+    this.values = values;
+    this.leaves = leaves;
+    this.scenarioCount = scenarioCount;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public MarketDataBox<LocalDate> getValuationDate() {
+    return leaves.get(0).getValuationDate();
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public boolean containsValue(MarketDataId<?> id) {
+    return values.containsKey(id) || leaves.stream().anyMatch(leaf -> leaf.containsValue(id));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> MarketDataBox<T> getValue(MarketDataId<T> id) {
+    MarketDataBox<T> value = (MarketDataBox<T>) values.get(id);
+    if (value != null) {
+      return value;
+    }
+    int last = leaves.size() - 1;
+    for (int i = 0; i < last; i++) {
+      Optional<MarketDataBox<T>> leafValue = leaves.get(i).findValue(id);
+      if (leafValue.isPresent()) {
+        return leafValue.get();
+      }
+    }
+    return leaves.get(last).getValue(id);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Optional<MarketDataBox<T>> findValue(MarketDataId<T> id) {
+    MarketDataBox<T> value = (MarketDataBox<T>) values.get(id);
+    if (value != null) {
+      return Optional.of(value);
+    }
+    for (ScenarioMarketData leaf : leaves) {
+      Optional<MarketDataBox<T>> leafValue = leaf.findValue(id);
+      if (leafValue.isPresent()) {
+        return leafValue;
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Set<MarketDataId<?>> getIds() {
+    ImmutableSet.Builder<MarketDataId<?>> builder = ImmutableSet.builder();
+    builder.addAll(values.keySet());
+    for (ScenarioMarketData leaf : leaves) {
+      builder.addAll(leaf.getIds());
+    }
+    return builder.build();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Set<MarketDataId<T>> findIds(MarketDataName<T> name) {
+    ImmutableSet.Builder<MarketDataId<T>> builder = ImmutableSet.builder();
+    for (MarketDataId<?> id : values.keySet()) {
+      if (id instanceof NamedMarketDataId && ((NamedMarketDataId<?>) id).getMarketDataName().equals(name)) {
+        builder.add((MarketDataId<T>) id);
+      }
+    }
+    for (ScenarioMarketData leaf : leaves) {
+      builder.addAll(leaf.findIds(name));
+    }
+    return builder.build();
+  }
+
+  @Override
+  public Set<ObservableId> getTimeSeriesIds() {
+    ImmutableSet.Builder<ObservableId> builder = ImmutableSet.builder();
+    for (ScenarioMarketData leaf : leaves) {
+      builder.addAll(leaf.getTimeSeriesIds());
+    }
+    return builder.build();
+  }
+
+  @Override
+  public LocalDateDoubleTimeSeries getTimeSeries(ObservableId id) {
+    for (ScenarioMarketData leaf : leaves) {
+      LocalDateDoubleTimeSeries timeSeries = leaf.getTimeSeries(id);
+      if (!timeSeries.isEmpty()) {
+        return timeSeries;
+      }
+    }
+    return LocalDateDoubleTimeSeries.empty();
+  }
+
+  @Override
+  public ScenarioMarketData flattened() {
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      FlattenedScenarioMarketData other = (FlattenedScenarioMarketData) obj;
+      return scenarioCount == other.scenarioCount &&
+          values.equals(other.values) &&
+          leaves.equals(other.leaves);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + scenarioCount;
+    hash = hash * 31 + values.hashCode();
+    hash = hash * 31 + leaves.hashCode();
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "FlattenedScenarioMarketData[values={}, leaves={}, scenarioCount={}]", values.size(), leaves.size(), scenarioCount);
+  }
+
+}
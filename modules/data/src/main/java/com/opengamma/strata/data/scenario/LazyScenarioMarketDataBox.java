@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.Serializable;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.function.ObjIntFunction;
+
+/**
+ * A market data box which creates the value for each scenario on demand from a base box.
+ * <p>
+ * The box holds the base box and a function that derives the value for a scenario from the base value.
+ * Typically the function applies a small per-scenario delta, such as a set of node shifts, so the memory
+ * used by the box scales with the number of scenarios requested rather than with the number of scenarios.
+ * <p>
+ * The value for a scenario is created when first requested and is then held by a soft reference.
+ * A value is thus normally created once, but the garbage collector may reclaim the values when memory is low,
+ * in which case they are created again when next requested.
+ * <p>
+ * Mapping or combining the box returns another lazy box, so no values are created until requested.
+ * <p>
+ * The type of the values and a descriptor of the function are specified when the box is created.
+ * Equality is based on the base box, the scenario count and the descriptor, so no values are created
+ * to compare two boxes. A box created by mapping or combining uses the function, and any other box, as its descriptor.
+ * <p>
+ * This is not a Joda-Bean, as the function is not in general serializable.
+ * When serialized, all values are created and the box is replaced by a standard scenario box.
+ *
+ * @param <B>  the type of data held in the base box
+ * @param <T>  the type of data held in the box
+ */
+final class LazyScenarioMarketDataBox<B, T>
+    implements MarketDataBox<T>, Serializable {
+
+  /** Serialization version. */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The base box, containing a single value or a value for each scenario.
+   */
+  private final transient MarketDataBox<B> base;
+  /**
+   * The number of scenarios.
+   */
+  private final transient int scenarioCount;
+  /**
+   * The type of the values, null if derived from the first value.
+   */
+  private final transient Class<? extends T> marketDataType;
+  /**
+   * The descriptor of the function, used for equality.
+   */
+  private final transient Object descriptor;
+  /**
+   * The function creating the value for a scenario from the base value for the scenario.
+   */
+  private final transient ObjIntFunction<B, T> fn;
+  /**
+   * The values that have been created, indexed by scenario.
+   */
+  private final transient AtomicReferenceArray<SoftReference<T>> values;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that applies the function to the base box on demand.
+   *
+   * @param <B>  the type of data held in the base box
+   * @param <T>  the type of data held in the box
+   * @param base  the base box
+   * @param scenarioCount  the number of scenarios
+   * @param marketDataType  the type of the values
+   * @param descriptor  the descriptor of the function, used for equality
+   * @param fn  the function creating the value for a scenario from the base value for the scenario
+   * @return the box
+   */
+  static <B, T> LazyScenarioMarketDataBox<B, T> of(
+      MarketDataBox<B> base,
+      int scenarioCount,
+      Class<? extends T> marketDataType,
+      Object descriptor,
+      ObjIntFunction<B, T> fn) {
+
+    ArgChecker.notNull(base, "base");
+    ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+    ArgChecker.notNull(marketDataType, "marketDataType");
+    ArgChecker.notNull(descriptor, "descriptor");
+    ArgChecker.notNull(fn, "fn");
+    if (base.isScenarioValue() && base.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              base.getScenarioCount()));
+    }
+    return new LazyScenarioMarketDataBox<>(base, scenarioCount, marketDataType, descriptor, fn);
+  }
+
+  // restricted constructor
+  private LazyScenarioMarketDataBox(
+      MarketDataBox<B> base,
+      int scenarioCount,
+      Class<? extends T> marketDataType,
+      Object descriptor,
+      ObjIntFunction<B, T> fn) {
+
+    this.base = base;
+    this.scenarioCount = scenarioCount;
+    this.marketDataType = marketDataType;
+    this.descriptor = descriptor;
+    this.fn = fn;
+    this.values = new AtomicReferenceArray<>(scenarioCount);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public T getSingleValue() {
+    throw new IllegalStateException("This box does not contain a single value");
+  }
+
+  @Override
+  public ScenarioArray<T> getScenarioValue() {
+    return new LazyScenarioArray();
+  }
+
+  @Override
+  public T getValue(int scenarioIndex) {
+    ArgChecker.inRange(scenarioIndex, 0, scenarioCount, "scenarioIndex");
+    SoftReference<T> ref = values.get(scenarioIndex);
+    T value = ref != null ? ref.get() : null;
+    if (value == null) {
+      // the function is repeatable, thus concurrent threads creating the same scenario store equal values
+      value = fn.apply(base.getValue(scenarioIndex), scenarioIndex);
+      values.set(scenarioIndex, new SoftReference<>(value));
+    }
+    return value;
+  }
+
+  @Override
+  public boolean isSingleValue() {
+    return false;
+  }
+
+  @Override
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  @Override
+  public Class<?> getMarketDataType() {
+    return marketDataType != null ? marketDataType : getValue(0).getClass();
+  }
+
+  @Override
+  public boolean isLazy() {
+    return true;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public <R> MarketDataBox<R> map(Function<T, R> fn) {
+    return new LazyScenarioMarketDataBox<>(this, scenarioCount, null, fn, (value, i) -> fn.apply(value));
+  }
+
+  @Override
+  public <R> MarketDataBox<R> mapWithIndex(int scenarioCount, ObjIntFunction<T, R> fn) {
+    checkScenarioCount(scenarioCount);
+    return new LazyScenarioMarketDataBox<>(this, scenarioCount, null, fn, fn);
+  }
+
+  @Override
+  public <R> MarketDataBox<R> mapWithIndexLazily(
+      int scenarioCount,
+      Class<? extends R> marketDataType,
+      Object descriptor,
+      ObjIntFunction<T, R> fn) {
+
+    checkScenarioCount(scenarioCount);
+    return LazyScenarioMarketDataBox.of(this, scenarioCount, marketDataType, descriptor, fn);
+  }
+
+  @Override
+  public <U, R> MarketDataBox<R> combineWith(MarketDataBox<U> other, BiFunction<T, U, R> fn) {
+    if (other.isScenarioValue() && other.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario values must have the same number of scenarios. {} has {} scenarios, {} has {}",
+              this,
+              scenarioCount,
+              other,
+              other.getScenarioCount()));
+    }
+    return new LazyScenarioMarketDataBox<>(
+        this, scenarioCount, null, Arrays.asList(fn, other), (value, i) -> fn.apply(value, other.getValue(i)));
+  }
+
+  @Override
+  public Stream<T> stream() {
+    return IntStream.range(0, scenarioCount).mapToObj(this::getValue);
+  }
+
+  // checks the scenario count matches that of this box
+  private void checkScenarioCount(int scenarioCount) {
+    if (scenarioCount != this.scenarioCount) {
+      throw new IllegalArgumentException(
+          Messages.format(
+              "Scenario count {} does not equal the scenario count of the value {}",
+              scenarioCount,
+              this.scenarioCount));
+    }
+  }
+
+  // creates a list containing the result of the function for every scenario
+  private <R> List<R> materialize(Function<Integer, R> fn) {
+    return IntStream.range(0, scenarioCount)
+        .mapToObj(fn::apply)
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Replaces this box with a standard scenario box containing all the values when serialized.
+   *
+   * @return the standard scenario box
+   */
+  private Object writeReplace() {
+    return ScenarioMarketDataBox.of(materialize(this::getValue));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      LazyScenarioMarketDataBox<?, ?> other = (LazyScenarioMarketDataBox<?, ?>) obj;
+      return scenarioCount == other.scenarioCount &&
+          base.equals(other.base) &&
+          descriptor.equals(other.descriptor);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + scenarioCount;
+    hash = hash * 31 + base.hashCode();
+    hash = hash * 31 + descriptor.hashCode();
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format(
+        "LazyScenarioMarketDataBox[scenarioCount={}, base={}, descriptor={}]", scenarioCount, base, descriptor);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A view of the box as a scenario array.
+   */
+  private final class LazyScenarioArray implements ScenarioArray<T> {
+
+    @Override
+    public int getScenarioCount() {
+      return scenarioCount;
+    }
+
+    @Override
+    public T get(int scenarioIndex) {
+      return getValue(scenarioIndex);
+    }
+  }
+
+}
@@ -181,6 +181,19 @@ public interface MarketDataBox<T> {
    */
   public abstract Class<?> getMarketDataType();
 
+  /**
+   * Checks if the values in this box are created on demand.
+   * <p>
+   * A lazy box holds the data needed to create its values, see
+   * {@link #mapWithIndexLazily(int, Class, Object, ObjIntFunction)}.
+   * Requesting a value may therefore be expensive, or fail if the value cannot be created.
+   *
+   * @return true if the values in this box are created on demand
+   */
+  public default boolean isLazy() {
+    return false;
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Applies a function to the contents of the box and returns another box.
@@ -219,6 +232,45 @@ public interface MarketDataBox<T> {
    */
   public abstract <R> MarketDataBox<R> mapWithIndex(int scenarioCount, ObjIntFunction<T, R> fn);
 
+  /**
+   * Applies a function to the contents of the box once for each scenario, deferring each invocation
+   * until the value for the scenario is requested.
+   * <p>
+   * This has the same behavior as {@link #mapWithIndex(int, ObjIntFunction)}, except that the returned box
+   * initially only holds this box and the function. The value for a scenario is created when it is first
+   * requested, and is then retained by the box. As such, the memory used by the box grows with the number
+   * of scenarios that have been requested, up to that of a box containing every value.
+   * <p>
+   * This is intended for perturbations where the function captures a small delta, such as a node shift,
+   * and where only some of the scenarios are needed at any time.
+   * The function must be thread-safe and must return equal values when invoked more than once.
+   * Any exception thrown by the function is thrown when the value for the scenario is requested.
+   * <p>
+   * The descriptor identifies the function, and is typically the perturbation creating the box.
+   * Two lazy boxes are equal if their underlying boxes, scenario counts and descriptors are equal.
+   * As such, equal descriptors must always describe functions returning equal values.
+   * A lazy box is not equal to a box containing the same values.
+   * <p>
+   * The returned box is not a Joda-Bean, as the function is not in general serializable.
+   * When it is serialized, every value is created and it is written as a box containing the values.
+   *
+   * @param scenarioCount  the total number of scenarios
+   * @param marketDataType  the type of the market data returned by the function
+   * @param descriptor  the descriptor of the function, used for equality, typically the perturbation
+   * @param fn  the function that is invoked with a scenario index and the market data value for that scenario.
+   *   The return value is used as the scenario data in the returned box
+   * @param <R>  the type of the returned market data
+   * @return a box creating market data on demand by applying the function to the contents of this box
+   */
+  public default <R> MarketDataBox<R> mapWithIndexLazily(
+      int scenarioCount,
+      Class<? extends R> marketDataType,
+      Object descriptor,
+      ObjIntFunction<T, R> fn) {
+
+    return LazyScenarioMarketDataBox.of(this, scenarioCount, marketDataType, descriptor, fn);
+  }
+
   /**
    * Applies a function to the market data in this box and another box and returns a box containing the result.
    * <p>
@@ -193,12 +193,11 @@ public final class MultiCurrencyScenarioArray
 
     double[] singleCurrencyValues = new double[size];
     for (Map.Entry<Currency, DoubleArray> entry : amounts.getValues().entrySet()) {
-      Currency currency = entry.getKey();
-      DoubleArray currencyValues = entry.getValue();
-
+      // convert a column at a time, using the rates for all scenarios
+      double[] currencyValues = entry.getValue().toArrayUnsafe();
+      double[] rates = fxRateProvider.fxRates(entry.getKey(), reportingCurrency).toArrayUnsafe();
       for (int i = 0; i < size; i++) {
-        double convertedValue = currencyValues.get(i) * fxRateProvider.fxRate(currency, reportingCurrency, i);
-        singleCurrencyValues[i] += convertedValue;
+        singleCurrencyValues[i] += currencyValues[i] * rates[i];
       }
     }
     return CurrencyScenarioArray.of(reportingCurrency, DoubleArray.ofUnsafe(singleCurrencyValues));
@@ -92,6 +92,22 @@ public interface ScenarioArray<T> {
     return SingleScenarioArray.of(scenarioCount, value);
   }
 
+  /**
+   * Obtains an instance by joining arrays, in scenario order.
+   * <p>
+   * The arrays must all have the same type, which must be one of the arrays in this package.
+   * The joined array has the same type as the arrays.
+   * For example, joining instances of {@link CurrencyScenarioArray} returns a {@code CurrencyScenarioArray}.
+   *
+   * @param arrays  the arrays to join, in scenario order
+   * @return the joined array
+   * @throws IllegalArgumentException if the arrays are of different types, an unsupported type,
+   *   or are inconsistent, such as having different currencies
+   */
+  public static ScenarioArray<?> join(List<? extends ScenarioArray<?>> arrays) {
+    return ScenarioArrayJoiner.join(arrays);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the number of scenarios.
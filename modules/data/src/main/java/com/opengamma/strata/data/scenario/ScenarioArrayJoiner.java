@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Joins scenario arrays in scenario order, creating an array of the same type.
+ * <p>
+ * This is used by {@link ScenarioArray#join(List)}.
+ */
+final class ScenarioArrayJoiner {
+
+  // restricted constructor
+  private ScenarioArrayJoiner() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Joins scenario arrays of the same type.
+   *
+   * @param arrays  the arrays to join
+   * @return the joined array
+   * @throws IllegalArgumentException if the arrays cannot be joined
+   */
+  static ScenarioArray<?> join(List<? extends ScenarioArray<?>> arrays) {
+    ArgChecker.notEmpty(arrays, "arrays");
+    Class<?> type = arrays.get(0).getClass();
+    for (ScenarioArray<?> array : arrays) {
+      if (array.getClass() != type) {
+        throw new IllegalArgumentException(Messages.format(
+            "Unable to join scenario arrays of type {} and {}", type.getName(), array.getClass().getName()));
+      }
+    }
+    if (type == DoubleScenarioArray.class) {
+      return DoubleScenarioArray.of(concat(cast(arrays, DoubleScenarioArray.class), DoubleScenarioArray::getValues));
+    }
+    if (type == CurrencyScenarioArray.class) {
+      List<CurrencyScenarioArray> amounts = cast(arrays, CurrencyScenarioArray.class);
+      return CurrencyScenarioArray.of(
+          same(amounts, CurrencyScenarioArray::getCurrency),
+          concat(amounts, array -> array.getAmounts().getValues()));
+    }
+    if (type == MultiCurrencyScenarioArray.class) {
+      return MultiCurrencyScenarioArray.of(cast(arrays, MultiCurrencyScenarioArray.class).stream()
+          .flatMap(MultiCurrencyScenarioArray::stream)
+          .collect(toImmutableList()));
+    }
+    if (type == FxRateScenarioArray.class) {
+      List<FxRateScenarioArray> rates = cast(arrays, FxRateScenarioArray.class);
+      return FxRateScenarioArray.of(
+          same(rates, FxRateScenarioArray::getPair),
+          concat(rates, array -> DoubleArray.of(array.stream().mapToDouble(rate -> rate.fxRate(array.getPair())))));
+    }
+    if (type == SingleScenarioArray.class) {
+      List<SingleScenarioArray<?>> singles = arrays.stream()
+          .map(array -> (SingleScenarioArray<?>) array)
+          .collect(toImmutableList());
+      return SingleScenarioArray.of(
+          singles.stream().mapToInt(SingleScenarioArray::getScenarioCount).sum(),
+          same(singles, SingleScenarioArray::getValue));
+    }
+    if (type == DefaultScenarioArray.class) {
+      return DefaultScenarioArray.of(arrays.stream().flatMap(ScenarioArray::stream).collect(toImmutableList()));
+    }
+    throw new IllegalArgumentException(Messages.format("Unable to join scenario arrays of type {}", type.getName()));
+  }
+
+  //-------------------------------------------------------------------------
+  // casts the arrays, which are known to be of the type
+  private static <A> List<A> cast(List<? extends ScenarioArray<?>> arrays, Class<A> type) {
+    return arrays.stream().map(type::cast).collect(toImmutableList());
+  }
+
+  // concatenates the values of the arrays
+  private static <A> DoubleArray concat(List<A> arrays, Function<A, DoubleArray> valuesFn) {
+    return DoubleArray.of(arrays.stream().map(valuesFn).flatMapToDouble(DoubleArray::stream));
+  }
+
+  // returns the property of the arrays, which must be the same for every array
+  private static <A, P> P same(List<A> arrays, Function<A, P> propertyFn) {
+    P first = propertyFn.apply(arrays.get(0));
+    for (A array : arrays) {
+      P property = propertyFn.apply(array);
+      if (!first.equals(property)) {
+        throw new IllegalArgumentException(Messages.format(
+            "Unable to join scenario arrays that differ in {} and {}", first, property));
+      }
+    }
+    return first;
+  }
+
+}
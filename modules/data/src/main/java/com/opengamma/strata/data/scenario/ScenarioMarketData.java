@@ -266,7 +266,25 @@ public interface ScenarioMarketData {
    * @return a set of market data combining the data in this set with the data in the other
    */
   public default ScenarioMarketData combinedWith(ScenarioMarketData other) {
-    return new CombinedScenarioMarketData(this, other);
+    return FlattenedScenarioMarketData.ofIfDeep(new CombinedScenarioMarketData(this, other));
+  }
+
+  /**
+   * Returns market data equivalent to this, with any chain of combined or extended data collapsed.
+   * <p>
+   * Market data created using {@link #combinedWith(ScenarioMarketData)} or
+   * {@link #withValue(MarketDataId, MarketDataBox)} queries each layer in turn,
+   * so lookups become slower as layers are added.
+   * The flattened market data holds the values added by the layers in a single map, and queries
+   * the underlying market data that is not layered in priority order for any other value.
+   * This is performed automatically when a chain becomes more than eight layers deep.
+   * <p>
+   * This returns this instance if it is not a chain of combined or extended data.
+   *
+   * @return the flattened market data
+   */
+  public default ScenarioMarketData flattened() {
+    return FlattenedScenarioMarketData.of(this);
   }
 
   //-------------------------------------------------------------------------
@@ -308,7 +326,7 @@ public interface ScenarioMarketData {
    * @throws IllegalArgumentException if the scenario count does not match
    */
   public default <T> ScenarioMarketData withValue(MarketDataId<T> id, MarketDataBox<T> value) {
-    return ExtendedScenarioMarketData.of(id, value, this);
+    return FlattenedScenarioMarketData.ofIfDeep(ExtendedScenarioMarketData.of(id, value, this));
   }
 
   /**
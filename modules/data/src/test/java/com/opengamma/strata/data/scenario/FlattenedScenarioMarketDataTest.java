@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketDataNotFoundException;
+import com.opengamma.strata.data.TestingName;
+import com.opengamma.strata.data.TestingNamedId;
+
+/**
+ * Test {@link FlattenedScenarioMarketData}.
+ */
+@Test
+public class FlattenedScenarioMarketDataTest {
+
+  private static final LocalDate VAL_DATE1 = date(2011, 3, 8);
+  private static final LocalDate VAL_DATE2 = date(2011, 3, 10);
+  private static final TestObservableId ID1 = TestObservableId.of("1");
+  private static final TestObservableId ID2 = TestObservableId.of("2");
+  private static final TestObservableId ID3 = TestObservableId.of("3");
+  private static final TestObservableId ID4 = TestObservableId.of("4");
+  private static final TestingNamedId NAMED_ID = new TestingNamedId("Named");
+  private static final LocalDateDoubleTimeSeries TIME_SERIES1 = LocalDateDoubleTimeSeries.of(VAL_DATE1, 1d);
+  private static final LocalDateDoubleTimeSeries TIME_SERIES2 = LocalDateDoubleTimeSeries.of(VAL_DATE1, 2d);
+  private static final ImmutableScenarioMarketData DATA1 = ImmutableScenarioMarketData.builder(VAL_DATE1)
+      .addBox(ID1, MarketDataBox.ofScenarioValues(1.0, 1.1))
+      .addValue(ID2, 2.0)
+      .addTimeSeries(ID1, TIME_SERIES1)
+      .build();
+  private static final ImmutableScenarioMarketData DATA2 = ImmutableScenarioMarketData.builder(VAL_DATE2)
+      .addValue(ID2, 20.0)
+      .addValue(ID3, 30.0)
+      .addValue(NAMED_ID, "A")
+      .addTimeSeries(ID1, LocalDateDoubleTimeSeries.empty())
+      .addTimeSeries(ID2, TIME_SERIES2)
+      .build();
+
+  //-------------------------------------------------------------------------
+  public void test_flattened_sameAsChain() {
+    ScenarioMarketData chain = DATA1.withValue(ID3, MarketDataBox.ofSingleValue(3.0))
+        .combinedWith(DATA2.withValue(ID1, MarketDataBox.ofSingleValue(10.0)))
+        .withValue(ID2, MarketDataBox.ofSingleValue(200.0));
+    ScenarioMarketData test = chain.flattened();
+    assertThat(test).isInstanceOf(FlattenedScenarioMarketData.class);
+    assertThat(test.flattened()).isSameAs(test);
+    assertThat(test.getValuationDate()).isEqualTo(chain.getValuationDate());
+    assertThat(test.getScenarioCount()).isEqualTo(2);
+    assertThat(test.getIds()).containsExactlyInAnyOrderElementsOf(chain.getIds());
+    for (TestObservableId id : new TestObservableId[] {ID1, ID2, ID3}) {
+      assertThat(test.getValue(id)).isEqualTo(chain.getValue(id));
+      assertThat(test.findValue(id)).isEqualTo(chain.findValue(id));
+      assertThat(test.containsValue(id)).isTrue();
+    }
+    assertThat(test.getValue(ID1)).isEqualTo(MarketDataBox.ofScenarioValues(1.0, 1.1));
+    assertThat(test.getValue(ID2)).isEqualTo(MarketDataBox.ofSingleValue(200.0));
+    assertThat(test.getValue(ID3)).isEqualTo(MarketDataBox.ofSingleValue(3.0));
+    assertThat(test.findValue(ID4)).isEmpty();
+    assertThat(test.containsValue(ID4)).isFalse();
+    assertThrows(() -> test.getValue(ID4), MarketDataNotFoundException.class);
+    assertThat(test.findIds(new TestingName("Named"))).containsExactly(NAMED_ID);
+    assertThat(test.getTimeSeriesIds()).containsExactlyInAnyOrder(ID1, ID2);
+    assertThat(test.getTimeSeries(ID1)).isEqualTo(TIME_SERIES1);
+    assertThat(test.getTimeSeries(ID2)).isEqualTo(TIME_SERIES2);
+    assertThat(test.getTimeSeries(ID3)).isEqualTo(LocalDateDoubleTimeSeries.empty());
+    assertThat(test.toString()).contains("values=2", "leaves=2");
+  }
+
+  public void test_flattened_notLayered() {
+    assertThat(DATA1.flattened()).isSameAs(DATA1);
+  }
+
+  public void test_withValue_deepChain() {
+    ScenarioMarketData test = DATA1;
+    for (int i = 0; i < 20; i++) {
+      test = test.withValue(ID3, MarketDataBox.ofSingleValue((double) i));
+      assertThat(FlattenedScenarioMarketData.depth(test)).isLessThanOrEqualTo(FlattenedScenarioMarketData.MAX_DEPTH);
+    }
+    assertThat(test.getValue(ID3)).isEqualTo(MarketDataBox.ofSingleValue(19.0));
+    assertThat(test.getValue(ID1)).isEqualTo(MarketDataBox.ofScenarioValues(1.0, 1.1));
+  }
+
+  public void test_combinedWith_deepChain() {
+    ScenarioMarketData test = DATA1;
+    for (int i = 0; i < 20; i++) {
+      test = test.combinedWith(DATA2);
+    }
+    assertThat(test.flattened()).isSameAs(test.flattened().flattened());
+    assertThat(FlattenedScenarioMarketData.depth(test)).isLessThanOrEqualTo(FlattenedScenarioMarketData.MAX_DEPTH);
+    assertThat(test.getValue(ID2)).isEqualTo(MarketDataBox.ofSingleValue(2.0));
+    assertThat(test.getValue(ID3)).isEqualTo(MarketDataBox.ofSingleValue(30.0));
+    assertThat(test.getValuationDate()).isEqualTo(MarketDataBox.ofSingleValue(VAL_DATE1));
+  }
+
+  public void test_withValue_leavesNotCopied() {
+    ScenarioMarketData test = DATA1;
+    for (int i = 0; i < 20; i++) {
+      test = test.withValue(ID3, MarketDataBox.ofSingleValue((double) i))
+          .withValue(ID4, MarketDataBox.ofSingleValue(4d));
+    }
+    assertThat(test.flattened().toString()).contains("values=2", "leaves=1");
+    assertThat(test.getIds()).containsExactlyInAnyOrder(ID1, ID2, ID3, ID4);
+  }
+
+  public void test_flattened_leafHidesLowerValue() {
+    ScenarioMarketData chain = DATA2.combinedWith(DATA1.withValue(ID2, MarketDataBox.ofSingleValue(200.0)));
+    ScenarioMarketData test = chain.flattened();
+    assertThat(test.getValue(ID2)).isEqualTo(MarketDataBox.ofSingleValue(20.0));
+    assertThat(test.getValue(ID1)).isEqualTo(MarketDataBox.ofScenarioValues(1.0, 1.1));
+    assertThat(test.toString()).contains("values=0", "leaves=2");
+  }
+
+  public void test_flattened_reflatten() {
+    ScenarioMarketData flattened = DATA1.withValue(ID3, MarketDataBox.ofSingleValue(3.0)).flattened();
+    ScenarioMarketData chain = flattened.withValue(ID2, MarketDataBox.ofSingleValue(200.0)).combinedWith(DATA2);
+    ScenarioMarketData test = chain.flattened();
+    assertThat(test.getIds()).containsExactlyInAnyOrder(ID1, ID2, ID3, NAMED_ID);
+    assertThat(test.getValue(ID1)).isEqualTo(MarketDataBox.ofScenarioValues(1.0, 1.1));
+    assertThat(test.getValue(ID2)).isEqualTo(MarketDataBox.ofSingleValue(200.0));
+    assertThat(test.getValue(ID3)).isEqualTo(MarketDataBox.ofSingleValue(3.0));
+    assertThat(test.getValue(NAMED_ID)).isEqualTo(MarketDataBox.ofSingleValue("A"));
+    assertThat(test.getTimeSeries(ID2)).isEqualTo(TIME_SERIES2);
+    assertThat(test).isEqualTo(DATA1.withValue(ID3, MarketDataBox.ofSingleValue(3.0))
+        .withValue(ID2, MarketDataBox.ofSingleValue(200.0))
+        .combinedWith(DATA2)
+        .flattened());
+  }
+
+  public void test_equalsHashCode() {
+    ScenarioMarketData test = DATA1.withValue(ID3, MarketDataBox.ofSingleValue(3.0)).flattened();
+    ScenarioMarketData test2 = DATA1.withValue(ID3, MarketDataBox.ofSingleValue(3.0)).flattened();
+    ScenarioMarketData other = DATA1.withValue(ID3, MarketDataBox.ofSingleValue(4.0)).flattened();
+    assertThat(test).isEqualTo(test);
+    assertThat(test).isEqualTo(test2);
+    assertThat(test.hashCode()).isEqualTo(test2.hashCode());
+    assertThat(test).isNotEqualTo(other);
+    assertThat(test).isNotEqualTo(DATA1);
+    assertThat(test).isNotEqualTo(null);
+  }
+
+  //-------------------------------------------------------------------------
+  @Test(enabled = false)
+  void performance() {
+    int lookups = 1_000_000;
+    for (int depth : new int[] {1, 2, 4, 8, 16, 32}) {
+      ScenarioMarketData chain = DATA1;
+      for (int i = 0; i < depth; i++) {
+        TestObservableId id = TestObservableId.of("L" + i);
+        chain = ExtendedScenarioMarketData.of(id, MarketDataBox.ofSingleValue((double) i), chain);
+      }
+      ScenarioMarketData flattened = chain.flattened();
+      long chainTime = Long.MAX_VALUE;
+      long flattenedTime = Long.MAX_VALUE;
+      for (int rep = 0; rep < 5; rep++) {
+        chainTime = Math.min(chainTime, time(chain, lookups));
+        flattenedTime = Math.min(flattenedTime, time(flattened, lookups));
+      }
+      System.out.println("Performance: " + lookups + " lookups at depth " + depth + " in " + chainTime +
+          " ms for the chain and " + flattenedTime + " ms flattened");
+    }
+  }
+
+  // the time of the lookups in milliseconds, a lookup of the base data walks the whole chain
+  private static long time(ScenarioMarketData marketData, int lookups) {
+    long start = System.nanoTime();
+    double total = 0;
+    for (int i = 0; i < lookups; i++) {
+      total += marketData.getValue(ID2).getSingleValue();
+    }
+    long end = System.nanoTime();
+    assertThat(total).isEqualTo(2d * lookups);
+    return (end - start) / 1_000_000;
+  }
+
+}
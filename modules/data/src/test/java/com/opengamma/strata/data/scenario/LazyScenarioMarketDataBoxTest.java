@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.function.ObjIntFunction;
+
+/**
+ * Test {@link LazyScenarioMarketDataBox}.
+ */
+@Test
+public class LazyScenarioMarketDataBoxTest {
+
+  private static final String DESCRIPTOR = "Descriptor";
+  private static final ObjIntFunction<Integer, Integer> ADD_INDEX = (v, i) -> v + i;
+
+  public void test_single() {
+    AtomicInteger calls = new AtomicInteger();
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, counting(calls));
+    assertThat(calls.get()).isEqualTo(0);
+    assertThat(box.isSingleValue()).isFalse();
+    assertThat(box.isScenarioValue()).isTrue();
+    assertThat(box.isLazy()).isTrue();
+    assertThat(box.getScenarioCount()).isEqualTo(3);
+    assertThat(box.getMarketDataType()).isEqualTo(Integer.class);
+    assertThat(calls.get()).isEqualTo(0);
+    assertThat(box.getValue(2)).isEqualTo(29);
+    assertThat(calls.get()).isEqualTo(1);
+    assertThat(box.getValue(2)).isEqualTo(29);
+    assertThat(calls.get()).isEqualTo(1);
+    assertThat(box.getValue(0)).isEqualTo(27);
+    assertThat(box.getValue(1)).isEqualTo(28);
+    assertThat(calls.get()).isEqualTo(3);
+    assertThat(box.stream().collect(toList())).containsExactly(27, 28, 29);
+    assertThat(calls.get()).isEqualTo(3);
+    assertThrows(box::getSingleValue, IllegalStateException.class, "This box does not contain a single value");
+    assertThrowsIllegalArg(() -> box.getValue(3), "Expected 0 <= 'scenarioIndex' < 3, but found 3");
+    assertThat(MarketDataBox.ofSingleValue(27).isLazy()).isFalse();
+  }
+
+  public void test_scenario() {
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofScenarioValues(27, 28, 29), 3, ADD_INDEX);
+    assertThat(box.getValue(0)).isEqualTo(27);
+    assertThat(box.getValue(1)).isEqualTo(29);
+    assertThat(box.getValue(2)).isEqualTo(31);
+    assertThrowsIllegalArg(() -> lazy(MarketDataBox.ofScenarioValues(27, 28), 3, ADD_INDEX));
+  }
+
+  public void test_getScenarioValue() {
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, ADD_INDEX);
+    ScenarioArray<Integer> array = box.getScenarioValue();
+    assertThat(array.getScenarioCount()).isEqualTo(3);
+    assertThat(array.stream().collect(toList())).containsExactly(27, 28, 29);
+    assertThat(box.stream().collect(toList())).containsExactly(27, 28, 29);
+  }
+
+  public void test_map() {
+    AtomicInteger calls = new AtomicInteger();
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, counting(calls));
+    MarketDataBox<Integer> test = box.map(v -> v * 2);
+    MarketDataBox<Integer> test2 = box.mapWithIndex(3, (v, i) -> v * i);
+    assertThat(calls.get()).isEqualTo(0);
+    assertThat(test.isLazy()).isTrue();
+    assertThat(test2.isLazy()).isTrue();
+    assertThat(test.getMarketDataType()).isEqualTo(Integer.class);
+    assertThat(test.stream().collect(toList())).containsExactly(54, 56, 58);
+    assertThat(test2.stream().collect(toList())).containsExactly(0, 28, 58);
+    assertThrowsIllegalArg(() -> box.mapWithIndex(2, (v, i) -> v));
+  }
+
+  public void test_mapWithIndexLazily() {
+    AtomicInteger calls = new AtomicInteger();
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, ADD_INDEX);
+    MarketDataBox<Integer> test = lazy(box, 3, counting(calls));
+    assertThat(calls.get()).isEqualTo(0);
+    assertThat(test.getValue(1)).isEqualTo(29);
+    assertThat(calls.get()).isEqualTo(1);
+    assertThrowsIllegalArg(() -> lazy(box, 2, ADD_INDEX));
+  }
+
+  public void test_combineWith() {
+    AtomicInteger calls = new AtomicInteger();
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, counting(calls));
+    MarketDataBox<Integer> test = box.combineWith(MarketDataBox.ofSingleValue(1), (a, b) -> a + b);
+    MarketDataBox<Integer> test2 = box.combineWith(MarketDataBox.ofScenarioValues(1, 2, 3), (a, b) -> a + b);
+    assertThat(calls.get()).isEqualTo(0);
+    assertThat(test.isLazy()).isTrue();
+    assertThat(test.stream().collect(toList())).containsExactly(28, 29, 30);
+    assertThat(test2.stream().collect(toList())).containsExactly(28, 30, 32);
+    assertThrowsIllegalArg(() -> box.combineWith(MarketDataBox.ofScenarioValues(1, 2), (a, b) -> a + b));
+  }
+
+  public void test_map_equalsHashCode() {
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, ADD_INDEX);
+    Function<Integer, Integer> fn = v -> v * 2;
+    BiFunction<Integer, Integer, Integer> combineFn = (a, b) -> a + b;
+    assertThat(box.map(fn)).isEqualTo(box.map(fn)).isNotEqualTo(box.map(v -> v * 2));
+    assertThat(box.map(fn).hashCode()).isEqualTo(box.map(fn).hashCode());
+    assertThat(box.combineWith(MarketDataBox.ofSingleValue(1), combineFn))
+        .isEqualTo(box.combineWith(MarketDataBox.ofSingleValue(1), combineFn))
+        .isNotEqualTo(box.combineWith(MarketDataBox.ofSingleValue(2), combineFn));
+  }
+
+  public void test_failure() {
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, (v, i) -> {
+      throw new IllegalStateException("Failed " + i);
+    });
+    assertThat(box.getMarketDataType()).isEqualTo(Integer.class);
+    assertThrows(() -> box.getValue(1), IllegalStateException.class, "Failed 1");
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_serialization() throws Exception {
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, ADD_INDEX);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(baos)) {
+      out.writeObject(box);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+      assertThat(in.readObject()).isEqualTo(MarketDataBox.ofScenarioValues(27, 28, 29));
+    }
+    assertSerialization(MarketDataBox.ofScenarioValues(27, 28, 29));
+  }
+
+  public void test_equalsHashCode() {
+    // the functions are distinct instances, only the descriptors are compared
+    AtomicInteger calls = new AtomicInteger();
+    MarketDataBox<Integer> box = lazy(MarketDataBox.ofSingleValue(27), 3, counting(calls));
+    MarketDataBox<Integer> box2 = lazy(MarketDataBox.ofSingleValue(27), 3, counting(calls));
+    MarketDataBox<Integer> box3 = lazy(MarketDataBox.ofSingleValue(28), 3, counting(calls));
+    MarketDataBox<Integer> box4 =
+        MarketDataBox.ofSingleValue(27).mapWithIndexLazily(3, Integer.class, "Other", counting(calls));
+    MarketDataBox<Integer> box5 = lazy(MarketDataBox.ofScenarioValues(27, 27), 2, counting(calls));
+    assertThat(box).isEqualTo(box2).isNotEqualTo(box3).isNotEqualTo(box4).isNotEqualTo(box5).isNotEqualTo("");
+    assertThat(box.hashCode()).isEqualTo(box2.hashCode());
+    assertThat(box.toString()).contains("scenarioCount=3").contains(DESCRIPTOR);
+    // no values are created to compare the boxes
+    assertThat(calls.get()).isEqualTo(0);
+  }
+
+  //-------------------------------------------------------------------------
+  private static MarketDataBox<Integer> lazy(
+      MarketDataBox<Integer> base,
+      int scenarioCount,
+      ObjIntFunction<Integer, Integer> fn) {
+
+    return base.mapWithIndexLazily(scenarioCount, Integer.class, DESCRIPTOR, fn);
+  }
+
+  private static ObjIntFunction<Integer, Integer> counting(AtomicInteger calls) {
+    return (value, scenarioIndex) -> {
+      calls.incrementAndGet();
+      return value + scenarioIndex;
+    };
+  }
+
+}
@@ -5,7 +5,10 @@
  */
 package com.opengamma.strata.data.scenario;
 
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertEquals;
 
 import java.util.List;
@@ -13,6 +16,8 @@ import java.util.List;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.collect.array.DoubleArray;
 
 /**
  * Test {@link ScenarioArray}.
@@ -44,6 +49,58 @@ public class ScenarioArrayTest {
     assertEquals(test, expected);
   }
 
+  //-------------------------------------------------------------------------
+  public void test_join() {
+    DoubleArray values1 = DoubleArray.of(1d, 2d);
+    DoubleArray values2 = DoubleArray.of(3d);
+    DoubleArray values = DoubleArray.of(1d, 2d, 3d);
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(DoubleScenarioArray.of(values1), DoubleScenarioArray.of(values2))),
+        DoubleScenarioArray.of(values));
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(
+            CurrencyScenarioArray.of(USD, values1), CurrencyScenarioArray.of(USD, values2))),
+        CurrencyScenarioArray.of(USD, values));
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(
+            MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, values1, GBP, values1)),
+            MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, values2)))),
+        MultiCurrencyScenarioArray.of(ImmutableMap.of(USD, values, GBP, DoubleArray.of(1d, 2d, 0d))));
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(
+            FxRateScenarioArray.of(GBP, USD, values1), FxRateScenarioArray.of(GBP, USD, values2))),
+        FxRateScenarioArray.of(GBP, USD, values));
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(ScenarioArray.ofSingleValue(2, "A"), ScenarioArray.ofSingleValue(1, "A"))),
+        ScenarioArray.ofSingleValue(3, "A"));
+    assertEquals(
+        ScenarioArray.join(ImmutableList.of(ScenarioArray.of("A", "B"), ScenarioArray.of("C"))),
+        ScenarioArray.of("A", "B", "C"));
+  }
+
+  public void test_join_invalid() {
+    assertThrowsIllegalArg(() -> ScenarioArray.join(ImmutableList.of()));
+    assertThrowsIllegalArg(() -> ScenarioArray.join(ImmutableList.of(
+        ScenarioArray.of("A"), ScenarioArray.ofSingleValue(1, "B"))));
+    assertThrowsIllegalArg(() -> ScenarioArray.join(ImmutableList.of(
+        CurrencyScenarioArray.of(USD, DoubleArray.of(1d)), CurrencyScenarioArray.of(GBP, DoubleArray.of(1d)))));
+    assertThrowsIllegalArg(() -> ScenarioArray.join(ImmutableList.of(
+        ScenarioArray.ofSingleValue(1, "A"), ScenarioArray.ofSingleValue(1, "B"))));
+    ScenarioArray<String> custom = new ScenarioArray<String>() {
+
+      @Override
+      public int getScenarioCount() {
+        return 1;
+      }
+
+      @Override
+      public String get(int scenarioIndex) {
+        return "A";
+      }
+    };
+    assertThrowsIllegalArg(() -> ScenarioArray.join(ImmutableList.of(custom)));
+  }
+
   //-------------------------------------------------------------------------
   public void test_stream() {
     ScenarioArray<String> test = new ScenarioArray<String>() {
@@ -14,6 +14,7 @@ import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ObservableSource;
 
@@ -51,4 +52,25 @@ public class ScenarioFxRateProviderTest {
     assertThat(defaultRateProvider.fxRate(Currency.GBP, Currency.USD, 0)).isEqualTo(1.4d);
     assertThat(sourceRateProvider.fxRate(Currency.GBP, Currency.USD, 0)).isEqualTo(1.41d);
   }
+
+  public void fxRates() {
+    ScenarioMarketData marketData = ImmutableScenarioMarketData.builder(LocalDate.of(2011, 3, 8))
+        .addScenarioValue(
+            FxRateId.of(Currency.GBP, Currency.USD),
+            FxRateScenarioArray.of(Currency.GBP, Currency.USD, DoubleArray.of(1.4, 1.5, 1.6)))
+        .addValue(FxRateId.of(Currency.EUR, Currency.USD), FxRate.of(Currency.EUR, Currency.USD, 1.2d))
+        .build();
+    ScenarioFxRateProvider test = ScenarioFxRateProvider.of(marketData);
+
+    DoubleArray rates = test.fxRates(Currency.GBP, Currency.USD);
+    assertThat(rates).isEqualTo(DoubleArray.of(1.4, 1.5, 1.6));
+    assertThat(test.fxRates(Currency.GBP, Currency.USD)).isSameAs(rates);
+    assertThat(test.fxRates(Currency.USD, Currency.GBP).get(1)).isEqualTo(1 / 1.5d);
+    assertThat(test.fxRates(Currency.GBP, Currency.GBP)).isEqualTo(DoubleArray.filled(3, 1d));
+    assertThat(test.fxRates(Currency.EUR, Currency.USD)).isEqualTo(DoubleArray.filled(3, 1.2d));
+    for (int i = 0; i < 3; i++) {
+      assertThat(test.fxRate(Currency.GBP, Currency.USD, i))
+          .isEqualTo(test.fxRateProvider(i).fxRate(Currency.GBP, Currency.USD));
+    }
+  }
 }
@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.function.ObjIntFunction;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioPerturbation;
 import com.opengamma.strata.market.ShiftType;
@@ -39,6 +40,9 @@ import com.opengamma.strata.market.ShiftType;
  * <p>
  * For example, a relative shift of 0.1 (10%) multiplies each value on the curve by 1.1, and a shift of -0.2 (-20%)
  * multiplies the value by 0.8. So for relative shifts the shifted value is {@code (value x (1 + shift))}.
+ * <p>
+ * The shifted data for a scenario is only created when it is requested,
+ * see {@link MarketDataBox#mapWithIndexLazily(int, Class, Object, ObjIntFunction)}.
  */
 @BeanDefinition(builderScope = "private")
 public final class CurveParallelShifts
@@ -86,7 +90,7 @@ public final class CurveParallelShifts
   //-------------------------------------------------------------------------
   @Override
   public MarketDataBox<Curve> applyTo(MarketDataBox<Curve> curve, ReferenceData refData) {
-    return curve.mapWithIndex(getScenarioCount(), this::applyShift);
+    return curve.mapWithIndexLazily(getScenarioCount(), ParallelShiftedCurve.class, this, this::applyShift);
   }
 
   private Curve applyShift(Curve curve, int scenarioIndex) {
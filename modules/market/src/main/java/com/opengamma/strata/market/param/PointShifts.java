@@ -31,6 +31,7 @@ import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.collect.Guavate;
 import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.function.ObjIntFunction;
 import com.opengamma.strata.collect.tuple.ObjIntPair;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioPerturbation;
@@ -47,6 +48,9 @@ import com.opengamma.strata.market.ShiftType;
  * <p>
  * When matching the shift to the parameterized data, either the identifier or label parameter may be used.
  * A shift is not applied if there is no point on the parameterized data with a matching identifier.
+ * <p>
+ * The shifted data for a scenario is only created when it is requested,
+ * see {@link MarketDataBox#mapWithIndexLazily(int, Class, Object, ObjIntFunction)}.
  *
  * @see ParameterMetadata#getIdentifier()
  */
@@ -123,8 +127,11 @@ public final class PointShifts
 
     log.debug("Applying {} point shift to ParameterizedData '{}'", shiftType,
         marketData.getValue(0).toString());
-    return marketData.mapWithIndex(
+    // the perturbed data has the same type as the data it is derived from
+    return marketData.mapWithIndexLazily(
         shifts.rowCount(),
+        marketData.getMarketDataType().asSubclass(ParameterizedData.class),
+        this,
         (prams, scenarioIndex) -> applyShifts(scenarioIndex, prams));
   }
 
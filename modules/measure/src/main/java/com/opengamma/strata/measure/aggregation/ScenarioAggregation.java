@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.aggregation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.product.AttributeType;
+import com.opengamma.strata.product.PortfolioItem;
+
+/**
+ * Aggregation of the scenario values in a column of {@link Results} into portfolio-level vectors.
+ * <p>
+ * The column must contain {@link CurrencyScenarioArray} values in a single currency, such as the
+ * present value in a reporting currency. The values of the targets are summed in each scenario,
+ * producing a vector for the whole portfolio and for each node of a hierarchy of attributes.
+ * For example, a hierarchy of desk and book produces a total, a vector for each desk and
+ * a vector for each book within a desk.
+ * <p>
+ * The attributes are read from the {@link PortfolioItem#getInfo() info} of each target.
+ * An empty string is used when a target does not have the attribute.
+ * Targets whose calculation failed are excluded from the totals and reported in the result.
+ * <p>
+ * The values are summed as primitive arrays, optionally in parallel. The results of separate
+ * aggregations, such as those of batches of trades, can be merged with
+ * {@link ScenarioAggregationResult#combinedWith(ScenarioAggregationResult)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ScenarioAggregation {
+
+  /**
+   * The name of the column to aggregate.
+   */
+  private final ColumnName column;
+  /**
+   * The attributes defining the hierarchy, from the top level down.
+   */
+  private final ImmutableList<AttributeType<?>> hierarchy;
+  /**
+   * The index of the base scenario, negative if the values are not converted to profit and loss.
+   */
+  private final int baseScenarioIndex;
+  /**
+   * Whether the rows are reduced in parallel.
+   */
+  private final boolean parallel;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance aggregating the specified column into a single portfolio total.
+   *
+   * @param column  the name of the column to aggregate
+   * @return the aggregation
+   */
+  public static ScenarioAggregation of(ColumnName column) {
+    return new ScenarioAggregation(column, ImmutableList.of(), -1, false);
+  }
+
+  // restricted constructor
+  private ScenarioAggregation(
+      ColumnName column,
+      ImmutableList<AttributeType<?>> hierarchy,
+      int baseScenarioIndex,
+      boolean parallel) {
+
+    this.column = ArgChecker.notNull(column, "column");
+    this.hierarchy = hierarchy;
+    this.baseScenarioIndex = baseScenarioIndex;
+    this.parallel = parallel;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a copy of this aggregation that also sums the values for each node of a hierarchy.
+   * <p>
+   * The attributes are specified from the top level down.
+   *
+   * @param attributeTypes  the attributes defining the hierarchy
+   * @return the aggregation with the hierarchy
+   */
+  public ScenarioAggregation withHierarchy(AttributeType<?>... attributeTypes) {
+    return new ScenarioAggregation(column, ImmutableList.copyOf(attributeTypes), baseScenarioIndex, parallel);
+  }
+
+  /**
+   * Returns a copy of this aggregation that converts the aggregated values to profit and loss vectors.
+   * <p>
+   * The value in the base scenario is subtracted from the value in every other scenario,
+   * and the base scenario is removed. The vectors therefore have one fewer scenario than the results.
+   *
+   * @param baseScenarioIndex  the index of the unperturbed base scenario
+   * @return the aggregation producing profit and loss vectors
+   */
+  public ScenarioAggregation withPnlRelativeTo(int baseScenarioIndex) {
+    ArgChecker.notNegative(baseScenarioIndex, "baseScenarioIndex");
+    return new ScenarioAggregation(column, hierarchy, baseScenarioIndex, parallel);
+  }
+
+  /**
+   * Returns a copy of this aggregation that reduces the rows in parallel.
+   *
+   * @param parallel  whether to reduce the rows in parallel
+   * @return the aggregation
+   */
+  public ScenarioAggregation withParallel(boolean parallel) {
+    return new ScenarioAggregation(column, hierarchy, baseScenarioIndex, parallel);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Aggregates the results.
+   * <p>
+   * The targets must be those used to calculate the results, in the same order.
+   *
+   * @param targets  the calculation targets, one for each row of the results
+   * @param results  the calculation results
+   * @return the aggregated values
+   * @throws IllegalArgumentException if the column is not found, if a value in the column is not a
+   *   {@link CurrencyScenarioArray}, or if the values have different currencies or scenario counts
+   */
+  public ScenarioAggregationResult aggregate(List<? extends CalculationTarget> targets, Results results) {
+    ArgChecker.isTrue(
+        targets.size() == results.getRowCount(),
+        "Expected {} targets but found {}", results.getRowCount(), targets.size());
+    int columnIndex = columnIndex(results);
+    IntStream rows = IntStream.range(0, targets.size());
+    Accumulator accumulator = (parallel ? rows.parallel() : rows).collect(
+        Accumulator::new,
+        (acc, row) -> acc.add(targets.get(row), results.get(row, columnIndex)),
+        Accumulator::combine);
+    ScenarioAggregationResult result = accumulator.toResult();
+    return baseScenarioIndex >= 0 ? result.relativeTo(baseScenarioIndex) : result;
+  }
+
+  // finds the index of the column to aggregate
+  private int columnIndex(Results results) {
+    for (int i = 0; i < results.getColumnCount(); i++) {
+      if (results.getColumns().get(i).getName().equals(column)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException(Messages.format("Column name not found: {}", column));
+  }
+
+  // the keys of the nodes containing the target, from the portfolio total down
+  private List<ImmutableList<String>> keys(CalculationTarget target) {
+    ImmutableList.Builder<ImmutableList<String>> keys = ImmutableList.builder();
+    ImmutableList.Builder<String> path = ImmutableList.builder();
+    keys.add(ImmutableList.of());
+    for (AttributeType<?> type : hierarchy) {
+      String value = target instanceof PortfolioItem ?
+          ((PortfolioItem) target).getInfo().findAttribute(type).map(Object::toString).orElse("") :
+          "";
+      path.add(value);
+      keys.add(path.build());
+    }
+    return keys.build();
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format(
+        "ScenarioAggregation[column={}, hierarchy={}, baseScenarioIndex={}, parallel={}]",
+        column,
+        hierarchy,
+        baseScenarioIndex,
+        parallel);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Mutable sums of the scenario values, used by a single thread.
+   */
+  private final class Accumulator {
+    private final Map<ImmutableList<String>, double[]> totals = new HashMap<>();
+    private final ImmutableList.Builder<CalculationTarget> failures = ImmutableList.builder();
+    private Currency currency;
+
+    // adds the result for a target
+    private void add(CalculationTarget target, Result<?> result) {
+      if (result.isFailure()) {
+        failures.add(target);
+        return;
+      }
+      Object value = result.getValue();
+      if (!(value instanceof CurrencyScenarioArray)) {
+        throw new IllegalArgumentException(Messages.format(
+            "Column {} must contain CurrencyScenarioArray values but found {}",
+            column,
+            value.getClass().getSimpleName()));
+      }
+      CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+      checkCurrency(array.getCurrency());
+      double[] values = array.getAmounts().getValues().toArrayUnsafe();
+      for (ImmutableList<String> key : keys(target)) {
+        add(key, values);
+      }
+    }
+
+    // adds the values to the total for the key
+    private void add(ImmutableList<String> key, double[] values) {
+      double[] total = totals.computeIfAbsent(key, k -> new double[values.length]);
+      if (total.length != values.length) {
+        throw new IllegalArgumentException(Messages.format(
+            "Scenario counts must be equal, expected {} but found {}", total.length, values.length));
+      }
+      for (int i = 0; i < values.length; i++) {
+        total[i] += values[i];
+      }
+    }
+
+    // checks all values have the same currency
+    private void checkCurrency(Currency currency) {
+      if (this.currency == null) {
+        this.currency = currency;
+      } else if (!this.currency.equals(currency)) {
+        throw new IllegalArgumentException(Messages.format(
+            "Currencies must be equal, expected {} but found {}", this.currency, currency));
+      }
+    }
+
+    // merges the sums of another accumulator into this one
+    private void combine(Accumulator other) {
+      if (other.currency != null) {
+        checkCurrency(other.currency);
+      }
+      other.totals.forEach(this::add);
+      failures.addAll(other.failures.build());
+    }
+
+    // creates the result
+    private ScenarioAggregationResult toResult() {
+      return ScenarioAggregationResult.of(currency, totals, failures.build());
+    }
+  }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.aggregation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Ordering;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.math.impl.statistics.descriptive.QuantileCalculationMethod;
+
+/**
+ * The result of a {@link ScenarioAggregation}, containing a vector of scenario values for each node of a hierarchy.
+ * <p>
+ * Each node is identified by a key containing the attribute values on the path from the top of the hierarchy.
+ * The portfolio total has an empty key.
+ * <p>
+ * Value-at-risk and expected shortfall treat the vectors as profit and loss, with a loss reported as a positive amount.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ScenarioAggregationResult {
+
+  /**
+   * The ordering of the keys, which places each node before the nodes below it.
+   */
+  private static final Ordering<Iterable<String>> KEY_ORDER = Ordering.<String>natural().lexicographical();
+
+  /**
+   * The aggregated values, keyed by the path of the node in the hierarchy.
+   */
+  private final ImmutableSortedMap<ImmutableList<String>, CurrencyScenarioArray> values;
+  /**
+   * The targets whose calculation failed, which are excluded from the values.
+   */
+  private final ImmutableList<CalculationTarget> failedTargets;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the aggregated values.
+   *
+   * @param values  the aggregated values, keyed by the path of the node in the hierarchy
+   * @param failedTargets  the targets whose calculation failed
+   * @return the result
+   */
+  public static ScenarioAggregationResult of(
+      Map<? extends List<String>, CurrencyScenarioArray> values,
+      List<? extends CalculationTarget> failedTargets) {
+
+    ImmutableSortedMap.Builder<ImmutableList<String>, CurrencyScenarioArray> builder =
+        new ImmutableSortedMap.Builder<>(KEY_ORDER);
+    values.forEach((key, value) -> builder.put(ImmutableList.copyOf(key), value));
+    return new ScenarioAggregationResult(builder.build(), ImmutableList.copyOf(failedTargets));
+  }
+
+  // obtains an instance from mutable sums
+  static ScenarioAggregationResult of(
+      Currency currency,
+      Map<ImmutableList<String>, double[]> totals,
+      List<CalculationTarget> failedTargets) {
+
+    Map<ImmutableList<String>, CurrencyScenarioArray> values = MapStream.of(totals)
+        .mapValues(total -> CurrencyScenarioArray.of(currency, DoubleArray.ofUnsafe(total)))
+        .toMap();
+    return of(values, failedTargets);
+  }
+
+  // restricted constructor
+  private ScenarioAggregationResult(
+      ImmutableSortedMap<ImmutableList<String>, CurrencyScenarioArray> values,
+      ImmutableList<CalculationTarget> failedTargets) {
+
+    this.values = values;
+    this.failedTargets = failedTargets;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the keys of the nodes, ordered so that each node is before the nodes below it.
+   *
+   * @return the keys
+   */
+  public ImmutableList<ImmutableList<String>> getKeys() {
+    return values.keySet().asList();
+  }
+
+  /**
+   * Gets the aggregated values, keyed by the path of the node in the hierarchy.
+   *
+   * @return the values
+   */
+  public ImmutableSortedMap<ImmutableList<String>, CurrencyScenarioArray> getValues() {
+    return values;
+  }
+
+  /**
+   * Finds the aggregated values of a node.
+   *
+   * @param key  the attribute values on the path to the node, empty for the portfolio total
+   * @return the values, empty if there is no such node
+   */
+  public Optional<CurrencyScenarioArray> findValues(List<String> key) {
+    return Optional.ofNullable(values.get(ImmutableList.copyOf(key)));
+  }
+
+  /**
+   * Gets the aggregated values of a node.
+   *
+   * @param key  the attribute values on the path to the node, empty for the portfolio total
+   * @return the values
+   * @throws IllegalArgumentException if there is no such node
+   */
+  public CurrencyScenarioArray getValues(List<String> key) {
+    return findValues(key)
+        .orElseThrow(() -> new IllegalArgumentException(Messages.format("No aggregated values for {}", key)));
+  }
+
+  /**
+   * Gets the aggregated values of the whole portfolio.
+   *
+   * @return the values
+   * @throws IllegalArgumentException if no values were aggregated
+   */
+  public CurrencyScenarioArray getTotal() {
+    return getValues(ImmutableList.of());
+  }
+
+  /**
+   * Gets the targets whose calculation failed, which are excluded from the values.
+   *
+   * @return the failed targets
+   */
+  public ImmutableList<CalculationTarget> getFailedTargets() {
+    return failedTargets;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the value-at-risk of a node.
+   * <p>
+   * This is the loss that is not exceeded at the specified confidence level, such as 0.99,
+   * estimated from the quantile of the profit and loss vector at one minus the confidence level.
+   *
+   * @param key  the attribute values on the path to the node, empty for the portfolio total
+   * @param confidence  the confidence level, between zero and one
+   * @param method  the method used to estimate the quantile
+   * @return the value-at-risk, positive for a loss
+   * @throws IllegalArgumentException if there is no such node
+   */
+  public CurrencyAmount valueAtRisk(List<String> key, double confidence, QuantileCalculationMethod method) {
+    ArgChecker.inRangeExclusive(confidence, 0d, 1d, "confidence");
+    CurrencyScenarioArray pnl = getValues(key);
+    double quantile = method.quantileWithExtrapolationFromUnsorted(1d - confidence, pnl.getAmounts().getValues());
+    return CurrencyAmount.of(pnl.getCurrency(), -quantile);
+  }
+
+  /**
+   * Calculates the expected shortfall of a node.
+   * <p>
+   * This is the average loss in the scenarios beyond the value-at-risk at the specified confidence level.
+   *
+   * @param key  the attribute values on the path to the node, empty for the portfolio total
+   * @param confidence  the confidence level, between zero and one
+   * @param method  the method used to estimate the expected shortfall
+   * @return the expected shortfall, positive for a loss
+   * @throws IllegalArgumentException if there is no such node
+   */
+  public CurrencyAmount expectedShortfall(List<String> key, double confidence, QuantileCalculationMethod method) {
+    ArgChecker.inRangeExclusive(confidence, 0d, 1d, "confidence");
+    CurrencyScenarioArray pnl = getValues(key);
+    double shortfall = method.expectedShortfallFromUnsorted(1d - confidence, pnl.getAmounts().getValues());
+    return CurrencyAmount.of(pnl.getCurrency(), -shortfall);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Combines this result with another, adding the values of nodes present in both.
+   * <p>
+   * This is used to merge the results of aggregating separate batches of targets.
+   *
+   * @param other  the other result
+   * @return the combined result
+   * @throws IllegalArgumentException if the values have different currencies or scenario counts
+   */
+  public ScenarioAggregationResult combinedWith(ScenarioAggregationResult other) {
+    ImmutableSortedMap.Builder<ImmutableList<String>, CurrencyScenarioArray> builder =
+        new ImmutableSortedMap.Builder<>(KEY_ORDER);
+    values.forEach((key, value) -> {
+      CurrencyScenarioArray otherValue = other.values.get(key);
+      builder.put(key, otherValue != null ? value.plus(otherValue) : value);
+    });
+    other.values.forEach((key, value) -> {
+      if (!values.containsKey(key)) {
+        builder.put(key, value);
+      }
+    });
+    ImmutableList<CalculationTarget> failed = ImmutableList.<CalculationTarget>builder()
+        .addAll(failedTargets)
+        .addAll(other.failedTargets)
+        .build();
+    return new ScenarioAggregationResult(builder.build(), failed);
+  }
+
+  // converts the values to profit and loss relative to the base scenario, removing the base scenario
+  ScenarioAggregationResult relativeTo(int baseScenarioIndex) {
+    ImmutableSortedMap.Builder<ImmutableList<String>, CurrencyScenarioArray> builder =
+        new ImmutableSortedMap.Builder<>(KEY_ORDER);
+    values.forEach((key, value) -> {
+      DoubleArray array = value.getAmounts().getValues();
+      ArgChecker.inRange(baseScenarioIndex, 0, array.size(), "baseScenarioIndex");
+      double base = array.get(baseScenarioIndex);
+      DoubleArray pnl = array.subArray(0, baseScenarioIndex)
+          .concat(array.subArray(baseScenarioIndex + 1))
+          .minus(base);
+      builder.put(key, CurrencyScenarioArray.of(value.getCurrency(), pnl));
+    });
+    return new ScenarioAggregationResult(builder.build(), failedTargets);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof ScenarioAggregationResult) {
+      ScenarioAggregationResult other = (ScenarioAggregationResult) obj;
+      return values.equals(other.values) && failedTargets.equals(other.failedTargets);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(values, failedTargets);
+  }
+
+  @Override
+  public String toString() {
+    return Messages.format("ScenarioAggregationResult[keys={}, failures={}]", values.keySet(), failedTargets.size());
+  }
+
+}
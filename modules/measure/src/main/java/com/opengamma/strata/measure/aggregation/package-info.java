@@ -0,0 +1,10 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+
+/**
+ * Aggregation of scenario results into portfolio-level vectors and risk measures.
+ */
+package com.opengamma.strata.measure.aggregation;
@@ -5,8 +5,12 @@
  */
 package com.opengamma.strata.measure.deposit;
 
+import java.util.Optional;
+
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmountArray;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.DoubleScenarioArray;
@@ -16,6 +20,7 @@ import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
 import com.opengamma.strata.pricer.deposit.DiscountingTermDepositTradePricer;
+import com.opengamma.strata.pricer.rate.CashFlowGrid;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
 import com.opengamma.strata.product.deposit.ResolvedTermDepositTrade;
@@ -45,6 +50,11 @@ final class TermDepositMeasureCalculations {
    * Pricer for {@link ResolvedTermDepositTrade}.
    */
   private final DiscountingTermDepositTradePricer tradePricer;
+  /**
+   * Whether the present value of multiple scenarios is calculated from a {@link CashFlowGrid}.
+   * This is only used with the default pricer, as the grid matches its results.
+   */
+  private final boolean vectorised;
 
   /**
    * Creates an instance.
@@ -54,6 +64,7 @@ final class TermDepositMeasureCalculations {
   TermDepositMeasureCalculations(
       DiscountingTermDepositTradePricer tradePricer) {
     this.tradePricer = ArgChecker.notNull(tradePricer, "tradePricer");
+    this.vectorised = tradePricer == DiscountingTermDepositTradePricer.DEFAULT;
   }
 
   //-------------------------------------------------------------------------
@@ -62,6 +73,16 @@ final class TermDepositMeasureCalculations {
       ResolvedTermDepositTrade trade,
       RatesScenarioMarketData marketData) {
 
+    // price all scenarios in one pass over the cash flows when possible
+    int scenarioCount = marketData.getScenarioCount();
+    Optional<CashFlowGrid> grid = vectorised && scenarioCount > 1 ?
+        CashFlowGrid.find(trade.getProduct()) :
+        Optional.empty();
+    if (grid.isPresent()) {
+      MultiCurrencyAmountArray pv = grid.get().presentValue(scenarioCount, i -> marketData.scenario(i).ratesProvider());
+      Currency currency = trade.getProduct().getCurrency();
+      return CurrencyScenarioArray.of(currency, pv.getValues(currency));
+    }
     return CurrencyScenarioArray.of(
         marketData.getScenarioCount(),
         i -> presentValue(trade, marketData.scenario(i).ratesProvider()));
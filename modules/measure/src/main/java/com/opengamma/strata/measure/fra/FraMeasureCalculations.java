@@ -7,6 +7,7 @@ package com.opengamma.strata.measure.fra;
 
 import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 
+import java.util.Optional;
 import java.util.Set;
 
 import com.google.common.collect.ImmutableSet;
@@ -15,6 +16,7 @@ import com.google.common.collect.Sets;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmountArray;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
@@ -35,6 +37,7 @@ import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesMarketData;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
+import com.opengamma.strata.pricer.rate.CashFlowGrid;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
@@ -69,6 +72,11 @@ final class FraMeasureCalculations {
    * Pricer for {@link ResolvedFraTrade}.
    */
   private final DiscountingFraTradePricer tradePricer;
+  /**
+   * Whether the present value of multiple scenarios is calculated from a {@link CashFlowGrid}.
+   * This is only used with the default pricer, as the grid matches its results.
+   */
+  private final boolean vectorised;
 
   /**
    * Creates an instance.
@@ -78,6 +86,7 @@ final class FraMeasureCalculations {
   FraMeasureCalculations(
       DiscountingFraTradePricer tradePricer) {
     this.tradePricer = ArgChecker.notNull(tradePricer, "tradePricer");
+    this.vectorised = tradePricer == DiscountingFraTradePricer.DEFAULT;
   }
 
   //-------------------------------------------------------------------------
@@ -86,6 +95,16 @@ final class FraMeasureCalculations {
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    // price all scenarios in one pass over the cash flows when possible
+    int scenarioCount = marketData.getScenarioCount();
+    Optional<CashFlowGrid> grid = vectorised && scenarioCount > 1 ?
+        CashFlowGrid.find(trade.getProduct()) :
+        Optional.empty();
+    if (grid.isPresent()) {
+      MultiCurrencyAmountArray pv = grid.get().presentValue(scenarioCount, i -> marketData.scenario(i).ratesProvider());
+      Currency currency = trade.getProduct().getCurrency();
+      return CurrencyScenarioArray.of(currency, pv.getValues(currency));
+    }
     return CurrencyScenarioArray.of(
         marketData.getScenarioCount(),
         i -> presentValue(trade, marketData.scenario(i).ratesProvider()));
@@ -5,20 +5,29 @@
  */
 package com.opengamma.strata.measure.rate;
 
+import static com.opengamma.strata.collect.Guavate.join;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.marketdata.MarketDataConfig;
 import com.opengamma.strata.calc.marketdata.MarketDataFunction;
 import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
@@ -27,8 +36,10 @@ import com.opengamma.strata.data.ObservableId;
 import com.opengamma.strata.data.ObservableSource;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.RatesCurveGroup;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.RatesCurveGroupId;
@@ -44,6 +55,12 @@ import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
  * Market data function that builds a curve group.
  * <p>
  * This function calibrates curves, turning a {@link RatesCurveGroupDefinition} into a {@link RatesCurveGroup}.
+ * <p>
+ * When the input data contains multiple scenarios, a curve group is calibrated for each scenario.
+ * By default, the scenarios are calibrated in sequence by the calling thread. An executor can be
+ * specified to calibrate the scenarios in parallel. The scenarios can also be warm-started, such
+ * that the calibration of each scenario starts from the parameters of a base calibration supplied
+ * in the {@link MarketDataConfig}.
  */
 public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<RatesCurveGroup, RatesCurveGroupId> {
 
@@ -51,6 +68,14 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * The default analytics object that performs the curve calibration.
    */
   private final CalibrationMeasures calibrationMeasures;
+  /**
+   * The executor used to calibrate the scenarios.
+   */
+  private final Executor scenarioExecutor;
+  /**
+   * Whether to start the calibration of each scenario from the parameters of the base calibration.
+   */
+  private final boolean warmStartScenarios;
 
   //-------------------------------------------------------------------------
   /**
@@ -73,7 +98,39 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
    * @param calibrationMeasures  the calibration measures to be used in the calibrator
    */
   public RatesCurveGroupMarketDataFunction(CalibrationMeasures calibrationMeasures) {
+    this(calibrationMeasures, MoreExecutors.directExecutor(), false);
+  }
+
+  /**
+   * Creates a new function for building curve groups, specifying how scenarios are calibrated.
+   * <p>
+   * The default calibrator is specified. The {@link MarketDataConfig} may contain a
+   * {@link RootFinderConfig} that alters the tolerances used in calibration.
+   * <p>
+   * When the input data contains multiple scenarios, each scenario is calibrated using the executor,
+   * which may be multi-threaded. The calling thread waits for all the scenarios to complete.
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   * <p>
+   * If warm-starting is enabled, the caller supplies the base calibration, the curve group calibrated
+   * from the unperturbed market data, as a {@link RatesCurveGroup} in the {@link MarketDataConfig}
+   * under the name of the curve group. The calibration of each scenario then starts from the parameters
+   * of the base curves instead of the initial guesses in the curve definitions.
+   * When the scenarios are small perturbations of the base this reduces the number of iterations.
+   * The resulting curves are equal to those calibrated without warm-starting within the calibration tolerance.
+   * If no base calibration is supplied, the scenarios start from the initial guesses.
+   *
+   * @param calibrationMeasures  the calibration measures to be used in the calibrator
+   * @param scenarioExecutor  the executor used to calibrate the scenarios
+   * @param warmStartScenarios  whether to start the calibration of each scenario from the base calibration
+   */
+  public RatesCurveGroupMarketDataFunction(
+      CalibrationMeasures calibrationMeasures,
+      Executor scenarioExecutor,
+      boolean warmStartScenarios) {
+
     this.calibrationMeasures = ArgChecker.notNull(calibrationMeasures, "calibrationMeasures");
+    this.scenarioExecutor = ArgChecker.notNull(scenarioExecutor, "scenarioExecutor");
+    this.warmStartScenarios = warmStartScenarios;
   }
 
   //-------------------------------------------------------------------------
@@ -114,7 +171,8 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     // calibrate
     CurveGroupName groupName = id.getCurveGroupName();
     RatesCurveGroupDefinition configuredDefn = marketDataConfig.get(RatesCurveGroupDefinition.class, groupName);
-    return buildCurveGroup(configuredDefn, calibrator, marketData, refData, id.getObservableSource());
+    Optional<RatesCurveGroup> baseGroup = marketDataConfig.find(RatesCurveGroup.class, groupName);
+    return buildCurveGroup(configuredDefn, calibrator, marketData, refData, id.getObservableSource(), baseGroup);
   }
 
   @Override
@@ -140,6 +198,28 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
       ReferenceData refData,
       ObservableSource obsSource) {
 
+    return buildCurveGroup(configuredGroup, calibrator, marketData, refData, obsSource, Optional.empty());
+  }
+
+  /**
+   * Builds a curve group given the configuration for the group, a set of market data and the base calibration.
+   *
+   * @param configuredGroup  the definition of the curve group
+   * @param calibrator  the calibrator
+   * @param marketData  the market data containing any values required to build the curve group
+   * @param refData  the reference data, used for resolving trades
+   * @param obsSource  the source of observable market data
+   * @param baseGroup  the base calibration of the curve group, used to warm-start the scenarios
+   * @return a result containing the curve group or details of why it couldn't be built
+   */
+  MarketDataBox<RatesCurveGroup> buildCurveGroup(
+      RatesCurveGroupDefinition configuredGroup,
+      RatesCurveCalibrator calibrator,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      ObservableSource obsSource,
+      Optional<RatesCurveGroup> baseGroup) {
+
     // find and combine all the input data
     CurveGroupName groupName = configuredGroup.getName();
 
@@ -153,9 +233,12 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     boolean multipleValues = inputBoxes.stream().anyMatch(MarketDataBox::isScenarioValue);
     Map<ObservableId, LocalDateDoubleTimeSeries> fixings = extractFixings(marketData);
 
-    return multipleValues || multipleValuationDates ?
-        buildMultipleCurveGroups(configuredGroup, calibrator, valuationDates, inputBoxes, fixings, refData) :
-        buildSingleCurveGroup(configuredGroup, calibrator, valuationDates.getSingleValue(), inputBoxes, fixings, refData);
+    if (multipleValues || multipleValuationDates) {
+      return buildMultipleCurveGroups(
+          configuredGroup, calibrator, valuationDates, inputBoxes, fixings, refData, baseGroup);
+    }
+    return buildSingleCurveGroup(
+        configuredGroup, calibrator, valuationDates.getSingleValue(), inputBoxes, fixings, refData);
   }
 
   // extract the fixings from the input data
@@ -174,22 +257,58 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
       MarketDataBox<LocalDate> valuationDateBox,
       List<MarketDataBox<RatesCurveInputs>> inputBoxes,
       Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
-      ReferenceData refData) {
+      ReferenceData refData,
+      Optional<RatesCurveGroup> baseGroup) {
 
     int scenarioCount = scenarioCount(valuationDateBox, inputBoxes);
     ImmutableList.Builder<RatesCurveGroup> builder = ImmutableList.builder();
+    Map<CurveName, DoubleArray> initialGuesses = warmStartScenarios ?
+        baseGroup.map(group -> curveParameters(group)).orElse(ImmutableMap.of()) :
+        ImmutableMap.of();
 
+    // the scenarios are independent, and are calibrated using the executor
+    List<CompletableFuture<RatesCurveGroup>> futures = new ArrayList<>(scenarioCount);
     for (int i = 0; i < scenarioCount; i++) {
-      LocalDate valuationDate = valuationDateBox.getValue(i);
-      RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
-      List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, i);
-      MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
-      builder.add(buildGroup(filteredGroup, calibrator, inputs, refData));
+      int scenarioIndex = i;
+      futures.add(CompletableFuture.supplyAsync(
+          () -> buildScenarioGroup(
+              configuredGroup, calibrator, valuationDateBox, inputBoxes, fixings, refData, scenarioIndex, initialGuesses),
+          scenarioExecutor));
+    }
+    for (CompletableFuture<RatesCurveGroup> future : futures) {
+      builder.add(join(future));
     }
     ImmutableList<RatesCurveGroup> curveGroups = builder.build();
     return MarketDataBox.ofScenarioValues(curveGroups);
   }
 
+  // calibrates the curve group for a single scenario
+  private RatesCurveGroup buildScenarioGroup(
+      RatesCurveGroupDefinition configuredGroup,
+      RatesCurveCalibrator calibrator,
+      MarketDataBox<LocalDate> valuationDateBox,
+      List<MarketDataBox<RatesCurveInputs>> inputBoxes,
+      Map<ObservableId, LocalDateDoubleTimeSeries> fixings,
+      ReferenceData refData,
+      int scenarioIndex,
+      Map<CurveName, DoubleArray> initialGuesses) {
+
+    LocalDate valuationDate = valuationDateBox.getValue(scenarioIndex);
+    RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
+    List<RatesCurveInputs> curveInputsList = inputsForScenario(inputBoxes, scenarioIndex);
+    MarketData inputs = inputsByKey(valuationDate, curveInputsList, fixings);
+    return buildGroup(filteredGroup, calibrator, inputs, refData, initialGuesses);
+  }
+
+  // extracts the parameters of each curve in the group
+  private static Map<CurveName, DoubleArray> curveParameters(RatesCurveGroup group) {
+    return group.stream()
+        .collect(toImmutableMap(
+            Curve::getName,
+            curve -> DoubleArray.of(curve.getParameterCount(), curve::getParameter),
+            (curve1, curve2) -> curve1));
+  }
+
   private static List<RatesCurveInputs> inputsForScenario(List<MarketDataBox<RatesCurveInputs>> boxes, int scenarioIndex) {
     return boxes.stream()
         .map(box -> box.getValue(scenarioIndex))
@@ -208,7 +327,7 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
     RatesCurveGroupDefinition filteredGroup = configuredGroup.filtered(valuationDate, refData);
     List<RatesCurveInputs> inputs = inputBoxes.stream().map(MarketDataBox::getSingleValue).collect(toImmutableList());
     MarketData inputValues = inputsByKey(valuationDate, inputs, fixings);
-    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData);
+    RatesCurveGroup curveGroup = buildGroup(filteredGroup, calibrator, inputValues, refData, ImmutableMap.of());
     return MarketDataBox.ofSingleValue(curveGroup);
   }
 
@@ -253,13 +372,15 @@ public class RatesCurveGroupMarketDataFunction implements MarketDataFunction<Rat
       RatesCurveGroupDefinition groupDefn,
       RatesCurveCalibrator calibrator,
       MarketData marketData,
-      ReferenceData refData) {
+      ReferenceData refData,
+      Map<CurveName, DoubleArray> initialGuesses) {
 
     // perform the calibration
     ImmutableRatesProvider calibratedProvider = calibrator.calibrate(
         groupDefn,
         marketData,
-        refData);
+        refData,
+        initialGuesses);
 
     return RatesCurveGroup.of(
         groupDefn.getName(),
@@ -10,6 +10,7 @@ import static com.opengamma.strata.collect.Guavate.toImmutableSet;
 import static java.util.stream.Collectors.toList;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,6 +21,7 @@ import com.google.common.collect.Sets;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmountArray;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
@@ -42,6 +44,7 @@ import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesMarketData;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.rate.CashFlowGrid;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.CurveGammaCalculator;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
@@ -85,6 +88,11 @@ final class SwapMeasureCalculations {
    * Pricer for {@link ResolvedSwapTrade}.
    */
   private final DiscountingSwapTradePricer tradePricer;
+  /**
+   * Whether the present value of multiple scenarios is calculated from a {@link CashFlowGrid}.
+   * This is only used with the default pricer, as the grid matches its results.
+   */
+  private final boolean vectorised;
 
   /**
    * Creates an instance.
@@ -94,6 +102,7 @@ final class SwapMeasureCalculations {
   SwapMeasureCalculations(
       DiscountingSwapTradePricer tradePricer) {
     this.tradePricer = ArgChecker.notNull(tradePricer, "tradePricer");
+    this.vectorised = tradePricer == DiscountingSwapTradePricer.DEFAULT;
   }
 
   //-------------------------------------------------------------------------
@@ -102,6 +111,15 @@ final class SwapMeasureCalculations {
       ResolvedSwapTrade trade,
       RatesScenarioMarketData marketData) {
 
+    // price all scenarios in one pass over the cash flows when possible
+    int scenarioCount = marketData.getScenarioCount();
+    Optional<CashFlowGrid> grid = vectorised && scenarioCount > 1 ?
+        CashFlowGrid.find(trade.getProduct()) :
+        Optional.empty();
+    if (grid.isPresent()) {
+      MultiCurrencyAmountArray pv = grid.get().presentValue(scenarioCount, i -> marketData.scenario(i).ratesProvider());
+      return MultiCurrencyScenarioArray.of(pv);
+    }
     return MultiCurrencyScenarioArray.of(
         marketData.getScenarioCount(),
         i -> presentValue(trade, marketData.scenario(i).ratesProvider()));
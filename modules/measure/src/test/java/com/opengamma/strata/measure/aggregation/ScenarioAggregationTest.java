@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.aggregation;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.math.impl.statistics.descriptive.IndexAboveQuantileMethod;
+import com.opengamma.strata.math.impl.statistics.descriptive.QuantileCalculationMethod;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.product.AttributeType;
+import com.opengamma.strata.product.SecurityId;
+import com.opengamma.strata.product.SecurityTrade;
+import com.opengamma.strata.product.TradeInfo;
+
+/**
+ * Test {@link ScenarioAggregation} and {@link ScenarioAggregationResult}.
+ */
+@Test
+public class ScenarioAggregationTest {
+
+  private static final AttributeType<String> DESK = AttributeType.of("desk");
+  private static final AttributeType<String> BOOK = AttributeType.of("book");
+  private static final ColumnName PV = ColumnName.of("PV");
+  private static final QuantileCalculationMethod METHOD = IndexAboveQuantileMethod.DEFAULT;
+  private static final double TOLERANCE = 1e-10;
+
+  private static final List<SecurityTrade> TRADES = ImmutableList.of(
+      trade("Rates", "Swaps"),
+      trade("Rates", "Bonds"),
+      trade("Rates", "Swaps"),
+      trade("Credit", "Bonds"),
+      trade(null, null));
+  private static final Results RESULTS = Results.of(
+      ImmutableList.of(ColumnHeader.of(PV, Measures.PRESENT_VALUE)),
+      ImmutableList.of(
+          pv(100, 101, 99, 103),
+          pv(10, 9, 12, 10),
+          pv(1, 1, 1, 1),
+          Result.failure(FailureReason.CALCULATION_FAILED, "Failed"),
+          pv(1000, 990, 1005, 1010)));
+
+  //-------------------------------------------------------------------------
+  public void test_total() {
+    ScenarioAggregationResult test = ScenarioAggregation.of(PV).aggregate(TRADES, RESULTS);
+    assertThat(test.getKeys()).containsExactly(ImmutableList.of());
+    assertThat(test.getTotal()).isEqualTo(CurrencyScenarioArray.of(USD, DoubleArray.of(1111, 1101, 1117, 1124)));
+    assertThat(test.getFailedTargets()).containsExactly(TRADES.get(3));
+  }
+
+  public void test_hierarchy() {
+    ScenarioAggregationResult test = ScenarioAggregation.of(PV).withHierarchy(DESK, BOOK).aggregate(TRADES, RESULTS);
+    assertThat(test.getKeys()).containsExactly(
+        ImmutableList.of(),
+        ImmutableList.of(""),
+        ImmutableList.of("", ""),
+        ImmutableList.of("Rates"),
+        ImmutableList.of("Rates", "Bonds"),
+        ImmutableList.of("Rates", "Swaps"));
+    assertThat(test.getValues(ImmutableList.of("Rates")))
+        .isEqualTo(CurrencyScenarioArray.of(USD, DoubleArray.of(111, 111, 112, 114)));
+    assertThat(test.getValues(ImmutableList.of("Rates", "Swaps")))
+        .isEqualTo(CurrencyScenarioArray.of(USD, DoubleArray.of(101, 102, 100, 104)));
+    assertThat(test.findValues(ImmutableList.of("Credit"))).isEmpty();
+    assertThrowsIllegalArg(() -> test.getValues(ImmutableList.of("Credit")));
+  }
+
+  public void test_parallel() {
+    ScenarioAggregation aggregation = ScenarioAggregation.of(PV).withHierarchy(DESK, BOOK);
+    assertThat(aggregation.withParallel(true).aggregate(TRADES, RESULTS))
+        .isEqualTo(aggregation.aggregate(TRADES, RESULTS));
+    assertThat(aggregation.withParallel(true).toString()).contains("parallel=true");
+  }
+
+  public void test_pnl() {
+    ScenarioAggregationResult test = ScenarioAggregation.of(PV).withPnlRelativeTo(0).aggregate(TRADES, RESULTS);
+    assertThat(test.getTotal()).isEqualTo(CurrencyScenarioArray.of(USD, DoubleArray.of(-10, 6, 13)));
+    assertThrowsIllegalArg(() -> ScenarioAggregation.of(PV).withPnlRelativeTo(-1));
+  }
+
+  public void test_combinedWith() {
+    ScenarioAggregation aggregation = ScenarioAggregation.of(PV).withHierarchy(DESK);
+    ScenarioAggregationResult first = aggregation.aggregate(TRADES.subList(0, 2), results(0, 2));
+    ScenarioAggregationResult second = aggregation.aggregate(TRADES.subList(2, 5), results(2, 5));
+    assertThat(first.combinedWith(second)).isEqualTo(aggregation.aggregate(TRADES, RESULTS));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_valueAtRisk() {
+    DoubleArray pnl = DoubleArray.of(5, -3, 2, -10, 1, 0, -7, 4, -1, 6);
+    ScenarioAggregationResult test = ScenarioAggregationResult.of(
+        ImmutableMap.of(ImmutableList.of(), CurrencyScenarioArray.of(GBP, pnl)),
+        ImmutableList.of());
+    CurrencyAmount var = test.valueAtRisk(ImmutableList.of(), 0.8, METHOD);
+    CurrencyAmount es = test.expectedShortfall(ImmutableList.of(), 0.8, METHOD);
+    assertThat(var.getCurrency()).isEqualTo(GBP);
+    assertThat(var.getAmount()).isCloseTo(-METHOD.quantileWithExtrapolationFromUnsorted(0.2, pnl), offset(TOLERANCE));
+    assertThat(es.getAmount()).isCloseTo(-METHOD.expectedShortfallFromUnsorted(0.2, pnl), offset(TOLERANCE));
+    assertThat(var.getAmount()).isEqualTo(7d);
+    assertThat(es.getAmount()).isGreaterThanOrEqualTo(var.getAmount());
+    assertThrowsIllegalArg(() -> test.valueAtRisk(ImmutableList.of(), 1, METHOD));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> ScenarioAggregation.of(ColumnName.of("Unknown")).aggregate(TRADES, RESULTS));
+    assertThrowsIllegalArg(() -> ScenarioAggregation.of(PV).aggregate(TRADES.subList(0, 2), RESULTS));
+    Results mixed = Results.of(
+        ImmutableList.of(ColumnHeader.of(PV, Measures.PRESENT_VALUE)),
+        ImmutableList.of(pv(1, 2), Result.success(CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2)))));
+    assertThrowsIllegalArg(() -> ScenarioAggregation.of(PV).aggregate(TRADES.subList(0, 2), mixed));
+    Results wrongType = Results.of(
+        ImmutableList.of(ColumnHeader.of(PV, Measures.PRESENT_VALUE)),
+        ImmutableList.of(Result.success(1d)));
+    assertThrowsIllegalArg(() -> ScenarioAggregation.of(PV).aggregate(TRADES.subList(0, 1), wrongType));
+  }
+
+  //-------------------------------------------------------------------------
+  private static SecurityTrade trade(String desk, String book) {
+    TradeInfo info = TradeInfo.empty();
+    if (desk != null) {
+      info = info.withAttribute(DESK, desk).withAttribute(BOOK, book);
+    }
+    return SecurityTrade.of(info, SecurityId.of("OG-Test", "Sec"), 1, 1);
+  }
+
+  private static Result<CurrencyScenarioArray> pv(double... values) {
+    return Result.success(CurrencyScenarioArray.of(USD, DoubleArray.copyOf(values)));
+  }
+
+  private static Results results(int fromRow, int toRow) {
+    return Results.of(RESULTS.getColumns(), RESULTS.getCells().subList(fromRow, toRow));
+  }
+
+}
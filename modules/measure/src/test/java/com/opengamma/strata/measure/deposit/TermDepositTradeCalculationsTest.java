@@ -5,18 +5,32 @@
  */
 package com.opengamma.strata.measure.deposit;
 
+import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 import static org.testng.Assert.assertEquals;
 
+import java.util.List;
+import java.util.stream.DoubleStream;
+
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketDataBuilder;
 import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.ConstantCurve;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
@@ -32,6 +46,7 @@ public class TermDepositTradeCalculationsTest {
 
   private static final ResolvedTermDepositTrade RTRADE = TermDepositTradeCalculationFunctionTest.RTRADE;
   private static final RatesMarketDataLookup RATES_LOOKUP = TermDepositTradeCalculationFunctionTest.RATES_LOOKUP;
+  private static final double TOLERANCE = 1e-8;
 
   //-------------------------------------------------------------------------
   public void test_presentValue() {
@@ -61,6 +76,17 @@ public class TermDepositTradeCalculationsTest {
         CurrencyScenarioArray.of(ImmutableList.of(expectedCurrentCash)));
   }
 
+  public void test_presentValue_multipleScenarios() {
+    ScenarioMarketData md = multipleScenarios(TermDepositTradeCalculationFunctionTest.marketData(), 0.01, 0.02, 0.03);
+    DiscountingTermDepositTradePricer pricer = DiscountingTermDepositTradePricer.DEFAULT;
+    CurrencyScenarioArray test = TermDepositTradeCalculations.DEFAULT.presentValue(RTRADE, RATES_LOOKUP, md);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    for (int i = 0; i < 3; i++) {
+      CurrencyAmount pv = pricer.presentValue(RTRADE, RATES_LOOKUP.marketDataView(md.scenario(i)).ratesProvider());
+      assertThat(test.get(i).getAmount()).isCloseTo(pv.getAmount(), offset(TOLERANCE));
+    }
+  }
+
   public void test_pv01() {
     ScenarioMarketData md = TermDepositTradeCalculationFunctionTest.marketData();
     RatesProvider provider = RATES_LOOKUP.marketDataView(md.scenario(0)).ratesProvider();
@@ -78,4 +104,17 @@ public class TermDepositTradeCalculationsTest {
         ScenarioArray.of(ImmutableList.of(expectedPv01CalBucketed)));
   }
 
+  //-------------------------------------------------------------------------
+  // replaces each curve by a constant zero rate curve per scenario
+  private static ScenarioMarketData multipleScenarios(ScenarioMarketData md, double... zeroRates) {
+    List<Curve> curves = DoubleStream.of(zeroRates)
+        .mapToObj(rate -> ConstantCurve.of(Curves.zeroRates("Test", ACT_360), rate))
+        .collect(toImmutableList());
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(md.getValuationDate());
+    for (MarketDataId<?> id : md.getIds()) {
+      builder.addScenarioValue((CurveId) id, curves);
+    }
+    return builder.build();
+  }
+
 }
@@ -17,6 +17,8 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.testng.annotations.Test;
 
@@ -63,6 +65,7 @@ import com.opengamma.strata.market.observable.IndexQuoteId;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.market.param.ParameterMetadata;
 import com.opengamma.strata.measure.curve.TestMarketDataMap;
+import com.opengamma.strata.pricer.curve.CalibrationMeasures;
 import com.opengamma.strata.pricer.curve.RatesCurveCalibrator;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -186,6 +189,76 @@ public class RatesCurveGroupMarketDataFunctionTest {
     checkSwapPvIsZero((FixedIborSwapCurveNode) nodes.get(4), ratesProvider, marketData);
   }
 
+  /**
+   * Tests calibrating multiple scenarios in parallel warm-started from the base calibration matches the sequential calibration.
+   */
+  public void multipleScenarios_parallelWarmStart() {
+    CurveGroupName groupName = CurveGroupName.of("Curve Group");
+    InterpolatedNodalCurveDefinition curveDefn = CurveTestUtils.fraSwapCurveDefinition();
+    CurveName curveName = curveDefn.getName();
+    List<CurveNode> nodes = curveDefn.getNodes();
+
+    RatesCurveGroupDefinition groupDefn = RatesCurveGroupDefinition.builder()
+        .name(groupName)
+        .addCurve(curveDefn, Currency.USD, IborIndices.USD_LIBOR_3M)
+        .build();
+
+    double[] rates = {0.0037, 0.0054, 0.005, 0.0087, 0.012};
+    ImmutableList.Builder<RatesCurveInputs> inputsBuilder = ImmutableList.builder();
+    for (int scenario = 0; scenario < 4; scenario++) {
+      ImmutableMap.Builder<MarketDataId<?>, Double> inputData = ImmutableMap.builder();
+      for (int i = 0; i < nodes.size(); i++) {
+        inputData.put(CurveTestUtils.key(nodes.get(i)), rates[i] + scenario * 0.0001);
+      }
+      inputsBuilder.add(RatesCurveInputs.of(inputData.build(), DefaultCurveMetadata.of(curveName)));
+    }
+    LocalDate valuationDate = date(2011, 3, 8);
+    ScenarioMarketData inputMarketData = ImmutableScenarioMarketData.builder(valuationDate)
+        .addBox(
+            RatesCurveInputsId.of(groupName, curveName, ObservableSource.NONE),
+            MarketDataBox.ofScenarioValues(inputsBuilder.build()))
+        .build();
+
+    // the base calibration uses the unperturbed rates
+    ImmutableMap.Builder<MarketDataId<?>, Double> baseData = ImmutableMap.builder();
+    for (int i = 0; i < nodes.size(); i++) {
+      baseData.put(CurveTestUtils.key(nodes.get(i)), rates[i]);
+    }
+    ScenarioMarketData baseMarketData = ImmutableScenarioMarketData.builder(valuationDate)
+        .addValue(
+            RatesCurveInputsId.of(groupName, curveName, ObservableSource.NONE),
+            RatesCurveInputs.of(baseData.build(), DefaultCurveMetadata.of(curveName)))
+        .build();
+    RatesCurveGroupId groupId = RatesCurveGroupId.of(groupName);
+    MarketDataConfig baseConfig = MarketDataConfig.builder().add(groupName, groupDefn).build();
+    RatesCurveGroup baseGroup = new RatesCurveGroupMarketDataFunction()
+        .build(groupId, baseConfig, baseMarketData, REF_DATA)
+        .getSingleValue();
+    MarketDataConfig config = MarketDataConfig.builder()
+        .add(groupName, groupDefn)
+        .add(groupName, baseGroup)
+        .build();
+
+    MarketDataBox<RatesCurveGroup> expected = new RatesCurveGroupMarketDataFunction()
+        .build(groupId, baseConfig, inputMarketData, REF_DATA);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      RatesCurveGroupMarketDataFunction function =
+          new RatesCurveGroupMarketDataFunction(CalibrationMeasures.PAR_SPREAD, executor, true);
+      MarketDataBox<RatesCurveGroup> test = function.build(groupId, config, inputMarketData, REF_DATA);
+      assertThat(test.getScenarioCount()).isEqualTo(4);
+      for (int scenario = 0; scenario < 4; scenario++) {
+        Curve expectedCurve = expected.getValue(scenario).findDiscountCurve(Currency.USD).get();
+        Curve testCurve = test.getValue(scenario).findDiscountCurve(Currency.USD).get();
+        for (int i = 0; i < nodes.size(); i++) {
+          assertThat(testCurve.getParameter(i)).isCloseTo(expectedCurve.getParameter(i), offset(1e-10));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   /**
    * Tests that par rates and ibor index are required for curves.
    */
@@ -5,17 +5,32 @@
  */
 package com.opengamma.strata.measure.swap;
 
+import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 import static org.testng.Assert.assertEquals;
 
+import java.util.List;
+import java.util.stream.DoubleStream;
+
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketDataBuilder;
 import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.market.amount.CashFlows;
+import com.opengamma.strata.market.curve.ConstantCurve;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.explain.ExplainMap;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
@@ -32,6 +47,7 @@ public class SwapTradeCalculationsTest {
 
   private static final ResolvedSwapTrade RTRADE = SwapTradeCalculationFunctionTest.RTRADE;
   private static final RatesMarketDataLookup RATES_LOOKUP = SwapTradeCalculationFunctionTest.RATES_LOOKUP;
+  private static final double TOLERANCE = 1e-8;
 
   //-------------------------------------------------------------------------
   public void test_presentValue() {
@@ -69,6 +85,19 @@ public class SwapTradeCalculationsTest {
         MultiCurrencyScenarioArray.of(ImmutableList.of(expectedCurrentCash)));
   }
 
+  public void test_presentValue_multipleScenarios() {
+    ScenarioMarketData md = multipleScenarios(SwapTradeCalculationFunctionTest.marketData(), 0.01, 0.02, 0.03);
+    DiscountingSwapTradePricer pricer = DiscountingSwapTradePricer.DEFAULT;
+    MultiCurrencyScenarioArray test = SwapTradeCalculations.DEFAULT.presentValue(RTRADE, RATES_LOOKUP, md);
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    for (int i = 0; i < 3; i++) {
+      MultiCurrencyAmount pv = pricer.presentValue(RTRADE, RATES_LOOKUP.marketDataView(md.scenario(i)).ratesProvider());
+      for (Currency currency : pv.getCurrencies()) {
+        assertThat(test.getValues(currency).get(i)).isCloseTo(pv.getAmount(currency).getAmount(), offset(TOLERANCE));
+      }
+    }
+  }
+
   public void test_pv01() {
     ScenarioMarketData md = SwapTradeCalculationFunctionTest.marketData();
     RatesProvider provider = RATES_LOOKUP.marketDataView(md.scenario(0)).ratesProvider();
@@ -86,4 +115,17 @@ public class SwapTradeCalculationsTest {
         ScenarioArray.of(ImmutableList.of(expectedPv01CalBucketed)));
   }
 
+  //-------------------------------------------------------------------------
+  // replaces each curve by a constant zero rate curve per scenario
+  private static ScenarioMarketData multipleScenarios(ScenarioMarketData md, double... zeroRates) {
+    List<Curve> curves = DoubleStream.of(zeroRates)
+        .mapToObj(rate -> ConstantCurve.of(Curves.zeroRates("Test", ACT_360), rate))
+        .collect(toImmutableList());
+    ImmutableScenarioMarketDataBuilder builder = ImmutableScenarioMarketData.builder(md.getValuationDate());
+    for (MarketDataId<?> id : md.getIds()) {
+      builder.addScenarioValue((CurveId) id, curves);
+    }
+    return builder.build();
+  }
+
 }
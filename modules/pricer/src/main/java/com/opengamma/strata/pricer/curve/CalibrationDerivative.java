@@ -41,6 +41,10 @@ class CalibrationDerivative
    * The expected number of parameters for each curve is also provided.
    */
   private final List<CurveParameterSize> curveOrder;
+  /**
+   * The evaluator of the rows of the matrix.
+   */
+  private final CalibrationRowEvaluator rowEvaluator;
 
   /**
    * Creates an instance.
@@ -56,10 +60,30 @@ class CalibrationDerivative
       RatesProviderGenerator providerGenerator,
       List<CurveParameterSize> curveOrder) {
 
+    this(trades, measures, providerGenerator, curveOrder, CalibrationRowEvaluator.SEQUENTIAL);
+  }
+
+  /**
+   * Creates an instance specifying how the rows are evaluated.
+   * 
+   * @param trades  the trades
+   * @param measures  the calibration measures
+   * @param providerGenerator  the provider generator, used to create child providers
+   * @param curveOrder  the curve order
+   * @param rowEvaluator  the evaluator of the rows of the matrix
+   */
+  CalibrationDerivative(
+      List<ResolvedTrade> trades,
+      CalibrationMeasures measures,
+      RatesProviderGenerator providerGenerator,
+      List<CurveParameterSize> curveOrder,
+      CalibrationRowEvaluator rowEvaluator) {
+
     this.measures = measures;
     this.trades = trades;
     this.providerGenerator = providerGenerator;
     this.curveOrder = curveOrder;
+    this.rowEvaluator = rowEvaluator;
   }
 
   //-------------------------------------------------------------------------
@@ -69,7 +93,7 @@ class CalibrationDerivative
     ImmutableRatesProvider provider = providerGenerator.generate(x);
     // calculate derivative for each trade using the child provider
     int size = trades.size();
-    return DoubleMatrix.ofArrayObjects(size, size, i -> measures.derivative(trades.get(i), provider, curveOrder));
+    return rowEvaluator.matrix(size, size, i -> measures.derivative(trades.get(i), provider, curveOrder));
   }
 
 }
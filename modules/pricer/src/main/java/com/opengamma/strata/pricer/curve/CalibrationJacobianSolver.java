@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+
+/**
+ * Matrix operations used to build the calibration Jacobian, exploiting the sparsity of the
+ * sensitivity of the calibration trades to the curve parameters.
+ * <p>
+ * A calibration trade typically depends on the nodes of a few curves only, and on the nodes of
+ * each curve up to its maturity only. When the trades and the parameters are in curve order,
+ * the matrix of sensitivities is then block lower triangular, with one block per curve,
+ * and each diagonal block is often lower triangular.
+ * <p>
+ * The inverse is found by block forward substitution, skipping blocks that are zero.
+ * Diagonal blocks that are lower triangular are inverted by forward substitution,
+ * other diagonal blocks by a dense inversion. A matrix without this structure is inverted densely.
+ * Only exact zeros are treated as structural zeros.
+ */
+final class CalibrationJacobianSolver {
+
+  /**
+   * The matrix algebra used for dense inversion.
+   */
+  private static final MatrixAlgebra MATRIX_ALGEBRA = new CommonsMatrixAlgebra();
+
+  // restricted constructor
+  private CalibrationJacobianSolver() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Inverts a square matrix, exploiting block lower triangular structure.
+   * <p>
+   * The rows and columns are split into blocks of the specified sizes.
+   *
+   * @param matrix  the square matrix to invert, not altered
+   * @param blockSizes  the sizes of the blocks, summing to the size of the matrix
+   * @return the inverse
+   */
+  static DoubleMatrix inverse(double[][] matrix, int[] blockSizes) {
+    int blockCount = blockSizes.length;
+    int[] starts = new int[blockCount + 1];
+    for (int b = 0; b < blockCount; b++) {
+      starts[b + 1] = starts[b] + blockSizes[b];
+    }
+    // the inverse of a matrix that is not block lower triangular is dense
+    for (int i = 0; i < blockCount; i++) {
+      if (!isZero(matrix, starts[i], starts[i + 1], starts[i + 1], starts[blockCount])) {
+        return MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(matrix));
+      }
+    }
+    // block forward substitution: X_ii = A_ii^-1, X_ij = -A_ii^-1 * sum_{j<=k<i} A_ik X_kj
+    int size = starts[blockCount];
+    double[][] inverse = new double[size][size];
+    for (int i = 0; i < blockCount; i++) {
+      double[][] diagonal = block(matrix, starts[i], starts[i + 1], starts[i], starts[i + 1]);
+      double[][] diagonalInverse = inverseDiagonalBlock(diagonal);
+      paste(inverse, diagonalInverse, starts[i], starts[i]);
+      for (int j = 0; j < i; j++) {
+        double[][] sum = null;
+        for (int k = j; k < i; k++) {
+          if (!isZero(matrix, starts[i], starts[i + 1], starts[k], starts[k + 1])) {
+            double[][] lower = block(matrix, starts[i], starts[i + 1], starts[k], starts[k + 1]);
+            double[][] solved = block(inverse, starts[k], starts[k + 1], starts[j], starts[j + 1]);
+            if (sum == null) {
+              sum = new double[blockSizes[i]][blockSizes[j]];
+            }
+            addProduct(sum, lower, solved, 1d);
+          }
+        }
+        if (sum != null) {
+          double[][] offDiagonal = new double[blockSizes[i]][blockSizes[j]];
+          addProduct(offDiagonal, diagonalInverse, sum, -1d);
+          paste(inverse, offDiagonal, starts[i], starts[j]);
+        }
+      }
+    }
+    return DoubleMatrix.ofUnsafe(inverse);
+  }
+
+  /**
+   * Multiplies two matrices, skipping the zero elements of the first matrix.
+   *
+   * @param left  the left matrix
+   * @param right  the right matrix
+   * @return the product
+   */
+  static double[][] multiply(double[][] left, double[][] right) {
+    double[][] result = new double[left.length][right.length == 0 ? 0 : right[0].length];
+    addProduct(result, left, right, 1d);
+    return result;
+  }
+
+  /**
+   * Adds a multiple of the product of two matrices to a matrix, skipping the zero elements of the first matrix.
+   *
+   * @param result  the matrix to add to, altered
+   * @param left  the left matrix
+   * @param right  the right matrix
+   * @param factor  the factor applied to the product
+   */
+  static void addProduct(double[][] result, double[][] left, double[][] right, double factor) {
+    for (int i = 0; i < left.length; i++) {
+      double[] leftRow = left[i];
+      double[] resultRow = result[i];
+      for (int k = 0; k < leftRow.length; k++) {
+        double value = leftRow[k];
+        if (value != 0d) {
+          double scaled = factor * value;
+          double[] rightRow = right[k];
+          for (int j = 0; j < rightRow.length; j++) {
+            resultRow[j] += scaled * rightRow[j];
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if a rectangular block of a matrix is zero.
+   *
+   * @param matrix  the matrix
+   * @param rowStart  the first row, inclusive
+   * @param rowEnd  the last row, exclusive
+   * @param columnStart  the first column, inclusive
+   * @param columnEnd  the last column, exclusive
+   * @return true if all the elements of the block are zero
+   */
+  static boolean isZero(double[][] matrix, int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    for (int i = rowStart; i < rowEnd; i++) {
+      for (int j = columnStart; j < columnEnd; j++) {
+        if (matrix[i][j] != 0d) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Extracts a rectangular block of a matrix.
+   *
+   * @param matrix  the matrix
+   * @param rowStart  the first row, inclusive
+   * @param rowEnd  the last row, exclusive
+   * @param columnStart  the first column, inclusive
+   * @param columnEnd  the last column, exclusive
+   * @return the block
+   */
+  static double[][] block(double[][] matrix, int rowStart, int rowEnd, int columnStart, int columnEnd) {
+    double[][] block = new double[rowEnd - rowStart][columnEnd - columnStart];
+    for (int i = rowStart; i < rowEnd; i++) {
+      System.arraycopy(matrix[i], columnStart, block[i - rowStart], 0, columnEnd - columnStart);
+    }
+    return block;
+  }
+
+  //-------------------------------------------------------------------------
+  // inverts a diagonal block, by forward substitution if lower triangular with a non-zero diagonal
+  private static double[][] inverseDiagonalBlock(double[][] block) {
+    int size = block.length;
+    for (int i = 0; i < size; i++) {
+      if (block[i][i] == 0d || !isZero(block, i, i + 1, i + 1, size)) {
+        return MATRIX_ALGEBRA.getInverse(DoubleMatrix.ofUnsafe(block)).toArrayUnsafe();
+      }
+    }
+    double[][] inverse = new double[size][size];
+    for (int j = 0; j < size; j++) {
+      inverse[j][j] = 1d / block[j][j];
+      for (int i = j + 1; i < size; i++) {
+        double sum = 0d;
+        for (int k = j; k < i; k++) {
+          sum += block[i][k] * inverse[k][j];
+        }
+        inverse[i][j] = -sum / block[i][i];
+      }
+    }
+    return inverse;
+  }
+
+  // copies a block into a matrix
+  private static void paste(double[][] matrix, double[][] block, int rowStart, int columnStart) {
+    for (int i = 0; i < block.length; i++) {
+      System.arraycopy(block[i], 0, matrix[rowStart + i], columnStart, block[i].length);
+    }
+  }
+
+}
@@ -15,6 +15,7 @@ import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
@@ -168,14 +169,35 @@ public final class CalibrationMeasures {
     UnitParameterSensitivities unitSens = extractSensitivities(trade, provider);
 
     // expand to a concatenated array
-    DoubleArray result = DoubleArray.EMPTY;
+    int totalParamCount = curveOrder.stream().mapToInt(CurveParameterSize::getParameterCount).sum();
+    double[] result = new double[totalParamCount];
+    int startIndex = 0;
     for (CurveParameterSize curveParams : curveOrder) {
-      DoubleArray sens = unitSens.findSensitivity(curveParams.getName())
-          .map(s -> s.getSensitivity())
-          .orElseGet(() -> DoubleArray.filled(curveParams.getParameterCount()));
-      result = result.concat(sens);
+      int start = startIndex;
+      unitSens.findSensitivity(curveParams.getName())
+          .ifPresent(s -> s.getSensitivity().copyInto(result, start));
+      startIndex += curveParams.getParameterCount();
     }
-    return result;
+    return DoubleArray.ofUnsafe(result);
+  }
+
+  /**
+   * Calculates the sensitivity with respect to a single parameter of a curve.
+   * <p>
+   * This is equivalent to selecting one element of {@link #derivative(ResolvedTrade, RatesProvider, List)},
+   * without building the concatenated array.
+   *
+   * @param trade  the trade
+   * @param provider  the rates provider
+   * @param curveName  the name of the curve
+   * @param parameterIndex  the index of the parameter in the curve
+   * @return the sensitivity derivative, zero if the trade is not sensitive to the curve
+   */
+  double derivative(ResolvedTrade trade, RatesProvider provider, CurveName curveName, int parameterIndex) {
+    UnitParameterSensitivities unitSens = extractSensitivities(trade, provider);
+    return unitSens.findSensitivity(curveName)
+        .map(s -> s.getSensitivity().get(parameterIndex))
+        .orElse(0d);
   }
 
   // determine the curve parameter sensitivities, removing the curency
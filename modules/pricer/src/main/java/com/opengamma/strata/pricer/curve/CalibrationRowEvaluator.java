@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Evaluates the rows of a calibration vector or matrix, one row per calibration trade.
+ * <p>
+ * Each row is independent, typically the value or sensitivity of one trade.
+ * By default the rows are evaluated in sequence by the calling thread.
+ * If an executor is specified, helper tasks are submitted to the executor and the rows
+ * are shared between the helpers and the calling thread.
+ * <p>
+ * The calling thread always takes part, so the evaluation completes even if the executor
+ * is busy, such as when the calibration is itself running on a thread of the executor.
+ * The result is the same whichever thread evaluates a row.
+ * <p>
+ * The evaluator can also run tasks that depend on one another, such as the calibration of curve groups.
+ * A task is only started once the tasks it depends on have completed.
+ */
+final class CalibrationRowEvaluator {
+
+  /**
+   * The evaluator that uses the calling thread.
+   */
+  static final CalibrationRowEvaluator SEQUENTIAL = new CalibrationRowEvaluator(null, 1);
+
+  /**
+   * The executor running the helper tasks, null if sequential.
+   */
+  private final Executor executor;
+  /**
+   * The maximum number of threads evaluating rows, including the calling thread.
+   */
+  private final int parallelism;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an evaluator that shares the rows with helper tasks run by the executor.
+   * <p>
+   * The number of helpers is based on the parallelism of a {@link ForkJoinPool},
+   * or the number of available processors for other executors.
+   *
+   * @param executor  the executor
+   * @return the evaluator
+   */
+  static CalibrationRowEvaluator of(Executor executor) {
+    ArgChecker.notNull(executor, "executor");
+    int parallelism = executor instanceof ForkJoinPool ?
+        ((ForkJoinPool) executor).getParallelism() + 1 :
+        Runtime.getRuntime().availableProcessors();
+    return new CalibrationRowEvaluator(executor, parallelism);
+  }
+
+  // restricted constructor
+  private CalibrationRowEvaluator(Executor executor, int parallelism) {
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Evaluates a vector with one value per row.
+   *
+   * @param size  the number of rows
+   * @param fn  the function evaluating a row
+   * @return the vector
+   */
+  DoubleArray vector(int size, IntToDoubleFunction fn) {
+    double[] values = new double[size];
+    forEach(size, i -> values[i] = fn.applyAsDouble(i));
+    return DoubleArray.ofUnsafe(values);
+  }
+
+  /**
+   * Evaluates a matrix row by row.
+   *
+   * @param rows  the number of rows
+   * @param columns  the number of columns
+   * @param fn  the function evaluating a row
+   * @return the matrix
+   */
+  DoubleMatrix matrix(int rows, int columns, IntFunction<DoubleArray> fn) {
+    DoubleArray[] values = new DoubleArray[rows];
+    forEach(rows, i -> values[i] = fn.apply(i));
+    return DoubleMatrix.ofArrayObjects(rows, columns, i -> values[i]);
+  }
+
+  /**
+   * Invokes the action for each task, once the tasks it depends on have completed.
+   * <p>
+   * A task may only depend on tasks with a lower index, thus the tasks can always be run in index order.
+   * If there is no executor, the tasks are run in index order by the calling thread.
+   * Otherwise, the tasks whose dependencies have completed are shared between helper tasks
+   * run by the executor and the calling thread.
+   * <p>
+   * The writes made by the action for a task happen-before the start of the tasks that depend on it,
+   * and before this method returns.
+   *
+   * @param size  the number of tasks
+   * @param dependencies  the function providing the indices of the tasks that a task depends on
+   * @param action  the action to invoke for each task
+   */
+  void forEachAfter(int size, IntFunction<int[]> dependencies, IntConsumer action) {
+    DependentTasks tasks = new DependentTasks(size, dependencies, action);
+    if (executor == null || parallelism <= 1) {
+      for (int i = 0; i < size; i++) {
+        action.accept(i);
+      }
+      return;
+    }
+    tasks.runAll();
+  }
+
+  // invokes the action for each row, sharing the rows with helper tasks if there is an executor
+  private void forEach(int size, IntConsumer action) {
+    int helpers = Math.min(parallelism, size) - 1;
+    if (executor == null || helpers <= 0) {
+      for (int i = 0; i < size; i++) {
+        action.accept(i);
+      }
+      return;
+    }
+    RowTask task = new RowTask(size, action);
+    submit(task, helpers);
+    task.run();
+    task.awaitCompletion();
+  }
+
+  // submits helper tasks to the executor, stopping if the executor rejects the task
+  private void submit(Runnable helper, int count) {
+    for (int h = 0; h < count; h++) {
+      try {
+        executor.execute(helper);
+      } catch (RejectedExecutionException ex) {
+        // the calling thread runs the work not taken by helpers
+        break;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The rows shared between threads, with each row claimed by exactly one thread.
+   * The writes made by the action happen-before the return of {@code awaitCompletion()}.
+   */
+  private static final class RowTask implements Runnable {
+    private final int size;
+    private final IntConsumer action;
+    private final AtomicInteger next = new AtomicInteger();
+    private final CountDownLatch completed;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private RowTask(int size, IntConsumer action) {
+      this.size = size;
+      this.action = action;
+      this.completed = new CountDownLatch(size);
+    }
+
+    @Override
+    public void run() {
+      int i;
+      while ((i = next.getAndIncrement()) < size) {
+        try {
+          if (failure.get() == null) {
+            action.accept(i);
+          }
+        } catch (RuntimeException | Error ex) {
+          failure.compareAndSet(null, ex);
+        } finally {
+          completed.countDown();
+        }
+      }
+    }
+
+    // waits for the rows claimed by helpers, rethrowing the first failure
+    private void awaitCompletion() {
+      Uninterruptibles.awaitUninterruptibly(completed);
+      Throwable ex = failure.get();
+      if (ex instanceof RuntimeException) {
+        throw (RuntimeException) ex;
+      }
+      if (ex instanceof Error) {
+        throw (Error) ex;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The tasks shared between threads, with each task started once its dependencies have completed.
+   * <p>
+   * The state is guarded by the lock of this instance.
+   */
+  private final class DependentTasks implements Runnable {
+    private final int size;
+    private final IntConsumer action;
+    private final int[] remaining;
+    private final List<List<Integer>> dependents;
+    private final Deque<Integer> ready = new ArrayDeque<>();
+    private int completed;
+    private Throwable failure;
+
+    private DependentTasks(int size, IntFunction<int[]> dependencies, IntConsumer action) {
+      this.size = size;
+      this.action = action;
+      this.remaining = new int[size];
+      this.dependents = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        dependents.add(new ArrayList<>());
+        int[] taskDependencies = dependencies.apply(i);
+        for (int dependency : taskDependencies) {
+          ArgChecker.inRange(dependency, 0, i, "dependency");
+          dependents.get(dependency).add(i);
+        }
+        remaining[i] = taskDependencies.length;
+        if (taskDependencies.length == 0) {
+          ready.add(i);
+        }
+      }
+    }
+
+    // runs the tasks on the calling thread, together with helpers, rethrowing the first failure
+    private void runAll() {
+      submit(this, Math.min(ready.size(), parallelism) - 1);
+      Integer task;
+      while ((task = await()) != null) {
+        runTask(task);
+      }
+    }
+
+    // the helper, running ready tasks until there are none
+    @Override
+    public void run() {
+      Integer task;
+      while ((task = claim()) != null) {
+        runTask(task);
+      }
+    }
+
+    // claims a ready task, null if none
+    private synchronized Integer claim() {
+      return failure == null ? ready.poll() : null;
+    }
+
+    // waits until a task is ready, returning null once all the tasks have completed
+    private synchronized Integer await() {
+      boolean interrupted = false;
+      try {
+        while (ready.isEmpty() && completed < size && failure == null) {
+          try {
+            wait();
+          } catch (InterruptedException ex) {
+            interrupted = true;
+          }
+        }
+      } finally {
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      return ready.poll();
+    }
+
+    // runs a task, then releases the tasks that depend on it
+    private void runTask(int task) {
+      try {
+        action.accept(task);
+      } catch (RuntimeException | Error ex) {
+        synchronized (this) {
+          if (failure == null) {
+            failure = ex;
+          }
+          notifyAll();
+        }
+        return;
+      }
+      int released = 0;
+      synchronized (this) {
+        completed++;
+        for (int dependent : dependents.get(task)) {
+          if (--remaining[dependent] == 0) {
+            ready.add(dependent);
+            released++;
+          }
+        }
+        notifyAll();
+      }
+      // the current thread continues with one of the released tasks
+      submit(this, released - 1);
+    }
+  }
+
+}
@@ -34,6 +34,10 @@ class CalibrationValue
    * The provider generator, used to create child providers.
    */
   private final RatesProviderGenerator providerGenerator;
+  /**
+   * The evaluator of the rows of the vector.
+   */
+  private final CalibrationRowEvaluator rowEvaluator;
 
   /**
    * Creates an instance.
@@ -47,9 +51,27 @@ class CalibrationValue
       CalibrationMeasures measures,
       RatesProviderGenerator providerGenerator) {
 
+    this(trades, measures, providerGenerator, CalibrationRowEvaluator.SEQUENTIAL);
+  }
+
+  /**
+   * Creates an instance specifying how the rows are evaluated.
+   * 
+   * @param trades  the trades
+   * @param measures  the calibration measures
+   * @param providerGenerator  the provider generator, used to create child providers
+   * @param rowEvaluator  the evaluator of the rows of the vector
+   */
+  CalibrationValue(
+      List<ResolvedTrade> trades,
+      CalibrationMeasures measures,
+      RatesProviderGenerator providerGenerator,
+      CalibrationRowEvaluator rowEvaluator) {
+
     this.trades = trades;
     this.measures = measures;
     this.providerGenerator = providerGenerator;
+    this.rowEvaluator = rowEvaluator;
   }
 
   //-------------------------------------------------------------------------
@@ -58,7 +80,7 @@ class CalibrationValue
     // create child provider from matrix
     ImmutableRatesProvider childProvider = providerGenerator.generate(x);
     // calculate value for each trade using the child provider
-    return DoubleArray.of(trades.size(), i -> measures.value(trades.get(i), childProvider));
+    return rowEvaluator.vector(trades.size(), i -> measures.value(trades.get(i), childProvider));
   }
 
 }
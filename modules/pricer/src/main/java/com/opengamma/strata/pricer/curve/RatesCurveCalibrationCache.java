@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
+
+/**
+ * A cache of the results of curve calibration, used to warm-start later calibrations.
+ * <p>
+ * Curves are typically recalibrated many times a day, with market data that has moved only slightly.
+ * A calibrator using this cache, see {@link RatesCurveCalibrator#withCache(RatesCurveCalibrationCache)},
+ * remembers the calibrated parameters of each curve group, keyed by {@link CurveGroupName}.
+ * The next calibration of a group with the same curves and parameter counts starts from those parameters,
+ * instead of the initial guesses of the curve definitions.
+ * <p>
+ * If the Jacobian of the group is computed, the sensitivity of the calibration trades to the parameters
+ * at the solution is also remembered. It is used as the initial Jacobian of the next calibration,
+ * avoiding the computation of the sensitivity at the start of the root finding.
+ * Subsequent iterations update or recompute the Jacobian as normal.
+ * <p>
+ * The calibrated curves are equal to those calibrated without the cache within the calibration tolerance.
+ * If the warm-started calibration fails, the calibration is repeated from the initial guesses of the definitions.
+ * <p>
+ * Entries are keyed by curve group name only, thus a cache must not be shared between the scenarios
+ * of a multi-scenario calculation. Calibrations of the same group in different scenarios would replace
+ * each other's entries, and each would warm-start from the market data of another scenario.
+ * A separate cache should be used for each scenario.
+ * <p>
+ * This class is mutable and thread-safe.
+ */
+public final class RatesCurveCalibrationCache {
+
+  /**
+   * The entries, keyed by curve group name.
+   */
+  private final ConcurrentHashMap<CurveGroupName, Entry> entries = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an empty cache.
+   *
+   * @return the cache
+   */
+  public static RatesCurveCalibrationCache create() {
+    return new RatesCurveCalibrationCache();
+  }
+
+  // restricted constructor
+  private RatesCurveCalibrationCache() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the names of the curve groups held in the cache.
+   *
+   * @return the curve group names
+   */
+  public Set<CurveGroupName> getCurveGroupNames() {
+    return ImmutableSet.copyOf(entries.keySet());
+  }
+
+  /**
+   * Finds the calibrated parameters of a curve group.
+   * <p>
+   * The parameters of all the curves in the group are returned, in the order of the curve definitions.
+   *
+   * @param groupName  the curve group name
+   * @return the calibrated parameters, empty if not in the cache
+   */
+  public Optional<DoubleArray> findParameters(CurveGroupName groupName) {
+    return Optional.ofNullable(entries.get(groupName)).map(entry -> entry.parameters);
+  }
+
+  /**
+   * Removes a curve group from the cache.
+   * <p>
+   * The next calibration of the group starts from the initial guesses of the curve definitions.
+   *
+   * @param groupName  the curve group name
+   */
+  public void remove(CurveGroupName groupName) {
+    entries.remove(groupName);
+  }
+
+  /**
+   * Removes all curve groups from the cache.
+   */
+  public void clear() {
+    entries.clear();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Finds the entry for a curve group, if the curves and parameter counts match.
+   *
+   * @param groupName  the curve group name
+   * @param order  the curves and parameter counts of the group
+   * @return the entry, empty if not found or not matching
+   */
+  Optional<Entry> find(CurveGroupName groupName, List<CurveParameterSize> order) {
+    Entry entry = entries.get(groupName);
+    return entry != null && entry.order.equals(order) ? Optional.of(entry) : Optional.empty();
+  }
+
+  /**
+   * Stores the result of the calibration of a curve group.
+   *
+   * @param groupName  the curve group name
+   * @param order  the curves and parameter counts of the group
+   * @param parameters  the calibrated parameters
+   * @param jacobian  the sensitivity of the calibration trades to the parameters at the solution, null if not known
+   */
+  void put(CurveGroupName groupName, List<CurveParameterSize> order, DoubleArray parameters, DoubleMatrix jacobian) {
+    ArgChecker.notNull(groupName, "groupName");
+    entries.put(groupName, new Entry(order, parameters, jacobian));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return Messages.format("RatesCurveCalibrationCache[{}]", entries.keySet());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The result of the calibration of a curve group.
+   */
+  static final class Entry {
+    /**
+     * The curves and parameter counts of the group.
+     */
+    private final ImmutableList<CurveParameterSize> order;
+    /**
+     * The calibrated parameters.
+     */
+    private final DoubleArray parameters;
+    /**
+     * The sensitivity of the calibration trades to the parameters at the solution, null if not known.
+     */
+    private final DoubleMatrix jacobian;
+
+    private Entry(List<CurveParameterSize> order, DoubleArray parameters, DoubleMatrix jacobian) {
+      this.order = ImmutableList.copyOf(order);
+      this.parameters = ArgChecker.notNull(parameters, "parameters");
+      this.jacobian = jacobian;
+    }
+
+    /**
+     * Gets the calibrated parameters.
+     *
+     * @return the parameters
+     */
+    DoubleArray getParameters() {
+      return parameters;
+    }
+
+    /**
+     * Finds the sensitivity of the calibration trades to the parameters at the solution.
+     *
+     * @return the Jacobian, empty if not known
+     */
+    Optional<DoubleMatrix> findJacobian() {
+      return Optional.ofNullable(jacobian);
+    }
+  }
+
+}
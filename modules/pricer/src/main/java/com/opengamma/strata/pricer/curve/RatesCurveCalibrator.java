@@ -9,14 +9,33 @@ import static com.opengamma.strata.collect.Guavate.filtering;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.collect.Guavate.toImmutableMap;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
+import org.joda.beans.Bean;
+import org.joda.beans.MetaProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.index.FxIndex;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
@@ -25,14 +44,15 @@ import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataFxRateProvider;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveDefinition;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.RatesCurveGroupEntry;
 import com.opengamma.strata.market.observable.IndexQuoteId;
-import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
 import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -55,15 +75,15 @@ import com.opengamma.strata.product.ResolvedTrade;
  */
 public final class RatesCurveCalibrator {
 
+  /**
+   * Logger.
+   */
+  private static final Logger log = LoggerFactory.getLogger(RatesCurveCalibrator.class);
   /**
    * The standard curve calibrator.
    */
   private static final RatesCurveCalibrator STANDARD =
       RatesCurveCalibrator.of(1e-9, 1e-9, 1000, CalibrationMeasures.PAR_SPREAD, CalibrationMeasures.PRESENT_VALUE);
-  /**
-   * The matrix algebra used for matrix inversion.
-   */
-  private static final MatrixAlgebra MATRIX_ALGEBRA = new CommonsMatrixAlgebra();
 
   /**
    * The root finder used for curve calibration.
@@ -79,6 +99,15 @@ public final class RatesCurveCalibrator {
    * This is used to compute the present value sensitivity to market quotes stored in the metadata.
    */
   private final CalibrationMeasures pvMeasures;
+  /**
+   * The evaluator of the rows of the calibration vectors and matrices.
+   * This determines whether the trades are priced in parallel.
+   */
+  private final CalibrationRowEvaluator rowEvaluator;
+  /**
+   * The cache used to warm-start the calibration, null if not used.
+   */
+  private final RatesCurveCalibrationCache cache;
 
   //-------------------------------------------------------------------------
   /**
@@ -154,7 +183,7 @@ public final class RatesCurveCalibrator {
       CalibrationMeasures pvMeasures) {
 
     NewtonVectorRootFinder rootFinder = NewtonVectorRootFinder.broyden(toleranceAbs, toleranceRel, stepMaximum);
-    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures);
+    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures, CalibrationRowEvaluator.SEQUENTIAL, null);
   }
 
   /**
@@ -171,7 +200,34 @@ public final class RatesCurveCalibrator {
       CalibrationMeasures measures,
       CalibrationMeasures pvMeasures) {
 
-    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures);
+    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures, CalibrationRowEvaluator.SEQUENTIAL, null);
+  }
+
+  /**
+   * Obtains an instance specifying the measures to use and an executor used to price the trades in parallel.
+   * <p>
+   * Each iteration of the root finder prices every calibration trade, and calculates the sensitivity
+   * of every trade to the curve parameters. With many curve nodes this dominates the calibration time.
+   * The trades are independent, so the rows of the values and of the Jacobian matrix are evaluated
+   * concurrently by helper tasks run by the executor, together with the calling thread.
+   * <p>
+   * The calibrated curves are the same as those of a calibrator without an executor.
+   * It is the callers responsibility to manage the life-cycle of the executor.
+   *
+   * @param rootFinder  the root finder to use
+   * @param measures  the calibration measures, used to compute the function for which the root is found
+   * @param pvMeasures  the present value measures, used to compute the present value sensitivity to market quotes 
+   *   stored in the metadata
+   * @param executor  the executor used to price the calibration trades in parallel
+   * @return the curve calibrator
+   */
+  public static RatesCurveCalibrator of(
+      NewtonVectorRootFinder rootFinder,
+      CalibrationMeasures measures,
+      CalibrationMeasures pvMeasures,
+      Executor executor) {
+
+    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures, CalibrationRowEvaluator.of(executor), null);
   }
 
   //-------------------------------------------------------------------------
@@ -179,11 +235,36 @@ public final class RatesCurveCalibrator {
   private RatesCurveCalibrator(
       NewtonVectorRootFinder rootFinder,
       CalibrationMeasures measures,
-      CalibrationMeasures pvMeasures) {
+      CalibrationMeasures pvMeasures,
+      CalibrationRowEvaluator rowEvaluator,
+      RatesCurveCalibrationCache cache) {
 
     this.rootFinder = ArgChecker.notNull(rootFinder, "rootFinder");
     this.measures = ArgChecker.notNull(measures, "measures");
     this.pvMeasures = ArgChecker.notNull(pvMeasures, "pvMeasures");
+    this.rowEvaluator = rowEvaluator;
+    this.cache = cache;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a calibrator that warm-starts each calibration using the specified cache.
+   * <p>
+   * Each calibrated curve group is stored in the cache, keyed by curve group name.
+   * The next calibration of the group starts from the stored result, unless initial guesses are
+   * specified explicitly. See {@link RatesCurveCalibrationCache} for more details.
+   * <p>
+   * The cache may be shared between calibrators and threads, but must not be shared between the scenarios
+   * of a multi-scenario calculation. Each group is keyed by name only, thus calibrations of the same group
+   * in different scenarios would replace each other's results and warm-start from unrelated market data.
+   * Use a separate cache for each scenario instead.
+   *
+   * @param cache  the cache
+   * @return a calibrator using the cache
+   */
+  public RatesCurveCalibrator withCache(RatesCurveCalibrationCache cache) {
+    ArgChecker.notNull(cache, "cache");
+    return new RatesCurveCalibrator(rootFinder, measures, pvMeasures, rowEvaluator, cache);
   }
 
   //-------------------------------------------------------------------------
@@ -216,6 +297,35 @@ public final class RatesCurveCalibrator {
       MarketData marketData,
       ReferenceData refData) {
 
+    return calibrate(curveGroupDefn, marketData, refData, ImmutableMap.of());
+  }
+
+  /**
+   * Calibrates a single curve group, containing one or more curves, specifying the initial guesses.
+   * <p>
+   * The calibration is defined using {@link RatesCurveGroupDefinition}.
+   * Observable market data, time-series and FX are also needed to complete the calibration.
+   * The valuation date is defined by the market data.
+   * <p>
+   * The root finder normally starts from the initial guesses of the curve definitions.
+   * This method allows the calibration to be warm-started instead, typically from the parameters
+   * of a previous calibration of a similar set of market data. An initial guess is only used if
+   * the number of parameters matches the curve definition, otherwise the definition is used.
+   * <p>
+   * The Jacobian matrices are computed and stored in curve metadata.
+   *
+   * @param curveGroupDefn  the curve group definition
+   * @param marketData  the market data required to build a trade for the instrument, including time-series
+   * @param refData  the reference data, used to resolve the trades
+   * @param initialGuesses  the initial guesses of the curve parameters, keyed by curve name, may be empty
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      RatesCurveGroupDefinition curveGroupDefn,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, DoubleArray> initialGuesses) {
+
     Map<Index, LocalDateDoubleTimeSeries> timeSeries = marketData.getTimeSeriesIds().stream()
         .flatMap(filtering(IndexQuoteId.class))
         .collect(toImmutableMap(id -> id.getIndex(), id -> marketData.getTimeSeries(id)));
@@ -223,7 +333,7 @@ public final class RatesCurveCalibrator {
         .fxRateProvider(MarketDataFxRateProvider.of(marketData))
         .timeSeries(timeSeries)
         .build();
-    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData);
+    return calibrate(ImmutableList.of(curveGroupDefn), knownData, marketData, refData, initialGuesses);
   }
 
   /**
@@ -245,6 +355,43 @@ public final class RatesCurveCalibrator {
       ImmutableRatesProvider knownData,
       MarketData marketData,
       ReferenceData refData) {
+
+    return calibrate(allGroupDefns, knownData, marketData, refData, ImmutableMap.of());
+  }
+
+  /**
+   * Calibrates a list of curve groups, each containing one or more curves, specifying the initial guesses.
+   * <p>
+   * The calibration is defined using a list of {@link RatesCurveGroupDefinition}.
+   * Observable market data and existing known data are also needed to complete the calibration.
+   * <p>
+   * A curve must only exist in one group.
+   * <p>
+   * The root finder normally starts from the initial guesses of the curve definitions.
+   * This method allows the calibration to be warm-started instead, typically from the parameters
+   * of a previous calibration of a similar set of market data. An initial guess is only used if
+   * the number of parameters matches the curve definition, otherwise the definition is used.
+   * <p>
+   * The groups are calibrated in the order of the list, each group using the curves of the previous groups.
+   * If the calibrator has an executor, groups whose trades are not sensitive to the curves of one another,
+   * such as the curves of different currencies before a cross-currency group, are calibrated concurrently.
+   * A group depends on the previous groups providing a curve for any currency or index referred to by its trades,
+   * found from the structure of the trades, thus independent of the initial guesses.
+   * The Jacobian matrices are always expressed in the order of the list, as if calibrated in sequence.
+   *
+   * @param allGroupDefns  the curve group definitions
+   * @param knownData  the starting data for the calibration
+   * @param marketData  the market data required to build a trade for the instrument
+   * @param refData  the reference data, used to resolve the trades
+   * @param initialGuesses  the initial guesses of the curve parameters, keyed by curve name, may be empty
+   * @return the rates provider resulting from the calibration
+   */
+  public ImmutableRatesProvider calibrate(
+      List<RatesCurveGroupDefinition> allGroupDefns,
+      ImmutableRatesProvider knownData,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, DoubleArray> initialGuesses) {
     // this method effectively takes one CurveGroupDefinition
     // the list is a split of the definition, not multiple independent definitions
 
@@ -252,47 +399,193 @@ public final class RatesCurveCalibrator {
       throw new IllegalArgumentException(Messages.format(
           "Valuation dates do not match: {} and {}", knownData.getValuationDate(), marketData.getValuationDate()));
     }
-    // perform calibration one group at a time, building up the result by mutating these variables
-    ImmutableRatesProvider providerCombined = knownData;
-    ImmutableList<CurveParameterSize> orderPrev = ImmutableList.of();
-    ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians = ImmutableMap.of();
-    for (RatesCurveGroupDefinition groupDefn : allGroupDefns) {
-      if (groupDefn.getEntries().isEmpty()) {
-        continue;
+    // bind the time-series and combine all data in each group into flat lists
+    ImmutableList<RatesCurveGroupDefinition> groupDefns = allGroupDefns.stream()
+        .filter(groupDefn -> !groupDefn.getEntries().isEmpty())
+        .map(groupDefn -> groupDefn.bindTimeSeries(knownData.getValuationDate(), knownData.getTimeSeries()))
+        .collect(toImmutableList());
+    int groupCount = groupDefns.size();
+    ImmutableList<ImmutableList<ResolvedTrade>> groupTrades = groupDefns.stream()
+        .map(groupDefn -> groupDefn.resolvedTrades(marketData, refData))
+        .collect(toImmutableList());
+    ImmutableList<ImmutableList<CurveParameterSize>> groupOrders = groupDefns.stream()
+        .map(groupDefn -> toOrder(groupDefn))
+        .collect(toImmutableList());
+
+    // each group depends on the previous group, unless the groups can be calibrated concurrently
+    int[][] dependencies = rowEvaluator == CalibrationRowEvaluator.SEQUENTIAL || groupCount < 2 ?
+        previousGroupDependencies(groupCount) :
+        groupDependencies(groupDefns, groupTrades);
+
+    // perform calibration one group at a time, building up the result from the groups each group depends on
+    GroupResult[] results = new GroupResult[groupCount];
+    rowEvaluator.forEachAfter(groupCount, i -> dependencies[i], i -> {
+      List<GroupResult> dependencyResults = new ArrayList<>();
+      for (int dependency : dependencies[i]) {
+        dependencyResults.add(results[dependency]);
       }
-      RatesCurveGroupDefinition groupDefnBound =
-          groupDefn.bindTimeSeries(knownData.getValuationDate(), knownData.getTimeSeries());
-      // combine all data in the group into flat lists
-      ImmutableList<ResolvedTrade> trades = groupDefnBound.resolvedTrades(marketData, refData);
-      ImmutableList<Double> initialGuesses = groupDefnBound.initialGuesses(marketData);
-      ImmutableList<CurveParameterSize> orderGroup = toOrder(groupDefnBound);
-      ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
-          .addAll(orderPrev)
-          .addAll(orderGroup)
-          .build();
+      ImmutableList<CurveParameterSize> orderPrev = groupOrders.subList(0, i).stream()
+          .flatMap(List::stream)
+          .collect(toImmutableList());
+      results[i] = calibrateGroup(
+          groupDefns.get(i),
+          groupTrades.get(i),
+          groupOrders.get(i),
+          orderPrev,
+          GroupResult.combined(knownData, dependencyResults),
+          marketData,
+          refData,
+          initialGuesses);
+    });
+
+    // return the calibrated provider, combining the groups that no other group depends on
+    boolean[] dependedOn = new boolean[groupCount];
+    for (int[] groupDependencies : dependencies) {
+      for (int dependency : groupDependencies) {
+        dependedOn[dependency] = true;
+      }
+    }
+    List<GroupResult> finalResults = new ArrayList<>();
+    for (int i = 0; i < groupCount; i++) {
+      if (!dependedOn[i]) {
+        finalResults.add(results[i]);
+      }
+    }
+    return GroupResult.combined(knownData, finalResults).provider;
+  }
+
+  // calibrates a group, building the Jacobian and sensitivity to market quotes if requested
+  private GroupResult calibrateGroup(
+      RatesCurveGroupDefinition groupDefn,
+      ImmutableList<ResolvedTrade> trades,
+      ImmutableList<CurveParameterSize> orderGroup,
+      ImmutableList<CurveParameterSize> orderPrev,
+      GroupResult previous,
+      MarketData marketData,
+      ReferenceData refData,
+      Map<CurveName, DoubleArray> initialGuesses) {
+
+    Optional<RatesCurveCalibrationCache.Entry> warmStart = cache != null && initialGuesses.isEmpty() ?
+        cache.find(groupDefn.getName(), orderGroup) :
+        Optional.empty();
+    ImmutableList<CurveParameterSize> orderPrevAndGroup = ImmutableList.<CurveParameterSize>builder()
+        .addAll(orderPrev)
+        .addAll(orderGroup)
+        .build();
 
-      // calibrate
-      RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(providerCombined, groupDefnBound, refData);
-      DoubleArray calibratedGroupParams = calibrateGroup(providerGenerator, trades, initialGuesses, orderGroup);
-      ImmutableRatesProvider calibratedProvider = providerGenerator.generate(calibratedGroupParams);
+    // calibrate
+    RatesProviderGenerator providerGenerator = ImmutableRatesProviderGenerator.of(previous.provider, groupDefn, refData);
+    DoubleArray calibratedGroupParams = calibrateGroup(
+        providerGenerator, trades, groupDefn, marketData, initialGuesses, warmStart, orderGroup);
+    ImmutableRatesProvider calibratedProvider = providerGenerator.generate(calibratedGroupParams);
+
+    // use calibration to build Jacobian matrices
+    ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians = previous.jacobians;
+    DoubleMatrix groupDerivatives = null;
+    if (groupDefn.isComputeJacobian()) {
+      int totalParamsAll = orderPrevAndGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
+      DoubleMatrix res = derivatives(trades, calibratedProvider, orderPrevAndGroup, totalParamsAll);
+      jacobians = updateJacobiansForGroup(res, trades, orderGroup, orderPrev, orderPrevAndGroup, jacobians);
+      groupDerivatives = DoubleMatrix.ofUnsafe(CalibrationJacobianSolver.block(
+          res.toArrayUnsafe(), 0, trades.size(), totalParamsAll - calibratedGroupParams.size(), totalParamsAll));
+    }
+    if (cache != null) {
+      cache.put(groupDefn.getName(), orderGroup, calibratedGroupParams, groupDerivatives);
+    }
+    ImmutableMap<CurveName, DoubleArray> sensitivityToMarketQuote = ImmutableMap.of();
+    if (groupDefn.isComputePvSensitivityToMarketQuote()) {
+      ImmutableRatesProvider providerWithJacobian = providerGenerator.generate(calibratedGroupParams, jacobians);
+      sensitivityToMarketQuote = sensitivityToMarketQuoteForGroup(providerWithJacobian, trades, orderGroup);
+    }
+
+    // use Jacobians to build output curves
+    ImmutableRatesProvider providerCombined =
+        providerGenerator.generate(calibratedGroupParams, jacobians, sensitivityToMarketQuote);
+    return new GroupResult(providerCombined, jacobians);
+  }
 
-      // use calibration to build Jacobian matrices
-      if (groupDefnBound.isComputeJacobian()) {
-        jacobians = updateJacobiansForGroup(
-            calibratedProvider, trades, orderGroup, orderPrev, orderPrevAndGroup, jacobians);
+  // each group depends on the previous group, thus the groups are calibrated in sequence
+  private static int[][] previousGroupDependencies(int groupCount) {
+    int[][] dependencies = new int[groupCount][];
+    for (int i = 0; i < groupCount; i++) {
+      dependencies[i] = i == 0 ? new int[0] : new int[] {i - 1};
+    }
+    return dependencies;
+  }
+
+  // finds the previous groups that each group depends on
+  // a group depends on a previous group if that group provides a curve for a currency or index of any of its trades
+  // the currencies and indices are found from the structure of the trades, as a trade may be insensitive to a curve
+  // at the initial guesses, such as a par spread when the forward rates are zero, but sensitive at the solution
+  private static int[][] groupDependencies(
+      ImmutableList<RatesCurveGroupDefinition> groupDefns,
+      ImmutableList<ImmutableList<ResolvedTrade>> groupTrades) {
+
+    int groupCount = groupDefns.size();
+    List<Set<Object>> provided = new ArrayList<>();
+    for (RatesCurveGroupDefinition groupDefn : groupDefns) {
+      Set<Object> keys = new HashSet<>();
+      for (RatesCurveGroupEntry entry : groupDefn.getEntries()) {
+        keys.addAll(entry.getDiscountCurrencies());
+        keys.addAll(entry.getIndices());
       }
-      ImmutableMap<CurveName, DoubleArray> sensitivityToMarketQuote = ImmutableMap.of();
-      if (groupDefnBound.isComputePvSensitivityToMarketQuote()) {
-        ImmutableRatesProvider providerWithJacobian = providerGenerator.generate(calibratedGroupParams, jacobians);
-        sensitivityToMarketQuote = sensitivityToMarketQuoteForGroup(providerWithJacobian, trades, orderGroup);
+      provided.add(keys);
+    }
+    int[][] dependencies = new int[groupCount][];
+    for (int j = 0; j < groupCount; j++) {
+      Set<Object> required = new HashSet<>();
+      for (ResolvedTrade trade : groupTrades.get(j)) {
+        addCurveKeys(trade, required);
       }
-      orderPrev = orderPrevAndGroup;
+      List<Integer> groupDependencies = new ArrayList<>();
+      for (int i = 0; i < j; i++) {
+        if (!Collections.disjoint(provided.get(i), required)) {
+          groupDependencies.add(i);
+        }
+      }
+      dependencies[j] = groupDependencies.stream().mapToInt(Integer::intValue).toArray();
+    }
+    return dependencies;
+  }
 
-      // use Jacobians to build output curves
-      providerCombined = providerGenerator.generate(calibratedGroupParams, jacobians, sensitivityToMarketQuote);
+  // adds the currencies and indices referred to by the object, walking beans and collections
+  // any currency may be used to find a discount curve, thus the keys include more than the curves actually used
+  private static void addCurveKeys(Object object, Set<Object> keys) {
+    if (object instanceof Currency) {
+      keys.add(object);
+    } else if (object instanceof FxIndex) {
+      keys.add(object);
+      addCurveKeys(((FxIndex) object).getCurrencyPair(), keys);
+    } else if (object instanceof Index) {
+      keys.add(object);
+    } else if (object instanceof CurrencyPair) {
+      keys.add(((CurrencyPair) object).getBase());
+      keys.add(((CurrencyPair) object).getCounter());
+    } else if (object instanceof CurrencyAmount) {
+      keys.add(((CurrencyAmount) object).getCurrency());
+    } else if (object instanceof MultiCurrencyAmount) {
+      keys.addAll(((MultiCurrencyAmount) object).getCurrencies());
+    } else if (object instanceof FxRate) {
+      addCurveKeys(((FxRate) object).getPair(), keys);
+    } else if (object instanceof Bean) {
+      Bean bean = (Bean) object;
+      for (MetaProperty<?> metaProperty : bean.metaBean().metaPropertyIterable()) {
+        if (!metaProperty.style().isDerived()) {
+          addCurveKeys(metaProperty.get(bean), keys);
+        }
+      }
+    } else if (object instanceof Iterable) {
+      for (Object element : (Iterable<?>) object) {
+        addCurveKeys(element, keys);
+      }
+    } else if (object instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+        addCurveKeys(entry.getKey(), keys);
+        addCurveKeys(entry.getValue(), keys);
+      }
+    } else if (object instanceof Optional) {
+      ((Optional<?>) object).ifPresent(value -> addCurveKeys(value, keys));
     }
-    // return the calibrated provider
-    return providerCombined;
   }
 
   //-------------------------------------------------------------------------
@@ -301,21 +594,67 @@ public final class RatesCurveCalibrator {
     return groupDefn.getCurveDefinitions().stream().map(def -> def.toCurveParameterSize()).collect(toImmutableList());
   }
 
+  // combines the initial guesses of each curve, using the supplied guess if it is the correct size
+  private static DoubleArray initialGuess(
+      RatesCurveGroupDefinition groupDefn,
+      MarketData marketData,
+      Map<CurveName, DoubleArray> initialGuesses) {
+
+    if (initialGuesses.isEmpty()) {
+      return DoubleArray.copyOf(groupDefn.initialGuesses(marketData));
+    }
+    double[] guess = new double[groupDefn.getTotalParameterCount()];
+    int startIndex = 0;
+    for (CurveDefinition curveDefn : groupDefn.getCurveDefinitions()) {
+      int paramCount = curveDefn.getParameterCount();
+      DoubleArray curveGuess = initialGuesses.get(curveDefn.getName());
+      if (curveGuess != null && curveGuess.size() == paramCount) {
+        curveGuess.copyInto(guess, startIndex);
+      } else {
+        List<Double> defnGuess = curveDefn.initialGuess(marketData);
+        for (int i = 0; i < paramCount; i++) {
+          guess[startIndex + i] = defnGuess.get(i);
+        }
+      }
+      startIndex += paramCount;
+    }
+    return DoubleArray.ofUnsafe(guess);
+  }
+
   //-------------------------------------------------------------------------
-  // calibrates a single group
+  // calibrates a single group, warm-starting from the cache if possible
   private DoubleArray calibrateGroup(
       RatesProviderGenerator providerGenerator,
       ImmutableList<ResolvedTrade> trades,
-      ImmutableList<Double> initialGuesses,
+      RatesCurveGroupDefinition groupDefn,
+      MarketData marketData,
+      Map<CurveName, DoubleArray> initialGuesses,
+      Optional<RatesCurveCalibrationCache.Entry> warmStart,
       ImmutableList<CurveParameterSize> curveOrder) {
 
     // setup for calibration
-    Function<DoubleArray, DoubleArray> valueCalculator = new CalibrationValue(trades, measures, providerGenerator);
+    Function<DoubleArray, DoubleArray> valueCalculator =
+        new CalibrationValue(trades, measures, providerGenerator, rowEvaluator);
     Function<DoubleArray, DoubleMatrix> derivativeCalculator =
-        new CalibrationDerivative(trades, measures, providerGenerator, curveOrder);
+        new CalibrationDerivative(trades, measures, providerGenerator, curveOrder, rowEvaluator);
 
     // calibrate
-    DoubleArray initialGuess = DoubleArray.copyOf(initialGuesses);
+    if (warmStart.isPresent()) {
+      DoubleArray start = warmStart.get().getParameters();
+      Optional<DoubleMatrix> startJacobian = warmStart.get().findJacobian();
+      // the Jacobian at the previous solution replaces the first evaluation of the derivative
+      Function<DoubleArray, DoubleMatrix> warmDerivativeCalculator = startJacobian.isPresent() ?
+          new WarmStartDerivative(derivativeCalculator, start, startJacobian.get()) :
+          derivativeCalculator;
+      try {
+        return rootFinder.findRoot(valueCalculator, warmDerivativeCalculator, start);
+      } catch (RuntimeException ex) {
+        // fall back to the initial guesses of the definition, the warm start may fail in any way
+        log.warn("Warm-started calibration of curve group '{}' failed, calibrating from the initial guesses",
+            groupDefn.getName(), ex);
+      }
+    }
+    DoubleArray initialGuess = initialGuess(groupDefn, marketData, initialGuesses);
     return rootFinder.findRoot(valueCalculator, derivativeCalculator, initialGuess);
   }
 
@@ -323,22 +662,21 @@ public final class RatesCurveCalibrator {
   // calculates the Jacobian and builds the result, called once per group
   // this uses, but does not alter, data from previous groups
   private ImmutableMap<CurveName, JacobianCalibrationMatrix> updateJacobiansForGroup(
-      ImmutableRatesProvider provider,
+      DoubleMatrix res,
       ImmutableList<ResolvedTrade> trades,
       ImmutableList<CurveParameterSize> orderGroup,
       ImmutableList<CurveParameterSize> orderPrev,
       ImmutableList<CurveParameterSize> orderAll,
       ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians) {
 
-    // sensitivity to all parameters in the stated order
-    int totalParamsAll = orderAll.stream().mapToInt(e -> e.getParameterCount()).sum();
-    DoubleMatrix res = derivatives(trades, provider, orderAll, totalParamsAll);
+    // res is the sensitivity to all parameters in the stated order
+    int totalParamsAll = res.columnCount();
 
     // jacobian direct
     int nbTrades = trades.size();
     int totParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
     int totParamsPrev = totalParamsAll - totParamsGroup;
-    DoubleMatrix pDmCurMatrix = jacobianDirect(res, nbTrades, totParamsGroup, totParamsPrev);
+    DoubleMatrix pDmCurMatrix = jacobianDirect(res, nbTrades, totParamsGroup, totParamsPrev, orderGroup);
 
     // jacobian indirect: when totalParamsPrevious > 0
     DoubleMatrix pDmPrev = jacobianIndirect(
@@ -370,22 +708,36 @@ public final class RatesCurveCalibrator {
   }
 
   //-------------------------------------------------------------------------
+  // calculates the sensitivity of the present value of each trade to the market quote of its node
+  // this is a single pass over the trades, using the row evaluator
   private ImmutableMap<CurveName, DoubleArray> sensitivityToMarketQuoteForGroup(
       ImmutableRatesProvider provider,
       ImmutableList<ResolvedTrade> trades,
       ImmutableList<CurveParameterSize> orderGroup) {
 
-    Builder<CurveName, DoubleArray> mqsGroup = new Builder<>();
+    // the node of each trade, in the order of the trades
+    int totalParamsGroup = orderGroup.stream().mapToInt(e -> e.getParameterCount()).sum();
+    CurveName[] nodeCurves = new CurveName[totalParamsGroup];
+    int[] nodeParams = new int[totalParamsGroup];
     int nodeIndex = 0;
     for (CurveParameterSize cps : orderGroup) {
-      int nbParameters = cps.getParameterCount();
-      double[] mqsCurve = new double[nbParameters];
-      for (int looptrade = 0; looptrade < nbParameters; looptrade++) {
-        DoubleArray mqsNode = pvMeasures.derivative(trades.get(nodeIndex), provider, orderGroup);
-        mqsCurve[looptrade] = mqsNode.get(nodeIndex);
+      for (int p = 0; p < cps.getParameterCount(); p++) {
+        nodeCurves[nodeIndex] = cps.getName();
+        nodeParams[nodeIndex] = p;
         nodeIndex++;
       }
-      mqsGroup.put(cps.getName(), DoubleArray.ofUnsafe(mqsCurve));
+    }
+    DoubleArray mqs = rowEvaluator.vector(
+        totalParamsGroup,
+        i -> pvMeasures.derivative(trades.get(i), provider, nodeCurves[i], nodeParams[i]));
+
+    // split by curve
+    Builder<CurveName, DoubleArray> mqsGroup = new Builder<>();
+    int startIndex = 0;
+    for (CurveParameterSize cps : orderGroup) {
+      int nbParameters = cps.getParameterCount();
+      mqsGroup.put(cps.getName(), mqs.subArray(startIndex, startIndex + nbParameters));
+      startIndex += nbParameters;
     }
     return mqsGroup.build();
   }
@@ -397,27 +749,31 @@ public final class RatesCurveCalibrator {
       ImmutableList<CurveParameterSize> orderAll,
       int totalParamsAll) {
 
-    return DoubleMatrix.ofArrayObjects(
+    return rowEvaluator.matrix(
         trades.size(),
         totalParamsAll,
         i -> measures.derivative(trades.get(i), provider, orderAll));
   }
 
   // jacobian direct, for the current group
+  // the sensitivity is typically block lower triangular by curve, which is exploited by the inversion
   private static DoubleMatrix jacobianDirect(
       DoubleMatrix res,
       int nbTrades,
       int totalParamsGroup,
-      int totalParamsPrevious) {
+      int totalParamsPrevious,
+      ImmutableList<CurveParameterSize> orderGroup) {
 
     double[][] direct = new double[totalParamsGroup][totalParamsGroup];
     for (int i = 0; i < nbTrades; i++) {
       System.arraycopy(res.rowArray(i), totalParamsPrevious, direct[i], 0, totalParamsGroup);
     }
-    return MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(direct));
+    int[] blockSizes = orderGroup.stream().mapToInt(e -> e.getParameterCount()).toArray();
+    return CalibrationJacobianSolver.inverse(direct, blockSizes);
   }
 
-  // jacobian indirect, merging groups
+  // jacobian indirect: merged with the information from the previous stage
+  // the contribution of each previous curve is only computed if the trades are sensitive to it
   private static DoubleMatrix jacobianIndirect(
       DoubleMatrix res,
       DoubleMatrix pDmCurrentMatrix,
@@ -430,21 +786,29 @@ public final class RatesCurveCalibrator {
     if (totalParamsPrevious == 0) {
       return DoubleMatrix.EMPTY;
     }
-    double[][] nonDirect = new double[totalParamsGroup][totalParamsPrevious];
+    double[][] nonDirectAll = new double[totalParamsGroup][totalParamsPrevious];
     for (int i = 0; i < nbTrades; i++) {
-      System.arraycopy(res.rowArray(i), 0, nonDirect[i], 0, totalParamsPrevious);
+      System.arraycopy(res.rowArray(i), 0, nonDirectAll[i], 0, totalParamsPrevious);
     }
-    DoubleMatrix pDpPreviousMatrix = (DoubleMatrix) MATRIX_ALGEBRA.scale(
-        MATRIX_ALGEBRA.multiply(pDmCurrentMatrix, DoubleMatrix.copyOf(nonDirect)), -1d);
     // all curves: order and size
     int[] startIndexBefore = new int[orderPrevious.size()];
     for (int i = 1; i < orderPrevious.size(); i++) {
       startIndexBefore[i] = startIndexBefore[i - 1] + orderPrevious.get(i - 1).getParameterCount();
     }
-    // transition Matrix: all curves from previous groups
-    double[][] transition = new double[totalParamsPrevious][totalParamsPrevious];
+    double[][] pDmCurrent = pDmCurrentMatrix.toArrayUnsafe();
+    double[][] pDmPrevious = new double[totalParamsGroup][totalParamsPrevious];
     for (int i = 0; i < orderPrevious.size(); i++) {
       int paramCountOuter = orderPrevious.get(i).getParameterCount();
+      int startOuter = startIndexBefore[i];
+      if (CalibrationJacobianSolver.isZero(
+          nonDirectAll, 0, totalParamsGroup, startOuter, startOuter + paramCountOuter)) {
+        continue;
+      }
+      double[][] nonDirect =
+          CalibrationJacobianSolver.block(nonDirectAll, 0, totalParamsGroup, startOuter, startOuter + paramCountOuter);
+      double[][] pDpPrevious = CalibrationJacobianSolver.multiply(pDmCurrent, nonDirect);
+      // transition: rows of this curve from previous groups, columns of all curves from previous groups
+      double[][] transition = new double[paramCountOuter][totalParamsPrevious];
       JacobianCalibrationMatrix thisInfo = jacobiansPrevious.get(orderPrevious.get(i).getName());
       DoubleMatrix thisMatrix = thisInfo.getJacobianMatrix();
       int startIndexInner = 0;
@@ -455,16 +819,88 @@ public final class RatesCurveCalibrator {
             System.arraycopy(
                 thisMatrix.rowArray(k),
                 startIndexInner,
-                transition[startIndexBefore[i] + k],
+                transition[k],
                 startIndexBefore[j],
                 paramCountInner);
           }
         }
         startIndexInner += paramCountInner;
       }
+      CalibrationJacobianSolver.addProduct(pDmPrevious, pDpPrevious, transition, -1d);
+    }
+    return DoubleMatrix.ofUnsafe(pDmPrevious);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The result of calibrating a group, including the curves and Jacobians of the groups it depends on.
+   */
+  private static final class GroupResult {
+    private final ImmutableRatesProvider provider;
+    private final ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians;
+
+    private GroupResult(ImmutableRatesProvider provider, ImmutableMap<CurveName, JacobianCalibrationMatrix> jacobians) {
+      this.provider = provider;
+      this.jacobians = jacobians;
+    }
+
+    // combines the results with the known data, the curves of the known data being replaced by those calibrated
+    private static GroupResult combined(ImmutableRatesProvider knownData, List<GroupResult> results) {
+      if (results.isEmpty()) {
+        return new GroupResult(knownData, ImmutableMap.of());
+      }
+      if (results.size() == 1) {
+        return results.get(0);
+      }
+      Map<Currency, Curve> discountCurves = new HashMap<>(knownData.getDiscountCurves());
+      Map<Index, Curve> indexCurves = new HashMap<>(knownData.getIndexCurves());
+      Map<CurveName, JacobianCalibrationMatrix> jacobians = new LinkedHashMap<>();
+      for (GroupResult result : results) {
+        result.provider.getDiscountCurves().forEach((ccy, curve) -> {
+          if (!curve.equals(knownData.getDiscountCurves().get(ccy))) {
+            discountCurves.put(ccy, curve);
+          }
+        });
+        result.provider.getIndexCurves().forEach((index, curve) -> {
+          if (!curve.equals(knownData.getIndexCurves().get(index))) {
+            indexCurves.put(index, curve);
+          }
+        });
+        jacobians.putAll(result.jacobians);
+      }
+      ImmutableRatesProvider provider = knownData.toBuilder()
+          .discountCurves(discountCurves)
+          .indexCurves(indexCurves)
+          .build();
+      return new GroupResult(provider, ImmutableMap.copyOf(jacobians));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A derivative function that returns a known Jacobian when evaluated at the start point for the first time.
+   */
+  private static final class WarmStartDerivative implements Function<DoubleArray, DoubleMatrix> {
+    private final Function<DoubleArray, DoubleMatrix> underlying;
+    private final DoubleArray start;
+    private DoubleMatrix startJacobian;
+
+    private WarmStartDerivative(
+        Function<DoubleArray, DoubleMatrix> underlying,
+        DoubleArray start,
+        DoubleMatrix startJacobian) {
+
+      this.underlying = underlying;
+      this.start = start;
+      this.startJacobian = startJacobian;
+    }
+
+    @Override
+    public DoubleMatrix apply(DoubleArray x) {
+      DoubleMatrix known = startJacobian;
+      startJacobian = null;
+      return known != null && x.equals(start) ? known : underlying.apply(x);
     }
-    DoubleMatrix transitionMatrix = DoubleMatrix.copyOf(transition);
-    return (DoubleMatrix) MATRIX_ALGEBRA.multiply(pDpPreviousMatrix, transitionMatrix);
   }
 
   //-------------------------------------------------------------------------
@@ -0,0 +1,469 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.rate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntFunction;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmountArray;
+import com.opengamma.strata.basics.index.IborIndex;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.KnownAmountSwapPaymentPeriod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * The cash flows of a product, compiled to price the product in many sets of market data.
+ * <p>
+ * When pricing many scenarios, the standard pricers walk the payment periods of the product,
+ * and look up the curves and index observations, once per scenario.
+ * This class performs the walk once, capturing the payment dates, amounts, year fractions and
+ * Ibor index observations on a grid. The present value of each scenario is then obtained by evaluating
+ * the discount factors and forward rates of the grid as columns of primitive values.
+ * <p>
+ * Only products whose cash flows are a fixed amount, or a linear function of a single Ibor fixing,
+ * can be compiled. This covers term deposits, FRAs using a single Ibor index and swaps whose payment
+ * periods have no compounding and no FX reset, and whose rates are fixed or Ibor.
+ * Other products return empty when compiled, and should be priced using the standard pricers.
+ * <p>
+ * The present value is the same as that calculated by the standard pricers, such as
+ * {@code DiscountingSwapProductPricer.DEFAULT}, including the order in which amounts are summed.
+ * Pricers that have been configured differently, for example with alternative rate computation functions,
+ * will not produce the same results.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CashFlowGrid {
+
+  /**
+   * The currencies of the legs.
+   */
+  private final Currency[] currencies;
+  /**
+   * The distinct payment dates, indexed by currency.
+   */
+  private final LocalDate[][] paymentDates;
+  /**
+   * The indices that are observed.
+   */
+  private final IborIndex[] indices;
+  /**
+   * The distinct observations, indexed by index.
+   */
+  private final IborIndexObservation[][] observations;
+  /**
+   * The latest payment date that depends on each observation, indexed by index.
+   * An observation is not needed if every payment that depends on it is before the valuation date.
+   */
+  private final LocalDate[][] observationLastPaymentDates;
+  /**
+   * The legs.
+   */
+  private final Leg[] legs;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles the cash flows of a swap.
+   * <p>
+   * This returns empty if the swap contains a payment period or payment event that is not supported.
+   * The supported payment periods are {@link KnownAmountSwapPaymentPeriod} and {@link RatePaymentPeriod}
+   * with a single accrual period, no FX reset and a fixed or Ibor rate.
+   * The supported payment event is {@link NotionalExchange}.
+   *
+   * @param swap  the swap
+   * @return the compiled cash flows, empty if the swap is not supported
+   */
+  public static Optional<CashFlowGrid> find(ResolvedSwap swap) {
+    ArgChecker.notNull(swap, "swap");
+    Builder builder = new Builder();
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      Currency currency = leg.getCurrency();
+      List<Flow> periods = new ArrayList<>();
+      for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+        Flow flow = builder.periodFlow(period, currency);
+        if (flow == null) {
+          return Optional.empty();
+        }
+        periods.add(flow);
+      }
+      List<Flow> events = new ArrayList<>();
+      for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+        if (!(event instanceof NotionalExchange) || !event.getCurrency().equals(currency)) {
+          return Optional.empty();
+        }
+        NotionalExchange exchange = (NotionalExchange) event;
+        events.add(builder.fixedFlow(currency, exchange.getPaymentDate(), exchange.getPaymentAmount().getAmount()));
+      }
+      builder.addLeg(currency, periods, events);
+    }
+    return Optional.of(builder.build());
+  }
+
+  /**
+   * Compiles the cash flow of a FRA.
+   * <p>
+   * This returns empty if the floating rate is not a single Ibor index.
+   *
+   * @param fra  the FRA
+   * @return the compiled cash flows, empty if the FRA is not supported
+   */
+  public static Optional<CashFlowGrid> find(ResolvedFra fra) {
+    ArgChecker.notNull(fra, "fra");
+    if (!(fra.getFloatingRate() instanceof IborRateComputation)) {
+      return Optional.empty();
+    }
+    double notional = fra.getNotional();
+    double fixedRate = fra.getFixedRate();
+    double yearFraction = fra.getYearFraction();
+    DoubleUnaryOperator unitAmount;
+    // unit amount matching the standard FRA pricer
+    switch (fra.getDiscounting()) {
+      case NONE:
+        unitAmount = forward -> (forward - fixedRate) * yearFraction;
+        break;
+      case ISDA:
+        unitAmount = forward -> ((forward - fixedRate) / (1.0 + forward * yearFraction)) * yearFraction;
+        break;
+      case AFMA:
+        unitAmount = forward -> (1.0 / (1.0 + fixedRate * yearFraction)) - (1.0 / (1.0 + forward * yearFraction));
+        break;
+      default:
+        return Optional.empty();
+    }
+    Builder builder = new Builder();
+    IborRateComputation computation = (IborRateComputation) fra.getFloatingRate();
+    Flow flow = builder.floatingFlow(
+        fra.getCurrency(),
+        fra.getPaymentDate(),
+        computation.getObservation(),
+        forwardRate -> notional * unitAmount.applyAsDouble(forwardRate));
+    builder.addLeg(fra.getCurrency(), ImmutableList.of(flow), ImmutableList.of());
+    return Optional.of(builder.build());
+  }
+
+  /**
+   * Compiles the cash flows of a term deposit.
+   * <p>
+   * The initial payment is a flow on the start date and the final payment,
+   * including interest, is a flow on the end date.
+   *
+   * @param deposit  the term deposit
+   * @return the compiled cash flows
+   */
+  public static Optional<CashFlowGrid> find(ResolvedTermDeposit deposit) {
+    ArgChecker.notNull(deposit, "deposit");
+    Currency currency = deposit.getCurrency();
+    Builder builder = new Builder();
+    Flow finalFlow = builder.fixedFlow(currency, deposit.getEndDate(), deposit.getNotional() + deposit.getInterest());
+    Flow initialFlow = builder.fixedFlow(currency, deposit.getStartDate(), -deposit.getNotional());
+    builder.addLeg(currency, ImmutableList.of(finalFlow), ImmutableList.of(initialFlow));
+    return Optional.of(builder.build());
+  }
+
+  // restricted constructor
+  private CashFlowGrid(
+      Currency[] currencies,
+      LocalDate[][] paymentDates,
+      IborIndex[] indices,
+      IborIndexObservation[][] observations,
+      LocalDate[][] observationLastPaymentDates,
+      Leg[] legs) {
+
+    this.currencies = currencies;
+    this.paymentDates = paymentDates;
+    this.indices = indices;
+    this.observations = observations;
+    this.observationLastPaymentDates = observationLastPaymentDates;
+    this.legs = legs;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the currencies of the present value.
+   *
+   * @return the currencies
+   */
+  public ImmutableSet<Currency> getCurrencies() {
+    return ImmutableSet.copyOf(currencies);
+  }
+
+  /**
+   * Calculates the present value in each set of market data.
+   * <p>
+   * The result contains a value for each currency of the product, which may be zero.
+   * Payments before the valuation date of the provider are ignored.
+   *
+   * @param size  the number of sets of market data
+   * @param providerFunction  the function returning the rates provider for each index from zero to {@code size}
+   * @return the present value for each set of market data
+   */
+  public MultiCurrencyAmountArray presentValue(int size, IntFunction<? extends RatesProvider> providerFunction) {
+    ArgChecker.notNegative(size, "size");
+    ArgChecker.notNull(providerFunction, "providerFunction");
+    double[][] values = new double[currencies.length][size];
+    double[][] discountFactors = new double[currencies.length][];
+    double[][] forwardRates = new double[indices.length][];
+    for (int i = 0; i < size; i++) {
+      RatesProvider provider = providerFunction.apply(i);
+      LocalDate valuationDate = provider.getValuationDate();
+      for (int c = 0; c < currencies.length; c++) {
+        discountFactors[c] = discountFactors(provider, c, valuationDate, discountFactors[c]);
+      }
+      for (int x = 0; x < indices.length; x++) {
+        forwardRates[x] = forwardRates(provider, x, valuationDate, forwardRates[x]);
+      }
+      for (Leg leg : legs) {
+        double[] legDiscountFactors = discountFactors[leg.currency];
+        double periods = presentValue(leg.periods, valuationDate, legDiscountFactors, forwardRates);
+        double events = presentValue(leg.events, valuationDate, legDiscountFactors, forwardRates);
+        values[leg.currency][i] += periods + events;
+      }
+    }
+    Map<Currency, DoubleArray> result = new HashMap<>();
+    for (int c = 0; c < currencies.length; c++) {
+      result.put(currencies[c], DoubleArray.ofUnsafe(values[c]));
+    }
+    return MultiCurrencyAmountArray.of(result);
+  }
+
+  // evaluates the discount factors of the payment dates, leaving zero for those before the valuation date
+  private double[] discountFactors(
+      RatesProvider provider,
+      int currencyIndex,
+      LocalDate valuationDate,
+      double[] buffer) {
+
+    LocalDate[] dates = paymentDates[currencyIndex];
+    double[] column = buffer != null ? buffer : new double[dates.length];
+    DiscountFactors discountFactors = null;
+    for (int k = 0; k < dates.length; k++) {
+      if (dates[k].isBefore(valuationDate)) {
+        column[k] = 0d;
+      } else {
+        if (discountFactors == null) {
+          discountFactors = provider.discountFactors(currencies[currencyIndex]);
+        }
+        column[k] = discountFactors.discountFactor(dates[k]);
+      }
+    }
+    return column;
+  }
+
+  // evaluates the rates of the observations, leaving zero for those that are not needed
+  private double[] forwardRates(RatesProvider provider, int indexIndex, LocalDate valuationDate, double[] buffer) {
+    IborIndexObservation[] indexObservations = observations[indexIndex];
+    LocalDate[] lastPaymentDates = observationLastPaymentDates[indexIndex];
+    double[] column = buffer != null ? buffer : new double[indexObservations.length];
+    IborIndexRates rates = null;
+    for (int k = 0; k < indexObservations.length; k++) {
+      if (lastPaymentDates[k].isBefore(valuationDate)) {
+        column[k] = 0d;
+      } else {
+        if (rates == null) {
+          rates = provider.iborIndexRates(indices[indexIndex]);
+        }
+        column[k] = rates.rate(indexObservations[k]);
+      }
+    }
+    return column;
+  }
+
+  // sums the present value of the flows, matching the standard leg pricer
+  private static double presentValue(
+      Flow[] flows,
+      LocalDate valuationDate,
+      double[] discountFactors,
+      double[][] forwardRates) {
+
+    double total = 0d;
+    for (Flow flow : flows) {
+      if (!flow.paymentDate.isBefore(valuationDate)) {
+        double amount = flow.amountFunction == null ?
+            flow.amount :
+            flow.amountFunction.applyAsDouble(forwardRates[flow.indexIndex][flow.observationIndex]);
+        total += amount * discountFactors[flow.dateIndex];
+      }
+    }
+    return total;
+  }
+
+  @Override
+  public String toString() {
+    return "CashFlowGrid[currencies=" + getCurrencies() + ", legs=" + legs.length + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // a leg, holding periods and events separately to match the summation of the standard pricers
+  private static final class Leg {
+    private final int currency;
+    private final Flow[] periods;
+    private final Flow[] events;
+
+    private Leg(int currency, Flow[] periods, Flow[] events) {
+      this.currency = currency;
+      this.periods = periods;
+      this.events = events;
+    }
+  }
+
+  // a single payment, either of a fixed amount or of a function of a forward rate
+  private static final class Flow {
+    private final LocalDate paymentDate;
+    private final int dateIndex;
+    private final double amount;
+    private final int indexIndex;
+    private final int observationIndex;
+    private final DoubleUnaryOperator amountFunction;
+
+    private Flow(
+        LocalDate paymentDate,
+        int dateIndex,
+        double amount,
+        int indexIndex,
+        int observationIndex,
+        DoubleUnaryOperator amountFunction) {
+
+      this.paymentDate = paymentDate;
+      this.dateIndex = dateIndex;
+      this.amount = amount;
+      this.indexIndex = indexIndex;
+      this.observationIndex = observationIndex;
+      this.amountFunction = amountFunction;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // builds the grid, assigning an index to each distinct currency, payment date, index and observation
+  private static final class Builder {
+    private final Map<Currency, Integer> currencyIndices = new LinkedHashMap<>();
+    private final List<Map<LocalDate, Integer>> dates = new ArrayList<>();
+    private final Map<IborIndex, Integer> indexIndices = new LinkedHashMap<>();
+    private final List<Map<IborIndexObservation, Integer>> observations = new ArrayList<>();
+    private final Map<IborIndexObservation, LocalDate> lastPaymentDates = new HashMap<>();
+    private final List<Leg> legs = new ArrayList<>();
+
+    // creates the flow for a payment period, null if not supported
+    private Flow periodFlow(SwapPaymentPeriod period, Currency currency) {
+      if (!period.getCurrency().equals(currency)) {
+        return null;
+      }
+      if (period instanceof KnownAmountSwapPaymentPeriod) {
+        KnownAmountSwapPaymentPeriod knownAmount = (KnownAmountSwapPaymentPeriod) period;
+        return fixedFlow(currency, knownAmount.getPaymentDate(), knownAmount.getPayment().getAmount());
+      }
+      if (!(period instanceof RatePaymentPeriod)) {
+        return null;
+      }
+      RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+      if (ratePeriod.getFxReset().isPresent() || ratePeriod.getAccrualPeriods().size() != 1) {
+        return null;
+      }
+      RateAccrualPeriod accrual = ratePeriod.getAccrualPeriods().get(0);
+      double notional = ratePeriod.getNotional();
+      RateComputation computation = accrual.getRateComputation();
+      if (computation instanceof FixedRateComputation) {
+        double rate = ((FixedRateComputation) computation).getRate();
+        return fixedFlow(currency, ratePeriod.getPaymentDate(), accrualWithNotional(accrual, notional, rate));
+      }
+      if (computation instanceof IborRateComputation) {
+        IborIndexObservation observation = ((IborRateComputation) computation).getObservation();
+        return floatingFlow(
+            currency,
+            ratePeriod.getPaymentDate(),
+            observation,
+            rate -> accrualWithNotional(accrual, notional, rate));
+      }
+      return null;
+    }
+
+    // the accrual of a single accrual period, matching the standard rate payment period pricer
+    private static double accrualWithNotional(RateAccrualPeriod accrual, double notional, double rawRate) {
+      double treatedRate = rawRate * accrual.getGearing() + accrual.getSpread();
+      return accrual.getNegativeRateMethod().adjust(treatedRate * accrual.getYearFraction()) * notional;
+    }
+
+    private Flow fixedFlow(Currency currency, LocalDate paymentDate, double amount) {
+      return new Flow(paymentDate, dateIndex(currency, paymentDate), amount, -1, -1, null);
+    }
+
+    private Flow floatingFlow(
+        Currency currency,
+        LocalDate paymentDate,
+        IborIndexObservation observation,
+        DoubleUnaryOperator amountFunction) {
+
+      int indexIndex = indexIndices.computeIfAbsent(observation.getIndex(), index -> {
+        observations.add(new LinkedHashMap<>());
+        return observations.size() - 1;
+      });
+      Map<IborIndexObservation, Integer> indexObservations = observations.get(indexIndex);
+      int observationIndex = indexObservations.computeIfAbsent(observation, obs -> indexObservations.size());
+      lastPaymentDates.merge(observation, paymentDate, (date1, date2) -> date1.isAfter(date2) ? date1 : date2);
+      return new Flow(
+          paymentDate, dateIndex(currency, paymentDate), 0d, indexIndex, observationIndex, amountFunction);
+    }
+
+    private int currencyIndex(Currency currency) {
+      return currencyIndices.computeIfAbsent(currency, ccy -> {
+        dates.add(new LinkedHashMap<>());
+        return dates.size() - 1;
+      });
+    }
+
+    private int dateIndex(Currency currency, LocalDate paymentDate) {
+      Map<LocalDate, Integer> currencyDates = dates.get(currencyIndex(currency));
+      return currencyDates.computeIfAbsent(paymentDate, date -> currencyDates.size());
+    }
+
+    private void addLeg(Currency currency, List<Flow> periods, List<Flow> events) {
+      legs.add(new Leg(currencyIndex(currency), periods.toArray(new Flow[0]), events.toArray(new Flow[0])));
+    }
+
+    private CashFlowGrid build() {
+      Currency[] currencies = currencyIndices.keySet().toArray(new Currency[0]);
+      LocalDate[][] paymentDates = dates.stream()
+          .map(map -> map.keySet().toArray(new LocalDate[0]))
+          .toArray(LocalDate[][]::new);
+      IborIndex[] indices = indexIndices.keySet().toArray(new IborIndex[0]);
+      IborIndexObservation[][] indexObservations = observations.stream()
+          .map(map -> map.keySet().toArray(new IborIndexObservation[0]))
+          .toArray(IborIndexObservation[][]::new);
+      LocalDate[][] observationLastPaymentDates = new LocalDate[indices.length][];
+      for (int x = 0; x < indices.length; x++) {
+        observationLastPaymentDates[x] = new LocalDate[indexObservations[x].length];
+        for (int k = 0; k < indexObservations[x].length; k++) {
+          observationLastPaymentDates[x][k] = lastPaymentDates.get(indexObservations[x][k]);
+        }
+      }
+      return new CashFlowGrid(
+          currencies, paymentDates, indices, indexObservations, observationLastPaymentDates, legs.toArray(new Leg[0]));
+    }
+  }
+
+}
@@ -22,6 +22,7 @@ import java.util.Set;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.Currency;
@@ -30,17 +31,19 @@ import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.date.Tenor;
 import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.market.ValueType;
-import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveGroupName;
 import com.opengamma.strata.market.curve.CurveMetadata;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.curve.DefaultCurveMetadata;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
+import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
 import com.opengamma.strata.market.curve.interpolator.CurveInterpolator;
@@ -51,6 +54,7 @@ import com.opengamma.strata.market.curve.node.IborFixingDepositCurveNode;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.ResolvedTrade;
@@ -209,6 +213,23 @@ public class CalibrationDiscountingSimple1Test {
     }
   }
 
+  public void calibration_warmStart() {
+    ImmutableRatesProvider expected = CALIBRATOR.calibrate(CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA);
+    Curve expectedCurve = expected.findData(ALL_CURVE_NAME).get();
+    DoubleArray expectedParams = DoubleArray.of(expectedCurve.getParameterCount(), expectedCurve::getParameter);
+    // starting from the solution
+    ImmutableRatesProvider test = CALIBRATOR.calibrate(
+        CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA, ImmutableMap.of(ALL_CURVE_NAME, expectedParams));
+    Curve testCurve = test.findData(ALL_CURVE_NAME).get();
+    for (int i = 0; i < expectedCurve.getParameterCount(); i++) {
+      assertEquals(testCurve.getParameter(i), expectedCurve.getParameter(i), 1e-10);
+    }
+    // guess of the wrong size is ignored
+    ImmutableRatesProvider test2 = CALIBRATOR.calibrate(
+        CURVE_GROUP_DEFN, ALL_QUOTES, REF_DATA, ImmutableMap.of(ALL_CURVE_NAME, DoubleArray.of(0.01)));
+    assertEquals(test2.findData(ALL_CURVE_NAME).get(), expectedCurve);
+  }
+
   //-------------------------------------------------------------------------
   @Test(enabled = false)
   void performance() {
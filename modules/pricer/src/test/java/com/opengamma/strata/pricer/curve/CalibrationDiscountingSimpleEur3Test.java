@@ -13,23 +13,30 @@ import java.time.LocalDate;
 import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.market.curve.CurveDefinition;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
 import com.opengamma.strata.market.curve.CurveNode;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
@@ -165,6 +172,69 @@ public class CalibrationDiscountingSimpleEur3Test {
     }
   }
 
+  //-------------------------------------------------------------------------
+  public void calibration_independent_groups_executor() {
+    assertGroupsExecutor(FWD3_IRS_QUOTES, ImmutableMap.of());
+  }
+
+  // the par spread of a swap with a zero fixed rate is not sensitive to the discounting curve when
+  // the forward rates are zero, as they are at the initial guess, but is sensitive at the solution
+  // the group of the forward curve thus depends on the discounting group, even though not sensitive at the guess
+  public void calibration_independent_groups_executor_zeroSensitivityAtGuess() {
+    double[] fwd3IrsQuotes = new double[FWD3_IRS_QUOTES.length];
+    int fwd3Count = 1 + FWD3_FRA_QUOTES.length + FWD3_IRS_QUOTES.length;
+    ImmutableMap<CurveName, DoubleArray> zeroGuess =
+        ImmutableMap.of(CalibrationEurStandard.FWD3_CURVE_NAME, DoubleArray.filled(fwd3Count));
+    assertGroupsExecutor(fwd3IrsQuotes, zeroGuess);
+  }
+
+  // checks calibrating the groups with an executor gives the same curves as calibrating in sequence
+  private static void assertGroupsExecutor(double[] fwd3IrsQuotes, Map<CurveName, DoubleArray> initialGuesses) {
+    String[] dscIdValues = CalibrationEurStandard.dscIdValues(DSC_OIS_TENORS);
+    double[] fwd3MarketQuotes = CalibrationEurStandard.fwdMarketQuotes(FWD3_FIXING_QUOTE, FWD3_FRA_QUOTES, fwd3IrsQuotes);
+    String[] fwd3IdValue =
+        CalibrationEurStandard.fwdIdValue(3, FWD3_FIXING_QUOTE, FWD3_FRA_QUOTES, fwd3IrsQuotes, FWD3_FRA_TENORS,
+            FWD3_IRS_TENORS);
+    double[] fwd6MarketQuotes = CalibrationEurStandard.fwdMarketQuotes(FWD6_FIXING_QUOTE, FWD6_FRA_QUOTES, FWD6_IRS_QUOTES);
+    String[] fwd6IdValue =
+        CalibrationEurStandard.fwdIdValue(6, FWD6_FIXING_QUOTE, FWD6_FRA_QUOTES, FWD6_IRS_QUOTES, FWD6_FRA_TENORS,
+            FWD6_IRS_TENORS);
+    MarketData allQuotes =
+        CalibrationEurStandard.allQuotes(
+            VAL_DATE, DSC_MARKET_QUOTES, dscIdValues, fwd3MarketQuotes, fwd3IdValue, fwd6MarketQuotes, fwd6IdValue);
+    RatesCurveGroupDefinition config = CalibrationEurStandard.config(DSC_OIS_TENORS, dscIdValues,
+        FWD3_FRA_TENORS, FWD3_IRS_TENORS, fwd3IdValue, FWD6_FRA_TENORS, FWD6_IRS_TENORS, fwd6IdValue);
+    // the forward curves both depend on the discounting curve, but not on one another
+    ImmutableList<RatesCurveGroupDefinition> groups = ImmutableList.of(
+        singleCurveGroup(config, CalibrationEurStandard.DSCON_CURVE_NAME),
+        singleCurveGroup(config, CalibrationEurStandard.FWD3_CURVE_NAME),
+        singleCurveGroup(config, CalibrationEurStandard.FWD6_CURVE_NAME));
+    ImmutableRatesProvider knownData = ImmutableRatesProvider.builder(VAL_DATE).build();
+
+    ImmutableRatesProvider expected =
+        RatesCurveCalibrator.of(1e-9, 1e-9, 100).calibrate(groups, knownData, allQuotes, REF_DATA, initialGuesses);
+    ForkJoinPool executor = new ForkJoinPool(4);
+    try {
+      RatesCurveCalibrator calibrator = RatesCurveCalibrator.of(
+          NewtonVectorRootFinder.broyden(1e-9, 1e-9, 100),
+          CalibrationMeasures.PAR_SPREAD,
+          CalibrationMeasures.PRESENT_VALUE,
+          executor);
+      ImmutableRatesProvider test = calibrator.calibrate(groups, knownData, allQuotes, REF_DATA, initialGuesses);
+      assertEquals(test.getDiscountCurves(), expected.getDiscountCurves());
+      assertEquals(test.getIndexCurves(), expected.getIndexCurves());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static RatesCurveGroupDefinition singleCurveGroup(RatesCurveGroupDefinition config, CurveName curveName) {
+    return RatesCurveGroupDefinition.of(
+        CurveGroupName.of(curveName.getName()),
+        ImmutableList.of(config.findEntry(curveName).get()),
+        ImmutableList.of(config.findCurveDefinition(curveName).get()));
+  }
+
   //-------------------------------------------------------------------------
   public void calibration_transition_coherence_par_rate() {
     RatesProvider provider =
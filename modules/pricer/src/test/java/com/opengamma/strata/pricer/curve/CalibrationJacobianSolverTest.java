@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.matrix.CommonsMatrixAlgebra;
+import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
+
+/**
+ * Test {@link CalibrationJacobianSolver}.
+ */
+@Test
+public class CalibrationJacobianSolverTest {
+
+  private static final MatrixAlgebra MATRIX_ALGEBRA = new CommonsMatrixAlgebra();
+  private static final double TOLERANCE = 1e-12;
+
+  // lower triangular diagonal blocks, with a zero block below the diagonal
+  private static final double[][] BLOCK_TRIANGULAR = {
+      {2d, 0d, 0d, 0d, 0d},
+      {0.5d, 1.5d, 0d, 0d, 0d},
+      {0.1d, 0.2d, 3d, 0d, 0d},
+      {0d, 0d, 0.4d, 1d, 0d},
+      {0.3d, 0.7d, 0d, 0.6d, 2.5d}};
+  // full diagonal blocks
+  private static final double[][] BLOCK_FULL = {
+      {2d, 0.3d, 0d, 0d},
+      {0.5d, 1.5d, 0d, 0d},
+      {0.1d, 0.2d, 3d, 0.8d},
+      {0.4d, 0d, 0.4d, 1d}};
+  // not block lower triangular
+  private static final double[][] DENSE = {
+      {2d, 0d, 0.2d},
+      {0.5d, 1.5d, 0d},
+      {0.1d, 0.2d, 3d}};
+
+  //-------------------------------------------------------------------------
+  public void test_inverse_blockTriangular() {
+    assertInverse(BLOCK_TRIANGULAR, new int[] {2, 1, 2});
+    assertInverse(BLOCK_TRIANGULAR, new int[] {5});
+    assertInverse(BLOCK_TRIANGULAR, new int[] {1, 1, 1, 1, 1});
+  }
+
+  public void test_inverse_blockFull() {
+    assertInverse(BLOCK_FULL, new int[] {2, 2});
+  }
+
+  public void test_inverse_dense() {
+    assertInverse(DENSE, new int[] {1, 2});
+    assertInverse(DENSE, new int[] {3});
+  }
+
+  public void test_inverse_notAltered() {
+    double[][] matrix = DoubleMatrix.copyOf(BLOCK_TRIANGULAR).toArray();
+    CalibrationJacobianSolver.inverse(matrix, new int[] {2, 1, 2});
+    assertThat(matrix).isEqualTo(BLOCK_TRIANGULAR);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_multiply() {
+    double[][] left = {{1d, 0d}, {2d, 3d}};
+    double[][] right = {{1d, 2d, 3d}, {4d, 5d, 6d}};
+    assertThat(CalibrationJacobianSolver.multiply(left, right)).isEqualTo(new double[][] {{1d, 2d, 3d}, {14d, 19d, 24d}});
+    double[][] result = {{1d, 1d, 1d}, {1d, 1d, 1d}};
+    CalibrationJacobianSolver.addProduct(result, left, right, -1d);
+    assertThat(result).isEqualTo(new double[][] {{0d, -1d, -2d}, {-13d, -18d, -23d}});
+  }
+
+  public void test_isZero_block() {
+    assertThat(CalibrationJacobianSolver.isZero(BLOCK_TRIANGULAR, 0, 2, 2, 5)).isTrue();
+    assertThat(CalibrationJacobianSolver.isZero(BLOCK_TRIANGULAR, 0, 3, 2, 5)).isFalse();
+    assertThat(CalibrationJacobianSolver.block(BLOCK_TRIANGULAR, 3, 5, 2, 4))
+        .isEqualTo(new double[][] {{0.4d, 1d}, {0d, 0.6d}});
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertInverse(double[][] matrix, int[] blockSizes) {
+    DoubleMatrix expected = MATRIX_ALGEBRA.getInverse(DoubleMatrix.copyOf(matrix));
+    DoubleMatrix test = CalibrationJacobianSolver.inverse(matrix, blockSizes);
+    assertThat(test.rowCount()).isEqualTo(expected.rowCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      for (int j = 0; j < expected.columnCount(); j++) {
+        assertThat(test.get(i, j)).isCloseTo(expected.get(i, j), offset(TOLERANCE));
+      }
+    }
+  }
+
+}
@@ -6,13 +6,21 @@
 package com.opengamma.strata.pricer.curve;
 
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.EUR_FIXED_1Y_EURIBOR_6M;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.pricer.datasets.ImmutableRatesProviderSimpleData;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.SwapDummyData;
+import com.opengamma.strata.product.common.BuySell;
 import com.opengamma.strata.product.deposit.ResolvedIborFixingDepositTrade;
 import com.opengamma.strata.product.deposit.ResolvedTermDepositTrade;
 import com.opengamma.strata.product.fra.ResolvedFraTrade;
@@ -26,6 +34,8 @@ import com.opengamma.strata.product.swap.ResolvedSwapTrade;
 @Test
 public class CalibrationMeasuresTest {
 
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+
   //-------------------------------------------------------------------------
   public void test_PAR_SPREAD() {
     assertThat(CalibrationMeasures.PAR_SPREAD.getName()).isEqualTo("ParSpread");
@@ -75,6 +85,29 @@ public class CalibrationMeasuresTest {
         "Test", ImmutableList.of(TradeCalibrationMeasure.FRA_PAR_SPREAD, TradeCalibrationMeasure.FRA_PAR_SPREAD)));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_derivative_parameter() {
+    RatesProvider provider = ImmutableRatesProviderSimpleData.IMM_PROV_EUR_FIX;
+    ResolvedSwapTrade trade = EUR_FIXED_1Y_EURIBOR_6M
+        .createTrade(provider.getValuationDate(), Tenor.TENOR_1Y, BuySell.BUY, 1_000_000d, 0.015, REF_DATA)
+        .resolve(REF_DATA);
+    ImmutableList<CurveParameterSize> curveOrder = ImmutableList.of(
+        CurveParameterSize.of(CurveName.of("EUR-Discount"), 7),
+        CurveParameterSize.of(CurveName.of("EUR-EURIBOR6M"), 4),
+        CurveParameterSize.of(CurveName.of("Other"), 2));
+    for (CalibrationMeasures test : ImmutableList.of(CalibrationMeasures.PAR_SPREAD, CalibrationMeasures.MARKET_QUOTE)) {
+      DoubleArray expected = test.derivative(trade, provider, curveOrder);
+      assertThat(expected.subArray(0, 11).stream().anyMatch(value -> value != 0d)).isTrue();
+      int index = 0;
+      for (CurveParameterSize curveParams : curveOrder) {
+        for (int i = 0; i < curveParams.getParameterCount(); i++) {
+          assertThat(test.derivative(trade, provider, curveParams.getName(), i))
+              .isEqualTo(expected.get(index++));
+        }
+      }
+    }
+  }
+
   public void test_measureNotKnown() {
     CalibrationMeasures test = CalibrationMeasures.of("Test", TradeCalibrationMeasure.FRA_PAR_SPREAD);
     assertThrowsIllegalArg(
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+
+/**
+ * Test {@link CalibrationRowEvaluator}.
+ */
+@Test
+public class CalibrationRowEvaluatorTest {
+
+  // task 0, then tasks 1 and 2 concurrently, then task 3
+  private static final int[][] DIAMOND = {{}, {0}, {0}, {1, 2}};
+
+  //-------------------------------------------------------------------------
+  public void test_vector_matrix() {
+    ForkJoinPool executor = new ForkJoinPool(3);
+    try {
+      for (CalibrationRowEvaluator test : new CalibrationRowEvaluator[] {
+          CalibrationRowEvaluator.SEQUENTIAL, CalibrationRowEvaluator.of(executor)}) {
+        assertThat(test.vector(20, i -> i * 2d)).isEqualTo(DoubleArray.of(20, i -> i * 2d));
+        assertThat(test.matrix(20, 2, i -> DoubleArray.of(i, -i)))
+            .isEqualTo(DoubleMatrix.of(20, 2, (i, j) -> j == 0 ? i : -i));
+        assertThrows(() -> test.vector(20, i -> {
+          throw new IllegalStateException();
+        }), IllegalStateException.class);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_forEachAfter_sequential() {
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    CalibrationRowEvaluator.SEQUENTIAL.forEachAfter(4, i -> DIAMOND[i], order::add);
+    assertThat(order).containsExactly(0, 1, 2, 3);
+  }
+
+  public void test_forEachAfter_concurrent() {
+    ForkJoinPool executor = new ForkJoinPool(2);
+    try {
+      // tasks 1 and 2 each wait for the other to start, thus must run concurrently
+      CountDownLatch started = new CountDownLatch(2);
+      List<Integer> order = new CopyOnWriteArrayList<>();
+      CalibrationRowEvaluator.of(executor).forEachAfter(4, i -> DIAMOND[i], i -> {
+        if (i == 1 || i == 2) {
+          started.countDown();
+          try {
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+          } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+          }
+        }
+        order.add(i);
+      });
+      assertThat(order).hasSize(4);
+      assertThat(order.get(0)).isEqualTo(0);
+      assertThat(order.get(3)).isEqualTo(3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void test_forEachAfter_directExecutor() {
+    List<Integer> order = new CopyOnWriteArrayList<>();
+    CalibrationRowEvaluator.of(MoreExecutors.directExecutor()).forEachAfter(4, i -> DIAMOND[i], order::add);
+    assertThat(order).containsExactlyInAnyOrder(0, 1, 2, 3);
+    assertThat(order.get(0)).isEqualTo(0);
+    assertThat(order.get(3)).isEqualTo(3);
+  }
+
+  public void test_forEachAfter_failure() {
+    ForkJoinPool executor = new ForkJoinPool(2);
+    try {
+      List<Integer> order = new CopyOnWriteArrayList<>();
+      assertThrows(
+          () -> CalibrationRowEvaluator.of(executor).forEachAfter(4, i -> DIAMOND[i], i -> {
+            if (i == 1) {
+              throw new IllegalStateException();
+            }
+            order.add(i);
+          }),
+          IllegalStateException.class);
+      assertThat(order).doesNotContain(3);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void test_forEachAfter_invalidDependency() {
+    assertThrowsIllegalArg(() -> CalibrationRowEvaluator.SEQUENTIAL.forEachAfter(2, i -> new int[] {1}, i -> {}));
+  }
+
+}
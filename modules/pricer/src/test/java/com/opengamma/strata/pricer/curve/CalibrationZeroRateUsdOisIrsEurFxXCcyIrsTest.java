@@ -11,6 +11,7 @@ import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
 import static com.opengamma.strata.basics.index.IborIndices.EUR_EURIBOR_3M;
 import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
 import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import static com.opengamma.strata.product.deposit.type.TermDepositConventions.USD_SHORT_DEPOSIT_T0;
 import static com.opengamma.strata.product.deposit.type.TermDepositConventions.USD_SHORT_DEPOSIT_T1;
 import static com.opengamma.strata.product.fx.type.FxSwapConventions.EUR_USD;
@@ -26,11 +27,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
@@ -38,6 +41,8 @@ import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.date.DayCount;
 import com.opengamma.strata.basics.date.Tenor;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.data.FxRateId;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.ImmutableMarketDataBuilder;
@@ -45,9 +50,11 @@ import com.opengamma.strata.data.MarketDataFxRateProvider;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.RatesCurveGroupDefinition;
+import com.opengamma.strata.market.curve.CurveDefinition;
 import com.opengamma.strata.market.curve.CurveGroupName;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.CurveNode;
+import com.opengamma.strata.market.curve.CurveParameterSize;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurveDefinition;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolator;
 import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
@@ -63,6 +70,7 @@ import com.opengamma.strata.market.curve.node.XCcyIborIborSwapCurveNode;
 import com.opengamma.strata.market.observable.QuoteId;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.math.rootfind.NewtonVectorRootFinder;
 import com.opengamma.strata.pricer.deposit.DiscountingIborFixingDepositProductPricer;
 import com.opengamma.strata.pricer.deposit.DiscountingTermDepositProductPricer;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
@@ -383,6 +391,56 @@ public class CalibrationZeroRateUsdOisIrsEurFxXCcyIrsTest {
     assertPresentValue(result);
   }
 
+  public void calibration_present_value_executor() {
+    ForkJoinPool executor = new ForkJoinPool(4);
+    try {
+      RatesCurveCalibrator calibrator = RatesCurveCalibrator.of(
+          NewtonVectorRootFinder.broyden(1e-9, 1e-9, 100),
+          CalibrationMeasures.PAR_SPREAD,
+          CalibrationMeasures.PRESENT_VALUE,
+          executor);
+      ImmutableRatesProvider result = (ImmutableRatesProvider) calibrator.calibrate(
+          ImmutableList.of(GROUP_1, GROUP_2, GROUP_3), KNOWN_DATA, ALL_QUOTES, REF_DATA);
+      assertPresentValue(result);
+      ImmutableRatesProvider expected = (ImmutableRatesProvider) CALIBRATOR.calibrate(
+          ImmutableList.of(GROUP_1, GROUP_2, GROUP_3), KNOWN_DATA, ALL_QUOTES, REF_DATA);
+      assertEquals(result.getDiscountCurves(), expected.getDiscountCurves());
+      assertEquals(result.getIndexCurves(), expected.getIndexCurves());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void calibration_present_value_cache() {
+    RatesCurveCalibrationCache cache = RatesCurveCalibrationCache.create();
+    RatesCurveCalibrator calibrator = CALIBRATOR.withCache(cache);
+    ImmutableList<RatesCurveGroupDefinition> groups = ImmutableList.of(GROUP_1, GROUP_2, GROUP_3);
+    RatesProvider result1 = calibrator.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA);
+    assertPresentValue(result1);
+    assertEquals(cache.getCurveGroupNames(), ImmutableSet.of(GROUP_1.getName(), GROUP_2.getName(), GROUP_3.getName()));
+    DoubleArray params1 = cache.findParameters(GROUP_1.getName()).get();
+    // warm-started from the cache
+    RatesProvider result2 = calibrator.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA);
+    assertPresentValue(result2);
+    assertEquals(cache.findParameters(GROUP_1.getName()).get().equalWithTolerance(params1, 1e-10), true);
+    cache.clear();
+    assertEquals(cache.getCurveGroupNames().isEmpty(), true);
+  }
+
+  public void calibration_present_value_cache_invalid() {
+    RatesCurveCalibrationCache cache = RatesCurveCalibrationCache.create();
+    RatesCurveCalibrator calibrator = CALIBRATOR.withCache(cache);
+    ImmutableList<RatesCurveGroupDefinition> groups = ImmutableList.of(GROUP_1, GROUP_2, GROUP_3);
+    ImmutableList<CurveParameterSize> order = GROUP_1.getCurveDefinitions().stream()
+        .map(CurveDefinition::toCurveParameterSize)
+        .collect(toImmutableList());
+    int paramCount = order.stream().mapToInt(CurveParameterSize::getParameterCount).sum();
+    // the Jacobian does not match the parameters, thus the warm start fails
+    cache.put(GROUP_1.getName(), order, DoubleArray.filled(paramCount, 0.01), DoubleMatrix.identity(1));
+    RatesProvider result = calibrator.calibrate(groups, KNOWN_DATA, ALL_QUOTES, REF_DATA);
+    assertPresentValue(result);
+  }
+
   private void assertPresentValue(RatesProvider result) {
     // Test PV USD;
     List<ResolvedTrade> usdTrades = new ArrayList<>();
@@ -469,6 +527,14 @@ public class CalibrationZeroRateUsdOisIrsEurFxXCcyIrsTest {
     calibration_market_quote_sensitivity_check(f, shift);
   }
 
+  public void calibration_market_quote_sensitivity_one_group_cache() {
+    double shift = 1.0E-6;
+    RatesCurveCalibrator calibrator = CALIBRATOR.withCache(RatesCurveCalibrationCache.create());
+    Function<ImmutableMarketData, RatesProvider> f =
+        marketData -> calibrator.calibrate(CURVE_GROUP_CONFIG, marketData, REF_DATA);
+    calibration_market_quote_sensitivity_check(f, shift);
+  }
+
   private void calibration_market_quote_sensitivity_check(
       Function<ImmutableMarketData, RatesProvider> calibrator,
       double shift) {
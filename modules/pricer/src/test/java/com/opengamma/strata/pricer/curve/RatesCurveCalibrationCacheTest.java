@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.curve;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.curve.CurveGroupName;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
+
+/**
+ * Test {@link RatesCurveCalibrationCache}.
+ */
+@Test
+public class RatesCurveCalibrationCacheTest {
+
+  private static final CurveGroupName GROUP = CurveGroupName.of("Group");
+  private static final CurveGroupName GROUP2 = CurveGroupName.of("Group2");
+  private static final ImmutableList<CurveParameterSize> ORDER =
+      ImmutableList.of(CurveParameterSize.of(CurveName.of("A"), 2), CurveParameterSize.of(CurveName.of("B"), 1));
+  private static final DoubleArray PARAMS = DoubleArray.of(0.01, 0.02, 0.03);
+  private static final DoubleMatrix JACOBIAN = DoubleMatrix.identity(3);
+
+  //-------------------------------------------------------------------------
+  public void test_putFind() {
+    RatesCurveCalibrationCache test = RatesCurveCalibrationCache.create();
+    assertThat(test.getCurveGroupNames()).isEmpty();
+    assertThat(test.findParameters(GROUP)).isEmpty();
+    assertThat(test.find(GROUP, ORDER)).isEmpty();
+
+    test.put(GROUP, ORDER, PARAMS, JACOBIAN);
+    test.put(GROUP2, ORDER, PARAMS, null);
+    assertThat(test.getCurveGroupNames()).containsOnly(GROUP, GROUP2);
+    assertThat(test.findParameters(GROUP)).hasValue(PARAMS);
+    assertThat(test.find(GROUP, ORDER).get().getParameters()).isEqualTo(PARAMS);
+    assertThat(test.find(GROUP, ORDER).get().findJacobian()).hasValue(JACOBIAN);
+    assertThat(test.find(GROUP2, ORDER).get().findJacobian()).isEmpty();
+    assertThat(test.toString()).contains("Group");
+  }
+
+  public void test_find_orderMismatch() {
+    RatesCurveCalibrationCache test = RatesCurveCalibrationCache.create();
+    test.put(GROUP, ORDER, PARAMS, JACOBIAN);
+    ImmutableList<CurveParameterSize> order =
+        ImmutableList.of(CurveParameterSize.of(CurveName.of("A"), 3), CurveParameterSize.of(CurveName.of("B"), 1));
+    assertThat(test.find(GROUP, order)).isEmpty();
+    assertThat(test.find(GROUP, ORDER.subList(0, 1))).isEmpty();
+  }
+
+  public void test_remove_clear() {
+    RatesCurveCalibrationCache test = RatesCurveCalibrationCache.create();
+    test.put(GROUP, ORDER, PARAMS, JACOBIAN);
+    test.put(GROUP2, ORDER, PARAMS, JACOBIAN);
+    test.remove(GROUP);
+    assertThat(test.getCurveGroupNames()).containsOnly(GROUP2);
+    test.clear();
+    assertThat(test.getCurveGroupNames()).isEmpty();
+  }
+
+}
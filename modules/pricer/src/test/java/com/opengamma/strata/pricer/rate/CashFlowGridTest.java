@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.rate;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmountArray;
+import com.opengamma.strata.basics.date.BusinessDayAdjustment;
+import com.opengamma.strata.collect.MapStream;
+import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
+import com.opengamma.strata.pricer.deposit.DiscountingTermDepositProductPricer;
+import com.opengamma.strata.pricer.fra.DiscountingFraProductPricer;
+import com.opengamma.strata.pricer.fra.FraDummyData;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.pricer.swap.SwapDummyData;
+import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.deposit.ResolvedTermDeposit;
+import com.opengamma.strata.product.deposit.TermDeposit;
+import com.opengamma.strata.product.fra.ResolvedFra;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+
+/**
+ * Test {@link CashFlowGrid}.
+ */
+@Test
+public class CashFlowGridTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final double TOLERANCE = 1e-8;
+  private static final List<ImmutableRatesProvider> PROVIDERS = ImmutableList.of(
+      RatesProviderDataSets.multiGbpUsd(date(2014, 1, 22)),
+      shifted(RatesProviderDataSets.multiGbpUsd(date(2014, 1, 22)), 0.001),
+      shifted(RatesProviderDataSets.multiGbpUsd(date(2014, 1, 22)), -0.002),
+      RatesProviderDataSets.multiGbpUsd(date(2014, 3, 3)),
+      RatesProviderDataSets.multiGbpUsd(date(2014, 6, 2)));
+  private static final ResolvedTermDeposit DEPOSIT = TermDeposit.builder()
+      .buySell(BuySell.BUY)
+      .startDate(date(2014, 1, 24))
+      .endDate(date(2014, 7, 24))
+      .businessDayAdjustment(BusinessDayAdjustment.NONE)
+      .dayCount(ACT_365F)
+      .notional(1_000_000d)
+      .currency(GBP)
+      .rate(0.0075)
+      .build()
+      .resolve(REF_DATA);
+
+  //-------------------------------------------------------------------------
+  public void test_swap() {
+    assertSwap(SwapDummyData.SWAP);
+  }
+
+  public void test_swapCrossCurrency() {
+    assertSwap(SwapDummyData.SWAP_CROSS_CURRENCY);
+    assertThat(CashFlowGrid.find(SwapDummyData.SWAP_CROSS_CURRENCY).get().getCurrencies()).containsOnly(GBP, USD);
+  }
+
+  public void test_swapKnownAmount() {
+    assertSwap(ResolvedSwap.of(SwapDummyData.KNOWN_AMOUNT_SWAP_LEG, SwapDummyData.FIXED_SWAP_LEG_PAY));
+  }
+
+  public void test_swapNotSupported() {
+    assertThat(CashFlowGrid.find(SwapDummyData.SWAP_INFLATION)).isEmpty();
+    assertThat(CashFlowGrid.find(SwapDummyData.OIS)).isEmpty();
+    assertThat(CashFlowGrid.find(ResolvedSwap.of(SwapDummyData.FIXED_CMP_FLAT_SWAP_LEG_PAY_GBP))).isEmpty();
+    assertThat(CashFlowGrid.find(ResolvedSwap.of(SwapDummyData.FIXED_FX_RESET_SWAP_LEG_PAY_GBP))).isEmpty();
+  }
+
+  public void test_fra() {
+    assertFra(FraDummyData.FRA.resolve(REF_DATA));
+    assertFra(FraDummyData.FRA_AFMA.resolve(REF_DATA));
+    assertFra(FraDummyData.FRA_NONE.resolve(REF_DATA));
+    assertFra(FraDummyData.FRA_PAID.resolve(REF_DATA));
+  }
+
+  public void test_termDeposit() {
+    CashFlowGrid test = CashFlowGrid.find(DEPOSIT).get();
+    assertThat(test.getCurrencies()).containsOnly(GBP);
+    assertMatches(test, provider -> MultiCurrencyAmount.of(
+        DiscountingTermDepositProductPricer.DEFAULT.presentValue(DEPOSIT, provider)));
+  }
+
+  public void test_termDeposit_matured() {
+    ImmutableRatesProvider provider = RatesProviderDataSets.multiGbpUsd(date(2014, 8, 1));
+    MultiCurrencyAmountArray test = CashFlowGrid.find(DEPOSIT).get().presentValue(1, i -> provider);
+    assertThat(test.getValues(GBP).get(0)).isEqualTo(0d);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertSwap(ResolvedSwap swap) {
+    CashFlowGrid test = CashFlowGrid.find(swap).get();
+    assertMatches(test, provider -> DiscountingSwapProductPricer.DEFAULT.presentValue(swap, provider));
+  }
+
+  private static void assertFra(ResolvedFra fra) {
+    CashFlowGrid test = CashFlowGrid.find(fra).get();
+    assertMatches(test, provider -> MultiCurrencyAmount.of(
+        DiscountingFraProductPricer.DEFAULT.presentValue(fra, provider)));
+  }
+
+  private static void assertMatches(CashFlowGrid test, Function<RatesProvider, MultiCurrencyAmount> pricer) {
+    MultiCurrencyAmountArray values = test.presentValue(PROVIDERS.size(), PROVIDERS::get);
+    assertThat(values.size()).isEqualTo(PROVIDERS.size());
+    for (int i = 0; i < PROVIDERS.size(); i++) {
+      MultiCurrencyAmount expected = pricer.apply(PROVIDERS.get(i));
+      for (Currency currency : test.getCurrencies()) {
+        assertThat(values.getValues(currency).get(i))
+            .isCloseTo(expected.getAmount(currency).getAmount(), offset(TOLERANCE));
+      }
+    }
+  }
+
+  private static ImmutableRatesProvider shifted(ImmutableRatesProvider provider, double shift) {
+    LocalDate valuationDate = provider.getValuationDate();
+    return ImmutableRatesProvider.builder(valuationDate)
+        .fxRateProvider(provider.getFxRateProvider())
+        .discountCurves(MapStream.of(provider.getDiscountCurves())
+            .mapValues(curve -> curve.withPerturbation((i, value, meta) -> value + shift))
+            .toMap())
+        .indexCurves(MapStream.of(provider.getIndexCurves())
+            .mapValues(curve -> curve.withPerturbation((i, value, meta) -> value + shift))
+            .toMap())
+        .build();
+  }
+
+}